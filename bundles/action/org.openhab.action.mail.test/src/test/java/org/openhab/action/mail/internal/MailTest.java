@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.action.mail.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.net.outbox.OutboxMessage;
+import org.openhab.io.net.outbox.OutboxSender.Result;
+
+/**
+ * Tests of {@link Mail} and its {@link MailTransport} against an {@link SmtpStandIn}.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class MailTest {
+
+    private static final String TO = "you@localhost";
+
+    private SmtpStandIn server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new SmtpStandIn();
+        Mail.hostname = "127.0.0.1";
+        Mail.port = server.getPort();
+        Mail.from = "openhab@localhost";
+        Mail.username = null;
+        Mail.password = null;
+        Mail.transport.setIdleTimeout(MailTransport.DEFAULT_IDLE_TIMEOUT);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Mail.transport.close();
+        server.close();
+    }
+
+    @Test
+    public void testReusesConnection() {
+        assertEquals(Result.SENT, Mail.send(mail("first")));
+        assertEquals(Result.SENT, Mail.send(mail("second")));
+
+        assertEquals(1, server.getConnections());
+        assertEquals(2, server.getMails().size());
+        assertTrue(server.getMails().get(1).contains("Subject: second"));
+    }
+
+    @Test
+    public void testClosesIdleConnection() throws InterruptedException {
+        Mail.transport.setIdleTimeout(200);
+        assertEquals(Result.SENT, Mail.send(mail("first")));
+        assertEquals(Result.SENT, Mail.send(mail("second")));
+        assertEquals(0, server.getClosedConnections());
+
+        waitForClosedConnections(1);
+        assertEquals(Result.SENT, Mail.send(mail("third")));
+        assertEquals(2, server.getConnections());
+    }
+
+    @Test
+    public void testClosesAfterEachMailWithoutIdleTimeout() throws InterruptedException {
+        Mail.transport.setIdleTimeout(0);
+        assertEquals(Result.SENT, Mail.send(mail("first")));
+        waitForClosedConnections(1);
+        assertEquals(Result.SENT, Mail.send(mail("second")));
+
+        assertEquals(2, server.getConnections());
+    }
+
+    @Test
+    public void testRejectedRecipientIsNotRetried() {
+        assertEquals(Result.FAILED,
+                Mail.send(Mail.createMail(SmtpStandIn.REJECTED_RECIPIENT, "rejected", "text", null)));
+        assertEquals(Result.SENT, Mail.send(mail("accepted")));
+
+        // the connection is kept after a refused mail
+        assertEquals(1, server.getConnections());
+        assertEquals(1, server.getMails().size());
+    }
+
+    @Test
+    public void testRejectedLoginIsNotRetried() {
+        server.setRejectLogin(true);
+        Mail.username = "user";
+        Mail.password = "wrong";
+
+        assertEquals(Result.FAILED, Mail.send(mail("login")));
+        assertTrue(server.getMails().isEmpty());
+    }
+
+    @Test
+    public void testUnreachableServerIsRetried() throws IOException {
+        ServerSocket socket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+        Mail.port = socket.getLocalPort();
+        socket.close();
+
+        assertEquals(Result.RETRY, Mail.send(mail("unreachable")));
+    }
+
+    @Test
+    public void testSkipsUnavailableAttachments() throws IOException {
+        File attachment = File.createTempFile("snapshot", ".txt");
+        try {
+            OutputStream out = new FileOutputStream(attachment);
+            out.write("attached content".getBytes("US-ASCII"));
+            out.close();
+            List<String> attachmentUrlList = Arrays.asList(attachment.toURI().toString(),
+                    new File(attachment.getParentFile(), "missing-" + attachment.getName()).toURI().toString(),
+                    "no url");
+
+            assertEquals(Result.SENT, Mail.send(Mail.createMail(TO, "attachments", "text", attachmentUrlList)));
+
+            String mail = server.getMails().get(0);
+            assertTrue(mail.contains(attachment.getName()));
+            assertFalse(mail.contains("missing-"));
+        } finally {
+            attachment.delete();
+        }
+    }
+
+    @Test
+    public void testMailsWithAttachmentsAreNotMerged() {
+        assertTrue(mail("text only").isMergeable());
+        assertTrue(Mail.createMail(TO, "subject", "text", Arrays.<String> asList()).isMergeable());
+        assertFalse(Mail.createMail(TO, "subject", "text", Arrays.asList("http://camera/snapshot.jpg"))
+                .isMergeable());
+    }
+
+    private void waitForClosedConnections(int closed) throws InterruptedException {
+        for (int i = 0; i < 100 && server.getClosedConnections() < closed; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(closed, server.getClosedConnections());
+    }
+
+    private static OutboxMessage mail(String subject) {
+        return Mail.createMail(TO, subject, "text", null);
+    }
+
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.action.mail.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A minimal SMTP server on localhost which accepts every mail, except those to rejected recipients, and records the
+ * connections and the received mails.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class SmtpStandIn implements Runnable {
+
+    public static final String REJECTED_RECIPIENT = "rejected@localhost";
+
+    private final ServerSocket serverSocket;
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final AtomicInteger closedConnections = new AtomicInteger();
+
+    private final List<String> mails = new CopyOnWriteArrayList<String>();
+
+    private volatile boolean rejectLogin = false;
+
+    public SmtpStandIn() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+        Thread thread = new Thread(this, "SMTP stand-in");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return the number of connections opened by clients
+     */
+    public int getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * @return the number of connections closed by clients
+     */
+    public int getClosedConnections() {
+        return closedConnections.get();
+    }
+
+    /**
+     * @return the data of the received mails
+     */
+    public List<String> getMails() {
+        return mails;
+    }
+
+    /**
+     * Advertises authentication and refuses every login.
+     */
+    public void setRejectLogin(boolean rejectLogin) {
+        this.rejectLogin = rejectLogin;
+    }
+
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    @Override
+    public void run() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                Thread session = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        serve(socket);
+                    }
+                }, "SMTP stand-in session");
+                session.setDaemon(true);
+                session.start();
+            } catch (IOException e) {
+                // closed
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "US-ASCII"));
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), "US-ASCII");
+            reply(out, "220 localhost SMTP stand-in");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO")) {
+                    reply(out, rejectLogin ? "250-localhost\r\n250 AUTH LOGIN PLAIN" : "250 localhost");
+                } else if (command.startsWith("AUTH")) {
+                    reply(out, "535 authentication failed");
+                } else if (command.startsWith("RCPT TO")) {
+                    reply(out, line.contains(REJECTED_RECIPIENT) ? "550 unknown recipient" : "250 ok");
+                } else if (command.startsWith("DATA")) {
+                    reply(out, "354 go ahead");
+                    StringBuilder data = new StringBuilder();
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        data.append(line).append("\n");
+                    }
+                    mails.add(data.toString());
+                    reply(out, "250 queued");
+                } else if (command.startsWith("QUIT")) {
+                    reply(out, "221 bye");
+                    break;
+                } else {
+                    reply(out, "250 ok");
+                }
+            }
+        } catch (IOException e) {
+            // connection aborted
+        } finally {
+            closedConnections.incrementAndGet();
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private void reply(Writer out, String reply) throws IOException {
+        out.write(reply + "\r\n");
+        out.flush();
+    }
+
+}
@@ -10,10 +10,26 @@ package org.openhab.action.mail.internal;
 
 import static org.apache.commons.lang.StringUtils.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.net.URLConnection;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.activation.DataSource;
+import javax.mail.AuthenticationFailedException;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.util.ByteArrayDataSource;
 
 import org.apache.commons.mail.DefaultAuthenticator;
 import org.apache.commons.mail.Email;
@@ -23,12 +39,17 @@ import org.apache.commons.mail.MultiPartEmail;
 import org.apache.commons.mail.SimpleEmail;
 import org.openhab.core.scriptengine.action.ActionDoc;
 import org.openhab.core.scriptengine.action.ParamDoc;
+import org.openhab.io.net.outbox.Outbox;
+import org.openhab.io.net.outbox.OutboxMessage;
+import org.openhab.io.net.outbox.OutboxSender;
+import org.openhab.io.net.outbox.OutboxSender.Result;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * This class provides static methods that can be used in automation rules
- * for sending emails via SMTP.
+ * for sending emails via SMTP. The emails are handed to an {@link Outbox} and
+ * sent over a {@link MailTransport}, which keeps the SMTP connection open.
  *
  * @author Kai Kreuzer
  * @author John Cocula
@@ -51,6 +72,31 @@ public class Mail {
     static boolean popBeforeSmtp = false;
     static String charset;
 
+    static final MailTransport transport = new MailTransport();
+
+    static final Outbox outbox = new Outbox("mail", new OutboxSender() {
+        @Override
+        public Result send(OutboxMessage message) {
+            return Mail.send(message);
+        }
+    }, 0, 1000);
+
+    static {
+        // identical mails like a report sent twice are expected, so they are not merged unless configured
+        outbox.setDefaultMergeWindow(0);
+    }
+
+    private static final String FIELD_TO = "to";
+    private static final String FIELD_SUBJECT = "subject";
+    private static final String FIELD_MESSAGE = "message";
+    private static final String FIELD_ATTACHMENT_URL = "attachmentUrl.";
+
+    private static final int ATTACHMENT_THREADS = 4;
+    private static final int ATTACHMENT_TIMEOUT = 30000;
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private static ExecutorService attachmentExecutor;
+
     /**
      * Sends an email via SMTP
      *
@@ -58,8 +104,8 @@ public class Mail {
      * @param subject the subject of the email
      * @param message the body of the email
      *
-     * @return <code>true</code>, if sending the email has been successful and
-     *         <code>false</code> in all other cases.
+     * @return <code>true</code>, if the email has been queued or, with a disabled
+     *         outbox, sent successfully and <code>false</code> in all other cases.
      */
     @ActionDoc(text = "Sends an email via SMTP")
     static public boolean sendMail(@ParamDoc(name = "to") String to, @ParamDoc(name = "subject") String subject,
@@ -75,8 +121,8 @@ public class Mail {
      * @param message the body of the email
      * @param attachmentUrl a URL string of the content to send as an attachment
      *
-     * @return <code>true</code>, if sending the email has been successful and
-     *         <code>false</code> in all other cases.
+     * @return <code>true</code>, if the email has been queued or, with a disabled
+     *         outbox, sent successfully and <code>false</code> in all other cases.
      */
     @ActionDoc(text = "Sends an email with attachment via SMTP")
     static public boolean sendMail(@ParamDoc(name = "to") String to, @ParamDoc(name = "subject") String subject,
@@ -97,8 +143,8 @@ public class Mail {
      * @param message the body of the email
      * @param attachmentUrlList a list of URL strings of the contents to send as attachments
      *
-     * @return <code>true</code>, if sending the email has been successful and
-     *         <code>false</code> in all other cases.
+     * @return <code>true</code>, if the email has been queued or, with a disabled
+     *         outbox, sent successfully and <code>false</code> in all other cases.
      */
     @ActionDoc(text = "Sends an email with attachment via SMTP")
     static public boolean sendMail(@ParamDoc(name = "to") String to, @ParamDoc(name = "subject") String subject,
@@ -106,67 +152,172 @@ public class Mail {
             @ParamDoc(name = "attachmentUrlList") List<String> attachmentUrlList) {
         boolean success = false;
         if (MailActionService.isProperlyConfigured) {
-            Email email = new SimpleEmail();
-            if (attachmentUrlList != null && !attachmentUrlList.isEmpty()) {
-                email = new MultiPartEmail();
-                for (String attachmentUrl : attachmentUrlList) {
-                    // Create the attachment
-                    try {
-                        EmailAttachment attachment = new EmailAttachment();
-                        attachment.setURL(new URL(attachmentUrl));
-                        attachment.setDisposition(EmailAttachment.ATTACHMENT);
-                        String fileName = attachmentUrl.replaceFirst(".*/([^/?]+).*", "$1");
-                        attachment.setName(isNotBlank(fileName) ? fileName : "Attachment");
-                        ((MultiPartEmail) email).attach(attachment);
-                    } catch (MalformedURLException e) {
-                        logger.error("Invalid attachment url.", e);
-                    } catch (EmailException e) {
-                        logger.error("Error adding attachment to email.", e);
-                    }
-                }
+            OutboxMessage mail = createMail(to, subject, message, attachmentUrlList);
+            if (outbox.isEnabled()) {
+                success = outbox.enqueue(mail);
+            } else {
+                success = send(mail) == Result.SENT;
             }
+        } else {
+            logger.error(
+                    "Cannot send e-mail because of missing configuration settings. The current settings are: "
+                            + "Host: '{}', port '{}', from '{}', startTLSEnabled: {}, sslOnConnect: {}, username: '{}'",
+                    hostname, port, from, startTLSEnabled, sslOnConnect, username);
+        }
 
-            email.setHostName(hostname);
-            email.setSmtpPort(port);
-            email.setStartTLSEnabled(startTLSEnabled);
-            email.setSSLOnConnect(sslOnConnect);
+        return success;
+    }
 
-            if (isNotBlank(username)) {
-                if (popBeforeSmtp) {
-                    email.setPopBeforeSmtp(true, hostname, username, password);
-                } else {
-                    email.setAuthenticator(new DefaultAuthenticator(username, password));
+    /* default */ static OutboxMessage createMail(String to, String subject, String message,
+            List<String> attachmentUrlList) {
+        OutboxMessage mail = new OutboxMessage().with(FIELD_TO, to).with(FIELD_SUBJECT, subject).with(FIELD_MESSAGE,
+                message);
+        if (attachmentUrlList != null) {
+            int index = 0;
+            for (String attachmentUrl : attachmentUrlList) {
+                if (attachmentUrl != null) {
+                    mail.with(FIELD_ATTACHMENT_URL + index++, attachmentUrl);
                 }
             }
+            if (index > 0) {
+                // the attachments are downloaded when the mail is sent and may have changed by then
+                mail.withoutMerging();
+            }
+        }
+        return mail;
+    }
 
-            try {
-                if (isNotBlank(charset)) {
-                    email.setCharset(charset);
-                }
-                email.setFrom(from);
-                String[] toList = to.split(";");
-                for (String toAddress : toList) {
-                    email.addTo(toAddress);
+    /* default */ static Result send(OutboxMessage mail) {
+        String to = mail.getField(FIELD_TO);
+        String subject = mail.getField(FIELD_SUBJECT);
+        String message = mail.getField(FIELD_MESSAGE);
+
+        List<String> attachmentUrlList = new ArrayList<String>();
+        for (int index = 0; mail.getField(FIELD_ATTACHMENT_URL + index) != null; index++) {
+            attachmentUrlList.add(mail.getField(FIELD_ATTACHMENT_URL + index));
+        }
+
+        Email email = new SimpleEmail();
+        if (!attachmentUrlList.isEmpty()) {
+            email = new MultiPartEmail();
+            for (DataSource attachment : fetchAttachments(attachmentUrlList)) {
+                try {
+                    ((MultiPartEmail) email).attach(attachment, attachment.getName(), null, EmailAttachment.ATTACHMENT);
+                } catch (EmailException e) {
+                    logger.error("Error adding attachment to email.", e);
                 }
-                if (!isEmpty(subject)) {
-                    email.setSubject(subject);
+            }
+        }
+
+        email.setHostName(hostname);
+        email.setSmtpPort(port);
+        email.setStartTLSEnabled(startTLSEnabled);
+        email.setSSLOnConnect(sslOnConnect);
+
+        if (isNotBlank(username)) {
+            if (popBeforeSmtp) {
+                email.setPopBeforeSmtp(true, hostname, username, password);
+            } else {
+                email.setAuthenticator(new DefaultAuthenticator(username, password));
+            }
+        }
+
+        try {
+            if (isNotBlank(charset)) {
+                email.setCharset(charset);
+            }
+            email.setFrom(from);
+            String[] toList = to.split(";");
+            for (String toAddress : toList) {
+                email.addTo(toAddress);
+            }
+            if (!isEmpty(subject)) {
+                email.setSubject(subject);
+            }
+            if (!isEmpty(message)) {
+                email.setMsg(message);
+            }
+            transport.send(email);
+            logger.debug("Sent email to '{}' with subject '{}'.", to, subject);
+            return Result.SENT;
+        } catch (EmailException e) {
+            logger.error("Could not send e-mail to '" + to + "'.", e);
+            return Result.FAILED;
+        } catch (SendFailedException e) {
+            logger.error("Could not send e-mail to '" + to + "'.", e);
+            return Result.FAILED;
+        } catch (AuthenticationFailedException e) {
+            logger.error("Could not send e-mail to '" + to + "', the SMTP server rejected the login.", e);
+            return Result.FAILED;
+        } catch (MessagingException e) {
+            logger.warn("Could not send e-mail to '{}', trying again later: {}", to, e.getMessage());
+            return Result.RETRY;
+        }
+    }
+
+    /**
+     * Downloads the attachments in parallel, attachments which cannot be downloaded are left out.
+     */
+    private static List<DataSource> fetchAttachments(List<String> attachmentUrlList) {
+        List<Future<DataSource>> futures = new ArrayList<Future<DataSource>>();
+        for (final String attachmentUrl : attachmentUrlList) {
+            futures.add(getAttachmentExecutor().submit(new Callable<DataSource>() {
+                @Override
+                public DataSource call() throws IOException {
+                    return fetchAttachment(attachmentUrl);
                 }
-                if (!isEmpty(message)) {
-                    email.setMsg(message);
+            }));
+        }
+
+        List<DataSource> attachments = new ArrayList<DataSource>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                attachments.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof MalformedURLException) {
+                    logger.error("Invalid attachment url.", e.getCause());
+                } else {
+                    logger.warn("Could not download the attachment '{}', sending the e-mail without it: {}",
+                            attachmentUrlList.get(i), e.getCause().getMessage());
                 }
-                email.send();
-                logger.debug("Sent email to '{}' with subject '{}'.", to, subject);
-                success = true;
-            } catch (EmailException e) {
-                logger.error("Could not send e-mail to '" + to + "'.", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             }
-        } else {
-            logger.error(
-                    "Cannot send e-mail because of missing configuration settings. The current settings are: "
-                            + "Host: '{}', port '{}', from '{}', startTLSEnabled: {}, sslOnConnect: {}, username: '{}'",
-                    hostname, port, from, startTLSEnabled, sslOnConnect, username);
         }
+        return attachments;
+    }
 
-        return success;
+    private static DataSource fetchAttachment(String attachmentUrl) throws IOException {
+        URLConnection connection = new URL(attachmentUrl).openConnection();
+        connection.setConnectTimeout(ATTACHMENT_TIMEOUT);
+        connection.setReadTimeout(ATTACHMENT_TIMEOUT);
+        String contentType = connection.getContentType();
+        InputStream in = connection.getInputStream();
+        try {
+            String fileName = attachmentUrl.replaceFirst(".*/([^/?]+).*", "$1");
+            ByteArrayDataSource dataSource = new ByteArrayDataSource(in,
+                    isNotBlank(contentType) ? contentType : DEFAULT_CONTENT_TYPE);
+            dataSource.setName(isNotBlank(fileName) ? fileName : "Attachment");
+            return dataSource;
+        } finally {
+            in.close();
+        }
+    }
+
+    private static synchronized ExecutorService getAttachmentExecutor() {
+        if (attachmentExecutor == null) {
+            attachmentExecutor = Executors.newFixedThreadPool(ATTACHMENT_THREADS, new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "openHAB-mail-attachment-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return attachmentExecutor;
     }
 }
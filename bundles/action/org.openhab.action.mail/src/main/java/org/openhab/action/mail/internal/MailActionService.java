@@ -37,8 +37,8 @@ public class MailActionService implements ActionService, ManagedService {
     }
 
     public void deactivate() {
-        // deallocate Resources here that are no longer needed and
-        // should be reset when activating this binding again
+        Mail.outbox.stop();
+        Mail.transport.close();
     }
 
     @Override
@@ -81,6 +81,21 @@ public class MailActionService implements ActionService, ManagedService {
 
             Mail.charset = (String) config.get("charset");
 
+            String idleTimeoutString = (String) config.get("idletimeout");
+            if (StringUtils.isNotBlank(idleTimeoutString)) {
+                try {
+                    Mail.transport.setIdleTimeout(Long.parseLong(idleTimeoutString.trim()) * 1000);
+                } catch (NumberFormatException e) {
+                    throw new ConfigurationException("idletimeout",
+                            "Parameter mail:idletimeout must be a number of seconds, but is '" + idleTimeoutString
+                                    + "'");
+                }
+            } else {
+                Mail.transport.setIdleTimeout(MailTransport.DEFAULT_IDLE_TIMEOUT);
+            }
+            // the next mail connects with the new settings
+            Mail.transport.close();
+
             // check mandatory settings
             if (StringUtils.isBlank(Mail.hostname) || StringUtils.isBlank(Mail.from)) {
                 throw new ConfigurationException("mail",
@@ -92,6 +107,8 @@ public class MailActionService implements ActionService, ManagedService {
                 Mail.port = (Mail.startTLSEnabled || Mail.sslOnConnect) ? 587 : 25;
             }
 
+            Mail.outbox.configure(config);
+            Mail.outbox.start();
             isProperlyConfigured = true;
         }
     }
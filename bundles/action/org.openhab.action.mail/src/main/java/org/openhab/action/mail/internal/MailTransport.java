@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.action.mail.internal;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+
+import org.apache.commons.mail.Email;
+import org.apache.commons.mail.EmailException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the SMTP connection open between mails, so a series of mails is sent with a single connect, TLS handshake
+ * and login. The connection is closed once it has been idle for the configured time.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class MailTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailTransport.class);
+
+    public static final long DEFAULT_IDLE_TIMEOUT = 60000;
+
+    private long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+    private Session session;
+
+    private Transport transport;
+
+    private ScheduledExecutorService scheduler;
+
+    private ScheduledFuture<?> idleClose;
+
+    private final Runnable closeTask = new Runnable() {
+        @Override
+        public void run() {
+            closeIfIdle();
+        }
+    };
+
+    /**
+     * @param idleTimeout
+     *            the time in milliseconds after which an unused connection is closed, 0 to close it after each mail
+     */
+    public synchronized void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Sends the given mail over the open connection, connecting first if there is none. The mail must be configured
+     * with the SMTP settings, they are only used to open the first connection though.
+     *
+     * @param email
+     *            the mail to send
+     * @throws EmailException
+     *             if the mail cannot be built
+     * @throws SendFailedException
+     *             if the server rejects the mail or its recipients
+     * @throws MessagingException
+     *             if the connection to the server fails, it is closed then
+     */
+    public synchronized void send(Email email) throws EmailException, MessagingException {
+        if (session == null) {
+            session = email.getMailSession();
+        } else {
+            email.setMailSession(session);
+        }
+        email.buildMimeMessage();
+        MimeMessage message = email.getMimeMessage();
+        message.saveChanges();
+
+        try {
+            connect().sendMessage(message, message.getAllRecipients());
+        } catch (SendFailedException e) {
+            // the connection is still fine, only the mail was refused
+            throw e;
+        } catch (MessagingException e) {
+            close();
+            throw e;
+        } finally {
+            scheduleClose();
+        }
+    }
+
+    /**
+     * Closes the connection and forgets the mail session, so the next mail is sent with the current settings.
+     */
+    public synchronized void close() {
+        if (idleClose != null) {
+            idleClose.cancel(false);
+            idleClose = null;
+        }
+        closeTransport();
+        session = null;
+    }
+
+    private Transport connect() throws MessagingException {
+        if (transport != null && transport.isConnected()) {
+            return transport;
+        }
+        if (transport == null) {
+            transport = session.getTransport();
+        }
+        transport.connect();
+        logger.debug("Connected to the SMTP server.");
+        return transport;
+    }
+
+    private void scheduleClose() {
+        if (idleClose != null) {
+            idleClose.cancel(false);
+            idleClose = null;
+        }
+        if (transport == null) {
+            return;
+        }
+        if (idleTimeout <= 0) {
+            closeTransport();
+            return;
+        }
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "openHAB-mail-idle-connection");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        idleClose = scheduler.schedule(closeTask, idleTimeout, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void closeIfIdle() {
+        if (idleClose != null && idleClose.getDelay(TimeUnit.MILLISECONDS) <= 0) {
+            idleClose = null;
+            closeTransport();
+        }
+    }
+
+    private void closeTransport() {
+        if (transport != null) {
+            try {
+                transport.close();
+                logger.debug("Closed the connection to the SMTP server.");
+            } catch (MessagingException e) {
+                logger.debug("Error while closing the connection to the SMTP server: {}", e.getMessage());
+            }
+            transport = null;
+        }
+    }
+
+}
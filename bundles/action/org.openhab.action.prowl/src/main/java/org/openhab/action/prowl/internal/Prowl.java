@@ -11,6 +11,10 @@ package org.openhab.action.prowl.internal;
 import org.apache.commons.lang.StringUtils;
 import org.openhab.core.scriptengine.action.ActionDoc;
 import org.openhab.core.scriptengine.action.ParamDoc;
+import org.openhab.io.net.outbox.Outbox;
+import org.openhab.io.net.outbox.OutboxMessage;
+import org.openhab.io.net.outbox.OutboxSender;
+import org.openhab.io.net.outbox.OutboxSender.Result;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,7 +25,8 @@ import net.sourceforge.prowl.exception.ProwlException;
 
 /**
  * This class provides static methods that can be used in automation rules
- * for pushing Prowl notifications.
+ * for pushing Prowl notifications. The notifications are handed to an
+ * {@link Outbox}, so the actions don't wait for Prowl.
  *
  * @author Thomas.Eichstaedt-Engelen
  * @since 0.6.0
@@ -34,6 +39,19 @@ public class Prowl {
     static String apiKey = null;
     static int priority = 0;
 
+    private static final String FIELD_API_KEY = "apiKey";
+    private static final String FIELD_SUBJECT = "subject";
+    private static final String FIELD_MESSAGE = "message";
+    private static final String FIELD_PRIORITY = "priority";
+
+    /** Prowl accepts 1000 calls per hour from an IP address */
+    static final Outbox outbox = new Outbox("prowl", new OutboxSender() {
+        @Override
+        public Result send(OutboxMessage message) {
+            return push(message);
+        }
+    }, 1000, 60 * 60 * 1000);
+
     /**
      * Pushes a Prowl notification with the configured api
      * key and takes the default priority into account
@@ -101,21 +119,17 @@ public class Prowl {
         }
 
         if (ProwlActionService.isProperlyConfigured) {
-            ProwlClient client = new ProwlClient();
-            if (StringUtils.isNotBlank(Prowl.url)) {
-                client.setProwlUrl(Prowl.url);
+            OutboxMessage notification = new OutboxMessage().with(FIELD_SUBJECT, subject).with(FIELD_MESSAGE, message)
+                    .with(FIELD_PRIORITY, String.valueOf(normalizedPriority));
+            // the configured api key is looked up when the notification is sent, so it is not written to disk
+            if (apiKey != null && !apiKey.equals(Prowl.apiKey)) {
+                notification.withSecret(FIELD_API_KEY, apiKey);
             }
-
-            ProwlEvent event = new DefaultProwlEvent(apiKey, "openhab", subject, message, normalizedPriority);
-
-            try {
-                String returnMessage = client.pushEvent(event);
-                logger.info(returnMessage);
-                success = true;
-            } catch (ProwlException pe) {
-                logger.error("pushing prowl event throws exception", pe);
+            if (outbox.isEnabled()) {
+                success = outbox.enqueue(notification);
+            } else {
+                success = push(notification) == Result.SENT;
             }
-
         } else {
             logger.error(
                     "Cannot push Prowl notification because of missing configuration settings. The current settings are: "
@@ -126,4 +140,32 @@ public class Prowl {
         return success;
     }
 
+    private static Result push(OutboxMessage notification) {
+        ProwlClient client = new ProwlClient();
+        if (StringUtils.isNotBlank(Prowl.url)) {
+            client.setProwlUrl(Prowl.url);
+        }
+
+        String apiKey = notification.getField(FIELD_API_KEY);
+        ProwlEvent event = new DefaultProwlEvent(apiKey != null ? apiKey : Prowl.apiKey, "openhab",
+                notification.getField(FIELD_SUBJECT), notification.getField(FIELD_MESSAGE),
+                notification.getIntField(FIELD_PRIORITY, Prowl.priority));
+
+        try {
+            String returnMessage = client.pushEvent(event);
+            logger.info(returnMessage);
+            return Result.SENT;
+        } catch (ProwlException pe) {
+            // 406 means the hourly limit is exceeded, a code below 100 that Prowl was not reachable
+            int responseCode = pe.getResponseCode();
+            if (responseCode == 406 || responseCode >= 500 || responseCode < 100) {
+                logger.warn("pushing prowl event failed with code {}, trying again later: {}", responseCode,
+                        pe.getMessage());
+                return Result.RETRY;
+            }
+            logger.error("pushing prowl event throws exception", pe);
+            return Result.FAILED;
+        }
+    }
+
 }
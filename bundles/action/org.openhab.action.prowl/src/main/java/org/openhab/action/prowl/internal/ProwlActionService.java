@@ -37,8 +37,7 @@ public class ProwlActionService implements ActionService, ManagedService {
     }
 
     public void deactivate() {
-        // deallocate Resources here that are no longer needed and
-        // should be reset when activating this binding again
+        Prowl.outbox.stop();
     }
 
     @Override
@@ -68,6 +67,8 @@ public class ProwlActionService implements ActionService, ManagedService {
                 Prowl.priority = Integer.valueOf(priorityString);
             }
 
+            Prowl.outbox.configure(config);
+            Prowl.outbox.start();
             isProperlyConfigured = true;
         }
     }
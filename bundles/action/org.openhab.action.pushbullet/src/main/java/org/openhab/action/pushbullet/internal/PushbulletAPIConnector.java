@@ -10,32 +10,41 @@ package org.openhab.action.pushbullet.internal;
 
 import static org.openhab.action.pushbullet.internal.PushbulletConstants.*;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.util.Date;
 import java.util.Map;
-import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.mail.internet.AddressException;
 import javax.mail.internet.InternetAddress;
 
+import org.apache.commons.httpclient.Header;
+import org.apache.commons.httpclient.HttpStatus;
+import org.apache.commons.httpclient.methods.PostMethod;
+import org.apache.commons.httpclient.methods.StringRequestEntity;
+import org.apache.commons.io.IOUtils;
 import org.openhab.action.pushbullet.internal.model.Push;
 import org.openhab.action.pushbullet.internal.model.PushResponse;
 import org.openhab.core.scriptengine.action.ActionDoc;
 import org.openhab.core.scriptengine.action.ParamDoc;
 import org.openhab.io.net.http.HttpUtil;
+import org.openhab.io.net.outbox.Outbox;
+import org.openhab.io.net.outbox.OutboxMessage;
+import org.openhab.io.net.outbox.OutboxSender;
+import org.openhab.io.net.outbox.OutboxSender.Result;
 import org.osgi.framework.FrameworkUtil;
 import org.osgi.framework.Version;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
 
 /**
  * This class contains the methods that are made available in scripts and rules
  * for sending messages via the PushbulletAPIConnector mobile device push service..
+ * The pushes are handed to an {@link Outbox}, which keeps to the rate limit
+ * reported by the API.
  *
  * @author Hakan Tandogan
  * @since 1.11.0
@@ -48,12 +57,27 @@ public class PushbulletAPIConnector {
 
     private static final Gson gson = new Gson();
 
-    private static final Map<String, PushbulletBot> bots = new HashMap<String, PushbulletBot>();
-
-    private static final String METHOD = "POST";
+    private static final Map<String, PushbulletBot> bots = new ConcurrentHashMap<String, PushbulletBot>();
 
     private static final String CONTENT_TYPE = "application/json";
 
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private static final String HEADER_RATELIMIT_REMAINING = "X-Ratelimit-Remaining";
+
+    private static final String HEADER_RATELIMIT_RESET = "X-Ratelimit-Reset";
+
+    private static final String FIELD_BOT = "bot";
+
+    private static final String FIELD_REQUEST = "request";
+
+    static final Outbox outbox = new Outbox("pushbullet", new OutboxSender() {
+        @Override
+        public Result send(OutboxMessage message) {
+            return post(message);
+        }
+    }, 2, 1000);
+
     public static void addBot(String botName, String accessToken) {
         PushbulletBot bot = new PushbulletBot(botName, accessToken);
         bots.put(botName, bot);
@@ -117,7 +141,6 @@ public class PushbulletAPIConnector {
      * @return
      */
     private static boolean sendPush(String botName, String recipient, String title, String body, String type) {
-        boolean result = false;
         logger.trace("    Botname is   '{}'", botName);
 
         PushbulletBot bot = bots.get(botName);
@@ -155,30 +178,81 @@ public class PushbulletAPIConnector {
         String request = gson.toJson(push);
         logger.trace("    Packed Request: {}", request);
 
-        try (InputStream stream = new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8))) {
+        OutboxMessage message = new OutboxMessage().with(FIELD_BOT, botName).with(FIELD_REQUEST, request);
+        if (outbox.isEnabled()) {
+            return outbox.enqueue(message);
+        } else {
+            return post(message) == Result.SENT;
+        }
+    }
 
-            Properties headers = new Properties();
-            headers.put("User-Agent", "openHAB / pushbullet action " + VERSION.toString());
-            headers.put("Access-Token", bot.getToken());
+    /**
+     * Inner method posting a push to the API.
+     *
+     * @param message
+     * @return
+     */
+    private static Result post(OutboxMessage message) {
+        PushbulletBot bot = bots.get(message.getField(FIELD_BOT));
+        if (bot == null) {
+            logger.warn("Unconfigured pushbullet bot, please check configuration");
+            return Result.FAILED;
+        }
 
-            String responseString = HttpUtil.executeUrl(METHOD, API_URL_PUSHES, headers, stream, CONTENT_TYPE, TIMEOUT);
+        PostMethod method = new PostMethod(API_URL_PUSHES);
+        method.getParams().setSoTimeout(TIMEOUT);
+        method.addRequestHeader("User-Agent", "openHAB / pushbullet action " + VERSION.toString());
+        method.addRequestHeader("Access-Token", bot.getToken());
+        try {
+            method.setRequestEntity(new StringRequestEntity(message.getField(FIELD_REQUEST), CONTENT_TYPE, "UTF-8"));
 
+            int statusCode = HttpUtil.executeMethod(Outbox.getHttpClient(), method);
+            checkRateLimit(method);
+            String responseString = IOUtils.toString(method.getResponseBodyAsStream(), "UTF-8");
             logger.trace("    Got Response: {}", responseString);
+
+            if (statusCode == HTTP_TOO_MANY_REQUESTS || statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR) {
+                logger.warn("Pushing note failed, trying again later: {}", method.getStatusLine());
+                return Result.RETRY;
+            }
+
             PushResponse response = gson.fromJson(responseString, PushResponse.class);
 
             logger.trace("    Unpacked Response: {}", response);
 
-            stream.close();
-
             if ((null != response) && (null == response.getPushError())) {
-                result = true;
+                return Result.SENT;
             }
+            logger.warn("Pushing note failed: {}", method.getStatusLine());
         } catch (IOException e) {
-            logger.warn("IO problems pushing note: {}", e.getMessage());
+            logger.warn("IO problems pushing note, trying again later: {}", e.getMessage());
+            return Result.RETRY;
+        } catch (JsonSyntaxException e) {
+            logger.warn("Invalid response pushing note: {}", e.getMessage());
+        } finally {
+            method.releaseConnection();
         }
 
-        return result;
+        return Result.FAILED;
+    }
 
+    /**
+     * Inner method pausing the outbox until the rate limit is reset, if it is used up.
+     *
+     * @param method
+     */
+    private static void checkRateLimit(PostMethod method) {
+        Header remaining = method.getResponseHeader(HEADER_RATELIMIT_REMAINING);
+        Header reset = method.getResponseHeader(HEADER_RATELIMIT_RESET);
+        if (remaining != null && reset != null && "0".equals(remaining.getValue().trim())) {
+            try {
+                long resetTime = Long.parseLong(reset.getValue().trim()) * 1000;
+                logger.warn("The pushbullet rate limit is reached until {}", new Date(resetTime));
+                outbox.pauseUntil(resetTime);
+            } catch (NumberFormatException e) {
+                logger.debug("Invalid {} header: {}", HEADER_RATELIMIT_RESET, reset.getValue());
+            }
+        }
     }
 
     /**
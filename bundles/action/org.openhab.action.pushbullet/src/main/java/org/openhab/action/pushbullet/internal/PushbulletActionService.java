@@ -48,6 +48,7 @@ public class PushbulletActionService implements ActionService, ManagedService {
     }
 
     public void deactivate() {
+        PushbulletAPIConnector.outbox.stop();
         logger.debug("PushbulletAPIConnector action service deactivated");
     }
 
@@ -87,6 +88,9 @@ public class PushbulletActionService implements ActionService, ManagedService {
 
             PushbulletAPIConnector.logPushbulletBots();
 
+            PushbulletAPIConnector.outbox.configure(config);
+            PushbulletAPIConnector.outbox.start();
+
             if (PushbulletAPIConnector.botCount() > 0) {
                 isProperlyConfigured = true;
             }
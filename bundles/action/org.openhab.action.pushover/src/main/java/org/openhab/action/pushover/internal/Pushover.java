@@ -12,9 +12,11 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
-import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.Header;
 import org.apache.commons.httpclient.HttpStatus;
 import org.apache.commons.httpclient.methods.PostMethod;
 import org.apache.commons.httpclient.methods.multipart.FilePart;
@@ -25,6 +27,10 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.openhab.core.scriptengine.action.ActionDoc;
 import org.openhab.core.scriptengine.action.ParamDoc;
+import org.openhab.io.net.http.HttpUtil;
+import org.openhab.io.net.outbox.Outbox;
+import org.openhab.io.net.outbox.OutboxMessage;
+import org.openhab.io.net.outbox.OutboxSender;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,7 +39,9 @@ import com.google.gson.JsonParser;
 
 /**
  * This class contains the methods that are made available in scripts and rules
- * for sending messages via the Pushover mobile device push service..
+ * for sending messages via the Pushover mobile device push service.. The messages
+ * are handed to an {@link Outbox}, only emergency-priority messages whose receipt
+ * is asked for are sent right away.
  *
  * @author Chris Graham - Initial contribution
  * @author Christoph Weitkamp - Added Receipts and Callback API for handling of emergency-priority notifications
@@ -63,6 +71,10 @@ public class Pushover {
     private static final int API_MIN_RETRY_SECONDS = 30;
     private static final int API_MAX_EXPIRE_SECONDS = 86400;
 
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final String HEADER_LIMIT_REMAINING = "X-Limit-App-Remaining";
+    private static final String HEADER_LIMIT_RESET = "X-Limit-App-Reset";
+
     public static final String MESSAGE_KEY_API_KEY = "token";
     public static final String MESSAGE_KEY_USER = "user";
     public static final String MESSAGE_KEY_MESSAGE = "message";
@@ -90,6 +102,23 @@ public class Pushover {
     static int emergencyPriority = 2;
     static String defaultSound;
 
+    /**
+     * Pushover asks not to send more than two messages at once, the monthly limit of the application is taken from the
+     * response headers.
+     */
+    static final Outbox outbox = new Outbox("pushover", new OutboxSender() {
+        @Override
+        public Result send(OutboxMessage message) {
+            try {
+                return post(message) != null ? Result.SENT : Result.FAILED;
+            } catch (IOException e) {
+                logger.warn("An error occurred while notifying your mobile device, trying again later: {}",
+                        e.getMessage());
+                return Result.RETRY;
+            }
+        }
+    }, 2, 1000);
+
     static int retry = 300;
     static int expire = 3600;
     static int timeout = 10000;
@@ -323,44 +352,43 @@ public class Pushover {
             @ParamDoc(name = "urlTitle", text = "A title for your supplementary URL, otherwise just the URL is shown.") String urlTitle,
             @ParamDoc(name = "priority", text = "Send as -1 to always send as a quiet notification, 1 to display as high-priority and bypass the user's quiet hours, or 2 to also require confirmation from the user.") int priority,
             @ParamDoc(name = "sound", text = "The name of one of the sounds supported by device clients to override the user's default sound choice.") String sound) {
-        return pushover0(apiKey, user, message, device, title, url, urlTitle, priority, sound, null, null) != null;
+        return pushover0(apiKey, user, message, device, title, url, urlTitle, priority, sound, null, null,
+                false) != null;
     }
 
     @ActionDoc(text = "Send a notification to your device. apiKey, user and message are required. All else can effectively be null.", returns = "a <code>receipt</code> (30 character string containing the character set [A-Za-z0-9]), if emergency, otherwise empty string or <code>null</code> in case of any error.")
     public static String sendPushoverMessage(
             @ParamDoc(name = "pushover", text = "The Pushover object containing all required parameters.") Pushover p) {
         return pushover0(p.apiKey, p.user, p.message, p.device, p.title, p.url, p.urlTitle, p.priority, p.sound,
-                p.attachment, p.contentType);
+                p.attachment, p.contentType, true);
     }
 
     // Primary method for sending a message to the Pushover API
     private static String pushover0(String apiKey, String user, String message, String device, String title, String url,
-            String urlTitle, int priority, String sound, String attachment, String contentType) {
+            String urlTitle, int priority, String sound, String attachment, String contentType,
+            boolean receiptRequired) {
 
-        List<Part> parts = new ArrayList<>();
+        OutboxMessage pushoverMessage = new OutboxMessage();
         try {
 
-            if (!StringUtils.isEmpty(apiKey)) {
-                parts.add(new StringPart(MESSAGE_KEY_API_KEY, apiKey, UTF_8_ENCODING));
-            } else if (!StringUtils.isEmpty(defaultApiKey)) {
-                parts.add(new StringPart(MESSAGE_KEY_API_KEY, defaultApiKey, UTF_8_ENCODING));
-            } else {
+            // the configured token and user are looked up when the message is sent, so they are not written to disk
+            if (!StringUtils.isEmpty(apiKey) && !apiKey.equals(defaultApiKey)) {
+                pushoverMessage.withSecret(MESSAGE_KEY_API_KEY, apiKey);
+            } else if (StringUtils.isEmpty(defaultApiKey)) {
                 logger.warn("Application API token not specified.");
                 return null;
             }
 
-            if (!StringUtils.isEmpty(user)) {
-                parts.add(new StringPart(MESSAGE_KEY_USER, user, UTF_8_ENCODING));
-            } else if (!StringUtils.isEmpty(defaultUser)) {
-                parts.add(new StringPart(MESSAGE_KEY_USER, defaultUser, UTF_8_ENCODING));
-            } else {
+            if (!StringUtils.isEmpty(user) && !user.equals(defaultUser)) {
+                pushoverMessage.withSecret(MESSAGE_KEY_USER, user);
+            } else if (StringUtils.isEmpty(defaultUser)) {
                 logger.warn("The user/group key was not specified.");
                 return null;
             }
 
             if (!StringUtils.isEmpty(message)) {
                 if ((message.length() + title.length()) <= API_MAX_MESSAGE_LENGTH) {
-                    parts.add(new StringPart(MESSAGE_KEY_MESSAGE, message, UTF_8_ENCODING));
+                    pushoverMessage.with(MESSAGE_KEY_MESSAGE, message);
                 } else {
                     logger.warn("Together, the event message and title total more than {} characters.",
                             API_MAX_MESSAGE_LENGTH);
@@ -372,27 +400,27 @@ public class Pushover {
             }
 
             if (!StringUtils.isEmpty(device)) {
-                parts.add(new StringPart(MESSAGE_KEY_DEVICE, device, UTF_8_ENCODING));
+                pushoverMessage.with(MESSAGE_KEY_DEVICE, device);
             } else if (!StringUtils.isEmpty(defaultDevice)) {
-                parts.add(new StringPart(MESSAGE_KEY_DEVICE, defaultDevice, UTF_8_ENCODING));
+                pushoverMessage.with(MESSAGE_KEY_DEVICE, defaultDevice);
             }
 
             if (!StringUtils.isEmpty(title)) {
-                parts.add(new StringPart(MESSAGE_KEY_TITLE, title, UTF_8_ENCODING));
+                pushoverMessage.with(MESSAGE_KEY_TITLE, title);
             } else if (!StringUtils.isEmpty(defaultTitle)) {
-                parts.add(new StringPart(MESSAGE_KEY_TITLE, defaultTitle, UTF_8_ENCODING));
+                pushoverMessage.with(MESSAGE_KEY_TITLE, defaultTitle);
             }
 
             if (!StringUtils.isEmpty(url)) {
                 if (url.length() <= API_MAX_URL_LENGTH) {
-                    parts.add(new StringPart(MESSAGE_KEY_URL, url, UTF_8_ENCODING));
+                    pushoverMessage.with(MESSAGE_KEY_URL, url);
                 } else {
                     logger.warn("The url is greater than {} characters.", API_MAX_URL_LENGTH);
                     return null;
                 }
             } else if (!StringUtils.isEmpty(defaultUrl)) {
                 if (defaultUrl.length() <= API_MAX_URL_LENGTH) {
-                    parts.add(new StringPart(MESSAGE_KEY_URL, defaultUrl, UTF_8_ENCODING));
+                    pushoverMessage.with(MESSAGE_KEY_URL, defaultUrl);
                 } else {
                     logger.warn("The url is greater than {} characters.", API_MAX_URL_LENGTH);
                     return null;
@@ -401,14 +429,14 @@ public class Pushover {
 
             if (!StringUtils.isEmpty(urlTitle)) {
                 if (urlTitle.length() <= API_MAX_URL_TITLE_LENGTH) {
-                    parts.add(new StringPart(MESSAGE_KEY_URL_TITLE, urlTitle, UTF_8_ENCODING));
+                    pushoverMessage.with(MESSAGE_KEY_URL_TITLE, urlTitle);
                 } else {
                     logger.warn("The url title is greater than {} characters.", API_MAX_URL_TITLE_LENGTH);
                     return null;
                 }
             } else if (!StringUtils.isEmpty(defaultUrlTitle)) {
                 if (defaultUrlTitle.length() <= API_MAX_URL_TITLE_LENGTH) {
-                    parts.add(new StringPart(MESSAGE_KEY_URL_TITLE, defaultUrlTitle, UTF_8_ENCODING));
+                    pushoverMessage.with(MESSAGE_KEY_URL_TITLE, defaultUrlTitle);
                 } else {
                     logger.warn("The url title is greater than {} characters.", API_MAX_URL_TITLE_LENGTH);
                     return null;
@@ -417,25 +445,23 @@ public class Pushover {
 
             try {
                 if (isValueInList(API_VALID_PRIORITY_LIST, priority)) {
-                    parts.add(new StringPart(MESSAGE_KEY_PRIORITY, String.valueOf(priority), UTF_8_ENCODING));
+                    pushoverMessage.with(MESSAGE_KEY_PRIORITY, String.valueOf(priority));
 
                     if (isValueInList(API_HIGH_PRIORITY_LIST, priority)) {
                         if (retry >= API_MIN_RETRY_SECONDS) {
-                            parts.add(new StringPart(MESSAGE_KEY_RETRY, String.valueOf(retry), UTF_8_ENCODING));
+                            pushoverMessage.with(MESSAGE_KEY_RETRY, String.valueOf(retry));
                         } else {
                             logger.warn("Retry value of {} is too small. Using default value of {}.", retry,
                                     API_MIN_RETRY_SECONDS);
-                            parts.add(new StringPart(MESSAGE_KEY_RETRY, String.valueOf(API_MIN_RETRY_SECONDS),
-                                    UTF_8_ENCODING));
+                            pushoverMessage.with(MESSAGE_KEY_RETRY, String.valueOf(API_MIN_RETRY_SECONDS));
                         }
 
                         if (expire <= API_MAX_EXPIRE_SECONDS) {
-                            parts.add(new StringPart(MESSAGE_KEY_EXPIRE, String.valueOf(expire), UTF_8_ENCODING));
+                            pushoverMessage.with(MESSAGE_KEY_EXPIRE, String.valueOf(expire));
                         } else {
                             logger.warn("Expire value of {} is too large. Using default value of {}.", expire,
                                     API_MAX_EXPIRE_SECONDS);
-                            parts.add(new StringPart(MESSAGE_KEY_EXPIRE, String.valueOf(API_MAX_EXPIRE_SECONDS),
-                                    UTF_8_ENCODING));
+                            pushoverMessage.with(MESSAGE_KEY_EXPIRE, String.valueOf(API_MAX_EXPIRE_SECONDS));
                         }
                     }
                 } else {
@@ -447,82 +473,152 @@ public class Pushover {
             }
 
             if (!StringUtils.isEmpty(sound)) {
-                parts.add(new StringPart(MESSAGE_KEY_SOUND, sound, UTF_8_ENCODING));
+                pushoverMessage.with(MESSAGE_KEY_SOUND, sound);
             } else if (!StringUtils.isEmpty(defaultSound)) {
-                parts.add(new StringPart(MESSAGE_KEY_SOUND, defaultSound, UTF_8_ENCODING));
+                pushoverMessage.with(MESSAGE_KEY_SOUND, defaultSound);
             }
 
             if (!StringUtils.isEmpty(attachment)) {
+                // the file is read when the message is sent and may have changed by then
+                pushoverMessage.withoutMerging();
+                pushoverMessage.with(MESSAGE_KEY_ATTACHMENT, attachment);
+                pushoverMessage.with(MESSAGE_KEY_CONTENT_TYPE,
+                        StringUtils.isEmpty(contentType) ? DEFAULT_CONTENT_TYPE : contentType);
+            }
+        } catch (Exception e) {
+            logger.warn("An error occurred while notifying your mobile device: {}", e.getMessage());
+            return null;
+        }
+
+        // the receipt of an emergency-priority message is only known once it is sent
+        if (outbox.isEnabled() && !(receiptRequired && isValueInList(API_HIGH_PRIORITY_LIST, priority))) {
+            return outbox.enqueue(pushoverMessage) ? "" : null;
+        }
+
+        try {
+            return post(pushoverMessage);
+        } catch (IOException e) {
+            logger.warn("An error occurred while notifying your mobile device: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Posts a message to the Pushover API.
+     *
+     * @return the receipt of an emergency-priority message, an empty string for other messages or <code>null</code> if
+     *         Pushover rejected the message
+     * @throws IOException if Pushover could not be reached or asks to send the message later
+     */
+    private static String post(OutboxMessage pushoverMessage) throws IOException {
+        List<Part> parts = new ArrayList<>();
+        if (!addDefault(parts, pushoverMessage, MESSAGE_KEY_API_KEY, defaultApiKey)
+                || !addDefault(parts, pushoverMessage, MESSAGE_KEY_USER, defaultUser)) {
+            return null;
+        }
+        for (Map.Entry<String, String> field : pushoverMessage.getFields().entrySet()) {
+            if (MESSAGE_KEY_ATTACHMENT.equals(field.getKey())) {
+                String attachment = field.getValue();
                 logger.debug("Push the image attachment '{}'.", attachment);
                 try {
                     File f = new File(attachment);
                     FilePart fp = new FilePart(MESSAGE_KEY_ATTACHMENT, f.getName(), f);
-                    String ct = contentType;
-                    if (StringUtils.isEmpty(ct)) {
-                        ct = DEFAULT_CONTENT_TYPE;
-                    }
-                    fp.setContentType(ct);
+                    fp.setContentType(pushoverMessage.getField(MESSAGE_KEY_CONTENT_TYPE));
                     parts.add(fp);
                 } catch (IOException e) {
                     logger.warn("Could not process file '{}': {}, will send the message without attachment.",
                             attachment, e.getMessage());
                 }
+            } else if (!MESSAGE_KEY_CONTENT_TYPE.equals(field.getKey())) {
+                parts.add(new StringPart(field.getKey(), field.getValue(), UTF_8_ENCODING));
             }
-            PostMethod httpPost = new PostMethod(JSON_API_URL);
+        }
 
-            httpPost.setRequestEntity(
-                    new MultipartRequestEntity(parts.toArray(new Part[parts.size()]), httpPost.getParams()));
+        PostMethod httpPost = new PostMethod(JSON_API_URL);
+        httpPost.getParams().setSoTimeout(timeout);
+        httpPost.setRequestEntity(
+                new MultipartRequestEntity(parts.toArray(new Part[parts.size()]), httpPost.getParams()));
 
-            logger.debug("Executing post to {} with the following content: {}", JSON_API_URL, httpPost);
-            HttpClient client = new HttpClient();
-            String response = "";
-            try {
-                int statusCode = client.executeMethod(httpPost);
-                if (statusCode != HttpStatus.SC_OK) {
-                    logger.warn("Method failed: {}.", httpPost.getStatusLine());
-                    return null;
-                }
-                response = IOUtils.toString(httpPost.getResponseBodyAsStream(), UTF_8_ENCODING);
-            } catch (IOException e) {
-                logger.warn("Fatal transport error. {}", e.getMessage());
+        logger.debug("Executing post to {} with the following content: {}", JSON_API_URL, httpPost);
+        String response = "";
+        try {
+            int statusCode = HttpUtil.executeMethod(Outbox.getHttpClient(), httpPost);
+            checkLimit(httpPost);
+            if (statusCode == HTTP_TOO_MANY_REQUESTS || statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR) {
+                throw new IOException("Method failed: " + httpPost.getStatusLine());
+            }
+            if (statusCode != HttpStatus.SC_OK) {
+                logger.warn("Method failed: {}.", httpPost.getStatusLine());
                 return null;
-            } finally {
-                // Release the connection.
-                httpPost.releaseConnection();
             }
-            logger.debug("Raw response: {}", response);
+            response = IOUtils.toString(httpPost.getResponseBodyAsStream(), UTF_8_ENCODING);
+        } finally {
+            // Release the connection.
+            httpPost.releaseConnection();
+        }
+        logger.debug("Raw response: {}", response);
 
-            try {
-                if (StringUtils.isEmpty(response)) {
-                    logger.warn(
-                            "Received an empty response from our Pushover API call. This can mean either we are having trouble connecting to the Pushover API or the Pushover API is actively enforcing rate limits with a connection time-out.");
-                    return null;
-                }
-                JsonObject json = parser.parse(response).getAsJsonObject();
-                if (json.has(API_RETURN_INFO_TAG)) {
-                    logger.warn("Received info message from Pushover: {}",
-                            json.get(API_RETURN_INFO_TAG).getAsJsonArray().getAsString());
-                }
-                if (json.has(API_RETURN_STATUS_TAG) && json.get(API_RETURN_STATUS_TAG).getAsInt() == 1) {
-                    // do not return null, but empty string, since its no error, if the receipt value is not provided
-                    // the receipt is provided for emergency-priority only!
-                    return json.has(API_RETURN_RECEIPT_TAG) ? json.get(API_RETURN_RECEIPT_TAG).getAsString() : "";
-                } else {
-                    logger.warn("Received error message from Pushover: {}",
-                            json.get(API_RETURN_ERRORS_TAG).getAsJsonArray().getAsString());
-                    return null;
-                }
-            } catch (Exception e) {
-                logger.warn("Can't parse response from Pushover: {}", e.getMessage());
-                logger.debug("Raw response: {}", response);
+        if (StringUtils.isEmpty(response)) {
+            throw new IOException(
+                    "Received an empty response from our Pushover API call. This can mean either we are having trouble connecting to the Pushover API or the Pushover API is actively enforcing rate limits with a connection time-out.");
+        }
+        try {
+            JsonObject json = parser.parse(response).getAsJsonObject();
+            if (json.has(API_RETURN_INFO_TAG)) {
+                logger.warn("Received info message from Pushover: {}",
+                        json.get(API_RETURN_INFO_TAG).getAsJsonArray().getAsString());
+            }
+            if (json.has(API_RETURN_STATUS_TAG) && json.get(API_RETURN_STATUS_TAG).getAsInt() == 1) {
+                // do not return null, but empty string, since its no error, if the receipt value is not provided
+                // the receipt is provided for emergency-priority only!
+                return json.has(API_RETURN_RECEIPT_TAG) ? json.get(API_RETURN_RECEIPT_TAG).getAsString() : "";
+            } else {
+                logger.warn("Received error message from Pushover: {}",
+                        json.get(API_RETURN_ERRORS_TAG).getAsJsonArray().getAsString());
                 return null;
             }
         } catch (Exception e) {
-            logger.warn("An error occurred while notifying your mobile device: {}", e.getMessage());
+            logger.warn("Can't parse response from Pushover: {}", e.getMessage());
+            logger.debug("Raw response: {}", response);
             return null;
         }
     }
 
+    /**
+     * Adds the configured value of a field the message leaves to the configuration.
+     *
+     * @return <code>false</code> if the field is neither set in the message nor configured
+     */
+    private static boolean addDefault(List<Part> parts, OutboxMessage pushoverMessage, String key,
+            String defaultValue) {
+        if (pushoverMessage.getField(key) != null) {
+            return true;
+        }
+        if (StringUtils.isEmpty(defaultValue)) {
+            logger.warn("The message can't be sent, '{}' is not configured anymore.", key);
+            return false;
+        }
+        parts.add(new StringPart(key, defaultValue, UTF_8_ENCODING));
+        return true;
+    }
+
+    /**
+     * Pauses the outbox until the message limit of the application is reset, if it is reached.
+     */
+    private static void checkLimit(PostMethod httpPost) {
+        Header remaining = httpPost.getResponseHeader(HEADER_LIMIT_REMAINING);
+        Header reset = httpPost.getResponseHeader(HEADER_LIMIT_RESET);
+        if (remaining != null && reset != null && "0".equals(remaining.getValue().trim())) {
+            try {
+                long resetTime = Long.parseLong(reset.getValue().trim()) * 1000;
+                logger.warn("The message limit of your Pushover application is reached until {}.", new Date(resetTime));
+                outbox.pauseUntil(resetTime);
+            } catch (NumberFormatException e) {
+                logger.debug("Invalid {} header: {}", HEADER_LIMIT_RESET, reset.getValue());
+            }
+        }
+    }
+
     @ActionDoc(text = "Cancel an emergency-priority notification using the default api key.", returns = "<code>true</code>, if successful and <code>false</code> otherwise.")
     public static boolean cancelPushoverEmergency(
             @ParamDoc(name = "receipt", text = "Your message's receipt.") String receipt) {
@@ -569,10 +665,9 @@ public class Pushover {
                     new MultipartRequestEntity(parts.toArray(new Part[parts.size()]), httpPost.getParams()));
 
             logger.debug("Executing post to {} with the following content: {}", url, httpPost);
-            HttpClient client = new HttpClient();
             String response = "";
             try {
-                int statusCode = client.executeMethod(httpPost);
+                int statusCode = HttpUtil.executeMethod(Outbox.getHttpClient(), httpPost);
                 if (statusCode != HttpStatus.SC_OK) {
                     logger.warn("Method failed: {}.", httpPost.getStatusLine());
                     return false;
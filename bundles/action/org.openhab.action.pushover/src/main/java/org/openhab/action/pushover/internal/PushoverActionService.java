@@ -90,6 +90,7 @@ public class PushoverActionService implements ActionService, ManagedService {
     }
 
     public void deactivate() {
+        Pushover.outbox.stop();
         logger.debug("Pushover action service deactivated");
     }
 
@@ -177,6 +178,8 @@ public class PushoverActionService implements ActionService, ManagedService {
             logger.debug("The configurations information was empty. No defaults for Pushover loaded.");
         }
 
+        Pushover.outbox.configure(config);
+        Pushover.outbox.start();
         isProperlyConfigured = true;
     }
 
@@ -18,17 +18,26 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 
+import org.apache.commons.httpclient.HttpStatus;
+import org.apache.commons.httpclient.methods.PostMethod;
+import org.apache.commons.httpclient.methods.StringRequestEntity;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.openhab.core.scriptengine.action.ActionDoc;
 import org.openhab.core.scriptengine.action.ParamDoc;
 import org.openhab.io.net.http.HttpUtil;
+import org.openhab.io.net.outbox.Outbox;
+import org.openhab.io.net.outbox.OutboxMessage;
+import org.openhab.io.net.outbox.OutboxSender;
+import org.openhab.io.net.outbox.OutboxSender.Result;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * This class contains the methods that are made available in scripts and rules
- * for sending messages via the Pushsafer mobile device push service..
+ * for sending messages via the Pushsafer mobile device push service.. The
+ * messages are handed to an {@link Outbox}, so the actions don't wait for
+ * Pushsafer.
  *
  * @author Chris Graham / Kevin Siml
  * @since 1.9.0
@@ -55,8 +64,20 @@ public class Pushsafer {
     public static final String MESSAGE_KEY_VIBRATION = "v";
     public static final String MESSAGE_KEY_SOUND = "s";
 
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private static final String FIELD_CONTENT = "content";
+    private static final String FIELD_API_KEY = "apiKey";
+
     static int timeout = 10000;
 
+    static final Outbox outbox = new Outbox("pushsafer", new OutboxSender() {
+        @Override
+        public Result send(OutboxMessage message) {
+            return post(message);
+        }
+    }, 2, 1000);
+
     // Primary method for sending a message to the Pushsafer API
     @ActionDoc(text = "Send a notification to your iOS, Android or Win10 device. Private or Alias Key and message are required. All other can be null. Check the Pushsafer.com API for more information: https://www.pushsafer.com/en/pushapi", returns = "<code>true</code>, if successful and <code>false</code> otherwise.")
     public static boolean pushsafer(@ParamDoc(name = "apiKey", text = "Your Private or Alias Key.") String apiKey,
@@ -72,10 +93,8 @@ public class Pushsafer {
 
         try {
 
-            // Private or Alias Key
-            if (!StringUtils.isEmpty(apiKey)) {
-                addEncodedParameter(data, MESSAGE_KEY_API_KEY, apiKey);
-            } else {
+            // Private or Alias Key, added when the message is posted
+            if (StringUtils.isEmpty(apiKey)) {
                 logger.error("Private or Alias key not specified.");
                 return false;
             }
@@ -120,31 +139,13 @@ public class Pushsafer {
                 addEncodedParameter(data, MESSAGE_KEY_SOUND, sound);
             }
 
-            String content = data.toString();
-
-            logger.debug("Executing post with the following content: {}", content);
-            String response = HttpUtil.executeUrl("POST", API_URL, IOUtils.toInputStream(content), CONTENT_TYPE,
-                    timeout);
-            logger.debug("Raw response: {}", response);
-
-            try {
-                if (StringUtils.isEmpty(response)) {
-                    logger.error(
-                            "Received an empty response from our Pushsafer API call. This can mean either we are having trouble connecting to the Pushsafer API or the Pushsafer API is actively enforcing rate limits with a connection time-out.");
-                    return false;
-                }
-
-                if (StringUtils.containsIgnoreCase(response, API_RETURN_STATUS_SUCCESS)) {
-                    return true;
-                } else {
-
-                    logger.error("Received error message from Pushsafer: {}", response);
-                    return false;
-                }
-            } catch (Exception e) {
-
-                logger.warn("Can't parse response from Pushsafer: {}", response);
-                return false;
+            // there is no configured key to look up later, so the message is never written to disk
+            OutboxMessage content = new OutboxMessage().with(FIELD_CONTENT, data.toString())
+                    .withSecret(FIELD_API_KEY, apiKey);
+            if (outbox.isEnabled()) {
+                return outbox.enqueue(content);
+            } else {
+                return post(content) == Result.SENT;
             }
         } catch (Exception e) {
 
@@ -153,6 +154,46 @@ public class Pushsafer {
         }
     }
 
+    private static Result post(OutboxMessage message) {
+        String content = message.getField(FIELD_CONTENT);
+
+        logger.debug("Executing post with the following content: {}", content);
+        PostMethod method = new PostMethod(API_URL);
+        method.getParams().setSoTimeout(timeout);
+        String response;
+        try {
+            StringBuilder data = new StringBuilder();
+            addEncodedParameter(data, MESSAGE_KEY_API_KEY, message.getField(FIELD_API_KEY));
+            content = data.append('&').append(content).toString();
+            method.setRequestEntity(new StringRequestEntity(content, CONTENT_TYPE, UTF_8_ENCODING));
+            int statusCode = HttpUtil.executeMethod(Outbox.getHttpClient(), method);
+            if (statusCode == HTTP_TOO_MANY_REQUESTS || statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR) {
+                logger.warn("Method failed, trying again later: {}", method.getStatusLine());
+                return Result.RETRY;
+            }
+            response = IOUtils.toString(method.getResponseBodyAsStream(), UTF_8_ENCODING);
+        } catch (IOException e) {
+            logger.warn("Transport error, trying again later: {}", e.getMessage());
+            return Result.RETRY;
+        } finally {
+            method.releaseConnection();
+        }
+        logger.debug("Raw response: {}", response);
+
+        if (StringUtils.isEmpty(response)) {
+            logger.error(
+                    "Received an empty response from our Pushsafer API call. This can mean either we are having trouble connecting to the Pushsafer API or the Pushsafer API is actively enforcing rate limits with a connection time-out.");
+            return Result.RETRY;
+        }
+
+        if (StringUtils.containsIgnoreCase(response, API_RETURN_STATUS_SUCCESS)) {
+            return Result.SENT;
+        } else {
+            logger.error("Received error message from Pushsafer: {}", response);
+            return Result.FAILED;
+        }
+    }
+
     private static void addEncodedParameter(StringBuilder sb, String name, String value)
             throws UnsupportedEncodingException {
         if (StringUtils.isEmpty(value)) {
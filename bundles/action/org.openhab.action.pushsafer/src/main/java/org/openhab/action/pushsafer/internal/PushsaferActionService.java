@@ -44,6 +44,7 @@ public class PushsaferActionService implements ActionService, ManagedService {
     }
 
     public void deactivate() {
+        Pushsafer.outbox.stop();
         logger.debug("Pushsafer action service deactivated");
     }
 
@@ -62,14 +63,16 @@ public class PushsaferActionService implements ActionService, ManagedService {
      */
     @Override
     public void updated(Dictionary<String, ?> config) throws ConfigurationException {
-        logger.debug("Configuration file is being parsed but ignored.");
+        logger.debug("Configuration file is being parsed, only the outbox is configured.");
         if (config != null) {
-            logger.debug("Configuration data exists but ignored.");
+            logger.debug("Configuration data exists, only the outbox properties are used.");
         } else {
             // Messages can be sent by providing API Key and User key in the action binding, so no issue here.
             logger.debug("The configurations information was empty. No defaults for Pushsafer loaded.");
         }
 
+        Pushsafer.outbox.configure(config);
+        Pushsafer.outbox.start();
         isProperlyConfigured = true;
     }
 
@@ -17,10 +17,12 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.InflaterInputStream;
 
@@ -50,12 +52,18 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.openhab.core.scriptengine.action.ActionDoc;
 import org.openhab.core.scriptengine.action.ParamDoc;
+import org.openhab.io.net.http.HttpUtil;
+import org.openhab.io.net.outbox.Outbox;
+import org.openhab.io.net.outbox.OutboxMessage;
+import org.openhab.io.net.outbox.OutboxSender;
+import org.openhab.io.net.outbox.OutboxSender.Result;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * This class provides static methods that can be used in automation rules for
- * sending Telegrams.
+ * sending Telegrams. Messages and photos are handed to an {@link Outbox}, so the
+ * actions return without waiting for Telegram.
  *
  * @author Paolo Denti
  * @since 1.8.0
@@ -70,8 +78,38 @@ public class Telegram {
     private static final int HTTP_TIMEOUT = 2000;
     private static final int HTTP_PHOTO_TIMEOUT = 10000;
     private static final int HTTP_RETRIES = 3;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    /** Telegram tells how many seconds to wait in the response of a rejected request */
+    private static final Pattern RETRY_AFTER_PATTERN = Pattern.compile("\"retry_after\"\\s*:\\s*(\\d+)");
+
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_GROUP = "group";
+    private static final String FIELD_TEXT = "text";
+    private static final String FIELD_PHOTO_URL = "photoURL";
+    private static final String FIELD_CAPTION = "caption";
+    private static final String FIELD_USERNAME = "username";
+    private static final String FIELD_PASSWORD = "password";
+    private static final String FIELD_TIMEOUT = "timeout";
+    private static final String FIELD_RETRIES = "retries";
+    private static final String TYPE_MESSAGE = "message";
+    private static final String TYPE_PHOTO = "photo";
+
+    private static Map<String, TelegramBot> groupTokens = new ConcurrentHashMap<String, TelegramBot>();
+
+    private static final OutboxSender sender = new OutboxSender() {
+        @Override
+        public Result send(OutboxMessage message) {
+            if (TYPE_PHOTO.equals(message.getField(FIELD_TYPE))) {
+                return sendPhoto(message);
+            } else {
+                return sendMessage(message);
+            }
+        }
+    };
 
-    private static Map<String, TelegramBot> groupTokens = new HashMap<String, TelegramBot>();
+    /** a bot must not send more than 30 messages per second */
+    static final Outbox outbox = new Outbox("telegram", sender, 30, 1000);
 
     public static void addToken(String group, String chatId, String token) {
         groupTokens.put(group, new TelegramBot(chatId, token));
@@ -91,61 +129,118 @@ public class Telegram {
             return false;
         }
 
-        String url = String.format(TELEGRAM_URL, bot.getToken());
+        return send(new OutboxMessage().with(FIELD_TYPE, TYPE_MESSAGE).with(FIELD_GROUP, group).with(FIELD_TEXT,
+                message));
+    }
 
-        HttpClient client = new HttpClient();
+    /**
+     * Hands the message to the outbox, or sends it right away if the outbox is disabled.
+     */
+    private static boolean send(OutboxMessage message) {
+        if (outbox.isEnabled()) {
+            return outbox.enqueue(message);
+        } else {
+            return sender.send(message) == Result.SENT;
+        }
+    }
 
-        PostMethod postMethod = createPostMethod(url, HTTP_TIMEOUT, HTTP_RETRIES);
+    private static Result sendMessage(OutboxMessage message) {
+        String group = message.getField(FIELD_GROUP);
+        TelegramBot bot = groupTokens.get(group);
+        if (bot == null) {
+            logger.warn("Bot '{}' not defined; message dropped.", group);
+            return Result.FAILED;
+        }
+
+        String url = String.format(TELEGRAM_URL, bot.getToken());
+
+        PostMethod postMethod = createPostMethod(url, HTTP_TIMEOUT, getRetries(HTTP_RETRIES));
         NameValuePair[] data = {
                 new NameValuePair("chat_id", bot.getChatId()),
-                new NameValuePair("text", message),
+                new NameValuePair("text", message.getField(FIELD_TEXT)),
                 new NameValuePair("parse_mode", bot.getParseMode())
         };
         postMethod.setRequestBody(data);
 
+        return execute(postMethod, url);
+    }
+
+    /**
+     * Posts a request to Telegram with the pooled client of the outbox.
+     */
+    private static Result execute(PostMethod postMethod, String url) {
         try {
-            int statusCode = client.executeMethod(postMethod);
+            int statusCode = HttpUtil.executeMethod(Outbox.getHttpClient(), postMethod);
 
             if (statusCode == HttpStatus.SC_NO_CONTENT || statusCode == HttpStatus.SC_ACCEPTED) {
-                return true;
+                return Result.SENT;
             }
 
-            if (statusCode != HttpStatus.SC_OK) {
-                logger.warn("Method failed: {}", postMethod.getStatusLine());
-                return false;
+            if (statusCode == HTTP_TOO_MANY_REQUESTS) {
+                Matcher matcher = RETRY_AFTER_PATTERN.matcher(readResponseBody(postMethod, url));
+                if (matcher.find()) {
+                    outbox.pauseUntil(System.currentTimeMillis() + Long.parseLong(matcher.group(1)) * 1000);
+                }
+                logger.debug("Too many requests, sending again later: {}", postMethod.getStatusLine());
+                return Result.RETRY;
             }
 
-            InputStream tmpResponseStream = postMethod.getResponseBodyAsStream();
-            Header encodingHeader = postMethod.getResponseHeader("Content-Encoding");
-            if (encodingHeader != null) {
-                for (HeaderElement ehElem : encodingHeader.getElements()) {
-                    if (ehElem.toString().matches(".*gzip.*")) {
-                        tmpResponseStream = new GZIPInputStream(tmpResponseStream);
-                        logger.debug("GZipped InputStream from {}", url);
-                    } else if (ehElem.toString().matches(".*deflate.*")) {
-                        tmpResponseStream = new InflaterInputStream(tmpResponseStream);
-                        logger.debug("Deflated InputStream from {}", url);
-                    }
-                }
+            if (statusCode >= HttpStatus.SC_INTERNAL_SERVER_ERROR) {
+                logger.warn("Method failed, sending again later: {}", postMethod.getStatusLine());
+                return Result.RETRY;
             }
 
-            String responseBody = IOUtils.toString(tmpResponseStream);
+            if (statusCode != HttpStatus.SC_OK) {
+                logger.warn("Method failed: {}", postMethod.getStatusLine());
+                return Result.FAILED;
+            }
+
+            String responseBody = readResponseBody(postMethod, url);
             if (!responseBody.isEmpty()) {
                 logger.debug("Response body: {}", responseBody);
             }
 
-            return true;
+            return Result.SENT;
         } catch (HttpException e) {
             logger.warn("HTTP protocol violation: {}", e);
-            return false;
+            return Result.FAILED;
         } catch (IOException e) {
-            logger.warn("Transport error: {}", e);
-            return false;
+            logger.warn("Transport error, sending again later: {}", e.getMessage());
+            return Result.RETRY;
         } finally {
             postMethod.releaseConnection();
         }
     }
 
+    private static String readResponseBody(PostMethod postMethod, String url) throws IOException {
+        InputStream tmpResponseStream = postMethod.getResponseBodyAsStream();
+        if (tmpResponseStream == null) {
+            return "";
+        }
+        Header encodingHeader = postMethod.getResponseHeader("Content-Encoding");
+        if (encodingHeader != null) {
+            for (HeaderElement ehElem : encodingHeader.getElements()) {
+                if (ehElem.toString().matches(".*gzip.*")) {
+                    tmpResponseStream = new GZIPInputStream(tmpResponseStream);
+                    logger.debug("GZipped InputStream from {}", url);
+                } else if (ehElem.toString().matches(".*deflate.*")) {
+                    tmpResponseStream = new InflaterInputStream(tmpResponseStream);
+                    logger.debug("Deflated InputStream from {}", url);
+                }
+            }
+        }
+
+        return IOUtils.toString(tmpResponseStream);
+    }
+
+    /**
+     * The outbox sends a failed message again with a backoff, so a request is only repeated right away if the message
+     * is sent on the calling thread.
+     */
+    private static int getRetries(int retries) {
+        return outbox.isEnabled() ? 0 : retries;
+    }
+
     private static PostMethod createPostMethod(String url, int timeOut, int retries) {
         PostMethod postMethod = new PostMethod(url);
         postMethod.getParams().setContentCharset("UTF-8");
@@ -202,6 +297,28 @@ public class Telegram {
             return false;
         }
 
+        // the photo is only fetched when the message is sent, so two messages of the same URL are not merged
+        return send(new OutboxMessage().with(FIELD_TYPE, TYPE_PHOTO).with(FIELD_GROUP, group)
+                .with(FIELD_PHOTO_URL, photoURL).with(FIELD_CAPTION, caption).withSecret(FIELD_USERNAME, username)
+                .withSecret(FIELD_PASSWORD, password).with(FIELD_TIMEOUT, String.valueOf(timeoutMillis))
+                .with(FIELD_RETRIES, String.valueOf(retries)).withoutMerging());
+    }
+
+    private static Result sendPhoto(OutboxMessage message) {
+        String group = message.getField(FIELD_GROUP);
+        TelegramBot bot = groupTokens.get(group);
+        if (bot == null) {
+            logger.warn("Bot '{}' not defined; photo dropped.", group);
+            return Result.FAILED;
+        }
+
+        String photoURL = message.getField(FIELD_PHOTO_URL);
+        String caption = message.getField(FIELD_CAPTION);
+        String username = message.getField(FIELD_USERNAME);
+        String password = message.getField(FIELD_PASSWORD);
+        int timeoutMillis = message.getIntField(FIELD_TIMEOUT, HTTP_PHOTO_TIMEOUT);
+        int retries = getRetries(message.getIntField(FIELD_RETRIES, HTTP_RETRIES));
+
         byte[] image;
 
         if (photoURL.toLowerCase().startsWith("http")) {
@@ -224,23 +341,23 @@ public class Telegram {
                 int statusCode = getClient.executeMethod(getMethod);
                 if (statusCode != HttpStatus.SC_OK) {
                     logger.warn("Failed to retrieve an image. Received status: {}", getMethod.getStatusLine());
-                    return false;
+                    return Result.FAILED;
                 }
 
                 // if the content-length is 0 (which shouldn't happen),
                 // flag an appropriate error
                 if (getMethod.getResponseContentLength() == 0) {
                     logger.warn("Failed to retrieve an image. Fetched URL returned no data.");
-                    return false;
+                    return Result.FAILED;
                 }
 
                 image = getMethod.getResponseBody();
             } catch (HttpException e) {
                 logger.warn("HTTP protocol violation: {}", e);
-                return false;
+                return Result.FAILED;
             } catch (IOException e) {
-                logger.warn("Transport error: {}", e);
-                return false;
+                logger.warn("Transport error, trying again later: {}", e.getMessage());
+                return Result.RETRY;
             } finally {
                 getMethod.releaseConnection();
             }
@@ -253,10 +370,10 @@ public class Telegram {
                 image = Files.readAllBytes(Paths.get(url.getPath()));
             } catch (MalformedURLException e) {
                 logger.warn("File specification {} is not properly formed: {}", photoURL, e.getMessage());
-                return false;
+                return Result.FAILED;
             } catch (IOException e) {
                 logger.warn("Unable to read file {} from local file system: {}", photoURL, e.getMessage());
-                return false;
+                return Result.FAILED;
             }
         } else {
             // Load image from provided base64 image
@@ -269,11 +386,11 @@ public class Telegram {
                     image = javax.xml.bind.DatatypeConverter.parseBase64Binary(base64Image);
                 } catch (Exception e) {
                     logger.warn("Failed to convert base64 image to binary: {}", e);
-                    return false;
+                    return Result.FAILED;
                 }
             } else {
                 logger.warn("Invalid base64 image provided.");
-                return false;
+                return Result.FAILED;
             }
         }
 
@@ -288,45 +405,23 @@ public class Telegram {
                 byte[] bytes = new byte[24];
                 iis.read(bytes);
                 logger.debug("first 24 bytes of data: {}", Arrays.toString(bytes));
-                return false;
+                return Result.FAILED;
             }
             ImageReader reader = imageReaders.next();
             imageType = reader.getFormatName();
         } catch (IOException e) {
             logger.warn("Cannot parse data fetched from photo URL as an image. Error: {}", e.getMessage());
-            return false;
+            return Result.FAILED;
         }
 
         // post photo to telegram
         String url = String.format(TELEGRAM_PHOTO_URL, bot.getToken());
 
         PostMethod postMethod = createPostMethod(url, timeoutMillis, retries);
-        try {
-            Part[] parts = createSendPhotoRequestParts(bot, image, imageType, caption);
-            postMethod.setRequestEntity(new MultipartRequestEntity(parts, postMethod.getParams()));
-
-            HttpClient client = new HttpClient();
-            int statusCode = client.executeMethod(postMethod);
+        Part[] parts = createSendPhotoRequestParts(bot, image, imageType, caption);
+        postMethod.setRequestEntity(new MultipartRequestEntity(parts, postMethod.getParams()));
 
-            if (statusCode == HttpStatus.SC_NO_CONTENT || statusCode == HttpStatus.SC_ACCEPTED) {
-                return true;
-            }
-
-            if (statusCode != HttpStatus.SC_OK) {
-                logger.warn("Failed to send photo. Received status: {}", postMethod.getStatusLine());
-                return false;
-            }
-
-            return true;
-        } catch (HttpException e) {
-            logger.warn("HTTP protocol violation: {}", e);
-            return false;
-        } catch (IOException e) {
-            logger.warn("Transport error: {}", e);
-            return false;
-        } finally {
-            postMethod.releaseConnection();
-        }
+        return execute(postMethod, url);
     }
 
     private static Part[] createSendPhotoRequestParts(TelegramBot bot, byte[] image, String imageType, String caption) {
@@ -41,8 +41,7 @@ public class TelegramActionService implements ActionService, ManagedService {
     }
 
     public void deactivate() {
-        // deallocate Resources here that are no longer needed and
-        // should be reset when activating this binding again
+        Telegram.outbox.stop();
     }
 
     @Override
@@ -80,6 +79,8 @@ public class TelegramActionService implements ActionService, ManagedService {
                     logger.warn("Bot {} is misconfigured. Please check the configuration", bot);
                 }
             }
+            Telegram.outbox.configure(config);
+            Telegram.outbox.start();
             isProperlyConfigured = true;
         }
     }
@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.core.binding;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.core.items.Item;
+import org.openhab.core.library.items.StringItem;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.types.Command;
+import org.openhab.core.types.State;
+import org.openhab.model.item.binding.AbstractGenericBindingProvider;
+import org.openhab.model.item.binding.BindingConfigParseException;
+import org.osgi.service.event.Event;
+
+/**
+ * Tests that the {@link AbstractBinding} drops the events of unbound items and keeps the names of the bound items up
+ * to date while binding configurations and providers come and go.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class AbstractBindingTest {
+
+    private TestProvider provider;
+
+    private RecordingBinding binding;
+
+    @Before
+    public void setUp() {
+        provider = new TestProvider();
+        binding = new RecordingBinding();
+    }
+
+    @Test
+    public void testItemsAddedByBindingConfig() throws BindingConfigParseException {
+        binding.addBindingProvider(provider);
+        assertFalse(binding.isSubscribedTo("Light"));
+
+        provider.bind("lights.items", "Light");
+        assertTrue(binding.isSubscribedTo("Light"));
+        assertFalse(binding.isSubscribedTo("Other"));
+
+        sendCommand("Light", OnOffType.ON);
+        sendCommand("Other", OnOffType.ON);
+        sendUpdate("Light", new StringType("on"));
+        assertEquals(1, binding.commands.size());
+        assertEquals("Light ON", binding.commands.get(0));
+        assertEquals(1, binding.updates.size());
+    }
+
+    @Test
+    public void testItemsRemovedByRemoveConfigurations() throws BindingConfigParseException {
+        binding.addBindingProvider(provider);
+        provider.bind("lights.items", "Light");
+        provider.bind("other.items", "Other");
+
+        provider.removeConfigurations("lights.items");
+        assertFalse(binding.isSubscribedTo("Light"));
+        assertTrue(binding.isSubscribedTo("Other"));
+
+        sendCommand("Light", OnOffType.ON);
+        sendCommand("Other", OnOffType.OFF);
+        assertEquals(1, binding.commands.size());
+        assertEquals("Other OFF", binding.commands.get(0));
+    }
+
+    @Test
+    public void testProviderAddedAndRemoved() throws BindingConfigParseException {
+        // items bound before the provider is added to the binding
+        provider.bind("lights.items", "Light");
+        assertFalse(binding.isSubscribedTo("Light"));
+
+        binding.addBindingProvider(provider);
+        assertTrue(binding.isSubscribedTo("Light"));
+
+        TestProvider second = new TestProvider();
+        second.bind("other.items", "Other");
+        binding.addBindingProvider(second);
+        assertTrue(binding.isSubscribedTo("Light"));
+        assertTrue(binding.isSubscribedTo("Other"));
+
+        binding.removeBindingProvider(provider);
+        assertFalse(binding.isSubscribedTo("Light"));
+        assertTrue(binding.isSubscribedTo("Other"));
+
+        // a removed provider doesn't change the names anymore
+        provider.bind("more.items", "More");
+        assertFalse(binding.isSubscribedTo("More"));
+
+        sendCommand("Light", OnOffType.ON);
+        sendCommand("Other", OnOffType.ON);
+        assertEquals(1, binding.commands.size());
+        assertEquals("Other ON", binding.commands.get(0));
+    }
+
+    @Test
+    public void testItemBoundByTwoProviders() throws BindingConfigParseException {
+        TestProvider second = new TestProvider();
+        binding.addBindingProvider(provider);
+        binding.addBindingProvider(second);
+        provider.bind("a.items", "Light");
+        second.bind("b.items", "Light");
+
+        provider.removeConfigurations("a.items");
+        assertTrue(binding.isSubscribedTo("Light"));
+        second.removeConfigurations("b.items");
+        assertFalse(binding.isSubscribedTo("Light"));
+    }
+
+    @Test
+    public void testOverriddenReceiveCommandReceivesAllEvents() {
+        AllItemsBinding allItems = new AllItemsBinding();
+        allItems.addBindingProvider(provider);
+        assertTrue(allItems.isSubscribedTo("Unbound"));
+
+        sendCommand(allItems, "Unbound", OnOffType.ON);
+        sendCommand(allItems, "Other", new StringType("x"));
+        assertEquals(2, allItems.commands.size());
+        assertEquals("Unbound ON", allItems.commands.get(0));
+        assertEquals("Other x", allItems.commands.get(1));
+    }
+
+    private void sendCommand(String itemName, Command command) {
+        sendCommand(binding, itemName, command);
+    }
+
+    private static void sendCommand(AbstractBinding<?> binding, String itemName, Command command) {
+        Map<String, Object> properties = new HashMap<String, Object>();
+        properties.put("item", itemName);
+        properties.put("command", command);
+        binding.handleEvent(new Event("openhab/command/" + itemName, properties));
+    }
+
+    private void sendUpdate(String itemName, State state) {
+        Map<String, Object> properties = new HashMap<String, Object>();
+        properties.put("item", itemName);
+        properties.put("state", state);
+        binding.handleEvent(new Event("openhab/update/" + itemName, properties));
+    }
+
+    private static class TestProvider extends AbstractGenericBindingProvider {
+
+        void bind(String context, String itemName) throws BindingConfigParseException {
+            Item item = new StringItem(itemName);
+            processBindingConfiguration(context, item, "");
+            addBindingConfig(item, new BindingConfig() {
+            });
+        }
+
+        @Override
+        public String getBindingType() {
+            return "test";
+        }
+
+        @Override
+        public void validateItemType(Item item, String bindingConfig) throws BindingConfigParseException {
+        }
+    }
+
+    private static class RecordingBinding extends AbstractBinding<BindingProvider> {
+
+        final List<String> commands = new ArrayList<String>();
+
+        final List<String> updates = new ArrayList<String>();
+
+        @Override
+        protected void internalReceiveCommand(String itemName, Command command) {
+            commands.add(itemName + " " + command);
+        }
+
+        @Override
+        protected void internalReceiveUpdate(String itemName, State newState) {
+            updates.add(itemName + " " + newState);
+        }
+    }
+
+    /**
+     * A binding handling the commands of items it has no binding configuration for.
+     */
+    private static class AllItemsBinding extends AbstractBinding<BindingProvider> {
+
+        final List<String> commands = new ArrayList<String>();
+
+        @Override
+        public void receiveCommand(String itemName, Command command) {
+            commands.add(itemName + " " + command);
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.core.events;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.openhab.core.types.EventType;
+
+/**
+ * Tests that the topic parsing of the {@link AbstractEventSubscriber} accepts exactly the topics the former
+ * <code>split()</code> based parsing accepted.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class AbstractEventSubscriberTest {
+
+    @Test
+    public void testValidTopics() {
+        assertEquals(EventType.UPDATE, AbstractEventSubscriber.parseEventType("openhab/update/Light"));
+        assertEquals(EventType.COMMAND, AbstractEventSubscriber.parseEventType("openhab/command/Light"));
+        assertEquals(EventType.COMMAND, AbstractEventSubscriber.parseEventType("openhab/command/Light/x"));
+    }
+
+    @Test
+    public void testMalformedTopics() {
+        String[] topics = { null, "", "/", "openhab", "openhab/", "openhab/update", "openhab/update/",
+                "openhab/update//", "openhab/update//x", "openhab//update/x", "/openhab/update/x", "openhabx/update/x",
+                "openhab/UPDATE/x", "openhab/updates/x", "openhab/updat/x", "openhab/command/ /", "openhab/x/update",
+                "OPENHAB/command/x", "openhab/command///" };
+        for (String topic : topics) {
+            assertEquals(String.valueOf(topic), splitEventType(topic),
+                    AbstractEventSubscriber.parseEventType(topic));
+        }
+        assertNull(AbstractEventSubscriber.parseEventType("openhab/update//"));
+        assertNull(AbstractEventSubscriber.parseEventType("/openhab/update/x"));
+    }
+
+    @Test
+    public void testRandomTopics() {
+        String[] segments = { "openhab", "update", "command", "", "x", " ", "Update", "openhab/" };
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder topic = new StringBuilder();
+            int count = random.nextInt(6);
+            for (int j = 0; j < count; j++) {
+                if (j > 0 || random.nextInt(4) == 0) {
+                    topic.append('/');
+                }
+                topic.append(segments[random.nextInt(segments.length)]);
+            }
+            if (random.nextInt(4) == 0) {
+                topic.append('/');
+            }
+            assertEquals(topic.toString(), splitEventType(topic.toString()),
+                    AbstractEventSubscriber.parseEventType(topic.toString()));
+        }
+    }
+
+    /**
+     * The parsing of the topic as done before it was parsed without splitting.
+     */
+    private static EventType splitEventType(String topic) {
+        if (topic == null) {
+            return null;
+        }
+        String[] topicParts = topic.split(EventConstants.TOPIC_SEPERATOR);
+        if (!(topicParts.length > 2) || !topicParts[0].equals(EventConstants.TOPIC_PREFIX)) {
+            return null;
+        }
+        for (EventType eventType : EventType.values()) {
+            if (topicParts[1].equals(eventType.toString())) {
+                return eventType;
+            }
+        }
+        return null;
+    }
+
+}
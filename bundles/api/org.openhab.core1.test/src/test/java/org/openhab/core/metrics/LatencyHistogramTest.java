@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.core.metrics;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of the bucket boundaries and percentiles of the {@link LatencyHistogram}.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class LatencyHistogramTest {
+
+    private static final long MAX_EXACT = 1L << 41;
+
+    @Test
+    public void testSmallValuesHaveOwnBuckets() {
+        for (int i = 0; i <= 15; i++) {
+            assertEquals(i, LatencyHistogram.getBucket(i));
+            assertEquals(i, LatencyHistogram.getUpperBound(i));
+        }
+    }
+
+    @Test
+    public void testBucketBoundaries() {
+        assertEquals(15, LatencyHistogram.getBucket(15));
+        assertEquals(16, LatencyHistogram.getBucket(16));
+        assertEquals(16, LatencyHistogram.getUpperBound(16));
+        assertEquals(31, LatencyHistogram.getBucket(31));
+        assertEquals(31, LatencyHistogram.getUpperBound(31));
+
+        // from 32 on the buckets are two and more values wide
+        assertEquals(32, LatencyHistogram.getBucket(32));
+        assertEquals(32, LatencyHistogram.getBucket(33));
+        assertEquals(33, LatencyHistogram.getUpperBound(32));
+        assertEquals(33, LatencyHistogram.getBucket(34));
+
+        int bucket = LatencyHistogram.getBucket(1L << 40);
+        assertEquals(bucket, LatencyHistogram.getBucket((1L << 40) + 1));
+        assertEquals((1L << 40) + (1L << 36) - 1, LatencyHistogram.getUpperBound(bucket));
+        assertEquals(bucket + 1, LatencyHistogram.getBucket((1L << 40) + (1L << 36)));
+        assertEquals(bucket - 1, LatencyHistogram.getBucket((1L << 40) - 1));
+        assertEquals((1L << 40) - 1, LatencyHistogram.getUpperBound(bucket - 1));
+    }
+
+    @Test
+    public void testLongerValuesShareLastBucket() {
+        int last = LatencyHistogram.getBucket(MAX_EXACT - 1);
+        assertEquals(last, LatencyHistogram.getBucket(MAX_EXACT));
+        assertEquals(last, LatencyHistogram.getBucket(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.getUpperBound(last));
+    }
+
+    @Test
+    public void testEveryValueFallsIntoItsBucket() {
+        int last = LatencyHistogram.getBucket(Long.MAX_VALUE);
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            long value = random.nextLong() & (MAX_EXACT - 1) >>> random.nextInt(41);
+            int bucket = LatencyHistogram.getBucket(value);
+            long upperBound = LatencyHistogram.getUpperBound(bucket);
+            assertTrue(value + " > " + upperBound, value <= upperBound);
+            if (bucket > 0) {
+                assertTrue(value + " <= " + upperBound, value > LatencyHistogram.getUpperBound(bucket - 1));
+            }
+            // the buckets are at most 6.25% wide, apart from the last one which also counts all longer values
+            if (bucket < last) {
+                assertTrue(value + " in bucket up to " + upperBound, upperBound - value <= value / 16);
+            } else {
+                assertTrue(value + " in last bucket", value >= MAX_EXACT - (MAX_EXACT >>> 5));
+            }
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram("test_seconds", "test", new String[0]);
+        assertEquals(0, histogram.getPercentile(50));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500500, histogram.getSum());
+
+        assertEquals(1, histogram.getPercentile(0));
+        assertEquals(1, histogram.getPercentile(-1));
+        assertEquals(1000, histogram.getPercentile(100));
+        assertEquals(1000, histogram.getPercentile(101));
+        assertPercentile(500, histogram.getPercentile(50));
+        assertPercentile(900, histogram.getPercentile(90));
+        assertPercentile(990, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void testPercentileOfLongDurations() {
+        LatencyHistogram histogram = new LatencyHistogram("test_seconds", "test", new String[0]);
+        histogram.record(-5);
+        histogram.record(MAX_EXACT * 4);
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(MAX_EXACT * 4, histogram.getPercentile(100));
+        assertEquals(MAX_EXACT * 4, histogram.getMax());
+    }
+
+    private static void assertPercentile(long expected, long actual) {
+        assertTrue(actual + " < " + expected, actual >= expected);
+        assertTrue(actual + " more than 6.25% above " + expected, actual <= expected + expected / 16);
+    }
+
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.core.metrics;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the Prometheus export of the {@link MetricsRegistry}.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class MetricsRegistryTest {
+
+    @Before
+    public void setUp() {
+        MetricsRegistry.clear();
+        MetricsRegistry.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        MetricsRegistry.clear();
+    }
+
+    @Test
+    public void testEscapesLabelValues() throws IOException {
+        MetricsRegistry.counter("test_total", "test", "binding", "a\"b\\c\nd").add(3);
+        MetricsRegistry.counter("test_total", "test", "binding", null).increment();
+
+        List<String> samples = getSamples(writePrometheus());
+        assertEquals(2, samples.size());
+        assertTrue(samples.contains("test_total{binding=\"a\\\"b\\\\c\\nd\"} 3"));
+        assertTrue(samples.contains("test_total{binding=\"\"} 1"));
+    }
+
+    @Test
+    public void testEscapesHelp() throws IOException {
+        MetricsRegistry.counter("test_total", "first line\nsecond \\ line");
+
+        assertTrue(writePrometheus().startsWith("# HELP test_total first line\\nsecond \\\\ line\n"));
+    }
+
+    @Test
+    public void testOneHeaderPerName() throws IOException {
+        // names which sort between the ids of the same metric with and without labels
+        MetricsRegistry.counter("test", "test");
+        MetricsRegistry.counter("test", "test", "binding", "b");
+        MetricsRegistry.counter("test_a", "test a");
+        MetricsRegistry.counter("test", "test", "binding", "a");
+        MetricsRegistry.histogram("test_seconds", "test seconds", "binding", "a").record(1000);
+        MetricsRegistry.histogram("test_seconds", "test seconds", "binding", "b").record(2000);
+        MetricsRegistry.gauge("test_gauge", "test gauge", new Gauge.ValueProvider() {
+            @Override
+            public double getValue() {
+                return 1.5;
+            }
+        });
+
+        String text = writePrometheus();
+        for (String name : new String[] { "test", "test_a", "test_seconds", "test_gauge" }) {
+            assertEquals(name, 1, count(text, "# HELP " + name + " "));
+            assertEquals(name, 1, count(text, "# TYPE " + name + " "));
+        }
+
+        // the samples of a metric follow its header
+        String[] lines = text.split("\n");
+        String name = null;
+        for (String line : lines) {
+            if (line.startsWith("# TYPE ")) {
+                name = line.split(" ")[2];
+            } else if (!line.startsWith("#")) {
+                assertTrue(line + " after header of " + name, line.startsWith(name + "{") || line.startsWith(name + " ")
+                        || line.startsWith(name + "_sum") || line.startsWith(name + "_count"));
+            }
+        }
+        assertTrue(text.contains("# TYPE test_seconds summary\n"));
+        assertTrue(text.contains("test_seconds{binding=\"a\",quantile=\"0.5\"} 1.0E-6\n"));
+        assertTrue(text.contains("test_seconds_count{binding=\"b\"} 1\n"));
+        assertTrue(text.contains("test_gauge 1.5\n"));
+    }
+
+    private static String writePrometheus() throws IOException {
+        StringBuilder out = new StringBuilder();
+        MetricsRegistry.writePrometheus(out);
+        return out.toString();
+    }
+
+    private static List<String> getSamples(String text) {
+        List<String> samples = new ArrayList<>();
+        for (String line : text.split("\n")) {
+            if (!line.startsWith("#")) {
+                samples.add(line);
+            }
+        }
+        return samples;
+    }
+
+    private static int count(String text, String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.multimedia.tts;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Hashtable;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link TTSAudioCache} in memory and on disk.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class TTSAudioCacheTest {
+
+    private static final AudioFormat FORMAT = new AudioFormat(16000, 16, 1, true, false);
+
+    private static final long DAY = 24 * 60 * 60 * 1000;
+
+    private File folder;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = File.createTempFile("tts", "");
+        folder.delete();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(folder);
+    }
+
+    @Test
+    public void testMemoryCache() throws IOException {
+        TTSAudioCache cache = new TTSAudioCache("test", folder);
+        cache.setDiskEnabled(false);
+
+        assertNull(cache.get("voice", "hello"));
+        cache.put("voice", "hello", FORMAT, audio(1000, 1));
+
+        AudioInputStream audio = cache.get("voice", "hello");
+        assertEquals(FORMAT.toString(), audio.getFormat().toString());
+        assertArrayEquals(audio(1000, 1), IOUtils.toByteArray(audio));
+        assertNull(cache.get("other voice", "hello"));
+        assertFalse(folder.exists());
+    }
+
+    @Test
+    public void testMemoryLimitDropsLeastRecentlyUsed() {
+        TTSAudioCache cache = new TTSAudioCache("test", folder);
+        cache.setDiskEnabled(false);
+        cache.setMemoryLimit(2500);
+
+        cache.put("voice", "one", FORMAT, audio(1000, 1));
+        cache.put("voice", "two", FORMAT, audio(1000, 2));
+        assertNotNull(cache.get("voice", "one"));
+        cache.put("voice", "three", FORMAT, audio(1000, 3));
+
+        assertNotNull(cache.get("voice", "one"));
+        assertNull(cache.get("voice", "two"));
+        assertNotNull(cache.get("voice", "three"));
+    }
+
+    @Test
+    public void testDiskCacheSurvivesRestart() throws IOException {
+        TTSAudioCache cache = new TTSAudioCache("test", folder);
+        cache.put("voice", "hello", FORMAT, audio(1000, 1));
+        assertEquals(1, cacheFiles().length);
+
+        TTSAudioCache restarted = new TTSAudioCache("test", folder);
+        AudioInputStream audio = restarted.get("voice", "hello");
+        assertNotNull(audio);
+        assertEquals(FORMAT.toString(), audio.getFormat().toString());
+        assertArrayEquals(audio(1000, 1), IOUtils.toByteArray(audio));
+
+        restarted.clear();
+        assertEquals(0, cacheFiles().length);
+    }
+
+    @Test
+    public void testDiskLimitDeletesLeastRecentlyUsed() {
+        TTSAudioCache cache = new TTSAudioCache("test", folder);
+        cache.setMemoryLimit(0);
+
+        cache.put("voice", "one", FORMAT, audio(4000, 1));
+        cache.put("voice", "two", FORMAT, audio(4000, 2));
+        long fileSize = cacheFiles()[0].length();
+        ageFiles(2 * DAY);
+
+        // reading a file marks it as used
+        assertNotNull(cache.get("voice", "one"));
+        cache.setDiskLimits(2 * fileSize + fileSize / 2, 0);
+        cache.put("voice", "three", FORMAT, audio(4000, 3));
+
+        assertEquals(2, cacheFiles().length);
+        assertNotNull(cache.get("voice", "one"));
+        assertNull(cache.get("voice", "two"));
+        assertNotNull(cache.get("voice", "three"));
+    }
+
+    @Test
+    public void testDiskMaxAgeDeletesUnusedFiles() {
+        TTSAudioCache cache = new TTSAudioCache("test", folder);
+        cache.setMemoryLimit(0);
+        cache.put("voice", "old", FORMAT, audio(1000, 1));
+        ageFiles(10 * DAY);
+        cache.put("voice", "new", FORMAT, audio(1000, 2));
+
+        cache.setDiskLimits(TTSAudioCache.DEFAULT_DISK_LIMIT, 0);
+        assertEquals(2, cacheFiles().length);
+
+        cache.setDiskLimits(TTSAudioCache.DEFAULT_DISK_LIMIT, 5 * DAY);
+        assertEquals(1, cacheFiles().length);
+        assertNull(cache.get("voice", "old"));
+        assertNotNull(cache.get("voice", "new"));
+    }
+
+    @Test
+    public void testConfigure() {
+        TTSAudioCache cache = new TTSAudioCache("test", folder);
+        cache.put("voice", "old", FORMAT, audio(1000, 1));
+        ageFiles(10 * DAY);
+
+        Hashtable<String, Object> properties = new Hashtable<String, Object>();
+        properties.put(TTSAudioCache.CACHE_SIZE_PROPERTY, "0");
+        properties.put(TTSAudioCache.DISK_CACHE_AGE_PROPERTY, "5");
+        cache.configure(properties);
+        assertEquals(0, cacheFiles().length);
+
+        properties.put(TTSAudioCache.DISK_CACHE_PROPERTY, "false");
+        cache.configure(properties);
+        cache.put("voice", "hello", FORMAT, audio(1000, 1));
+        assertEquals(0, cacheFiles().length);
+        assertNull(cache.get("voice", "hello"));
+    }
+
+    private File[] cacheFiles() {
+        File[] files = folder.listFiles();
+        return files != null ? files : new File[0];
+    }
+
+    private void ageFiles(long age) {
+        for (File file : cacheFiles()) {
+            file.setLastModified(System.currentTimeMillis() - age);
+        }
+    }
+
+    private static byte[] audio(int length, int seed) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i * seed);
+        }
+        return data;
+    }
+
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.net.actions;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.net.actions.PingEngine.Target;
+
+/**
+ * Tests of the {@link PingEngine} against local server sockets.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class PingEngineTest {
+
+    private static final String LOCALHOST = "127.0.0.1";
+
+    private ServerSocket server;
+
+    private ServerSocket otherServer;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getByName(LOCALHOST));
+        otherServer = new ServerSocket(0, 50, InetAddress.getByName(LOCALHOST));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+        otherServer.close();
+    }
+
+    @Test
+    public void testReachablePort() {
+        long rtt = PingEngine.check(LOCALHOST, server.getLocalPort(), 1000);
+        assertTrue("rtt " + rtt, rtt >= 0 && rtt < 1000);
+    }
+
+    @Test
+    public void testClosedPort() throws IOException {
+        int port = closedPort();
+        assertEquals(-1, PingEngine.check(LOCALHOST, port, 1000));
+    }
+
+    @Test
+    public void testUnknownHost() {
+        assertEquals(-1, PingEngine.check("unknown.host.invalid", 80, 1000));
+    }
+
+    @Test
+    public void testCheckAllAtOnce() throws IOException {
+        Target reachable = new Target(LOCALHOST, server.getLocalPort(), 1000);
+        Target otherReachable = new Target(LOCALHOST, otherServer.getLocalPort(), 1000);
+        Target closed = new Target(LOCALHOST, closedPort(), 1000);
+        Target unknown = new Target("unknown.host.invalid", 80, 1000);
+
+        Map<Target, Long> results = PingEngine.check(Arrays.asList(reachable, unknown, closed, otherReachable,
+                new Target(LOCALHOST, server.getLocalPort(), 1000)), 0);
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(reachable) >= 0);
+        assertTrue(results.get(otherReachable) >= 0);
+        assertEquals(-1L, results.get(closed).longValue());
+        assertEquals(-1L, results.get(unknown).longValue());
+    }
+
+    @Test
+    public void testSpreadStartsAllChecks() {
+        Target reachable = new Target(LOCALHOST, server.getLocalPort(), 1000);
+        Target otherReachable = new Target(LOCALHOST, otherServer.getLocalPort(), 1000);
+
+        long start = System.currentTimeMillis();
+        Map<Target, Long> results = PingEngine.check(Arrays.asList(reachable, otherReachable), 200);
+
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        assertTrue(results.get(reachable) >= 0);
+        assertTrue(results.get(otherReachable) >= 0);
+    }
+
+    @Test
+    public void testEmptyTargets() {
+        assertTrue(PingEngine.check(Arrays.<Target> asList(), 100).isEmpty());
+    }
+
+    private int closedPort() throws IOException {
+        ServerSocket socket = new ServerSocket(0, 50, InetAddress.getByName(LOCALHOST));
+        int port = socket.getLocalPort();
+        socket.close();
+        return port;
+    }
+
+}
@@ -0,0 +1,322 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.net.outbox;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Hashtable;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link Outbox} with a sender recording the messages.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class OutboxTest {
+
+    private static final long FAR_FUTURE = Long.MAX_VALUE / 2;
+
+    private File folder;
+
+    private File file;
+
+    private RecordingSender sender;
+
+    private Outbox outbox;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = File.createTempFile("outbox", "");
+        folder.delete();
+        file = new File(folder, "test.properties");
+        sender = new RecordingSender();
+        outbox = new Outbox("test", sender, 0, 1000, file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        outbox.stop();
+        FileUtils.deleteDirectory(folder);
+    }
+
+    @Test
+    public void testSendsMessages() throws InterruptedException {
+        outbox.start();
+        assertTrue(outbox.enqueue(message("one")));
+        assertTrue(outbox.enqueue(message("two")));
+
+        assertEquals("one", sender.next().getField("text"));
+        assertEquals("two", sender.next().getField("text"));
+        waitUntilEmpty();
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testRateLimit() throws InterruptedException {
+        outbox.setRateLimit(2, 1000);
+        outbox.start();
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 3; i++) {
+            outbox.enqueue(message("message " + i));
+        }
+
+        sender.next();
+        sender.next();
+        assertTrue(System.currentTimeMillis() - start < 400);
+        // the bucket is empty, the next token is available after half of the period
+        sender.next();
+        long elapsed = System.currentTimeMillis() - start;
+        assertTrue("elapsed " + elapsed, elapsed >= 450 && elapsed < 1500);
+    }
+
+    @Test
+    public void testMergesIdenticalMessages() throws InterruptedException {
+        assertTrue(outbox.enqueue(message("hello")));
+        assertTrue(outbox.enqueue(message("hello")));
+        assertTrue(outbox.enqueue(message("other")));
+        assertEquals(2, outbox.size());
+
+        // a message excluded from merging is neither merged into a waiting message nor are others merged into it
+        assertTrue(outbox.enqueue(message("hello").withoutMerging()));
+        assertTrue(outbox.enqueue(message("hello").withoutMerging()));
+        assertEquals(4, outbox.size());
+
+        outbox.start();
+        for (int i = 0; i < 4; i++) {
+            sender.next();
+        }
+        waitUntilEmpty();
+
+        // sent within the merge window
+        outbox.enqueue(message("hello"));
+        assertEquals(0, outbox.size());
+        outbox.enqueue(message("hello").withoutMerging());
+        assertEquals("hello", sender.next().getField("text"));
+    }
+
+    @Test
+    public void testMergeWindowDisabled() {
+        Hashtable<String, Object> config = new Hashtable<String, Object>();
+        config.put(Outbox.MERGE_WINDOW_PROPERTY, "0");
+        outbox.configure(config);
+
+        outbox.enqueue(message("hello"));
+        outbox.enqueue(message("hello"));
+        assertEquals(2, outbox.size());
+    }
+
+    @Test
+    public void testDefaultMergeWindow() {
+        outbox.setDefaultMergeWindow(0);
+        outbox.configure(new Hashtable<String, Object>());
+        outbox.enqueue(message("hello"));
+        outbox.enqueue(message("hello"));
+        assertEquals(2, outbox.size());
+
+        Hashtable<String, Object> config = new Hashtable<String, Object>();
+        config.put(Outbox.MERGE_WINDOW_PROPERTY, "10");
+        outbox.configure(config);
+        outbox.enqueue(message("hello"));
+        assertEquals(2, outbox.size());
+    }
+
+    @Test
+    public void testBacksOffAndDropsAfterMaxAttempts() throws InterruptedException {
+        Hashtable<String, Object> config = new Hashtable<String, Object>();
+        config.put(Outbox.MAX_ATTEMPTS_PROPERTY, "3");
+        outbox.configure(config);
+        sender.result = OutboxSender.Result.RETRY;
+        outbox.start();
+
+        OutboxMessage message = message("hello");
+        long start = System.currentTimeMillis();
+        outbox.enqueue(message);
+        sender.next();
+        waitFor(message, 1);
+        synchronized (outbox) {
+            assertTrue(message.nextAttempt >= start + 5000);
+            assertTrue(message.nextAttempt <= System.currentTimeMillis() + 5000);
+            message.nextAttempt = 0;
+        }
+
+        // the backoff doubles with every attempt
+        start = System.currentTimeMillis();
+        OutboxMessage trigger = message("trigger").withoutMerging();
+        outbox.enqueue(trigger);
+        assertSame(message, sender.next());
+        assertSame(trigger, sender.next());
+        waitFor(trigger, 1);
+        synchronized (outbox) {
+            assertEquals(2, message.attempts);
+            assertTrue(message.nextAttempt >= start + 10000);
+            message.nextAttempt = 0;
+        }
+
+        // the third attempt is the last one
+        OutboxMessage otherTrigger = message("other trigger");
+        outbox.enqueue(otherTrigger);
+        assertSame(message, sender.next());
+        assertSame(otherTrigger, sender.next());
+        waitFor(otherTrigger, 1);
+        assertEquals(3, message.attempts);
+        assertEquals(2, outbox.size());
+    }
+
+    @Test
+    public void testDropsRejectedMessages() throws InterruptedException {
+        sender.result = OutboxSender.Result.FAILED;
+        outbox.start();
+        outbox.enqueue(message("hello"));
+        sender.next();
+        waitUntilEmpty();
+    }
+
+    @Test
+    public void testStoresMessagesAcrossRestart() throws IOException {
+        outbox.pauseUntil(FAR_FUTURE);
+        outbox.start();
+        OutboxMessage retried = message("retried");
+        retried.attempts = 3;
+        outbox.enqueue(retried);
+        outbox.enqueue(message("photo").withoutMerging());
+        outbox.enqueue(message("secret").withSecret("password", "geheim"));
+        outbox.stop();
+
+        assertTrue(file.exists());
+        Properties stored = load();
+        assertFalse(stored.containsValue("geheim"));
+        assertFalse(stored.containsValue("secret"));
+
+        Outbox restarted = new Outbox("test", sender, 0, 1000, file);
+        restarted.pauseUntil(FAR_FUTURE);
+        restarted.start();
+        assertEquals(2, restarted.size());
+        restarted.enqueue(message("retried"));
+        restarted.enqueue(message("photo"));
+        // the retried message is merged, the photo is still excluded from merging
+        assertEquals(3, restarted.size());
+        restarted.stop();
+
+        Properties properties = load();
+        assertEquals("retried", properties.getProperty("0.field.text"));
+        assertEquals("3", properties.getProperty("0.attempts"));
+        assertEquals("photo", properties.getProperty("1.field.text"));
+        assertEquals("false", properties.getProperty("1.mergeable"));
+        assertNull(properties.getProperty("0.mergeable"));
+    }
+
+    @Test
+    public void testWritesChangesDelayed() throws IOException, InterruptedException {
+        outbox.pauseUntil(FAR_FUTURE);
+        outbox.start();
+        outbox.enqueue(message("one"));
+        outbox.enqueue(message("two"));
+
+        // the messages are written together after a while, not once per message
+        assertFalse(file.exists());
+        for (int i = 0; i < 150 && !file.exists(); i++) {
+            Thread.sleep(20);
+        }
+        Properties properties = load();
+        assertEquals("one", properties.getProperty("0.field.text"));
+        assertEquals("two", properties.getProperty("1.field.text"));
+    }
+
+    @Test
+    public void testOnlySecretMessagesLeaveNoFile() {
+        outbox.pauseUntil(FAR_FUTURE);
+        outbox.start();
+        outbox.enqueue(message("secret").withSecret("password", "geheim"));
+        outbox.stop();
+
+        assertFalse(file.exists());
+        assertEquals(1, outbox.size());
+    }
+
+    @Test
+    public void testNotPersisted() {
+        Hashtable<String, Object> config = new Hashtable<String, Object>();
+        config.put(Outbox.PERSIST_PROPERTY, "false");
+        outbox.configure(config);
+        outbox.pauseUntil(FAR_FUTURE);
+        outbox.start();
+        outbox.enqueue(message("hello"));
+        outbox.stop();
+
+        assertFalse(file.exists());
+    }
+
+    private Properties load() throws IOException {
+        Properties properties = new Properties();
+        InputStream in = new FileInputStream(file);
+        try {
+            properties.load(in);
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+        return properties;
+    }
+
+    private void waitUntilEmpty() throws InterruptedException {
+        for (int i = 0; i < 100 && outbox.size() > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, outbox.size());
+    }
+
+    private void waitFor(OutboxMessage message, int attempts) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            synchronized (outbox) {
+                if (message.attempts >= attempts) {
+                    return;
+                }
+            }
+            Thread.sleep(20);
+        }
+        fail("message was not attempted " + attempts + " times");
+    }
+
+    private static OutboxMessage message(String text) {
+        return new OutboxMessage().with("text", text);
+    }
+
+    private static class RecordingSender implements OutboxSender {
+
+        private final BlockingQueue<OutboxMessage> sent = new LinkedBlockingQueue<OutboxMessage>();
+
+        volatile Result result = Result.SENT;
+
+        @Override
+        public Result send(OutboxMessage message) {
+            sent.add(message);
+            return result;
+        }
+
+        OutboxMessage next() throws InterruptedException {
+            OutboxMessage message = sent.poll(2, TimeUnit.SECONDS);
+            assertNotNull("no message sent", message);
+            return message;
+        }
+    }
+
+}
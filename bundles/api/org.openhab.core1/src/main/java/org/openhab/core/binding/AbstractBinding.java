@@ -9,10 +9,16 @@
 package org.openhab.core.binding;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.openhab.core.events.AbstractEventSubscriber;
 import org.openhab.core.events.EventPublisher;
+import org.openhab.core.metrics.Counter;
+import org.openhab.core.metrics.LatencyHistogram;
+import org.openhab.core.metrics.MetricsRegistry;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.State;
 
@@ -32,6 +38,56 @@ public abstract class AbstractBinding<P extends BindingProvider> extends Abstrac
 
     protected EventPublisher eventPublisher = null;
 
+    /**
+     * the names of all items any of the providers has a binding for, used to drop the events of all other items
+     * before any provider is asked; <code>null</code> if the binding wants to receive the events of all items
+     */
+    private volatile Set<String> boundItemNames;
+
+    /** keeps {@link #boundItemNames} up to date, it is notified before the binding itself */
+    private final BindingChangeListener boundItemNamesUpdater = new BindingChangeListener() {
+        @Override
+        public void bindingChanged(BindingProvider provider, String itemName) {
+            updateBoundItemName(itemName);
+        }
+
+        @Override
+        public void allBindingsChanged(BindingProvider provider) {
+            updateBoundItemNames();
+        }
+    };
+
+    private final Counter commandCounter;
+
+    private final Counter updateCounter;
+
+    private final LatencyHistogram commandLatency;
+
+    public AbstractBinding() {
+        String bindingName = getClass().getSimpleName();
+        commandCounter = MetricsRegistry.counter("openhab_binding_commands_total",
+                "Commands received for items bound to the binding", "binding", bindingName);
+        updateCounter = MetricsRegistry.counter("openhab_binding_updates_total",
+                "State updates received for items bound to the binding", "binding", bindingName);
+        commandLatency = MetricsRegistry.histogram("openhab_binding_command_seconds",
+                "Time the binding takes to handle a command", "binding", bindingName);
+
+        // bindings which override receiveCommand() or receiveUpdate() might handle items without a binding
+        // configuration, so they keep receiving all events
+        if (isDeclaredHere("receiveCommand", Command.class) && isDeclaredHere("receiveUpdate", State.class)) {
+            boundItemNames = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        }
+    }
+
+    private boolean isDeclaredHere(String methodName, Class<?> parameterType) {
+        try {
+            return getClass().getMethod(methodName, String.class, parameterType)
+                    .getDeclaringClass() == AbstractBinding.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
     public void setEventPublisher(EventPublisher eventPublisher) {
         this.eventPublisher = eventPublisher;
     }
@@ -57,7 +113,9 @@ public abstract class AbstractBinding<P extends BindingProvider> extends Abstrac
     @SuppressWarnings("unchecked")
     public void addBindingProvider(BindingProvider provider) {
         this.providers.add((P) provider);
+        provider.addBindingChangeListener(boundItemNamesUpdater);
         provider.addBindingChangeListener(this);
+        updateBoundItemNames();
         allBindingsChanged(provider);
     }
 
@@ -70,6 +128,8 @@ public abstract class AbstractBinding<P extends BindingProvider> extends Abstrac
     public void removeBindingProvider(BindingProvider provider) {
         this.providers.remove(provider);
         provider.removeBindingChangeListener(this);
+        provider.removeBindingChangeListener(boundItemNamesUpdater);
+        updateBoundItemNames();
     }
 
     /**
@@ -85,13 +145,51 @@ public abstract class AbstractBinding<P extends BindingProvider> extends Abstrac
         return false;
     }
 
+    /**
+     * Drops the events of items none of the {@link BindingProvider}s has a binding for, without asking the providers.
+     */
+    @Override
+    protected boolean isSubscribedTo(String itemName) {
+        Set<String> itemNames = boundItemNames;
+        return itemNames == null || itemNames.contains(itemName);
+    }
+
+    private synchronized void updateBoundItemName(String itemName) {
+        Set<String> itemNames = boundItemNames;
+        if (itemNames == null) {
+            return;
+        }
+        if (providesBindingFor(itemName)) {
+            itemNames.add(itemName);
+        } else {
+            itemNames.remove(itemName);
+        }
+    }
+
+    private synchronized void updateBoundItemNames() {
+        if (boundItemNames == null) {
+            return;
+        }
+        Set<String> itemNames = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        for (P provider : providers) {
+            itemNames.addAll(provider.getItemNames());
+        }
+        boundItemNames = itemNames;
+    }
+
     @Override
     public void receiveCommand(String itemName, Command command) {
         // does any provider contain a binding config?
         if (!providesBindingFor(itemName)) {
             return;
         }
-        internalReceiveCommand(itemName, command);
+        commandCounter.increment();
+        long start = System.nanoTime();
+        try {
+            internalReceiveCommand(itemName, command);
+        } finally {
+            commandLatency.recordSince(start);
+        }
     }
 
     /**
@@ -110,6 +208,7 @@ public abstract class AbstractBinding<P extends BindingProvider> extends Abstrac
         if (!providesBindingFor(itemName)) {
             return;
         }
+        updateCounter.increment();
         internalReceiveUpdate(itemName, newState);
     }
 
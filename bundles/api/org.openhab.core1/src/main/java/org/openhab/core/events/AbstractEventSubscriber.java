@@ -21,25 +21,28 @@ import org.osgi.service.event.EventHandler;
  * @author Kai Kreuzer - Initial contribution
  */
 abstract public class AbstractEventSubscriber implements EventHandler {
+
+    private static final String TOPIC_START = TOPIC_PREFIX + TOPIC_SEPERATOR;
+
     @Override
     public void handleEvent(Event event) {
         String itemName = (String) event.getProperty("item");
+        if (itemName != null && !isSubscribedTo(itemName)) {
+            return;
+        }
 
-        String topic = event.getTopic();
-        String[] topicParts = topic.split(TOPIC_SEPERATOR);
-
-        if (!(topicParts.length > 2) || !topicParts[0].equals(TOPIC_PREFIX)) {
+        EventType eventType = parseEventType(event.getTopic());
+        if (eventType == null) {
             return; // we have received an event with an invalid topic
         }
-        String operation = topicParts[1];
 
-        if (operation.equals(EventType.UPDATE.toString())) {
+        if (eventType == EventType.UPDATE) {
             State newState = (State) event.getProperty("state");
             if (newState != null) {
                 receiveUpdate(itemName, newState);
             }
         }
-        if (operation.equals(EventType.COMMAND.toString())) {
+        if (eventType == EventType.COMMAND) {
             Command command = (Command) event.getProperty("command");
             if (command != null) {
                 receiveCommand(itemName, command);
@@ -47,6 +50,55 @@ abstract public class AbstractEventSubscriber implements EventHandler {
         }
     }
 
+    /**
+     * Is called for each event before its topic is parsed, so subscribers which only care about some items can drop
+     * all other events as early as possible.
+     *
+     * @param itemName the name of the item the event is about
+     * @return <code>true</code> if events of the item should be passed to <code>receiveCommand()</code> and
+     *         <code>receiveUpdate()</code>, the default implementation accepts all items
+     */
+    protected boolean isSubscribedTo(String itemName) {
+        return true;
+    }
+
+    /**
+     * Determines the type of an event from its topic <code>openhab/&lt;type&gt;/&lt;item&gt;</code> without splitting
+     * the topic.
+     *
+     * @param topic the topic of the event
+     * @return the type of the event or <code>null</code> if the topic is not a valid openHAB item topic
+     */
+    static EventType parseEventType(String topic) {
+        if (topic == null || !topic.startsWith(TOPIC_START)) {
+            return null;
+        }
+        int start = TOPIC_START.length();
+        int end = topic.indexOf(TOPIC_SEPERATOR, start);
+        if (end < 0 || !hasSegment(topic, end + TOPIC_SEPERATOR.length())) {
+            return null;
+        }
+        for (EventType eventType : EventType.values()) {
+            String name = eventType.toString();
+            if (name.length() == end - start && topic.startsWith(name, start)) {
+                return eventType;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return <code>true</code> if the topic contains something else than separators after the given position
+     */
+    private static boolean hasSegment(String topic, int from) {
+        for (int i = from; i < topic.length(); i = i + TOPIC_SEPERATOR.length()) {
+            if (!topic.startsWith(TOPIC_SEPERATOR, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public void receiveCommand(String itemName, Command command) {
         // default implementation: do nothing
     }
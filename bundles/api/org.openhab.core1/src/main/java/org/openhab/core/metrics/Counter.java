@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A metric which counts events, e.g. received commands. The count only increases.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class Counter extends Metric {
+
+    private final AtomicLong count = new AtomicLong();
+
+    Counter(String name, String help, String[] labels) {
+        super(name, help, labels);
+    }
+
+    /**
+     * Counts one event.
+     */
+    public void increment() {
+        if (MetricsRegistry.isEnabled()) {
+            count.incrementAndGet();
+        }
+    }
+
+    /**
+     * Counts several events.
+     *
+     * @param events the number of events
+     */
+    public void add(long events) {
+        if (MetricsRegistry.isEnabled()) {
+            count.addAndGet(events);
+        }
+    }
+
+    /**
+     * @return the number of events counted so far
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    @Override
+    public String getType() {
+        return "counter";
+    }
+
+}
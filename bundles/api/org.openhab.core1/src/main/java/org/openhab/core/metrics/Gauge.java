@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.core.metrics;
+
+/**
+ * A metric whose value is read when the metrics are queried, e.g. the length of a queue.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class Gauge extends Metric {
+
+    /**
+     * Provides the current value of a {@link Gauge}.
+     */
+    public interface ValueProvider {
+
+        /**
+         * @return the current value, it must be cheap to determine
+         */
+        double getValue();
+    }
+
+    private final ValueProvider provider;
+
+    Gauge(String name, String help, String[] labels, ValueProvider provider) {
+        super(name, help, labels);
+        this.provider = provider;
+    }
+
+    /**
+     * @return the current value of the gauge
+     */
+    public double getValue() {
+        return provider.getValue();
+    }
+
+    @Override
+    public String getType() {
+        return "gauge";
+    }
+
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.core.metrics;
+
+/**
+ * Base class of all metrics of the {@link MetricsRegistry}. A metric is identified by its name and its labels, e.g.
+ * <code>openhab_binding_commands_total{binding="KNXBinding"}</code>.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public abstract class Metric {
+
+    private final String name;
+
+    private final String help;
+
+    private final String[] labels;
+
+    /**
+     * @param name the name of the metric, in the Prometheus naming scheme
+     * @param help a short description of the metric
+     * @param labels label names and values, alternating
+     */
+    protected Metric(String name, String help, String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels of metric " + name + " must be name/value pairs");
+        }
+        this.name = name;
+        this.help = help;
+        this.labels = labels.clone();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    /**
+     * @return label names and values, alternating
+     */
+    public String[] getLabels() {
+        return labels.clone();
+    }
+
+    /**
+     * @return the Prometheus type of the metric, e.g. <code>counter</code>
+     */
+    public abstract String getType();
+
+    /**
+     * @return the name of the metric followed by its labels in Prometheus notation
+     */
+    public String getId() {
+        return getId(name, labels);
+    }
+
+    static String getId(String name, String[] labels) {
+        if (labels.length == 0) {
+            return name;
+        }
+        StringBuilder id = new StringBuilder(name).append('{');
+        appendLabels(id, labels);
+        return id.append('}').toString();
+    }
+
+    static void appendLabels(StringBuilder builder, String[] labels) {
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(labels[i]).append("=\"");
+            String value = labels[i + 1] == null ? "" : labels[i + 1];
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                if (c == '\\' || c == '"') {
+                    builder.append('\\').append(c);
+                } else if (c == '\n') {
+                    builder.append("\\n");
+                } else {
+                    builder.append(c);
+                }
+            }
+            builder.append('"');
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getId();
+    }
+
+}
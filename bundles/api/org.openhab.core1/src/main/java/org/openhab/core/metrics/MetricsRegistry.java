@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.core.metrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the runtime metrics of openHAB 1 add-ons. The base classes of bindings and active services feed it
+ * automatically, add-ons can register their own metrics. The metrics are shown by the console command
+ * <code>openhabmetrics</code> and exported in the Prometheus text format at <code>/openhab1-metrics</code>.
+ *
+ * Metrics should be looked up once and kept in a field, recording a value is lock-free afterwards. Recording can be
+ * switched off with the system property <code>openhab.metrics=false</code>.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public final class MetricsRegistry {
+
+    private static final double NANOS_PER_SECOND = 1000000000.0;
+
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    private static final ConcurrentMap<String, Metric> metrics = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled = !"false".equalsIgnoreCase(System.getProperty("openhab.metrics"));
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * @return <code>true</code> if values are recorded
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Switches recording on or off, the values recorded so far are kept.
+     */
+    public static void setEnabled(boolean enabled) {
+        MetricsRegistry.enabled = enabled;
+    }
+
+    /**
+     * Returns the counter with the given name and labels, it is created if it does not exist yet.
+     *
+     * @param name the name of the metric, e.g. <code>openhab_binding_commands_total</code>
+     * @param help a short description of the metric
+     * @param labels label names and values, alternating
+     * @return the counter
+     */
+    public static Counter counter(String name, String help, String... labels) {
+        String id = Metric.getId(name, labels);
+        Metric metric = metrics.get(id);
+        if (metric == null) {
+            Metric created = new Counter(name, help, labels);
+            metric = metrics.putIfAbsent(id, created);
+            if (metric == null) {
+                metric = created;
+            }
+        }
+        return cast(metric, Counter.class);
+    }
+
+    /**
+     * Returns the latency histogram with the given name and labels, it is created if it does not exist yet.
+     *
+     * @param name the name of the metric, e.g. <code>openhab_persistence_store_seconds</code>
+     * @param help a short description of the metric
+     * @param labels label names and values, alternating
+     * @return the histogram
+     */
+    public static LatencyHistogram histogram(String name, String help, String... labels) {
+        String id = Metric.getId(name, labels);
+        Metric metric = metrics.get(id);
+        if (metric == null) {
+            Metric created = new LatencyHistogram(name, help, labels);
+            metric = metrics.putIfAbsent(id, created);
+            if (metric == null) {
+                metric = created;
+            }
+        }
+        return cast(metric, LatencyHistogram.class);
+    }
+
+    /**
+     * Returns the histogram for the duration of <code>PersistenceService.store()</code> of a persistence service.
+     *
+     * @param serviceName the name of the persistence service
+     * @return the histogram
+     */
+    public static LatencyHistogram persistenceStoreLatency(String serviceName) {
+        return histogram("openhab_persistence_store_seconds", "Time the persistence service takes to store a state",
+                "service", serviceName);
+    }
+
+    /**
+     * Returns the histogram for the duration of <code>QueryablePersistenceService.query()</code> of a persistence
+     * service.
+     *
+     * @param serviceName the name of the persistence service
+     * @return the histogram
+     */
+    public static LatencyHistogram persistenceQueryLatency(String serviceName) {
+        return histogram("openhab_persistence_query_seconds", "Time the persistence service takes to run a query",
+                "service", serviceName);
+    }
+
+    /**
+     * Registers a gauge, a gauge with the same name and labels is replaced.
+     *
+     * @param name the name of the metric, e.g. <code>openhab_binding_bound_items</code>
+     * @param help a short description of the metric
+     * @param provider provides the current value of the gauge
+     * @param labels label names and values, alternating
+     * @return the gauge
+     */
+    public static Gauge gauge(String name, String help, Gauge.ValueProvider provider, String... labels) {
+        Gauge gauge = new Gauge(name, help, labels, provider);
+        Metric previous = metrics.get(gauge.getId());
+        if (previous != null) {
+            cast(previous, Gauge.class);
+        }
+        metrics.put(gauge.getId(), gauge);
+        return gauge;
+    }
+
+    /**
+     * Removes a metric, e.g. the gauge of a service which is shut down.
+     *
+     * @param metric the metric to remove
+     */
+    public static void remove(Metric metric) {
+        metrics.remove(metric.getId(), metric);
+    }
+
+    /**
+     * @return all registered metrics, sorted by name and labels
+     */
+    public static List<Metric> getMetrics() {
+        List<Metric> result = new ArrayList<>(metrics.values());
+        Collections.sort(result, new Comparator<Metric>() {
+            @Override
+            public int compare(Metric m1, Metric m2) {
+                // by name first, the ids of a metric with labels would be sorted after e.g. name_sum otherwise
+                int byName = m1.getName().compareTo(m2.getName());
+                return byName != 0 ? byName : m1.getId().compareTo(m2.getId());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Resets all metrics by removing them, metrics kept in fields continue to record but are not exported anymore.
+     * Mainly meant for tests.
+     */
+    public static void clear() {
+        metrics.clear();
+    }
+
+    /**
+     * Writes all metrics in the Prometheus text exposition format (version 0.0.4). Durations are exported in
+     * seconds.
+     *
+     * @param out where to write the metrics to
+     * @throws IOException if writing fails
+     */
+    public static void writePrometheus(Appendable out) throws IOException {
+        String lastName = null;
+        for (Metric metric : getMetrics()) {
+            if (!metric.getName().equals(lastName)) {
+                lastName = metric.getName();
+                out.append("# HELP ").append(lastName).append(' ').append(escapeHelp(metric.getHelp())).append('\n');
+                out.append("# TYPE ").append(lastName).append(' ').append(metric.getType()).append('\n');
+            }
+
+            String[] labels = metric.getLabels();
+            if (metric instanceof Counter) {
+                appendSample(out, metric.getName(), labels, ((Counter) metric).getCount());
+            } else if (metric instanceof Gauge) {
+                appendSample(out, metric.getName(), labels, ((Gauge) metric).getValue());
+            } else if (metric instanceof LatencyHistogram) {
+                LatencyHistogram histogram = (LatencyHistogram) metric;
+                String[] quantileLabels = new String[labels.length + 2];
+                System.arraycopy(labels, 0, quantileLabels, 0, labels.length);
+                quantileLabels[labels.length] = "quantile";
+                for (double quantile : QUANTILES) {
+                    quantileLabels[labels.length + 1] = Double.toString(quantile);
+                    appendSample(out, metric.getName(), quantileLabels,
+                            histogram.getPercentile(quantile * 100) / NANOS_PER_SECOND);
+                }
+                appendSample(out, metric.getName() + "_sum", labels, histogram.getSum() / NANOS_PER_SECOND);
+                appendSample(out, metric.getName() + "_count", labels, histogram.getCount());
+            }
+        }
+    }
+
+    private static void appendSample(Appendable out, String name, String[] labels, double value) throws IOException {
+        out.append(Metric.getId(name, labels)).append(' ');
+        if (value == (long) value) {
+            out.append(Long.toString((long) value));
+        } else {
+            out.append(Double.toString(value));
+        }
+        out.append('\n');
+    }
+
+    private static String escapeHelp(String help) {
+        return help == null ? "" : help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+
+    private static <T extends Metric> T cast(Metric metric, Class<T> type) {
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException(
+                    "Metric " + metric.getId() + " is a " + metric.getType() + ", not a " + type.getSimpleName());
+        }
+        return type.cast(metric);
+    }
+
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.core.metrics.internal;
+
+import java.io.IOException;
+
+import org.apache.commons.lang.StringUtils;
+import org.eclipse.osgi.framework.console.CommandInterpreter;
+import org.eclipse.osgi.framework.console.CommandProvider;
+import org.openhab.core.metrics.Counter;
+import org.openhab.core.metrics.Gauge;
+import org.openhab.core.metrics.LatencyHistogram;
+import org.openhab.core.metrics.Metric;
+import org.openhab.core.metrics.MetricsRegistry;
+
+/**
+ * Console commands to show the metrics of the {@link MetricsRegistry}.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class MetricsCommandProvider implements CommandProvider {
+
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    /**
+     * {@inheritDoc}
+     *
+     * Display available metrics commands.
+     */
+    @Override
+    public String getHelp() {
+        StringBuilder buffer = new StringBuilder();
+        buffer.append("--- openHAB 1 Metrics Commands---\n");
+        appendCommand(buffer, "openhabmetrics list [<filter>]", "Show all metrics whose name contains the filter");
+        appendCommand(buffer, "openhabmetrics prometheus", "Show all metrics in the Prometheus text format");
+        appendCommand(buffer, "openhabmetrics enable|disable", "Switch recording of metrics on or off");
+        appendCommand(buffer, "openhabmetrics help", "Print this text");
+        return buffer.toString();
+    }
+
+    private void appendCommand(StringBuilder builder, String command, String description) {
+        builder.append("\t");
+        builder.append(StringUtils.rightPad(command, 43));
+        builder.append(" - ");
+        builder.append(description);
+        builder.append("\n");
+    }
+
+    /**
+     * Metrics command implementation.
+     *
+     * @param intp
+     *            commandInterpreter
+     *
+     * @return null
+     */
+    public Object _openhabmetrics(CommandInterpreter intp) {
+        String cmd = intp.nextArgument();
+        if (cmd == null || cmd.equals("list")) {
+            list(intp, intp.nextArgument());
+        } else if (cmd.equals("prometheus")) {
+            StringBuilder builder = new StringBuilder();
+            try {
+                MetricsRegistry.writePrometheus(builder);
+            } catch (IOException e) {
+                // cannot happen with a StringBuilder
+            }
+            intp.print(builder);
+        } else if (cmd.equals("enable") || cmd.equals("disable")) {
+            MetricsRegistry.setEnabled(cmd.equals("enable"));
+            intp.println("Recording of metrics is " + (MetricsRegistry.isEnabled() ? "enabled" : "disabled"));
+        } else {
+            intp.print(getHelp());
+        }
+        return null;
+    }
+
+    private void list(CommandInterpreter intp, String filter) {
+        if (!MetricsRegistry.isEnabled()) {
+            intp.println("Recording of metrics is disabled");
+        }
+        for (Metric metric : MetricsRegistry.getMetrics()) {
+            if (filter != null && !metric.getId().contains(filter)) {
+                continue;
+            }
+            if (metric instanceof Counter) {
+                intp.println(metric.getId() + " " + ((Counter) metric).getCount());
+            } else if (metric instanceof Gauge) {
+                intp.println(metric.getId() + " " + ((Gauge) metric).getValue());
+            } else if (metric instanceof LatencyHistogram) {
+                LatencyHistogram histogram = (LatencyHistogram) metric;
+                long count = histogram.getCount();
+                intp.println(String.format("%s count=%d mean=%.3fms p50=%.3fms p99=%.3fms max=%.3fms", metric.getId(),
+                        count, count == 0 ? 0 : histogram.getSum() / NANOS_PER_MILLI / count,
+                        histogram.getPercentile(50) / NANOS_PER_MILLI, histogram.getPercentile(99) / NANOS_PER_MILLI,
+                        histogram.getMax() / NANOS_PER_MILLI));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.core.metrics.internal;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Hashtable;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.openhab.core.metrics.MetricsRegistry;
+import org.openhab.io.net.http.SecureHttpContext;
+import org.osgi.service.http.HttpContext;
+import org.osgi.service.http.HttpService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exports the metrics of the {@link MetricsRegistry} in the Prometheus text format, so they can be scraped.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class MetricsServlet extends HttpServlet {
+
+    private static final long serialVersionUID = 2983714021458310753L;
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsServlet.class);
+
+    private static final String SERVLET_NAME = "/openhab1-metrics";
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private HttpService httpService;
+
+    public void setHttpService(HttpService httpService) {
+        this.httpService = httpService;
+    }
+
+    public void unsetHttpService(HttpService httpService) {
+        this.httpService = null;
+    }
+
+    /**
+     * Activates the metrics servlet.
+     */
+    protected void activate() {
+        try {
+            logger.debug("Starting up metrics servlet at {}", SERVLET_NAME);
+
+            Hashtable<String, String> props = new Hashtable<String, String>();
+            httpService.registerServlet(SERVLET_NAME, this, props, createHttpContext());
+        } catch (Exception ex) {
+            logger.error("Error during metrics servlet startup", ex);
+        }
+    }
+
+    /**
+     * Deactivates the metrics servlet.
+     */
+    protected void deactivate() {
+        httpService.unregister(SERVLET_NAME);
+    }
+
+    /**
+     * Creates a SecureHttpContext which handles the security for this servlet.
+     */
+    private HttpContext createHttpContext() {
+        HttpContext defaultHttpContext = httpService.createDefaultHttpContext();
+        return new SecureHttpContext(defaultHttpContext, "openHAB.org");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        StringBuilder metrics = new StringBuilder(4096);
+        MetricsRegistry.writePrometheus(metrics);
+
+        response.setContentType(CONTENT_TYPE);
+        Writer writer = response.getWriter();
+        writer.write(metrics.toString());
+        writer.flush();
+    }
+
+}
@@ -8,6 +8,9 @@
  */
 package org.openhab.core.service;
 
+import org.openhab.core.metrics.Counter;
+import org.openhab.core.metrics.LatencyHistogram;
+import org.openhab.core.metrics.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -148,10 +151,18 @@ public abstract class AbstractActiveService {
 
         private long refreshInterval;
 
+        private final LatencyHistogram executeLatency;
+
+        private final Counter errorCounter;
+
         public RefreshThread(String name, long refreshInterval) {
             super(name);
             this.setDaemon(true);
             this.refreshInterval = refreshInterval;
+            this.executeLatency = MetricsRegistry.histogram("openhab_active_service_execute_seconds",
+                    "Time an execution cycle of the active service takes", "service", name);
+            this.errorCounter = MetricsRegistry.counter("openhab_active_service_errors_total",
+                    "Execution cycles of the active service which failed", "service", name);
 
             // reset 'interrupted' after stopping this refresh thread ...
             shutdown = false;
@@ -162,10 +173,14 @@ public abstract class AbstractActiveService {
             logger.info("{} has been started", getName());
 
             while (!shutdown) {
+                long start = System.nanoTime();
                 try {
                     execute();
                 } catch (RuntimeException e) {
+                    errorCounter.increment();
                     logger.error("Error while executing background thread {}", getName(), e);
+                } finally {
+                    executeLatency.recordSince(start);
                 }
                 pause(refreshInterval);
             }
@@ -0,0 +1,473 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.multimedia.tts;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Dictionary;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache for synthesized speech, to be used by {@link TTSService} implementations so texts which are spoken again and
+ * again are synthesized only once. The audio is keyed by engine, voice and text and held in memory up to a limit, the
+ * least recently used entries are dropped first. Additionally every entry is written compressed to a folder of the
+ * user data, so it survives a restart. The folder is limited in size and age as well, files which were not used for
+ * the longest time are deleted first.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class TTSAudioCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TTSAudioCache.class);
+
+    private static final int FILE_MAGIC = 0x54545331;
+
+    private static final String FILE_EXTENSION = ".pcm.gz";
+
+    /** default memory limit in bytes */
+    public static final long DEFAULT_MEMORY_LIMIT = 8 * 1024 * 1024;
+
+    /** configuration property for the memory limit in kilobytes */
+    public static final String CACHE_SIZE_PROPERTY = "cacheSize";
+
+    /** configuration property to enable or disable the files on disk */
+    public static final String DISK_CACHE_PROPERTY = "diskCache";
+
+    /** default limit of the files on disk in bytes */
+    public static final long DEFAULT_DISK_LIMIT = 64 * 1024 * 1024;
+
+    /** default time in ms after which an unused file on disk is deleted */
+    public static final long DEFAULT_DISK_MAX_AGE = 30L * 24 * 60 * 60 * 1000;
+
+    /** configuration property for the limit of the files on disk in kilobytes */
+    public static final String DISK_CACHE_SIZE_PROPERTY = "diskCacheSize";
+
+    /** configuration property for the days after which an unused file on disk is deleted */
+    public static final String DISK_CACHE_AGE_PROPERTY = "diskCacheAge";
+
+    private final String engine;
+
+    private final File folder;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+    private long memoryLimit = DEFAULT_MEMORY_LIMIT;
+
+    private long memoryUsed = 0;
+
+    private boolean diskEnabled = true;
+
+    private long diskLimit = DEFAULT_DISK_LIMIT;
+
+    private long diskMaxAge = DEFAULT_DISK_MAX_AGE;
+
+    /**
+     * Creates a cache which stores its files in the folder <code>tts/&lt;engine&gt;</code> of the user data.
+     *
+     * @param engine
+     *            the name of the TTS engine, also used as folder name
+     */
+    public TTSAudioCache(String engine) {
+        this(engine, new File(getUserDataFolder(), "tts" + File.separator + engine));
+    }
+
+    /**
+     * @param engine
+     *            the name of the TTS engine
+     * @param folder
+     *            the folder to store the cache files in
+     */
+    public TTSAudioCache(String engine, File folder) {
+        this.engine = engine;
+        this.folder = folder;
+    }
+
+    private static String getUserDataFolder() {
+        String progArg = System.getProperty("smarthome.userdata");
+        if (progArg != null) {
+            return progArg;
+        } else {
+            return "etc";
+        }
+    }
+
+    /**
+     * Sets the maximum size of the audio held in memory, entries are dropped least recently used first.
+     *
+     * @param memoryLimit
+     *            the limit in bytes, 0 to keep nothing in memory
+     */
+    public synchronized void setMemoryLimit(long memoryLimit) {
+        this.memoryLimit = memoryLimit;
+        trim();
+    }
+
+    /**
+     * @param diskEnabled
+     *            whether entries are stored on and read from disk
+     */
+    public synchronized void setDiskEnabled(boolean diskEnabled) {
+        this.diskEnabled = diskEnabled;
+    }
+
+    /**
+     * Sets the limits of the files on disk and deletes the files exceeding them.
+     *
+     * @param diskLimit
+     *            the limit in bytes, files which were not used for the longest time are deleted first
+     * @param diskMaxAge
+     *            the time in ms after which a file which was not used is deleted, 0 to keep files regardless of their
+     *            age
+     */
+    public synchronized void setDiskLimits(long diskLimit, long diskMaxAge) {
+        this.diskLimit = diskLimit;
+        this.diskMaxAge = diskMaxAge;
+        trimDisk();
+    }
+
+    /**
+     * Applies the cache settings of a TTS service configuration, missing settings are reset to their defaults.
+     *
+     * @param properties
+     *            the configuration of the TTS service, may be null
+     */
+    public void configure(Dictionary<String, ?> properties) {
+        long limit = DEFAULT_MEMORY_LIMIT;
+        boolean disk = true;
+        long diskLimit = DEFAULT_DISK_LIMIT;
+        long diskMaxAge = DEFAULT_DISK_MAX_AGE;
+        if (properties != null) {
+            limit = getLong(properties, CACHE_SIZE_PROPERTY, limit / 1024) * 1024;
+            Object diskCache = properties.get(DISK_CACHE_PROPERTY);
+            if (diskCache != null && !diskCache.toString().trim().isEmpty()) {
+                disk = Boolean.parseBoolean(diskCache.toString().trim());
+            }
+            diskLimit = getLong(properties, DISK_CACHE_SIZE_PROPERTY, diskLimit / 1024) * 1024;
+            diskMaxAge = getLong(properties, DISK_CACHE_AGE_PROPERTY, diskMaxAge / (24 * 60 * 60 * 1000)) * 24 * 60
+                    * 60 * 1000;
+        }
+        setMemoryLimit(limit);
+        setDiskEnabled(disk);
+        setDiskLimits(diskLimit, diskMaxAge);
+    }
+
+    private static long getLong(Dictionary<String, ?> properties, String name, long defaultValue) {
+        Object value = properties.get(name);
+        if (value != null && !value.toString().trim().isEmpty()) {
+            try {
+                return Long.parseLong(value.toString().trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid {} '{}', using the default", name, value);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Returns the audio for a text, from memory or from disk.
+     *
+     * @param voice
+     *            the voice the text is spoken with
+     * @param text
+     *            the text
+     * @return a new stream of the audio or null if the text is not cached
+     */
+    public AudioInputStream get(String voice, String text) {
+        String key = getKey(voice, text);
+        Entry entry;
+        boolean readDisk;
+        synchronized (this) {
+            entry = entries.get(key);
+            readDisk = diskEnabled;
+        }
+
+        if (entry == null && readDisk) {
+            entry = read(key);
+            if (entry != null) {
+                synchronized (this) {
+                    add(key, entry);
+                }
+            }
+        }
+
+        if (entry == null) {
+            logger.trace("No cached {} audio for voice '{}' and text '{}'", engine, voice, text);
+            return null;
+        }
+        return entry.getStream();
+    }
+
+    /**
+     * Stores the audio for a text. The audio stream is read completely.
+     *
+     * @param voice
+     *            the voice the text is spoken with
+     * @param text
+     *            the text
+     * @param audio
+     *            the synthesized audio
+     * @return a new stream of the stored audio, to be used instead of the consumed one
+     * @throws IOException
+     *             if the audio cannot be read
+     */
+    public AudioInputStream put(String voice, String text, AudioInputStream audio) throws IOException {
+        return put(voice, text, audio.getFormat(), IOUtils.toByteArray(audio));
+    }
+
+    /**
+     * Stores the audio for a text.
+     *
+     * @param voice
+     *            the voice the text is spoken with
+     * @param text
+     *            the text
+     * @param format
+     *            the format of the audio
+     * @param data
+     *            the audio data in the given format
+     * @return a new stream of the stored audio
+     */
+    public AudioInputStream put(String voice, String text, AudioFormat format, byte[] data) {
+        String key = getKey(voice, text);
+        Entry entry = new Entry(key, format, data);
+        boolean writeDisk;
+        synchronized (this) {
+            add(key, entry);
+            writeDisk = diskEnabled;
+        }
+
+        if (writeDisk) {
+            write(entry);
+            synchronized (this) {
+                trimDisk();
+            }
+        }
+        return entry.getStream();
+    }
+
+    /**
+     * Drops all entries from memory and disk.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        memoryUsed = 0;
+
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(FILE_EXTENSION)) {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    private void add(String key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            memoryUsed -= previous.data.length;
+        }
+        memoryUsed += entry.data.length;
+        trim();
+    }
+
+    private void trim() {
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext() && memoryUsed > memoryLimit;) {
+            memoryUsed -= it.next().data.length;
+            it.remove();
+        }
+    }
+
+    /**
+     * Deletes the files which were not used within the maximum age, then the files which were not used for the
+     * longest time until the files fit into the limit.
+     */
+    private void trimDisk() {
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<File> kept = new ArrayList<File>();
+        final Map<File, Long> lastUsed = new HashMap<File, Long>();
+        long diskUsed = 0;
+        for (File file : files) {
+            if (!file.getName().endsWith(FILE_EXTENSION)) {
+                continue;
+            }
+            long modified = file.lastModified();
+            if (diskMaxAge > 0 && now - modified > diskMaxAge) {
+                logger.trace("Deleting TTS cache file '{}' which was not used for too long", file.getAbsolutePath());
+                file.delete();
+            } else {
+                kept.add(file);
+                lastUsed.put(file, modified);
+                diskUsed += file.length();
+            }
+        }
+
+        if (diskUsed > diskLimit) {
+            Collections.sort(kept, new Comparator<File>() {
+                @Override
+                public int compare(File file1, File file2) {
+                    return lastUsed.get(file1).compareTo(lastUsed.get(file2));
+                }
+            });
+            for (Iterator<File> it = kept.iterator(); it.hasNext() && diskUsed > diskLimit;) {
+                File file = it.next();
+                diskUsed -= file.length();
+                logger.trace("Deleting TTS cache file '{}' to stay within the limit", file.getAbsolutePath());
+                file.delete();
+            }
+        }
+    }
+
+    private String getKey(String voice, String text) {
+        return engine + '\n' + voice + '\n' + text;
+    }
+
+    private File getFile(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(key.getBytes("UTF-8"));
+            StringBuilder name = new StringBuilder(hash.length * 2 + FILE_EXTENSION.length());
+            for (byte b : hash) {
+                name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return new File(folder, name.append(FILE_EXTENSION).toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void write(Entry entry) {
+        File file = getFile(entry.key);
+        File tempFile = new File(folder, file.getName() + ".tmp");
+        if (!folder.isDirectory() && !folder.mkdirs()) {
+            logger.warn("Cannot create TTS cache folder '{}'", folder.getAbsolutePath());
+            return;
+        }
+
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new GZIPOutputStream(new FileOutputStream(tempFile)));
+            AudioFormat format = entry.format;
+            out.writeInt(FILE_MAGIC);
+            out.writeUTF(entry.key);
+            out.writeUTF(format.getEncoding().toString());
+            out.writeFloat(format.getSampleRate());
+            out.writeInt(format.getSampleSizeInBits());
+            out.writeInt(format.getChannels());
+            out.writeInt(format.getFrameSize());
+            out.writeFloat(format.getFrameRate());
+            out.writeBoolean(format.isBigEndian());
+            out.writeInt(entry.data.length);
+            out.write(entry.data);
+            out.close();
+            out = null;
+
+            if (!(tempFile.renameTo(file) || (file.delete() && tempFile.renameTo(file)))) {
+                throw new IOException("cannot rename " + tempFile + " to " + file);
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot write TTS cache file '{}': {}", file.getAbsolutePath(), e.getMessage());
+            tempFile.delete();
+        } finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    private Entry read(String key) {
+        File file = getFile(key);
+        if (!file.isFile()) {
+            return null;
+        }
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new GZIPInputStream(new FileInputStream(file)));
+            if (in.readInt() != FILE_MAGIC || !key.equals(in.readUTF())) {
+                logger.debug("Ignoring TTS cache file '{}' of another text", file.getAbsolutePath());
+                return null;
+            }
+            AudioFormat.Encoding encoding = getEncoding(in.readUTF());
+            AudioFormat format = new AudioFormat(encoding, in.readFloat(), in.readInt(), in.readInt(), in.readInt(),
+                    in.readFloat(), in.readBoolean());
+            byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+            // the modification time tells the disk trimming when the file was used last
+            file.setLastModified(System.currentTimeMillis());
+            return new Entry(key, format, data);
+        } catch (IOException e) {
+            logger.warn("Cannot read TTS cache file '{}': {}", file.getAbsolutePath(), e.getMessage());
+            file.delete();
+            return null;
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    private static AudioFormat.Encoding getEncoding(String name) {
+        // the predefined encodings must be reused, as encodings might only be equal to themselves
+        for (AudioFormat.Encoding encoding : new AudioFormat.Encoding[] { AudioFormat.Encoding.PCM_SIGNED,
+                AudioFormat.Encoding.PCM_UNSIGNED, AudioFormat.Encoding.ULAW, AudioFormat.Encoding.ALAW }) {
+            if (encoding.toString().equals(name)) {
+                return encoding;
+            }
+        }
+        return new AudioFormat.Encoding(name);
+    }
+
+    private static class Entry {
+        private final String key;
+        private final AudioFormat format;
+        private final byte[] data;
+
+        Entry(String key, AudioFormat format, byte[] data) {
+            this.key = key;
+            this.format = format;
+            this.data = data;
+        }
+
+        AudioInputStream getStream() {
+            InputStream in = new ByteArrayInputStream(data);
+            int frameSize = format.getFrameSize() > 0 ? format.getFrameSize() : 1;
+            return new AudioInputStream(in, format, data.length / frameSize);
+        }
+    }
+
+}
@@ -9,10 +9,6 @@
 package org.openhab.io.net.actions;
 
 import java.io.IOException;
-import java.net.InetAddress;
-import java.net.InetSocketAddress;
-import java.net.Socket;
-import java.net.SocketAddress;
 import java.net.SocketTimeoutException;
 
 /**
@@ -27,7 +23,7 @@ public class Ping {
      * Checks the vitality of <code>host</code>. If <code>port</code> '0'
      * is specified (which is the default when configuring just the host), a
      * regular ping is issued. If other ports are specified we try open a new
-     * Socket with the given <code>timeout</code>.
+     * connection with the given <code>timeout</code>.
      *
      * @param host
      * @param port
@@ -41,23 +37,27 @@ public class Ping {
      * @throws SocketTimeoutException
      */
     public static boolean checkVitality(String host, int port, int timeout) throws IOException, SocketTimeoutException {
-        boolean success = false;
-
-        if (host != null && timeout > 0) {
-            if (port == 0) {
-                success = InetAddress.getByName(host).isReachable(timeout);
-            } else {
-                SocketAddress socketAddress = new InetSocketAddress(host, port);
-
-                try (Socket socket = new Socket()) {
-                    socket.connect(socketAddress, timeout);
-                }
+        return checkRoundTripTime(host, port, timeout) >= 0;
+    }
 
-                success = true;
-            }
+    /**
+     * Measures the round trip time to <code>host</code>. If <code>port</code> '0'
+     * is specified a regular ping is issued, otherwise a TCP connection to
+     * <code>port</code> is opened. Host names are resolved through the DNS
+     * cache of {@link PingEngine}.
+     *
+     * @param host
+     * @param port
+     * @param timeout
+     *
+     * @return the round trip time in milliseconds or <code>-1</code> if <code>host</code>
+     *         is not reachable on <code>port</code> within the given <code>timeout</code>.
+     */
+    public static long checkRoundTripTime(String host, int port, int timeout) {
+        if (host == null || timeout <= 0) {
+            return -1;
         }
-
-        return success;
+        return PingEngine.check(host, port, timeout);
     }
 
 }
@@ -0,0 +1,406 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.net.actions;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Checks the reachability of many hosts at once. TCP checks are non-blocking connects which all share one selector in
+ * the calling thread, ICMP checks (port 0) are run by a small thread pool as {@link InetAddress#isReachable(int)}
+ * blocks. Host names are resolved by the same pool before the checks start, so a slow lookup doesn't delay the other
+ * checks or add to their round trip time. A resolved address is reused for {@link #DNS_CACHE_TIME}.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class PingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PingEngine.class);
+
+    /** the time in ms a resolved host address is reused */
+    static final long DNS_CACHE_TIME = 5 * 60 * 1000;
+
+    /** the maximum number of ICMP checks and host name lookups running in parallel */
+    private static final int MAX_PARALLEL = 8;
+
+    private static final Map<String, CachedAddress> addresses = new ConcurrentHashMap<String, CachedAddress>();
+
+    private static final Random random = new Random();
+
+    private static ExecutorService executor;
+
+    private PingEngine() {
+    }
+
+    /**
+     * Checks a single host.
+     *
+     * @param host the host name or address
+     * @param port the TCP port to connect to or 0 for an ICMP ping
+     * @param timeout the timeout in ms
+     * @return the round trip time in ms or -1 if the host is not reachable within the timeout
+     */
+    public static long check(String host, int port, int timeout) {
+        Target target = new Target(host, port, timeout);
+        return check(Collections.singleton(target), 0).get(target);
+    }
+
+    /**
+     * Checks all targets at once. The checks are started at random times within <code>spread</code>, so they don't
+     * hit the network at the same moment.
+     *
+     * @param targets the hosts to check
+     * @param spread the time in ms over which the start of the checks is spread, 0 to start all at once
+     * @return the round trip time in ms of each target or -1 if it is not reachable within its timeout
+     */
+    public static Map<Target, Long> check(Collection<Target> targets, int spread) {
+        Map<Target, Long> results = new HashMap<Target, Long>();
+        Map<Target, Future<Long>> icmpResults = new HashMap<Target, Future<Long>>();
+
+        // distinct targets ordered by their start offset
+        Set<Target> distinctTargets = new LinkedHashSet<Target>(targets);
+        Set<String> hosts = new HashSet<String>();
+        for (Target target : distinctTargets) {
+            hosts.add(target.host);
+        }
+        Map<String, InetAddress> resolved = resolve(hosts);
+        List<Probe> waiting = new ArrayList<Probe>();
+        for (Target target : distinctTargets) {
+            waiting.add(new Probe(target, resolved.get(target.host), spread > 0 ? random.nextInt(spread) : 0));
+        }
+        Collections.sort(waiting, new Comparator<Probe>() {
+            @Override
+            public int compare(Probe p1, Probe p2) {
+                return p1.offset < p2.offset ? -1 : p1.offset > p2.offset ? 1 : 0;
+            }
+        });
+
+        Selector selector = null;
+        try {
+            selector = Selector.open();
+            List<Probe> running = new ArrayList<Probe>();
+            long start = System.nanoTime();
+            Iterator<Probe> next = waiting.iterator();
+            Probe nextProbe = next.hasNext() ? next.next() : null;
+
+            while (nextProbe != null || !running.isEmpty()) {
+                long now = System.nanoTime();
+                while (nextProbe != null && TimeUnit.NANOSECONDS.toMillis(now - start) >= nextProbe.offset) {
+                    start(nextProbe, selector, running, results, icmpResults);
+                    nextProbe = next.hasNext() ? next.next() : null;
+                }
+
+                long wait = Long.MAX_VALUE;
+                if (nextProbe != null) {
+                    wait = nextProbe.offset - TimeUnit.NANOSECONDS.toMillis(now - start);
+                }
+                for (Probe probe : running) {
+                    wait = Math.min(wait, TimeUnit.NANOSECONDS.toMillis(probe.deadline - now));
+                }
+                if (wait == Long.MAX_VALUE) {
+                    continue;
+                }
+                if (wait > 0) {
+                    selector.select(wait);
+                } else {
+                    selector.selectNow();
+                }
+
+                now = System.nanoTime();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    Probe probe = (Probe) key.attachment();
+                    results.put(probe.target, finishConnect(probe, now));
+                    running.remove(probe);
+                    close(probe);
+                }
+                selector.selectedKeys().clear();
+
+                for (Iterator<Probe> it = running.iterator(); it.hasNext();) {
+                    Probe probe = it.next();
+                    if (probe.deadline - now <= 0) {
+                        results.put(probe.target, -1L);
+                        it.remove();
+                        close(probe);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to check the reachability of the hosts: {}", e.getMessage());
+        } finally {
+            if (selector != null) {
+                for (SelectionKey key : selector.keys()) {
+                    close((Probe) key.attachment());
+                }
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    // nothing to do
+                }
+            }
+        }
+
+        for (Map.Entry<Target, Future<Long>> icmpResult : icmpResults.entrySet()) {
+            try {
+                results.put(icmpResult.getKey(), icmpResult.getValue().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                results.put(icmpResult.getKey(), -1L);
+            }
+        }
+        for (Target target : targets) {
+            if (!results.containsKey(target)) {
+                results.put(target, -1L);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Starts the check of a probe, TCP connects are registered at the selector, ICMP checks are passed to the pool.
+     */
+    private static void start(Probe probe, Selector selector, List<Probe> running, Map<Target, Long> results,
+            Map<Target, Future<Long>> icmpResults) {
+        final Target target = probe.target;
+        final InetAddress address = probe.address;
+        if (address == null) {
+            results.put(target, -1L);
+            return;
+        }
+
+        if (target.port == 0) {
+            icmpResults.put(target, getExecutor().submit(new Callable<Long>() {
+                @Override
+                public Long call() throws Exception {
+                    long start = System.nanoTime();
+                    if (address.isReachable(target.timeout)) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                    return -1L;
+                }
+            }));
+            return;
+        }
+
+        probe.start = System.nanoTime();
+        probe.deadline = probe.start + TimeUnit.MILLISECONDS.toNanos(target.timeout);
+        try {
+            probe.channel = SocketChannel.open();
+            probe.channel.configureBlocking(false);
+            if (probe.channel.connect(new InetSocketAddress(address, target.port))) {
+                results.put(target, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - probe.start));
+                close(probe);
+            } else {
+                probe.channel.register(selector, SelectionKey.OP_CONNECT, probe);
+                running.add(probe);
+            }
+        } catch (IOException e) {
+            logger.debug("Couldn't connect to {}: {}", target, e.getMessage());
+            results.put(target, -1L);
+            close(probe);
+        }
+    }
+
+    private static long finishConnect(Probe probe, long now) {
+        try {
+            if (probe.channel.finishConnect()) {
+                return TimeUnit.NANOSECONDS.toMillis(now - probe.start);
+            }
+        } catch (IOException e) {
+            logger.debug("Couldn't connect to {}: {}", probe.target, e.getMessage());
+        }
+        return -1L;
+    }
+
+    private static void close(Probe probe) {
+        if (probe != null && probe.channel != null) {
+            try {
+                probe.channel.close();
+            } catch (IOException e) {
+                // nothing to do
+            }
+        }
+    }
+
+    /**
+     * Resolves the host names which are not cached in parallel and waits for all of them.
+     *
+     * @return the address of each host, <code>null</code> if the host is unknown
+     */
+    private static Map<String, InetAddress> resolve(Set<String> hosts) {
+        Map<String, InetAddress> resolved = new HashMap<String, InetAddress>();
+        Map<String, Future<InetAddress>> lookups = new HashMap<String, Future<InetAddress>>();
+        long now = System.currentTimeMillis();
+        for (final String host : hosts) {
+            CachedAddress cached = addresses.get(host);
+            if (cached != null && now - cached.timestamp < DNS_CACHE_TIME) {
+                resolved.put(host, cached.address);
+            } else {
+                lookups.put(host, getExecutor().submit(new Callable<InetAddress>() {
+                    @Override
+                    public InetAddress call() {
+                        return resolve(host);
+                    }
+                }));
+            }
+        }
+        for (Map.Entry<String, Future<InetAddress>> lookup : lookups.entrySet()) {
+            try {
+                resolved.put(lookup.getKey(), lookup.getValue().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                resolved.put(lookup.getKey(), null);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Resolves a host name, the address is cached for {@link #DNS_CACHE_TIME}.
+     *
+     * @return the address or <code>null</code> if the host is unknown
+     */
+    private static InetAddress resolve(String host) {
+        long now = System.currentTimeMillis();
+        try {
+            InetAddress address = InetAddress.getByName(host);
+            addresses.put(host, new CachedAddress(address, now));
+            return address;
+        } catch (UnknownHostException e) {
+            logger.debug("Unknown host {}", host);
+            return null;
+        }
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(MAX_PARALLEL, MAX_PARALLEL, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                        @Override
+                        public Thread newThread(Runnable runnable) {
+                            Thread thread = new Thread(runnable, "Ping");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+        return executor;
+    }
+
+    /**
+     * A host to check.
+     */
+    public static class Target {
+        private final String host;
+        private final int port;
+        private final int timeout;
+
+        /**
+         * @param host the host name or address
+         * @param port the TCP port to connect to or 0 for an ICMP ping
+         * @param timeout the timeout in ms
+         */
+        public Target(String host, int port, int timeout) {
+            this.host = host;
+            this.port = port;
+            this.timeout = timeout;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public int getTimeout() {
+            return timeout;
+        }
+
+        @Override
+        public int hashCode() {
+            return (host.hashCode() * 31 + port) * 31 + timeout;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Target)) {
+                return false;
+            }
+            Target other = (Target) obj;
+            return host.equals(other.host) && port == other.port && timeout == other.timeout;
+        }
+
+        @Override
+        public String toString() {
+            return host + ":" + port;
+        }
+    }
+
+    private static class Probe {
+        private final Target target;
+        private final InetAddress address;
+        private final int offset;
+        private SocketChannel channel;
+        private long start;
+        private long deadline;
+
+        Probe(Target target, InetAddress address, int offset) {
+            this.target = target;
+            this.address = address;
+            this.offset = offset;
+        }
+    }
+
+    private static class CachedAddress {
+        private final InetAddress address;
+        private final long timestamp;
+
+        CachedAddress(InetAddress address, long timestamp) {
+            this.address = address;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -19,9 +19,11 @@ import java.util.regex.Pattern;
 import org.apache.commons.httpclient.Credentials;
 import org.apache.commons.httpclient.DefaultHttpMethodRetryHandler;
 import org.apache.commons.httpclient.Header;
+import org.apache.commons.httpclient.HostConfiguration;
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpException;
 import org.apache.commons.httpclient.HttpMethod;
+import org.apache.commons.httpclient.HttpState;
 import org.apache.commons.httpclient.HttpStatus;
 import org.apache.commons.httpclient.URIException;
 import org.apache.commons.httpclient.UsernamePasswordCredentials;
@@ -114,14 +116,7 @@ public class HttpUtil {
 
         if ("true".equalsIgnoreCase(proxySet)) {
             proxyHost = System.getProperty("http.proxyHost");
-            String proxyPortString = System.getProperty("http.proxyPort");
-            if (StringUtils.isNotBlank(proxyPortString)) {
-                try {
-                    proxyPort = Integer.valueOf(proxyPortString);
-                } catch (NumberFormatException e) {
-                    logger.warn("'{}' is not a valid proxy port - using port 80 instead", proxyPortString);
-                }
-            }
+            proxyPort = getProxyPort();
             proxyUser = System.getProperty("http.proxyUser");
             proxyPassword = System.getProperty("http.proxyPassword");
             nonProxyHosts = System.getProperty("http.nonProxyHosts");
@@ -216,6 +211,48 @@ public class HttpUtil {
         return null;
     }
 
+    /**
+     * Executes the given <code>method</code> with the given <code>client</code>, which may be shared and keep its
+     * connections alive. Like in {@link #executeUrl(String, String, Properties, InputStream, String, int)} the
+     * <code>http.proxyXXX</code> System variables are read, but they are applied to this request only, so the
+     * <code>client</code> is not changed. Evaluating the response and releasing the connection is up to the caller.
+     *
+     * @param client the client to execute the method with
+     * @param method the method to execute
+     *
+     * @return the status code of the response
+     * @throws IOException if the request could not be sent or the response could not be read
+     */
+    public static int executeMethod(HttpClient client, HttpMethod method) throws IOException {
+        HostConfiguration hostConfiguration = new HostConfiguration();
+        HttpState state = new HttpState();
+
+        String proxyHost = System.getProperty("http.proxyHost");
+        if ("true".equalsIgnoreCase(System.getProperty("http.proxySet")) && StringUtils.isNotBlank(proxyHost)
+                && shouldUseProxy(method.getURI().toString(), System.getProperty("http.nonProxyHosts"))) {
+            hostConfiguration.setProxy(proxyHost, getProxyPort());
+            String proxyUser = System.getProperty("http.proxyUser");
+            if (StringUtils.isNotBlank(proxyUser)) {
+                state.setProxyCredentials(AuthScope.ANY,
+                        new UsernamePasswordCredentials(proxyUser, System.getProperty("http.proxyPassword")));
+            }
+        }
+
+        return client.executeMethod(hostConfiguration, method, state);
+    }
+
+    private static int getProxyPort() {
+        String proxyPortString = System.getProperty("http.proxyPort");
+        if (StringUtils.isNotBlank(proxyPortString)) {
+            try {
+                return Integer.valueOf(proxyPortString);
+            } catch (NumberFormatException e) {
+                logger.warn("'{}' is not a valid proxy port - using port 80 instead", proxyPortString);
+            }
+        }
+        return 80;
+    }
+
     /**
      * Determines whether the list of <code>nonProxyHosts</code> contains the
      * host (which is part of the given <code>urlString</code> or not.
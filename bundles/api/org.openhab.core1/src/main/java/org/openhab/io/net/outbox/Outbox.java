@@ -0,0 +1,715 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.net.outbox;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Dictionary;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
+import org.apache.commons.httpclient.util.IdleConnectionTimeoutThread;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+import org.openhab.core.metrics.Counter;
+import org.openhab.core.metrics.Gauge;
+import org.openhab.core.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Outbox for the messages of a push service like Telegram or Pushover, so actions don't block the rule threads while
+ * the service is slow or unreachable. Actions enqueue their messages and return at once. The messages are sent from a
+ * small thread pool shared by all outboxes, in the order they were enqueued and one at a time per outbox. On top of
+ * that the outbox
+ * <ul>
+ * <li>keeps to the rate limit of the service,</li>
+ * <li>merges a message into an identical one which is still waiting or was sent within the merge window, unless the
+ * message is {@link OutboxMessage#withoutMerging() excluded from merging},</li>
+ * <li>sends a message again with an exponential backoff if the {@link OutboxSender} asks for it,</li>
+ * <li>writes the waiting messages to the folder <code>outbox</code> of the user data, so they are sent after a
+ * restart. The file is written at most once per second and when the outbox is stopped. Messages with
+ * {@link OutboxMessage#withSecret(String, String) secret} fields are kept in memory only.</li>
+ * </ul>
+ * Senders doing HTTP requests should use the pooled {@link #getHttpClient() client}, which keeps the connections to
+ * the services alive.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class Outbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(Outbox.class);
+
+    /** configuration property to disable the outbox, so messages are sent on the calling thread */
+    public static final String ENABLED_PROPERTY = "outbox";
+
+    /** configuration property for the number of messages per rate period */
+    public static final String RATE_LIMIT_PROPERTY = "outboxRateLimit";
+
+    /** configuration property for the rate period in seconds */
+    public static final String RATE_PERIOD_PROPERTY = "outboxRatePeriod";
+
+    /** configuration property for the merge window in seconds, 0 disables merging */
+    public static final String MERGE_WINDOW_PROPERTY = "outboxMergeWindow";
+
+    /** configuration property for the number of attempts after which a message is dropped */
+    public static final String MAX_ATTEMPTS_PROPERTY = "outboxMaxAttempts";
+
+    /** configuration property to enable or disable writing the waiting messages to disk */
+    public static final String PERSIST_PROPERTY = "outboxPersist";
+
+    /** default merge window in milliseconds */
+    public static final long DEFAULT_MERGE_WINDOW = 10000;
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 8;
+
+    /** maximum number of waiting messages, further messages are rejected */
+    public static final int MAX_SIZE = 1000;
+
+    private static final long INITIAL_BACKOFF = 5000;
+
+    private static final long MAX_BACKOFF = 10 * 60 * 1000;
+
+    /** delay in milliseconds after which changed messages are written to disk, further changes are written along */
+    private static final long SAVE_DELAY = 1000;
+
+    private static final int THREADS = 4;
+
+    private static final int MAX_CONNECTIONS_PER_HOST = 4;
+
+    private static final int MAX_CONNECTIONS = 20;
+
+    private static final int CONNECTION_TIMEOUT = 10000;
+
+    private static final long IDLE_CONNECTION_TIMEOUT = 60000;
+
+    private static ScheduledExecutorService executor;
+
+    private static HttpClient httpClient;
+
+    private final String name;
+
+    private final OutboxSender sender;
+
+    private final File file;
+
+    private final int defaultRateLimit;
+
+    private final long defaultRatePeriod;
+
+    private long defaultMergeWindow = DEFAULT_MERGE_WINDOW;
+
+    private final LinkedList<OutboxMessage> messages = new LinkedList<>();
+
+    /** fields of the sent messages within the merge window, oldest first */
+    private final LinkedHashMap<Map<String, String>, Long> recentlySent = new LinkedHashMap<>();
+
+    private final Counter sentCounter;
+
+    private final Counter retryCounter;
+
+    private final Counter failedCounter;
+
+    private final Counter mergedCounter;
+
+    private boolean enabled = true;
+
+    private int rateLimit;
+
+    private long ratePeriod;
+
+    private long mergeWindow = DEFAULT_MERGE_WINDOW;
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    private boolean persist = true;
+
+    private double tokens;
+
+    private long tokensUpdated;
+
+    private long pausedUntil = 0;
+
+    private boolean started = false;
+
+    private boolean sending = false;
+
+    private ScheduledFuture<?> scheduled;
+
+    private ScheduledFuture<?> scheduledSave;
+
+    /** serializes the writing of the file, which is done without holding the lock of the outbox */
+    private final Object saveLock = new Object();
+
+    private final Runnable drainTask = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    private final Runnable saveTask = new Runnable() {
+        @Override
+        public void run() {
+            save();
+        }
+    };
+
+    /**
+     * Creates an outbox which stores its waiting messages in the file <code>outbox/&lt;name&gt;.properties</code> of
+     * the user data.
+     *
+     * @param name
+     *            the name of the push service, also used as file name
+     * @param sender
+     *            the sender delivering the messages to the service
+     * @param rateLimit
+     *            the default number of messages the service accepts per period
+     * @param ratePeriod
+     *            the default rate period in milliseconds
+     */
+    public Outbox(String name, OutboxSender sender, int rateLimit, long ratePeriod) {
+        this(name, sender, rateLimit, ratePeriod,
+                new File(getUserDataFolder(), "outbox" + File.separator + name + ".properties"));
+    }
+
+    /**
+     * @param name
+     *            the name of the push service
+     * @param sender
+     *            the sender delivering the messages to the service
+     * @param rateLimit
+     *            the default number of messages the service accepts per period
+     * @param ratePeriod
+     *            the default rate period in milliseconds
+     * @param file
+     *            the file to store the waiting messages in
+     */
+    public Outbox(String name, OutboxSender sender, int rateLimit, long ratePeriod, File file) {
+        this.name = name;
+        this.sender = sender;
+        this.file = file;
+        this.defaultRateLimit = rateLimit;
+        this.defaultRatePeriod = ratePeriod;
+        setRateLimit(rateLimit, ratePeriod);
+
+        this.sentCounter = MetricsRegistry.counter("openhab_outbox_sent_total", "Messages sent by the outbox",
+                "outbox", name);
+        this.retryCounter = MetricsRegistry.counter("openhab_outbox_retries_total",
+                "Attempts to send a message which have to be repeated", "outbox", name);
+        this.failedCounter = MetricsRegistry.counter("openhab_outbox_failed_total",
+                "Messages rejected by the service, dropped after too many attempts or because the outbox was full",
+                "outbox", name);
+        this.mergedCounter = MetricsRegistry.counter("openhab_outbox_merged_total",
+                "Messages merged into an identical one", "outbox", name);
+        MetricsRegistry.gauge("openhab_outbox_messages", "Messages waiting in the outbox", new Gauge.ValueProvider() {
+            @Override
+            public double getValue() {
+                return size();
+            }
+        }, "outbox", name);
+    }
+
+    private static String getUserDataFolder() {
+        String progArg = System.getProperty("smarthome.userdata");
+        if (progArg != null) {
+            return progArg;
+        } else {
+            return "etc";
+        }
+    }
+
+    /**
+     * @return a HTTP client shared by all outboxes, which pools the connections and keeps them alive
+     */
+    public static synchronized HttpClient getHttpClient() {
+        if (httpClient == null) {
+            MultiThreadedHttpConnectionManager connectionManager = new MultiThreadedHttpConnectionManager();
+            connectionManager.getParams().setDefaultMaxConnectionsPerHost(MAX_CONNECTIONS_PER_HOST);
+            connectionManager.getParams().setMaxTotalConnections(MAX_CONNECTIONS);
+            connectionManager.getParams().setConnectionTimeout(CONNECTION_TIMEOUT);
+            connectionManager.getParams().setStaleCheckingEnabled(true);
+
+            IdleConnectionTimeoutThread idleConnectionTimeoutThread = new IdleConnectionTimeoutThread();
+            idleConnectionTimeoutThread.setName("openHAB-outbox-idle-connections");
+            idleConnectionTimeoutThread.addConnectionManager(connectionManager);
+            idleConnectionTimeoutThread.setConnectionTimeout(IDLE_CONNECTION_TIMEOUT);
+            idleConnectionTimeoutThread.start();
+
+            httpClient = new HttpClient(connectionManager);
+        }
+        return httpClient;
+    }
+
+    private static synchronized ScheduledExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newScheduledThreadPool(THREADS, new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "openHAB-outbox-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Reads the outbox properties of a service configuration, properties which are not set are reset to their
+     * defaults.
+     *
+     * @param config
+     *            the configuration of the service, may be <code>null</code>
+     */
+    public void configure(Dictionary<String, ?> config) {
+        synchronized (this) {
+            enabled = getBoolean(config, ENABLED_PROPERTY, true);
+            persist = getBoolean(config, PERSIST_PROPERTY, true);
+            mergeWindow = getLong(config, MERGE_WINDOW_PROPERTY, defaultMergeWindow / 1000) * 1000;
+            maxAttempts = (int) getLong(config, MAX_ATTEMPTS_PROPERTY, DEFAULT_MAX_ATTEMPTS);
+            setRateLimit((int) getLong(config, RATE_LIMIT_PROPERTY, defaultRateLimit),
+                    getLong(config, RATE_PERIOD_PROPERTY, defaultRatePeriod / 1000) * 1000);
+            if (persist) {
+                return;
+            }
+        }
+        // after a write which might be in progress
+        synchronized (saveLock) {
+            file.delete();
+        }
+    }
+
+    private boolean getBoolean(Dictionary<String, ?> config, String key, boolean defaultValue) {
+        Object value = config != null ? config.get(key) : null;
+        if (value == null || StringUtils.isBlank(value.toString())) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.toString().trim());
+    }
+
+    private long getLong(Dictionary<String, ?> config, String key, long defaultValue) {
+        Object value = config != null ? config.get(key) : null;
+        if (value == null || StringUtils.isBlank(value.toString())) {
+            return defaultValue;
+        }
+        try {
+            long result = Long.parseLong(value.toString().trim());
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // logged below
+        }
+        logger.warn("'{}' is not a valid value for '{}' of the {} outbox, using {} instead", value, key, name,
+                defaultValue);
+        return defaultValue;
+    }
+
+    /**
+     * @param rateLimit
+     *            the number of messages the service accepts per period, 0 for no limit
+     * @param ratePeriod
+     *            the rate period in milliseconds
+     */
+    public synchronized void setRateLimit(int rateLimit, long ratePeriod) {
+        this.rateLimit = rateLimit;
+        this.ratePeriod = Math.max(ratePeriod, 1);
+        this.tokens = rateLimit;
+        this.tokensUpdated = System.currentTimeMillis();
+    }
+
+    /**
+     * Sets the merge window which applies while the configuration doesn't set one, for services where identical
+     * messages are common and expected, like a daily report mail.
+     *
+     * @param mergeWindow
+     *            the merge window in milliseconds, 0 to send every message
+     */
+    public synchronized void setDefaultMergeWindow(long mergeWindow) {
+        this.defaultMergeWindow = mergeWindow;
+        this.mergeWindow = mergeWindow;
+    }
+
+    /**
+     * @return <code>false</code> if the outbox is disabled by the configuration and messages should be sent on the
+     *         calling thread
+     */
+    public synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reads the messages left from the last run and starts sending. Does nothing if the outbox is already started.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        if (persist) {
+            load();
+        }
+        if (!messages.isEmpty()) {
+            logger.info("{} message(s) left in the {} outbox, sending them", messages.size(), name);
+            schedule(0);
+            scheduleSave();
+        }
+    }
+
+    /**
+     * Stops sending and writes the waiting messages to disk. A message which is sent at the moment is still finished.
+     */
+    public void stop() {
+        synchronized (this) {
+            if (!started) {
+                return;
+            }
+            started = false;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+                scheduled = null;
+            }
+            if (scheduledSave != null) {
+                scheduledSave.cancel(false);
+                scheduledSave = null;
+            }
+        }
+        save();
+    }
+
+    /**
+     * Adds a message to the outbox. If an identical message is still waiting or was sent within the merge window, the
+     * message is merged into it and not sent again, unless one of them is excluded from merging.
+     *
+     * @param message
+     *            the message to send
+     * @return <code>false</code> if the outbox is full and the message was dropped, <code>true</code> otherwise
+     */
+    public synchronized boolean enqueue(OutboxMessage message) {
+        long now = System.currentTimeMillis();
+        if (mergeWindow > 0 && message.isMergeable()) {
+            Map<String, String> fields = message.getFields();
+            for (OutboxMessage waiting : messages) {
+                if (waiting.isMergeable() && waiting.getFields().equals(fields)) {
+                    waiting.mergedCount++;
+                    mergedCounter.increment();
+                    logger.debug("Merged message into an identical waiting one in the {} outbox", name);
+                    return true;
+                }
+            }
+            expireRecentlySent(now);
+            if (recentlySent.containsKey(fields)) {
+                mergedCounter.increment();
+                logger.debug("Dropped message identical to one sent {} ms ago by the {} outbox",
+                        now - recentlySent.get(fields), name);
+                return true;
+            }
+        }
+
+        if (messages.size() >= MAX_SIZE) {
+            failedCounter.increment();
+            logger.warn("The {} outbox is full with {} messages, dropping the new message", name, messages.size());
+            return false;
+        }
+
+        messages.add(message);
+        if (started) {
+            schedule(0);
+            scheduleSave();
+        }
+        return true;
+    }
+
+    /**
+     * Stops sending until the given time, for senders which learn from the service that the quota is used up.
+     *
+     * @param time
+     *            the time in milliseconds until which no messages are sent
+     */
+    public synchronized void pauseUntil(long time) {
+        if (time > pausedUntil) {
+            pausedUntil = time;
+            logger.info("The {} outbox pauses for {} s", name, (time - System.currentTimeMillis()) / 1000);
+        }
+    }
+
+    /**
+     * @return the number of waiting messages
+     */
+    public synchronized int size() {
+        return messages.size();
+    }
+
+    private void schedule(long delay) {
+        if (sending) {
+            // drain() schedules again once the message is sent
+            return;
+        }
+        if (scheduled != null && !scheduled.isDone()) {
+            if (scheduled.getDelay(TimeUnit.MILLISECONDS) <= delay) {
+                return;
+            }
+            scheduled.cancel(false);
+        }
+        scheduled = getExecutor().schedule(drainTask, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void drain() {
+        OutboxMessage message;
+        long now;
+        synchronized (this) {
+            scheduled = null;
+            if (!started) {
+                return;
+            }
+
+            now = System.currentTimeMillis();
+            message = null;
+            long nextAttempt = Long.MAX_VALUE;
+            for (OutboxMessage waiting : messages) {
+                if (waiting.nextAttempt <= now) {
+                    message = waiting;
+                    break;
+                }
+                nextAttempt = Math.min(nextAttempt, waiting.nextAttempt);
+            }
+            if (message == null) {
+                if (!messages.isEmpty()) {
+                    schedule(nextAttempt - now);
+                }
+                return;
+            }
+
+            long wait = pausedUntil > now ? pausedUntil - now : acquire(now);
+            if (wait > 0) {
+                schedule(wait);
+                return;
+            }
+            sending = true;
+        }
+
+        OutboxSender.Result result;
+        try {
+            result = sender.send(message);
+        } catch (RuntimeException e) {
+            logger.warn("Sending a message of the {} outbox failed: {}", name, e.getMessage(), e);
+            result = OutboxSender.Result.FAILED;
+        }
+
+        boolean stopped;
+        synchronized (this) {
+            sending = false;
+            now = System.currentTimeMillis();
+            switch (result) {
+                case SENT:
+                    messages.remove(message);
+                    sentCounter.increment();
+                    if (mergeWindow > 0 && message.isMergeable()) {
+                        recentlySent.remove(message.getFields());
+                        recentlySent.put(message.getFields(), now);
+                    }
+                    break;
+                case RETRY:
+                    message.attempts++;
+                    retryCounter.increment();
+                    if (message.attempts >= maxAttempts) {
+                        messages.remove(message);
+                        failedCounter.increment();
+                        logger.warn("Dropping a message of the {} outbox after {} attempts", name, message.attempts);
+                    } else {
+                        long backoff = Math.min(INITIAL_BACKOFF << Math.min(message.attempts - 1, 16), MAX_BACKOFF);
+                        message.nextAttempt = now + backoff;
+                        logger.debug("Sending a message of the {} outbox again in {} s", name, backoff / 1000);
+                    }
+                    break;
+                default:
+                    messages.remove(message);
+                    failedCounter.increment();
+            }
+
+            stopped = !started;
+            if (!stopped) {
+                if (!messages.isEmpty()) {
+                    schedule(0);
+                }
+                scheduleSave();
+            }
+        }
+        if (stopped) {
+            // stopped while sending, the message has to be removed from the stored ones as well
+            save();
+        }
+    }
+
+    /**
+     * Takes a token from the rate limit bucket, which holds up to <code>rateLimit</code> tokens and is refilled
+     * evenly over the rate period.
+     *
+     * @return 0 if a token was taken, otherwise the time in milliseconds until the next token is available
+     */
+    private long acquire(long now) {
+        if (rateLimit <= 0) {
+            return 0;
+        }
+        tokens = Math.min(rateLimit, tokens + (double) (now - tokensUpdated) * rateLimit / ratePeriod);
+        tokensUpdated = now;
+        if (tokens >= 1) {
+            tokens--;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) * ratePeriod / rateLimit);
+    }
+
+    private void expireRecentlySent(long now) {
+        Iterator<Long> iterator = recentlySent.values().iterator();
+        while (iterator.hasNext() && iterator.next() < now - mergeWindow) {
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Writes the messages to disk after {@link #SAVE_DELAY}, unless a write is already scheduled.
+     */
+    private void scheduleSave() {
+        if (persist && scheduledSave == null) {
+            scheduledSave = getExecutor().schedule(saveTask, SAVE_DELAY, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes the waiting messages to disk. Only the messages are copied while holding the lock of the outbox, the file
+     * is written without it, so enqueueing messages doesn't wait for the disk.
+     */
+    private void save() {
+        synchronized (saveLock) {
+            Properties properties;
+            synchronized (this) {
+                // changes from now on are written by the next scheduled save
+                scheduledSave = null;
+                if (!persist) {
+                    return;
+                }
+                properties = getProperties();
+            }
+            write(properties);
+        }
+    }
+
+    private Properties getProperties() {
+        Properties properties = new Properties();
+        int index = 0;
+        for (OutboxMessage message : messages) {
+            if (message.hasSecrets()) {
+                continue;
+            }
+            properties.setProperty(index + ".created", Long.toString(message.getCreated()));
+            properties.setProperty(index + ".attempts", Integer.toString(message.attempts));
+            if (!message.isMergeable()) {
+                properties.setProperty(index + ".mergeable", "false");
+            }
+            for (Map.Entry<String, String> field : message.getFields().entrySet()) {
+                properties.setProperty(index + ".field." + field.getKey(), field.getValue());
+            }
+            index++;
+        }
+        if (index < messages.size()) {
+            logger.debug("{} message(s) of the {} outbox carry secrets and are not written to disk",
+                    messages.size() - index, name);
+        }
+        return properties;
+    }
+
+    private void write(Properties properties) {
+        if (properties.isEmpty()) {
+            if (file.exists() && !file.delete()) {
+                logger.warn("Could not delete '{}'", file.getAbsolutePath());
+            }
+            return;
+        }
+
+        File folder = file.getParentFile();
+        if (folder != null && !folder.exists() && !folder.mkdirs()) {
+            logger.warn("Could not create the folder '{}' for the {} outbox", folder.getAbsolutePath(), name);
+            return;
+        }
+        File tempFile = new File(folder, file.getName() + ".tmp");
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(tempFile);
+            properties.store(out, "Messages waiting in the " + name + " outbox");
+            out.close();
+            if (file.exists() && !file.delete() || !tempFile.renameTo(file)) {
+                logger.warn("Could not replace '{}'", file.getAbsolutePath());
+            }
+        } catch (IOException e) {
+            logger.warn("Could not write the messages of the {} outbox to '{}': {}", name, file.getAbsolutePath(),
+                    e.getMessage());
+        } finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+
+        Properties properties = new Properties();
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            properties.load(in);
+        } catch (IOException e) {
+            logger.warn("Could not read the messages of the {} outbox from '{}': {}", name, file.getAbsolutePath(),
+                    e.getMessage());
+            return;
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+
+        for (int index = 0; properties.containsKey(index + ".created"); index++) {
+            try {
+                OutboxMessage message = new OutboxMessage(Long.parseLong(properties.getProperty(index + ".created")));
+                message.attempts = Integer.parseInt(properties.getProperty(index + ".attempts", "0"));
+                if ("false".equals(properties.getProperty(index + ".mergeable"))) {
+                    message.withoutMerging();
+                }
+                String prefix = index + ".field.";
+                for (String key : properties.stringPropertyNames()) {
+                    if (key.startsWith(prefix)) {
+                        message.with(key.substring(prefix.length()), properties.getProperty(key));
+                    }
+                }
+                messages.add(message);
+            } catch (NumberFormatException e) {
+                logger.warn("Skipping invalid message {} in '{}'", index, file.getAbsolutePath());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.net.outbox;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A message waiting in an {@link Outbox}. It consists of named string fields only, so it can be written to disk and
+ * read again after a restart. Two messages with the same fields are identical and merged by the outbox.
+ * <p>
+ * Credentials should not be part of a message, rather a reference to the configured account which is looked up when
+ * the message is sent. Credentials which can't be looked up later are added with {@link #withSecret(String, String)},
+ * a message with such a field is never written to disk. A message with content which is only fetched when it is sent,
+ * like a photo from a camera, must not be merged with an older one of the same URL, see {@link #withoutMerging()}.
+ *
+ * <pre>
+ * outbox.enqueue(new OutboxMessage().with("bot", bot).with("text", text));
+ * </pre>
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class OutboxMessage {
+
+    private final Map<String, String> fields = new LinkedHashMap<String, String>();
+
+    /** names of the fields which are not written to disk */
+    private final Set<String> secretFields = new HashSet<String>();
+
+    private boolean mergeable = true;
+
+    private final long created;
+
+    int attempts = 0;
+
+    long nextAttempt = 0;
+
+    int mergedCount = 0;
+
+    public OutboxMessage() {
+        this(System.currentTimeMillis());
+    }
+
+    OutboxMessage(long created) {
+        this.created = created;
+    }
+
+    /**
+     * Sets a field of this message, <code>null</code> values are left out. The fields must not be changed anymore once
+     * the message is enqueued.
+     *
+     * @param name
+     *            the name of the field
+     * @param value
+     *            the value of the field or <code>null</code>
+     * @return this message
+     */
+    public OutboxMessage with(String name, String value) {
+        if (value != null) {
+            fields.put(name, value);
+        }
+        return this;
+    }
+
+    /**
+     * Sets a field which must not be written to disk, like a password given by the caller. The message is only kept in
+     * memory then and is lost on a restart.
+     *
+     * @param name
+     *            the name of the field
+     * @param value
+     *            the value of the field or <code>null</code>
+     * @return this message
+     */
+    public OutboxMessage withSecret(String name, String value) {
+        if (value != null) {
+            fields.put(name, value);
+            secretFields.add(name);
+        }
+        return this;
+    }
+
+    /**
+     * Excludes this message from merging, for messages with the same fields which may still differ when they are sent.
+     *
+     * @return this message
+     */
+    public OutboxMessage withoutMerging() {
+        mergeable = false;
+        return this;
+    }
+
+    /**
+     * @param name
+     *            the name of the field
+     * @return the value of the field or <code>null</code> if it is not set
+     */
+    public String getField(String name) {
+        return fields.get(name);
+    }
+
+    /**
+     * @param name
+     *            the name of the field
+     * @param defaultValue
+     *            the value to return if the field is not set or not a number
+     * @return the value of the field as integer
+     */
+    public int getIntField(String name, int defaultValue) {
+        String value = fields.get(name);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                // fall back to the default
+            }
+        }
+        return defaultValue;
+    }
+
+    public Map<String, String> getFields() {
+        return Collections.unmodifiableMap(fields);
+    }
+
+    /**
+     * @return <code>true</code> if the message may be merged with an identical one
+     */
+    public boolean isMergeable() {
+        return mergeable;
+    }
+
+    /**
+     * @return <code>true</code> if the message has fields which must not be written to disk
+     */
+    public boolean hasSecrets() {
+        return !secretFields.isEmpty();
+    }
+
+    /**
+     * @return the time in milliseconds the message was created
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * @return the number of failed attempts to send this message so far
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @return the number of identical messages which were enqueued while this one was waiting and merged into it
+     */
+    public int getMergedCount() {
+        return mergedCount;
+    }
+
+}
@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.net.outbox;
+
+/**
+ * Delivers the messages of an {@link Outbox} to a push service. It is called from the thread pool of the outboxes,
+ * never for two messages of the same outbox at the same time.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public interface OutboxSender {
+
+    /**
+     * The outcome of an attempt to send a message.
+     */
+    enum Result {
+        /** the message was delivered and is removed from the outbox */
+        SENT,
+        /** the service was not reachable or busy, the message is sent again later */
+        RETRY,
+        /** the service rejected the message, it is removed from the outbox */
+        FAILED
+    }
+
+    /**
+     * Sends the given message. Errors should be logged by the sender, as only the sender knows the response of the
+     * service.
+     *
+     * @param message
+     *            the message to send
+     * @return the outcome of the attempt
+     */
+    Result send(OutboxMessage message);
+
+}
@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.benchmark;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files written with <code>-rf csv</code>, e.g. of the base commit and of a change, and
+ * reports every benchmark which got slower by more than the threshold and more than the measurement error. The exit
+ * code is 1 if there is such a regression.
+ *
+ * <pre>
+ * java -cp benchmarks.jar org.openhab.benchmark.BenchmarkComparison base.csv change.csv [threshold percent]
+ * </pre>
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class BenchmarkComparison {
+
+    private static final double DEFAULT_THRESHOLD = 5.0;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <base.csv> <change.csv> [threshold percent, default "
+                    + DEFAULT_THRESHOLD + "]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+
+        Map<String, Result> base = read(args[0]);
+        Map<String, Result> change = read(args[1]);
+
+        int regressions = 0;
+        System.out.println(String.format("%-70s %14s %14s %9s", "Benchmark", "Base", "Change", "Diff"));
+        for (Map.Entry<String, Result> entry : change.entrySet()) {
+            Result current = entry.getValue();
+            Result previous = base.get(entry.getKey());
+            if (previous == null) {
+                System.out.println(String.format("%-70s %14s %14.3f %9s %s", entry.getKey(), "-", current.score,
+                        "new", current.unit));
+                continue;
+            }
+
+            double diff = (current.score - previous.score) / previous.score * 100;
+            // for throughput a lower score is worse, for all time based modes a higher one
+            double worse = current.throughput ? -diff : diff;
+            boolean significant = Math.abs(current.score - previous.score) > current.error + previous.error;
+            String verdict = "";
+            if (worse > threshold && significant) {
+                verdict = "REGRESSION";
+                regressions++;
+            } else if (worse < -threshold && significant) {
+                verdict = "improvement";
+            }
+            System.out.println(String.format("%-70s %14.3f %14.3f %+8.1f%% %s %s", entry.getKey(), previous.score,
+                    current.score, diff, current.unit, verdict));
+        }
+
+        System.out.println(regressions + " regression(s) above " + threshold + "%");
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    private static Map<String, Result> read(String file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<String, Result>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            List<String> header = split(reader.readLine());
+            int benchmarkColumn = header.indexOf("Benchmark");
+            int modeColumn = header.indexOf("Mode");
+            int scoreColumn = header.indexOf("Score");
+            int errorColumn = header.indexOf("Score Error (99.9%)");
+            int unitColumn = header.indexOf("Unit");
+            if (benchmarkColumn < 0 || scoreColumn < 0) {
+                throw new IOException(file + " is not a JMH CSV result file");
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                List<String> values = split(line);
+                if (values.size() < header.size()) {
+                    continue;
+                }
+                StringBuilder key = new StringBuilder(values.get(benchmarkColumn));
+                for (int i = 0; i < header.size(); i++) {
+                    if (header.get(i).startsWith("Param: ")) {
+                        key.append(' ').append(header.get(i).substring(7)).append('=').append(values.get(i));
+                    }
+                }
+
+                Result result = new Result();
+                result.score = parse(values.get(scoreColumn));
+                result.error = errorColumn < 0 ? 0 : parse(values.get(errorColumn));
+                result.unit = unitColumn < 0 ? "" : values.get(unitColumn);
+                result.throughput = modeColumn >= 0 && "thrpt".equals(values.get(modeColumn));
+                results.put(key.toString(), result);
+            }
+        } finally {
+            reader.close();
+        }
+        return results;
+    }
+
+    private static double parse(String value) {
+        if (value.isEmpty() || "NaN".equals(value)) {
+            return 0;
+        }
+        return Double.parseDouble(value.replace(',', '.'));
+    }
+
+    /**
+     * Splits a CSV line, values may be quoted.
+     */
+    private static List<String> split(String line) {
+        List<String> values = new ArrayList<String>();
+        if (line == null) {
+            return values;
+        }
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static class Result {
+        double score;
+        double error;
+        String unit;
+        boolean throughput;
+    }
+
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.core.binding.AbstractBinding;
+import org.openhab.core.binding.BindingConfig;
+import org.openhab.core.binding.BindingProvider;
+import org.openhab.core.items.Item;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.types.Command;
+import org.openhab.model.item.binding.AbstractGenericBindingProvider;
+import org.openhab.model.item.binding.BindingConfigParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.osgi.service.event.Event;
+
+/**
+ * Binding configuration lookups of {@link AbstractGenericBindingProvider} and the delivery of an item event to all
+ * installed bindings, each with its own provider. The items are spread evenly over the bindings.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BindingBenchmark {
+
+    private static final int EVENTS = 1024;
+
+    /** number of bound items of all bindings */
+    @Param({ "200", "2000" })
+    public int items;
+
+    /** number of installed bindings */
+    @Param({ "1", "70" })
+    public int bindings;
+
+    private BenchmarkBindingProvider[] providers;
+    private BenchmarkBinding[] bindingInstances;
+    private String[] itemNames;
+    private Event[] commandEvents;
+
+    private int index;
+
+    @Setup
+    public void setUp() throws BindingConfigParseException {
+        providers = new BenchmarkBindingProvider[bindings];
+        bindingInstances = new BenchmarkBinding[bindings];
+        for (int i = 0; i < bindings; i++) {
+            providers[i] = new BenchmarkBindingProvider("binding" + i);
+            bindingInstances[i] = new BenchmarkBinding();
+            bindingInstances[i].addBindingProvider(providers[i]);
+        }
+
+        itemNames = new String[items];
+        for (int i = 0; i < items; i++) {
+            Item item = new NumberItem("Item" + i);
+            itemNames[i] = item.getName();
+            providers[i % bindings].processBindingConfiguration("benchmark.items", item, "config" + i);
+        }
+
+        commandEvents = new Event[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            Map<String, Object> properties = new HashMap<String, Object>();
+            String itemName = itemNames[i % items];
+            properties.put("item", itemName);
+            properties.put("command", new DecimalType(i));
+            commandEvents[i] = new Event("openhab/command/" + itemName, properties);
+        }
+    }
+
+    private int next() {
+        index = (index + 1) & (EVENTS - 1);
+        return index;
+    }
+
+    /**
+     * asks the provider of the item
+     */
+    @Benchmark
+    public boolean providesBindingForHit() {
+        int i = next() % items;
+        return providers[i % bindings].providesBindingFor(itemNames[i]);
+    }
+
+    /**
+     * asks all providers of all bindings, like every binding did for every event
+     */
+    @Benchmark
+    public int providesBindingForAll() {
+        String itemName = itemNames[next() % items];
+        int found = 0;
+        for (BenchmarkBindingProvider provider : providers) {
+            if (provider.providesBindingFor(itemName)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int getItemNames() {
+        return providers[next() % bindings].getItemNames().size();
+    }
+
+    /**
+     * delivers a command event to all bindings, like the event admin does
+     */
+    @Benchmark
+    public void dispatchCommand(Blackhole blackhole) {
+        Event event = commandEvents[next()];
+        for (BenchmarkBinding binding : bindingInstances) {
+            binding.handleEvent(event);
+        }
+        blackhole.consume(event);
+    }
+
+    static class BenchmarkBindingProvider extends AbstractGenericBindingProvider {
+
+        private final String bindingType;
+
+        BenchmarkBindingProvider(String bindingType) {
+            this.bindingType = bindingType;
+        }
+
+        @Override
+        public String getBindingType() {
+            return bindingType;
+        }
+
+        @Override
+        public void validateItemType(Item item, String bindingConfig) throws BindingConfigParseException {
+        }
+
+        @Override
+        public void processBindingConfiguration(String context, Item item, String bindingConfig)
+                throws BindingConfigParseException {
+            super.processBindingConfiguration(context, item, bindingConfig);
+            addBindingConfig(item, new BenchmarkBindingConfig(bindingConfig));
+        }
+    }
+
+    static class BenchmarkBindingConfig implements BindingConfig {
+
+        final String config;
+
+        BenchmarkBindingConfig(String config) {
+            this.config = config;
+        }
+    }
+
+    static class BenchmarkBinding extends AbstractBinding<BindingProvider> {
+
+        int commands;
+
+        @Override
+        protected void internalReceiveCommand(String itemName, Command command) {
+            commands++;
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.core.items.GenericItem;
+import org.openhab.core.items.GroupFunction;
+import org.openhab.core.items.GroupItem;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.items.SwitchItem;
+import org.openhab.core.library.types.ArithmeticGroupFunction;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.types.State;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link GenericItem#setState(State)} and the recalculation of {@link GroupItem} states it causes. Each member item
+ * is in an average group and, like in most installations, in a second group with the default function.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ItemBenchmark {
+
+    private static final int VALUES = 1024;
+
+    /** number of items in each group */
+    @Param({ "10", "100", "1000" })
+    public int members;
+
+    private NumberItem standalone;
+    private NumberItem[] items;
+    private GroupItem averageGroup;
+    private GroupFunction average;
+    private SwitchItem switchItem;
+    private GroupItem orGroup;
+
+    private final DecimalType[] values = new DecimalType[VALUES];
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = new DecimalType(Math.round(random.nextDouble() * 300) / 10.0);
+        }
+
+        standalone = new NumberItem("Standalone");
+        standalone.setState(values[0]);
+
+        average = new ArithmeticGroupFunction.Avg();
+        averageGroup = new GroupItem("gTemperature", new NumberItem("gTemperatureBase"), average);
+        GroupItem allGroup = new GroupItem("gAll");
+        items = new NumberItem[members];
+        for (int i = 0; i < members; i++) {
+            items[i] = new NumberItem("Temperature" + i);
+            items[i].setState(values[i & (VALUES - 1)]);
+            averageGroup.addMember(items[i]);
+            allGroup.addMember(items[i]);
+        }
+
+        orGroup = new GroupItem("gLights", new SwitchItem("gLightsBase"),
+                new ArithmeticGroupFunction.Or(OnOffType.ON, OnOffType.OFF));
+        for (int i = 0; i < members; i++) {
+            SwitchItem item = new SwitchItem("Light" + i);
+            item.setState(OnOffType.OFF);
+            orGroup.addMember(item);
+            switchItem = item;
+        }
+    }
+
+    private int next() {
+        index = (index + 1) & (VALUES - 1);
+        return index;
+    }
+
+    /**
+     * an item without groups and listeners, the state changes
+     */
+    @Benchmark
+    public void setStateStandalone() {
+        standalone.setState(values[next()]);
+    }
+
+    /**
+     * an item in two groups, the state changes and the average of its group is recalculated
+     */
+    @Benchmark
+    public State setStateInGroup() {
+        int i = next();
+        items[i % members].setState(values[i]);
+        return averageGroup.getState();
+    }
+
+    /**
+     * the last switch of an OR group is toggled, so all other members are checked
+     */
+    @Benchmark
+    public State toggleSwitchInOrGroup() {
+        switchItem.setState((next() & 1) == 0 ? OnOffType.ON : OnOffType.OFF);
+        return orGroup.getState();
+    }
+
+    @Benchmark
+    public State calculateAverage() {
+        return average.calculate(averageGroup.getMembers());
+    }
+
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.core.library.items.ColorItem;
+import org.openhab.core.library.items.DimmerItem;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.items.SwitchItem;
+import org.openhab.core.types.Command;
+import org.openhab.core.types.TypeParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link TypeParser} as used for the states and commands received as strings by many bindings, the REST API and the
+ * console, with the accepted types of the common item types.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TypeParserBenchmark {
+
+    private static final String[] NUMBER_STATES = { "21.5", "1013", "-3.25", "0", "NULL", "87.125" };
+
+    private static final String[] SWITCH_COMMANDS = { "ON", "OFF" };
+
+    /** a dimmer receives ON/OFF, percentages and INCREASE/DECREASE */
+    private static final String[] DIMMER_COMMANDS = { "ON", "50", "INCREASE", "OFF", "100", "DECREASE", "7" };
+
+    private static final String[] COLOR_COMMANDS = { "120,100,50", "ON", "75", "0,0,100", "INCREASE", "240,50,30" };
+
+    private List<Class<? extends org.openhab.core.types.State>> numberStateTypes;
+    private List<Class<? extends Command>> switchCommandTypes;
+    private List<Class<? extends Command>> dimmerCommandTypes;
+    private List<Class<? extends Command>> colorCommandTypes;
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        numberStateTypes = new NumberItem("number").getAcceptedDataTypes();
+        switchCommandTypes = new SwitchItem("switch").getAcceptedCommandTypes();
+        dimmerCommandTypes = new DimmerItem("dimmer").getAcceptedCommandTypes();
+        colorCommandTypes = new ColorItem("color").getAcceptedCommandTypes();
+    }
+
+    private String next(String[] values) {
+        index++;
+        if (index >= values.length) {
+            index = 0;
+        }
+        return values[index];
+    }
+
+    @Benchmark
+    public org.openhab.core.types.State parseNumberState() {
+        return TypeParser.parseState(numberStateTypes, next(NUMBER_STATES));
+    }
+
+    @Benchmark
+    public Command parseSwitchCommand() {
+        return TypeParser.parseCommand(switchCommandTypes, next(SWITCH_COMMANDS));
+    }
+
+    @Benchmark
+    public Command parseDimmerCommand() {
+        return TypeParser.parseCommand(dimmerCommandTypes, next(DIMMER_COMMANDS));
+    }
+
+    @Benchmark
+    public Command parseColorCommand() {
+        return TypeParser.parseCommand(colorCommandTypes, next(COLOR_COMMANDS));
+    }
+
+}
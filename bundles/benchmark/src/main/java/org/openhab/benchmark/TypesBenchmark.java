@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.benchmark;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.PercentType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parsing, formatting and comparing the state types sent with nearly every event: {@link DecimalType},
+ * {@link PercentType} and {@link HSBType}. The values are random but the same in every run.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TypesBenchmark {
+
+    private static final int VALUES = 1024;
+
+    private final String[] decimalStrings = new String[VALUES];
+    private final DecimalType[] decimals = new DecimalType[VALUES];
+    private final String[] percentStrings = new String[VALUES];
+    private final String[] hsbStrings = new String[VALUES];
+    private final HSBType[] hsbs = new HSBType[VALUES];
+
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < VALUES; i++) {
+            // sensor values like temperatures, energy counters and integral switch positions
+            switch (i % 3) {
+                case 0:
+                    decimalStrings[i] = String.format(Locale.ROOT, "%.1f", random.nextDouble() * 40 - 10);
+                    break;
+                case 1:
+                    decimalStrings[i] = String.format(Locale.ROOT, "%.3f", random.nextDouble() * 100000);
+                    break;
+                default:
+                    decimalStrings[i] = Integer.toString(random.nextInt(256));
+            }
+            decimals[i] = new DecimalType(decimalStrings[i]);
+            percentStrings[i] = Integer.toString(random.nextInt(101));
+            hsbStrings[i] = random.nextInt(360) + "," + random.nextInt(101) + "," + random.nextInt(101);
+            hsbs[i] = new HSBType(hsbStrings[i]);
+        }
+    }
+
+    private int next() {
+        index = (index + 1) & (VALUES - 1);
+        return index;
+    }
+
+    @Benchmark
+    public DecimalType decimalValueOf() {
+        return DecimalType.valueOf(decimalStrings[next()]);
+    }
+
+    @Benchmark
+    public String decimalToString() {
+        return decimals[next()].toString();
+    }
+
+    @Benchmark
+    public boolean decimalEquals() {
+        int i = next();
+        return decimals[i].equals(decimals[(i + 1) & (VALUES - 1)]);
+    }
+
+    @Benchmark
+    public int decimalCompareTo() {
+        int i = next();
+        return decimals[i].compareTo(decimals[(i + 1) & (VALUES - 1)]);
+    }
+
+    @Benchmark
+    public PercentType percentValueOf() {
+        return PercentType.valueOf(percentStrings[next()]);
+    }
+
+    @Benchmark
+    public HSBType hsbValueOf() {
+        return HSBType.valueOf(hsbStrings[next()]);
+    }
+
+    @Benchmark
+    public String hsbToString() {
+        return hsbs[next()].toString();
+    }
+
+    @Benchmark
+    public void hsbToRGB(Blackhole blackhole) {
+        HSBType hsb = hsbs[next()];
+        blackhole.consume(hsb.getRed());
+        blackhole.consume(hsb.getGreen());
+        blackhole.consume(hsb.getBlue());
+    }
+
+}
@@ -0,0 +1,303 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.digitalstrom.internal.client.job;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.digitalstrom.internal.client.DigitalSTROMAPI;
+import org.openhab.binding.digitalstrom.internal.client.entity.DSID;
+import org.openhab.binding.digitalstrom.internal.client.job.SensorJobScheduler.Priority;
+import org.openhab.core.metrics.Counter;
+import org.openhab.core.metrics.Gauge;
+import org.openhab.core.metrics.Metric;
+import org.openhab.core.metrics.MetricsRegistry;
+
+/**
+ * Tests of the {@link SensorJobScheduler} with jobs recording the order they are executed in.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class SensorJobSchedulerTest {
+
+    private static final long AGING_TIME = 100;
+
+    private final BlockingQueue<TestJob> executed = new LinkedBlockingQueue<TestJob>();
+
+    private SensorJobScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        MetricsRegistry.clear();
+    }
+
+    @After
+    public void tearDown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void mergesDuplicateJobs() {
+        scheduler = createScheduler(0);
+        scheduler.addJob(job(1, 0), Priority.LOW);
+        scheduler.addJob(job(1, 0), Priority.LOW);
+        scheduler.addJob(job(1, 1), Priority.LOW);
+        assertEquals(2, scheduler.getQueueSize(Priority.LOW));
+        assertEquals(1, scheduler.getMergedJobs());
+
+        // a job queued with a lower priority is moved up
+        scheduler.addJob(job(1, 0), Priority.HIGH);
+        assertEquals(1, scheduler.getQueueSize(Priority.LOW));
+        assertEquals(1, scheduler.getQueueSize(Priority.HIGH));
+        assertEquals(2, scheduler.getMergedJobs());
+
+        // a job queued with a higher priority stays there
+        scheduler.addJob(job(1, 0), Priority.MEDIUM);
+        assertEquals(0, scheduler.getQueueSize(Priority.MEDIUM));
+        assertEquals(1, scheduler.getQueueSize(Priority.HIGH));
+        assertEquals(3, scheduler.getMergedJobs());
+    }
+
+    @Test
+    public void executesMergedJobOnce() throws InterruptedException {
+        scheduler = createScheduler(0);
+        scheduler.addJob(job(1, 0), Priority.LOW);
+        scheduler.addJob(job(2, 0), Priority.MEDIUM);
+        scheduler.addJob(job(1, 0), Priority.HIGH);
+        scheduler.start();
+
+        assertEquals(job(1, 0), next());
+        assertEquals(job(2, 0), next());
+        assertNull(executed.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(2, scheduler.getExecutedJobs());
+    }
+
+    @Test
+    public void executesByPriority() throws InterruptedException {
+        scheduler = createScheduler(0);
+        scheduler.addJob(job(1, 0), Priority.LOW);
+        scheduler.addJob(job(2, 0), Priority.MEDIUM);
+        scheduler.addJob(job(3, 0), Priority.HIGH);
+        scheduler.addJob(job(4, 0), Priority.HIGH);
+        scheduler.start();
+
+        assertEquals(job(3, 0), next());
+        assertEquals(job(4, 0), next());
+        assertEquals(job(2, 0), next());
+        assertEquals(job(1, 0), next());
+    }
+
+    @Test
+    public void agesWaitingJobs() throws InterruptedException {
+        scheduler = createScheduler(0);
+        scheduler.addJob(job(1, 0), Priority.LOW);
+        // after more than two aging periods the low priority job outranks fresh high priority jobs
+        Thread.sleep(AGING_TIME * 3 + AGING_TIME / 2);
+        scheduler.addJob(job(2, 0), Priority.HIGH);
+        scheduler.addJob(job(3, 0), Priority.HIGH);
+        scheduler.start();
+
+        assertEquals(job(1, 0), next());
+        assertEquals(job(2, 0), next());
+        assertEquals(job(3, 0), next());
+        assertTrue(scheduler.getAverageWaitTime() >= AGING_TIME);
+    }
+
+    @Test
+    public void lowPriorityJobDoesNotStarve() throws InterruptedException {
+        // every executed high priority job queues the next one, so the high priority queue never runs empty
+        scheduler = createScheduler(20);
+        scheduler.addJob(new ChainedJob(0), Priority.HIGH);
+        scheduler.addJob(job(2, 0), Priority.LOW);
+        scheduler.start();
+
+        long start = System.currentTimeMillis();
+        TestJob job;
+        do {
+            job = next();
+        } while (!job.equals(job(2, 0)));
+        long waited = System.currentTimeMillis() - start;
+        assertTrue("waited " + waited + " ms", waited < AGING_TIME * 5);
+    }
+
+    @Test
+    public void removesJobsOfDevice() throws InterruptedException {
+        scheduler = createScheduler(0);
+        scheduler.addJob(job(1, 0), Priority.HIGH);
+        scheduler.addJob(job(1, 1), Priority.LOW);
+        scheduler.addJob(job(2, 0), Priority.LOW);
+        scheduler.removeJobs(dsid(1));
+        assertEquals(0, scheduler.getQueueSize(Priority.HIGH));
+        assertEquals(1, scheduler.getQueueSize(Priority.LOW));
+
+        scheduler.start();
+        assertEquals(job(2, 0), next());
+        assertNull(executed.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void publishesMetrics() throws InterruptedException {
+        final CountDownLatch failing = new CountDownLatch(1);
+        scheduler = createScheduler(0);
+        scheduler.addJob(new TestJob(2, 0) {
+            @Override
+            public void execute(DigitalSTROMAPI digitalSTROM, String token) {
+                super.execute(digitalSTROM, token);
+                try {
+                    failing.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("test");
+            }
+        }, Priority.HIGH);
+        scheduler.addJob(job(1, 0), Priority.LOW);
+        scheduler.addJob(job(1, 0), Priority.LOW);
+        scheduler.start();
+
+        assertEquals(job(2, 0), next());
+        assertEquals(1.0, getGaugeValue("openhab_digitalstrom_sensor_jobs_running"), 0);
+        assertEquals(1.0, getGaugeValue("openhab_digitalstrom_sensor_jobs_queued{priority=\"low\"}"), 0);
+        assertEquals(0.0, getGaugeValue("openhab_digitalstrom_sensor_jobs_queued{priority=\"high\"}"), 0);
+
+        failing.countDown();
+        assertEquals(job(1, 0), next());
+        for (int i = 0; i < 100 && scheduler.getExecutedJobs() < 2; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, getCount("openhab_digitalstrom_sensor_jobs_executed_total"));
+        assertEquals(1, getCount("openhab_digitalstrom_sensor_jobs_merged_total"));
+        assertEquals(1, getCount("openhab_digitalstrom_sensor_jobs_failed_total"));
+        assertEquals(0.0, getGaugeValue("openhab_digitalstrom_sensor_jobs_queued{priority=\"low\"}"), 0);
+
+        scheduler.shutdown();
+        assertNull(getMetric("openhab_digitalstrom_sensor_jobs_queued{priority=\"low\"}"));
+        assertNull(getMetric("openhab_digitalstrom_sensor_jobs_running"));
+    }
+
+    private SensorJobScheduler createScheduler(long minInterval) {
+        return new SensorJobScheduler(new SensorJobScheduler.SessionProvider() {
+            @Override
+            public DigitalSTROMAPI getDigitalSTROM() {
+                return null;
+            }
+
+            @Override
+            public String getSessionToken() {
+                return null;
+            }
+        }, 1, minInterval, AGING_TIME);
+    }
+
+    private TestJob next() throws InterruptedException {
+        TestJob job = executed.poll(2, TimeUnit.SECONDS);
+        assertNotNull("no job executed", job);
+        return job;
+    }
+
+    private static Metric getMetric(String id) {
+        for (Metric metric : MetricsRegistry.getMetrics()) {
+            if (metric.getId().equals(id)) {
+                return metric;
+            }
+        }
+        return null;
+    }
+
+    private static double getGaugeValue(String id) {
+        Metric metric = getMetric(id);
+        assertNotNull(id, metric);
+        return ((Gauge) metric).getValue();
+    }
+
+    private static long getCount(String id) {
+        Metric metric = getMetric(id);
+        assertNotNull(id, metric);
+        return ((Counter) metric).getCount();
+    }
+
+    private TestJob job(int device, int sensor) {
+        return new TestJob(device, sensor);
+    }
+
+    private static DSID dsid(int device) {
+        return new DSID(String.format("%08d", device));
+    }
+
+    private class TestJob implements SensorJob {
+
+        private final int device;
+
+        private final int sensor;
+
+        TestJob(int device, int sensor) {
+            this.device = device;
+            this.sensor = sensor;
+        }
+
+        @Override
+        public DSID getDsid() {
+            return dsid(device);
+        }
+
+        @Override
+        public void execute(DigitalSTROMAPI digitalSTROM, String token) {
+            executed.add(this);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof TestJob)) {
+                return false;
+            }
+            TestJob other = (TestJob) obj;
+            return device == other.device && sensor == other.sensor;
+        }
+
+        @Override
+        public int hashCode() {
+            return device * 31 + sensor;
+        }
+
+        @Override
+        public String toString() {
+            return "TestJob [device=" + device + ", sensor=" + sensor + "]";
+        }
+    }
+
+    /**
+     * A high priority job which queues the next one when it is executed.
+     */
+    private class ChainedJob extends TestJob {
+
+        private final int number;
+
+        ChainedJob(int number) {
+            super(100, number);
+            this.number = number;
+        }
+
+        @Override
+        public void execute(DigitalSTROMAPI digitalSTROM, String token) {
+            super.execute(digitalSTROM, token);
+            scheduler.addJob(new ChainedJob(number + 1), Priority.HIGH);
+        }
+    }
+
+}
@@ -74,6 +74,11 @@ public class DeviceSensorValueJob implements SensorJob {
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return (this.device.getDSID().getValue() + this.sensorIndex.getIndex()).hashCode();
+    }
+
     @Override
     public DSID getDsid() {
         return device.getDSID();
@@ -61,6 +61,11 @@ public class SceneOutputValueSensorJob implements SensorJob {
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return (this.device.getDSID().getValue() + "-" + this.sceneId).hashCode();
+    }
+
     @Override
     public DSID getDsid() {
         return device.getDSID();
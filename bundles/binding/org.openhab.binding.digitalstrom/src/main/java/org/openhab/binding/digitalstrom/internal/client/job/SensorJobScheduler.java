@@ -0,0 +1,349 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.digitalstrom.internal.client.job;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.digitalstrom.internal.client.DigitalSTROMAPI;
+import org.openhab.binding.digitalstrom.internal.client.entity.DSID;
+import org.openhab.core.metrics.Counter;
+import org.openhab.core.metrics.Gauge;
+import org.openhab.core.metrics.LatencyHistogram;
+import org.openhab.core.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes {@link SensorJob}s against the digitalSTROM server (dSS) by priority.
+ * <p>
+ * Up to <code>concurrency</code> jobs are executed at the same time, but two jobs are never started less than
+ * <code>minInterval</code> milliseconds apart, so the rate limit of the dSS is respected. A job which is added while
+ * an equal job (same device and sensor) is still queued is merged into the queued one. Jobs gain one priority level
+ * for every <code>agingTime</code> milliseconds they are waiting, so low priority jobs never starve.
+ * <p>
+ * The queue sizes, the executed, merged and failed jobs and the time the jobs wait are published in the
+ * {@link MetricsRegistry}.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class SensorJobScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorJobScheduler.class);
+
+    /**
+     * The priorities of sensor jobs, in descending order.
+     */
+    public enum Priority {
+        HIGH,
+        MEDIUM,
+        LOW
+    }
+
+    /**
+     * Provides the API and the current session token to the executed jobs.
+     */
+    public interface SessionProvider {
+        DigitalSTROMAPI getDigitalSTROM();
+
+        String getSessionToken();
+    }
+
+    private final Object lock = new Object();
+
+    /** the queued jobs per priority, mapped to the time they were queued, oldest first */
+    private final List<LinkedHashMap<SensorJob, Long>> queues = new ArrayList<LinkedHashMap<SensorJob, Long>>();
+
+    private final SessionProvider sessionProvider;
+    private final int concurrency;
+    private final long minInterval;
+    private final long agingTime;
+
+    private final List<Thread> workers = new ArrayList<Thread>();
+    private boolean shutdown = false;
+    private long nextStartTime = 0;
+    private int runningJobs = 0;
+
+    private final Counter executedJobs = MetricsRegistry.counter("openhab_digitalstrom_sensor_jobs_executed_total",
+            "Sensor jobs executed against the dSS");
+    private final Counter mergedJobs = MetricsRegistry.counter("openhab_digitalstrom_sensor_jobs_merged_total",
+            "Sensor jobs merged into an equal queued job");
+    private final Counter failedJobs = MetricsRegistry.counter("openhab_digitalstrom_sensor_jobs_failed_total",
+            "Sensor jobs which failed with an exception");
+    private final LatencyHistogram waitTime = MetricsRegistry.histogram("openhab_digitalstrom_sensor_job_wait_seconds",
+            "Time sensor jobs are queued before being started");
+    private final List<Gauge> gauges = new ArrayList<Gauge>();
+
+    /**
+     * @param sessionProvider provides the API and session token to execute the jobs with
+     * @param concurrency the maximum number of jobs executed at the same time
+     * @param minInterval the minimum time in milliseconds between the start of two jobs
+     * @param agingTime the time in milliseconds after which a waiting job gains one priority level
+     */
+    public SensorJobScheduler(SessionProvider sessionProvider, int concurrency, long minInterval, long agingTime) {
+        this.sessionProvider = sessionProvider;
+        this.concurrency = Math.max(concurrency, 1);
+        this.minInterval = Math.max(minInterval, 0);
+        this.agingTime = Math.max(agingTime, 1);
+        for (int i = 0; i < Priority.values().length; i++) {
+            queues.add(new LinkedHashMap<SensorJob, Long>());
+        }
+    }
+
+    /**
+     * Starts the worker threads and registers the gauges of the queue sizes.
+     */
+    public void start() {
+        synchronized (lock) {
+            for (final Priority priority : Priority.values()) {
+                gauges.add(MetricsRegistry.gauge("openhab_digitalstrom_sensor_jobs_queued", "Sensor jobs waiting",
+                        new Gauge.ValueProvider() {
+                            @Override
+                            public double getValue() {
+                                return getQueueSize(priority);
+                            }
+                        }, "priority", priority.name().toLowerCase()));
+            }
+            gauges.add(MetricsRegistry.gauge("openhab_digitalstrom_sensor_jobs_running",
+                    "Sensor jobs being executed", new Gauge.ValueProvider() {
+                        @Override
+                        public double getValue() {
+                            return getRunningJobs();
+                        }
+                    }));
+            for (int i = 0; i < concurrency; i++) {
+                Thread worker = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        work();
+                    }
+                }, "DigitalSTROM SensorJob Worker " + (i + 1));
+                worker.setDaemon(true);
+                workers.add(worker);
+                worker.start();
+            }
+        }
+    }
+
+    /**
+     * Stops all worker threads, discards the queued jobs and removes the gauges. Jobs being executed are finished.
+     */
+    public void shutdown() {
+        synchronized (lock) {
+            shutdown = true;
+            for (Gauge gauge : gauges) {
+                MetricsRegistry.remove(gauge);
+            }
+            gauges.clear();
+            for (Map<SensorJob, Long> queue : queues) {
+                queue.clear();
+            }
+            workers.clear();
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Queues <code>job</code> with the given priority. If an equal job is already queued with the same or a higher
+     * priority, <code>job</code> is merged into it; if it is queued with a lower priority, it is moved up to
+     * <code>priority</code> keeping its original waiting time.
+     *
+     * @param job the job to queue
+     * @param priority the priority of the job
+     */
+    public void addJob(SensorJob job, Priority priority) {
+        synchronized (lock) {
+            if (shutdown) {
+                return;
+            }
+            Long queuedSince = null;
+            for (int i = 0; i < queues.size(); i++) {
+                Map<SensorJob, Long> queue = queues.get(i);
+                if (queue.containsKey(job)) {
+                    if (i <= priority.ordinal()) {
+                        mergedJobs.increment();
+                        return;
+                    }
+                    queuedSince = queue.remove(job);
+                    mergedJobs.increment();
+                    break;
+                }
+            }
+            queues.get(priority.ordinal()).put(job, queuedSince != null ? queuedSince : System.currentTimeMillis());
+            lock.notify();
+        }
+    }
+
+    /**
+     * Removes all queued jobs of the device with the given dSID.
+     *
+     * @param dsid the dSID of the device
+     */
+    public void removeJobs(DSID dsid) {
+        synchronized (lock) {
+            for (Map<SensorJob, Long> queue : queues) {
+                for (Iterator<SensorJob> iter = queue.keySet().iterator(); iter.hasNext();) {
+                    if (iter.next().getDsid().equals(dsid)) {
+                        iter.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param priority the priority to get the queue size for
+     * @return the number of jobs queued with <code>priority</code>
+     */
+    public int getQueueSize(Priority priority) {
+        synchronized (lock) {
+            return queues.get(priority.ordinal()).size();
+        }
+    }
+
+    /**
+     * @return the number of jobs being executed right now
+     */
+    public int getRunningJobs() {
+        synchronized (lock) {
+            return runningJobs;
+        }
+    }
+
+    /**
+     * @return the number of jobs executed by all schedulers since the binding was started
+     */
+    public long getExecutedJobs() {
+        return executedJobs.getCount();
+    }
+
+    /**
+     * @return the number of jobs merged into already queued jobs by all schedulers since the binding was started
+     */
+    public long getMergedJobs() {
+        return mergedJobs.getCount();
+    }
+
+    /**
+     * @return the number of jobs which failed with an exception since the binding was started
+     */
+    public long getFailedJobs() {
+        return failedJobs.getCount();
+    }
+
+    /**
+     * @return the average time in milliseconds the started jobs had been queued
+     */
+    public long getAverageWaitTime() {
+        long started = waitTime.getCount();
+        return started == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(waitTime.getSum() / started);
+    }
+
+    @Override
+    public String toString() {
+        return "SensorJobScheduler [high=" + getQueueSize(Priority.HIGH) + ", medium=" + getQueueSize(Priority.MEDIUM)
+                + ", low=" + getQueueSize(Priority.LOW) + ", running=" + getRunningJobs() + ", executed="
+                + getExecutedJobs() + ", merged=" + getMergedJobs() + ", failed=" + getFailedJobs()
+                + ", averageWaitTime=" + getAverageWaitTime() + "ms]";
+    }
+
+    private void work() {
+        while (true) {
+            SensorJob job;
+            synchronized (lock) {
+                try {
+                    job = takeJob();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (job == null) {
+                    return;
+                }
+                runningJobs++;
+            }
+
+            try {
+                job.execute(sessionProvider.getDigitalSTROM(), sessionProvider.getSessionToken());
+            } catch (RuntimeException e) {
+                failedJobs.increment();
+                logger.error("SensorJob for dSID {} failed", job.getDsid(), e);
+            } finally {
+                executedJobs.increment();
+                synchronized (lock) {
+                    runningJobs--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for the next job which may be started. Must be called while holding the lock.
+     *
+     * @return the job to execute or <code>null</code> if the scheduler was shut down
+     */
+    private SensorJob takeJob() throws InterruptedException {
+        while (!shutdown) {
+            long now = System.currentTimeMillis();
+            LinkedHashMap<SensorJob, Long> queue = selectQueue(now);
+            if (queue == null) {
+                lock.wait();
+            } else if (now < nextStartTime) {
+                lock.wait(nextStartTime - now);
+            } else {
+                Map.Entry<SensorJob, Long> head = queue.entrySet().iterator().next();
+                queue.remove(head.getKey());
+                waitTime.record(TimeUnit.MILLISECONDS.toNanos(now - head.getValue()));
+                nextStartTime = now + minInterval;
+                if (!isEmpty()) {
+                    // let another worker pick up the next job once the interval has passed
+                    lock.notify();
+                }
+                return head.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Selects the queue whose oldest job has the highest effective priority, i.e. its priority raised by one level
+     * per <code>agingTime</code> it has been waiting.
+     */
+    private LinkedHashMap<SensorJob, Long> selectQueue(long now) {
+        LinkedHashMap<SensorJob, Long> selected = null;
+        long selectedLevel = Long.MAX_VALUE;
+        for (int i = 0; i < queues.size(); i++) {
+            LinkedHashMap<SensorJob, Long> queue = queues.get(i);
+            if (!queue.isEmpty()) {
+                long waited = now - queue.values().iterator().next();
+                long level = i - waited / agingTime;
+                if (level < selectedLevel) {
+                    selected = queue;
+                    selectedLevel = level;
+                }
+            }
+        }
+        return selected;
+    }
+
+    private boolean isEmpty() {
+        for (Map<SensorJob, Long> queue : queues) {
+            if (!queue.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
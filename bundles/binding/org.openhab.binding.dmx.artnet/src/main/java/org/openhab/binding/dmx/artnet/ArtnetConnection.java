@@ -12,7 +12,7 @@ import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.openhab.binding.dmx.DmxConnection;
+import org.openhab.binding.dmx.DmxUniverseConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,12 +27,12 @@ import artnet4j.packets.ArtDmxPacket;
  * @author Rainer Ostendorf
  * @since 1.4.0
  */
-public class ArtnetConnection implements DmxConnection {
+public class ArtnetConnection implements DmxUniverseConnection {
 
     private static final Logger logger = LoggerFactory.getLogger(ArtnetConnection.class);
 
-    /** sequence ID, used for enumerating the artnet packets send */
-    private int sequenceID;
+    /** sequence IDs per universe, used for enumerating the artnet packets send */
+    private int[] sequenceIDs = new int[256];
 
     /** the Artnet4J server */
     private ArtNet artnet = new ArtNet();
@@ -100,15 +100,26 @@ public class ArtnetConnection implements DmxConnection {
      */
     @Override
     public void sendDmx(byte[] buffer) throws Exception {
+        sendDmx(0, buffer);
+    }
+
+    /**
+     * Sends the data to the given universe, universe 16 is universe 0 of
+     * subnet 1 and so on.
+     *
+     * {@inheritDoc}
+     *
+     * @see org.openhab.binding.dmx.DmxUniverseConnection#sendDmx(int, byte[])
+     */
+    @Override
+    public void sendDmx(int universe, byte[] buffer) throws Exception {
 
         if (!isConnectionClosed) {
 
             ArtDmxPacket dmx = new ArtDmxPacket();
 
-            // Default to universe 0. May need to be changed later to support
-            // multiple universes.
-            dmx.setUniverse(0, 0);
-            dmx.setSequenceID(sequenceID % 255);
+            dmx.setUniverse(universe / 16, universe % 16);
+            dmx.setSequenceID(sequenceIDs[universe]);
             dmx.setDMX(buffer, buffer.length);
 
             if (!receiverNodes.isEmpty()) {
@@ -121,7 +132,7 @@ public class ArtnetConnection implements DmxConnection {
             } else {
                 artnet.broadcastPacket(dmx);
             }
-            sequenceID++;
+            sequenceIDs[universe] = (sequenceIDs[universe] + 1) % 255;
         }
     }
 }
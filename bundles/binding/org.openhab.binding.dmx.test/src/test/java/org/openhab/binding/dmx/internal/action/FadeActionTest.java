@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.dmx.internal.action;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.openhab.binding.dmx.internal.core.DmxChannel;
+
+/**
+ * FadeAction tests.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class FadeActionTest {
+
+    private static final long START = 10000;
+
+    @Test
+    public void interpolatesFromElapsedTime() {
+
+        DmxChannel channel = new DmxChannel(1);
+        FadeAction action = new FadeAction(1000, 255, -1);
+        channel.setChannelAction(action);
+
+        assertEquals(0, channel.getNextValue(START));
+        assertEquals(63, channel.getNextValue(START + 250));
+        // frames don't have to arrive at a fixed interval
+        assertEquals(102, channel.getNextValue(START + 400));
+        assertEquals(127, channel.getNextValue(START + 500));
+        assertEquals(254, channel.getNextValue(START + 999));
+        assertEquals(255, channel.getNextValue(START + 1000));
+        assertFalse(action.isCompleted());
+    }
+
+    @Test
+    public void interpolatesDownwards() {
+
+        DmxChannel channel = new DmxChannel(1);
+        channel.setValue(200);
+        channel.setChannelAction(new FadeAction(400, 0, -1));
+
+        assertEquals(200, channel.getNextValue(START));
+        assertEquals(150, channel.getNextValue(START + 100));
+        assertEquals(50, channel.getNextValue(START + 300));
+        assertEquals(0, channel.getNextValue(START + 400));
+    }
+
+    @Test
+    public void reachesTargetWhenFrameIsLate() {
+
+        DmxChannel channel = new DmxChannel(1);
+        FadeAction action = new FadeAction(1000, 100, 0);
+        channel.setChannelAction(action);
+
+        assertEquals(0, channel.getNextValue(START));
+        assertEquals(100, channel.getNextValue(START + 1500));
+    }
+
+    @Test
+    public void completesAfterFadeAndHoldTime() {
+
+        DmxChannel channel = new DmxChannel(1);
+        FadeAction action = new FadeAction(1000, 255, 500);
+
+        assertEquals(0, action.getNewValue(channel, START));
+        assertEquals(255, action.getNewValue(channel, START + 1000));
+        assertFalse(action.isCompleted());
+        action.getNewValue(channel, START + 1499);
+        assertFalse(action.isCompleted());
+        action.getNewValue(channel, START + 1500);
+        assertTrue(action.isCompleted());
+    }
+
+    @Test
+    public void jumpsToTargetWithoutFadeTime() {
+
+        DmxChannel channel = new DmxChannel(1);
+        FadeAction action = new FadeAction(0, 180, 0);
+
+        assertEquals(180, action.getNewValue(channel, START));
+        assertTrue(action.isCompleted());
+    }
+
+    @Test
+    public void restartsFromCurrentValueAfterReset() {
+
+        DmxChannel channel = new DmxChannel(1);
+        channel.setValue(100);
+        FadeAction action = new FadeAction(1000, 200, 0);
+
+        assertEquals(100, action.getNewValue(channel, START));
+        assertEquals(150, action.getNewValue(channel, START + 500));
+
+        action.reset();
+        channel.setValue(0);
+
+        assertEquals(0, action.getNewValue(channel, START + 600));
+        assertEquals(100, action.getNewValue(channel, START + 1100));
+    }
+
+}
@@ -159,6 +159,42 @@ public class DmxSwitchItemTest {
 
     }
 
+    @Test
+    public void canHaveChannelsInFurtherUniverses() throws BindingConfigParseException {
+
+        // test valid configurations
+        DmxItem item = getItemInstance("CHANNEL[513/3]");
+        assertTrue(arraysAreEqual(new int[] { 513, 514, 515 }, item.getChannels()));
+
+        item = getItemInstance("CHANNEL[510/6:250]");
+        assertTrue(arraysAreEqual(new int[] { 510, 511, 512, 513, 514, 515 }, item.getChannels()));
+        assertEquals(250, item.getUpdateDelay());
+
+        item = getItemInstance("CHANNEL[32766/3]");
+        assertTrue(arraysAreEqual(new int[] { 32766, 32767, 32768 }, item.getChannels()));
+
+        // test invalid configurations
+        try {
+            item = getItemInstance("CHANNEL[32767/3]");
+            fail("Missing exception");
+        } catch (BindingConfigParseException e) {
+            e.printStackTrace();
+        }
+        try {
+            item = getItemInstance("CHANNEL[32769]");
+            fail("Missing exception");
+        } catch (BindingConfigParseException e) {
+            e.printStackTrace();
+        }
+        try {
+            item = getItemInstance("CHANNEL[0/3]");
+            fail("Missing exception");
+        } catch (BindingConfigParseException e) {
+            e.printStackTrace();
+        }
+
+    }
+
     @Test
     public void failsOnMissingChannelConfig() {
 
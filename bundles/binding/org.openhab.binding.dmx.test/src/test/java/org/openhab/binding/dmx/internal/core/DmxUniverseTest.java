@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.dmx.internal.core;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.openhab.binding.dmx.internal.action.FadeAction;
+
+/**
+ * DmxUniverse tests.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class DmxUniverseTest {
+
+    private static final long START = 10000;
+
+    @Test
+    public void calculatesFrameOnlyAfterChange() {
+
+        DmxUniverse universe = new DmxUniverse(0);
+        DmxChannel channel = universe.getChannel(3);
+
+        channel.setValue(100);
+        assertTrue(universe.calculateFrame(START));
+        assertTrue(universe.getBufferChanged());
+        assertEquals(100, universe.getFrame()[2] & 0xFF);
+
+        byte[] frame = universe.getFrame();
+        assertFalse(universe.calculateFrame(START + 40));
+        assertFalse(universe.getBufferChanged());
+        assertSame(frame, universe.getFrame());
+
+        channel.setValue(100);
+        assertFalse(universe.calculateFrame(START + 80));
+        assertSame(frame, universe.getFrame());
+
+        channel.setValue(120);
+        assertTrue(universe.calculateFrame(START + 120));
+        assertEquals(120, universe.getFrame()[2] & 0xFF);
+    }
+
+    @Test
+    public void alternatesFrameBuffers() {
+
+        DmxUniverse universe = new DmxUniverse(0);
+        DmxChannel channel = universe.getChannel(1);
+
+        channel.setValue(10);
+        universe.calculateFrame(START);
+        byte[] first = universe.getFrame();
+
+        channel.setValue(20);
+        universe.calculateFrame(START + 40);
+        byte[] second = universe.getFrame();
+
+        // the previous frame is left untouched while the next one is handed out
+        assertNotSame(first, second);
+        assertEquals(10, first[0]);
+        assertEquals(20, second[0]);
+
+        channel.setValue(30);
+        universe.calculateFrame(START + 80);
+        assertSame(first, universe.getFrame());
+        assertEquals(30, first[0]);
+    }
+
+    @Test
+    public void marksChangedOnChannelOperations() {
+
+        DmxUniverse universe = new DmxUniverse(0);
+        DmxChannel channel = universe.getChannel(5);
+        channel.setValue(200);
+        universe.calculateFrame(START);
+
+        channel.switchOff();
+        assertTrue(universe.calculateFrame(START + 40));
+        assertEquals(0, universe.getFrame()[4]);
+
+        channel.switchOn();
+        assertTrue(universe.calculateFrame(START + 80));
+        assertEquals(200, universe.getFrame()[4] & 0xFF);
+
+        channel.decreaseChannel(100);
+        assertTrue(universe.calculateFrame(START + 120));
+        assertEquals(0, universe.getFrame()[4]);
+
+        channel.increaseChannel(100);
+        assertTrue(universe.calculateFrame(START + 160));
+        assertEquals(255, universe.getFrame()[4] & 0xFF);
+    }
+
+    @Test
+    public void keepsCalculatingWhileActionsRun() {
+
+        DmxUniverse universe = new DmxUniverse(0);
+        DmxChannel channel = universe.getChannel(1);
+        channel.setChannelAction(new FadeAction(1000, 255, -1));
+
+        universe.calculateFrame(START);
+        assertEquals(0, universe.getFrame()[0]);
+
+        // no channel is touched, the running fade still advances the frame
+        assertTrue(universe.calculateFrame(START + 500));
+        assertEquals(127, universe.getFrame()[0] & 0xFF);
+        assertTrue(universe.calculateFrame(START + 1000));
+        assertEquals(255, universe.getFrame()[0] & 0xFF);
+
+        // holding the target value doesn't change the frame
+        assertFalse(universe.calculateFrame(START + 1500));
+
+        channel.setValue(40);
+        assertTrue(universe.calculateFrame(START + 1540));
+        assertFalse(universe.calculateFrame(START + 1580));
+    }
+
+    @Test
+    public void tracksChangesPerUniverse() {
+
+        DmxUniverse first = new DmxUniverse(0);
+        DmxUniverse second = new DmxUniverse(1);
+        DmxChannel channel1 = first.getChannel(512);
+        DmxChannel channel513 = second.getChannel(513);
+        first.calculateFrame(START);
+        second.calculateFrame(START);
+
+        channel513.setValue(50);
+        assertFalse(first.calculateFrame(START + 40));
+        assertTrue(second.calculateFrame(START + 40));
+        assertEquals(50, second.getFrame()[0]);
+
+        channel1.setValue(60);
+        assertTrue(first.calculateFrame(START + 80));
+        assertFalse(second.calculateFrame(START + 80));
+        assertEquals(60, first.getFrame()[511]);
+        assertEquals(512, first.getFrame().length);
+    }
+
+    @Test
+    public void growsFrameToHighestChannel() {
+
+        DmxUniverse universe = new DmxUniverse(1);
+        assertEquals(32, universe.getFrame().length);
+
+        assertSame(universe.getChannel(600), universe.getChannel(600));
+        universe.getChannel(600).setValue(70);
+        assertTrue(universe.calculateFrame(START));
+        assertEquals(88, universe.getFrame().length);
+        assertEquals(70, universe.getFrame()[87]);
+    }
+
+}
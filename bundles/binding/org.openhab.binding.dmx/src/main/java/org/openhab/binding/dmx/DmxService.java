@@ -248,4 +248,13 @@ public interface DmxService {
      */
     public void addChannelResume(int channel);
 
+    /**
+     * Get the transmit statistics of all universes in use, i.e. the number of
+     * sent frames, the delay between the scheduled and the actual send time
+     * and the time needed to send a frame.
+     *
+     * @return one line per universe
+     */
+    public String getStatistics();
+
 }
@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.dmx;
+
+/**
+ * DmxUniverseConnection. A DMX connection which can address more than one
+ * universe. Channel 1-512 are sent to universe 0, channel 513-1024 to universe
+ * 1 and so on. Connections which only implement {@link DmxConnection} receive
+ * universe 0 only.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public interface DmxUniverseConnection extends DmxConnection {
+
+    /**
+     * Send the given buffer to a universe of the DMX device.
+     *
+     * @param universe
+     *            universe number, starting at 0
+     * @param buffer
+     *            buffer containing max 512 DMX values. The buffer is reused
+     *            for later frames, so it must not be kept after returning.
+     * @throws Exception
+     */
+    public void sendDmx(int universe, byte[] buffer) throws Exception;
+
+}
@@ -32,6 +32,7 @@ public class DmxCommandProvider implements CommandProvider {
         StringBuffer buffer = new StringBuffer();
         buffer.append("--- DMX Commands---\n");
         buffer.append("\tdmx status                       - Show connection status\n");
+        buffer.append("\tdmx stats                        - Show frame timing of all universes\n");
         buffer.append("\tdmx set <channel> <value>        - Set channel value\n");
         buffer.append("\tdmx get <channel>                - Get channel value\n");
         buffer.append("\tdmx loop <channel>               - Set channel in fading loop\n");
@@ -71,6 +72,11 @@ public class DmxCommandProvider implements CommandProvider {
                 return null;
             }
 
+            if (cmd.equals("stats")) {
+                intp.print(service.getStatistics());
+                return null;
+            }
+
             if (cmd.equals("mirror")) {
                 String[] channels = intp.nextArgument().split(",");
                 int sourceChannel = Integer.parseInt(channels[0]);
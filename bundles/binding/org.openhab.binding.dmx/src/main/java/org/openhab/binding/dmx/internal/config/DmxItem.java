@@ -19,6 +19,7 @@ import org.openhab.binding.dmx.DmxStatusUpdateListener;
 import org.openhab.binding.dmx.internal.cmd.DmxCommand;
 import org.openhab.binding.dmx.internal.cmd.DmxFadeCommand;
 import org.openhab.binding.dmx.internal.cmd.DmxSuspendingFadeCommand;
+import org.openhab.binding.dmx.internal.core.DmxUniverse;
 import org.openhab.core.binding.BindingConfig;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.State;
@@ -46,7 +47,9 @@ public abstract class DmxItem implements BindingConfig, DmxStatusUpdateListener
     /** Minimum status update delay in ms */
     public static int MIN_UPDATE_DELAY = 100;
 
-    /** DMX channel numbers (512 max) */
+    private static final int MAX_CHANNEL = DmxUniverse.CHANNELS * DmxUniverse.MAX_UNIVERSES;
+
+    /** DMX channel numbers (512 per universe, i.e. 513 is channel 1 of universe 1) */
     protected int[] channels;
 
     /** Minimum number of ms between status updates */
@@ -165,10 +168,6 @@ public abstract class DmxItem implements BindingConfig, DmxStatusUpdateListener
                 channels = new int[tmp.length];
                 for (int i = 0; i < tmp.length; i++) {
                     channels[i] = parseChannelNumber(tmp[i]);
-                    if (channels[i] < 1 || channels[i] > 512) {
-
-                    }
-
                 }
             }
 
@@ -183,6 +182,13 @@ public abstract class DmxItem implements BindingConfig, DmxStatusUpdateListener
             }
         }
 
+        for (int channel : channels) {
+            if (channel > MAX_CHANNEL) {
+                throw new BindingConfigParseException("DMX channel configuration : " + channel
+                        + " is not a valid dmx channel (1-" + MAX_CHANNEL + ")");
+            }
+        }
+
         // parse update delay
         if (values.length == 2) {
             updateDelay = Integer.parseInt(values[1]);
@@ -197,14 +203,14 @@ public abstract class DmxItem implements BindingConfig, DmxStatusUpdateListener
     private int parseChannelNumber(String input) throws BindingConfigParseException {
         try {
             int channel = Integer.parseInt(input);
-            if (channel < 1 || channel > 512) {
+            if (channel < 1 || channel > MAX_CHANNEL) {
                 throw new BindingConfigParseException(
-                        "DMX channel configuration : " + input + " is not a valid dmx channel (1-512)");
+                        "DMX channel configuration : " + input + " is not a valid dmx channel (1-" + MAX_CHANNEL + ")");
             }
             return channel;
         } catch (NumberFormatException e) {
             throw new BindingConfigParseException(
-                    "DMX channel configuration : " + input + " is not a valid dmx channel (1-512)");
+                    "DMX channel configuration : " + input + " is not a valid dmx channel (1-" + MAX_CHANNEL + ")");
         }
     }
 
@@ -31,6 +31,9 @@ public class DmxChannel implements Comparable<DmxChannel> {
 
     private int channelId;
 
+    /** Universe which transmits this channel, notified when the output may have changed **/
+    private DmxUniverse universe;
+
     /** Current channel value in the range from 0-255 **/
     private int value;
 
@@ -59,6 +62,29 @@ public class DmxChannel implements Comparable<DmxChannel> {
         this.channelId = channelId;
     }
 
+    /**
+     * Create new DMX channel in a universe.
+     *
+     * @param channelId
+     *            DMX channel id.
+     * @param universe
+     *            universe to mark as changed when the output may have changed.
+     */
+    DmxChannel(int channelId, DmxUniverse universe) {
+        this.channelId = channelId;
+        this.universe = universe;
+    }
+
+    /**
+     * Mark the universe as changed, so the channel output is recalculated in
+     * the next frame.
+     */
+    private void markChanged() {
+        if (universe != null) {
+            universe.markChanged();
+        }
+    }
+
     /**
      * Set the channel output to a fixed value. This will stop any active
      * actions on the channel.
@@ -75,6 +101,7 @@ public class DmxChannel implements Comparable<DmxChannel> {
 
         // set value
         this.value = DmxUtil.capDmxValue(value);
+        markChanged();
     }
 
     /**
@@ -101,6 +128,7 @@ public class DmxChannel implements Comparable<DmxChannel> {
         } else {
             value = DmxUtil.getOutputValue(value, outputlevel.intValue());
         }
+        markChanged();
 
     }
 
@@ -125,6 +153,7 @@ public class DmxChannel implements Comparable<DmxChannel> {
      */
     public synchronized void switchOn() {
         switchedOn = true;
+        markChanged();
     }
 
     /**
@@ -134,6 +163,7 @@ public class DmxChannel implements Comparable<DmxChannel> {
     public synchronized void switchOff() {
         switchedOn = false;
         actions.clear();
+        markChanged();
     }
 
     /**
@@ -144,7 +174,7 @@ public class DmxChannel implements Comparable<DmxChannel> {
      * 
      * @return value 0-255
      */
-    public synchronized Integer getNextValue(long calculationTime) {
+    public synchronized int getNextValue(long calculationTime) {
 
         if (!switchedOn) {
             return DMX_MIN_VALUE;
@@ -175,6 +205,7 @@ public class DmxChannel implements Comparable<DmxChannel> {
         actions.remove(0);
         action.reset();
         actions.add(action);
+        markChanged();
     }
 
     /**
@@ -190,6 +221,7 @@ public class DmxChannel implements Comparable<DmxChannel> {
         switchedOn = true;
         actions.clear();
         actions.add(channelAction);
+        markChanged();
     }
 
     /**
@@ -200,6 +232,7 @@ public class DmxChannel implements Comparable<DmxChannel> {
      */
     public synchronized void addChannelAction(BaseAction channelAction) {
         actions.add(channelAction);
+        markChanged();
     }
 
     /**
@@ -243,6 +276,7 @@ public class DmxChannel implements Comparable<DmxChannel> {
                 a.increase(increment);
             }
         }
+        markChanged();
     }
 
     /**
@@ -266,6 +300,7 @@ public class DmxChannel implements Comparable<DmxChannel> {
                 a.decrease(decrement);
             }
         }
+        markChanged();
     }
 
     /**
@@ -297,6 +332,7 @@ public class DmxChannel implements Comparable<DmxChannel> {
         } else {
             setValue(suspendedValue);
         }
+        markChanged();
     }
 
     /**
@@ -305,6 +341,7 @@ public class DmxChannel implements Comparable<DmxChannel> {
      */
     public void addResumeAction() {
         actions.add(new ResumeAction());
+        markChanged();
     }
 
 }
\ No newline at end of file
@@ -9,7 +9,10 @@
 package org.openhab.binding.dmx.internal.core;
 
 import java.util.Dictionary;
-import java.util.Timer;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.dmx.DmxConnection;
@@ -39,7 +42,7 @@ public class DmxController implements DmxService, ManagedService {
                                                                                            // update
 
     /** Thread in which the DMX transmitter is running **/
-    private Timer transmitterTimer;
+    private ScheduledExecutorService transmitterExecutor;
 
     private DmxTransmitter transmitter;
 
@@ -53,9 +56,19 @@ public class DmxController implements DmxService, ManagedService {
     @Override
     public void start() throws Exception {
         logger.trace("Starting Dmx transmitter ...");
-        transmitter = new DmxTransmitter(this);
-        transmitterTimer = new Timer(true);
-        transmitterTimer.schedule(transmitter, 0, TRANSMIT_FREQUENCY_MS);
+        transmitter = new DmxTransmitter(this, TRANSMIT_FREQUENCY_MS);
+        transmitter.setRepeatMode(repeatMode);
+        transmitterExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "DMX transmitter");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MAX_PRIORITY);
+                return thread;
+            }
+        });
+        // fixed rate, so a late frame doesn't delay all following frames
+        transmitterExecutor.scheduleAtFixedRate(transmitter, 0, TRANSMIT_FREQUENCY_MS, TimeUnit.MILLISECONDS);
         logger.trace("Dmx transmitter started.");
 
     }
@@ -66,10 +79,10 @@ public class DmxController implements DmxService, ManagedService {
     @Override
     public void stop() {
 
-        if (transmitterTimer != null) {
-            transmitterTimer.cancel();
+        if (transmitterExecutor != null) {
+            transmitterExecutor.shutdownNow();
         }
-        transmitterTimer = null;
+        transmitterExecutor = null;
     }
 
     /**
@@ -115,7 +128,7 @@ public class DmxController implements DmxService, ManagedService {
     @Override
     public void registerStatusListener(DmxStatusUpdateListener listener) {
         logger.trace("Registering listener for channel {}", listener.getChannel());
-        transmitter.getUniverse().addStatusListener(listener);
+        transmitter.addStatusListener(listener);
     }
 
     /**
@@ -124,7 +137,7 @@ public class DmxController implements DmxService, ManagedService {
     @Override
     public void unregisterStatusListener(DmxStatusUpdateListener listener) {
         logger.trace("Unregistering listener for channel {}", listener.getChannel());
-        transmitter.getUniverse().removeStatusListener(listener);
+        transmitter.removeStatusListener(listener);
     }
 
     /**
@@ -323,6 +336,26 @@ public class DmxController implements DmxService, ManagedService {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getStatistics() {
+        StringBuilder statistics = new StringBuilder();
+        for (DmxUniverse universe : transmitter.getUniverses()) {
+            statistics.append(String.format(
+                    "Universe %d: %d frames, jitter %.2fms (max %.2fms), send time %.2fms (max %.2fms)%n",
+                    universe.getUniverseId(), universe.getFrameCount(), toMillis(universe.getLastJitter()),
+                    toMillis(universe.getMaxJitter()), toMillis(universe.getLastSendTime()),
+                    toMillis(universe.getMaxSendTime())));
+        }
+        return statistics.toString();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000.0;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -8,10 +8,16 @@
  */
 package org.openhab.binding.dmx.internal.core;
 
-import java.util.TimerTask;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.openhab.binding.dmx.DmxConnection;
 import org.openhab.binding.dmx.DmxService;
+import org.openhab.binding.dmx.DmxStatusUpdateListener;
+import org.openhab.binding.dmx.DmxUniverseConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,17 +25,14 @@ import org.slf4j.LoggerFactory;
  * DmxTransmitter, which is responsible for continuously sending all value
  * changes to the DMX connection.
  *
- * This transmitter should always run in a separate thread to allow for smooth
- * transmissions.
+ * This transmitter should always run in a separate thread at a fixed rate to
+ * allow for smooth transmissions. All universes are sent in one run, universes
+ * without changes are only repeated as required by the repeat mode.
  *
  * @author Davy Vanherbergen
  * @since 1.2.0
  */
-public final class DmxTransmitter extends TimerTask {
-
-    /* REPEAT_INTERVAL is 750 ms (results in 800-1000ms) repetition time */
-    private static final int REPEAT_INTERVAL = 750;
-    private static final int REPEAT_COUNT = 3;
+public final class DmxTransmitter implements Runnable {
 
     public enum DmxRepeatMode {
         ALWAYS("always"),
@@ -61,23 +64,39 @@ public final class DmxTransmitter extends TimerTask {
 
     private static Logger logger = LoggerFactory.getLogger(DmxTransmitter.class);
 
-    private DmxUniverse universe = new DmxUniverse();
+    private final AtomicReferenceArray<DmxUniverse> universes = new AtomicReferenceArray<DmxUniverse>(
+            DmxUniverse.MAX_UNIVERSES);
+
+    private final boolean[] changedUniverses = new boolean[DmxUniverse.MAX_UNIVERSES];
+
+    private final boolean[] unsupportedUniverses = new boolean[DmxUniverse.MAX_UNIVERSES];
+
+    private final List<DmxStatusUpdateListener> updateListeners = new CopyOnWriteArrayList<DmxStatusUpdateListener>();
 
     private DmxService service;
 
-    private boolean running;
-    private DmxRepeatMode repeatMode = DmxRepeatMode.ALWAYS;
+    private final long period;
+
+    /** time in ns at which the current run was scheduled, 0 before the first run **/
+    private long scheduledTime = 0;
 
-    private boolean suspended;
+    private volatile boolean running;
+    private volatile DmxRepeatMode repeatMode = DmxRepeatMode.ALWAYS;
 
-    private long lastTransmit = 0;
-    private int packetRepeatCount = 0;
+    private volatile boolean suspended;
 
     /**
      * Default constructor.
+     *
+     * @param service
+     *            service providing the connection
+     * @param period
+     *            interval in ms at which the transmitter is run
      */
-    public DmxTransmitter(DmxService service) {
+    public DmxTransmitter(DmxService service, long period) {
         this.service = service;
+        this.period = TimeUnit.MILLISECONDS.toNanos(period);
+        getUniverse(0);
     }
 
     /**
@@ -86,6 +105,10 @@ public final class DmxTransmitter extends TimerTask {
     @Override
     public void run() {
 
+        // the runs are scheduled at a fixed rate, so the expected start time only depends on the first run
+        long start = System.nanoTime();
+        scheduledTime = scheduledTime == 0 ? start : scheduledTime + period;
+
         if (suspended) {
             return;
         }
@@ -93,29 +116,26 @@ public final class DmxTransmitter extends TimerTask {
         running = true;
         try {
             long now = System.currentTimeMillis();
-            byte[] b = universe.calculateBuffer();
             DmxConnection conn = service.getConnection();
             if (conn != null) {
-                if (universe.getBufferChanged()) {
-                    logger.trace("DMX Buffer changed, also sending status updates");
-                    conn.sendDmx(b);
-                    universe.notifyStatusListeners();
-                    lastTransmit = now;
-                    packetRepeatCount = 0;
-                } else if (repeatMode == DmxRepeatMode.ALWAYS) {
-                    logger.trace("repeat mode always, sending DMX only");
-                    conn.sendDmx(b);
-                    lastTransmit = now;
-                } else if ((repeatMode == DmxRepeatMode.REDUCED)
-                        && ((packetRepeatCount < REPEAT_COUNT) || ((now - lastTransmit) > REPEAT_INTERVAL))) {
-                    logger.trace("output needs refresh, sending DMX only");
-                    conn.sendDmx(b);
-                    if (packetRepeatCount < REPEAT_COUNT) {
-                        packetRepeatCount++;
+                boolean bufferChanged = false;
+                for (int i = 0; i < universes.length(); i++) {
+                    DmxUniverse universe = universes.get(i);
+                    changedUniverses[i] = false;
+                    if (universe == null) {
+                        continue;
+                    }
+                    changedUniverses[i] = universe.calculateFrame(now);
+                    bufferChanged |= changedUniverses[i];
+                    if (universe.isTransmitRequired(repeatMode, now)) {
+                        transmit(conn, universe);
+                    } else {
+                        logger.trace("DMX output of universe {} suppressed", i);
                     }
-                    lastTransmit = now;
-                } else {
-                    logger.trace("DMX output suppressed");
+                }
+                if (bufferChanged) {
+                    logger.trace("DMX Buffer changed, also sending status updates");
+                    notifyStatusListeners();
                 }
             }
         } catch (Exception e) {
@@ -125,6 +145,75 @@ public final class DmxTransmitter extends TimerTask {
         }
     }
 
+    /**
+     * Send the current frame of a universe and record its timing.
+     */
+    private void transmit(DmxConnection conn, DmxUniverse universe) throws Exception {
+        int universeId = universe.getUniverseId();
+        long sendStart = System.nanoTime();
+        if (conn instanceof DmxUniverseConnection) {
+            ((DmxUniverseConnection) conn).sendDmx(universeId, universe.getFrame());
+        } else if (universeId == 0) {
+            conn.sendDmx(universe.getFrame());
+        } else {
+            if (!unsupportedUniverses[universeId]) {
+                unsupportedUniverses[universeId] = true;
+                logger.warn("{} supports only channel 1-{}, universe {} is not sent.",
+                        conn.getClass().getSimpleName(), DmxUniverse.CHANNELS, universeId);
+            }
+            return;
+        }
+        long sendEnd = System.nanoTime();
+        universe.recordTransmit(Math.max(0, sendStart - scheduledTime), sendEnd - sendStart);
+    }
+
+    /**
+     * Broadcast status update to all listeners of changed universes.
+     */
+    private void notifyStatusListeners() {
+
+        for (DmxStatusUpdateListener listener : updateListeners) {
+
+            int first = (listener.getChannel() - 1) / DmxUniverse.CHANNELS;
+            int last = (listener.getChannel() + listener.getFootPrint() - 2) / DmxUniverse.CHANNELS;
+            boolean listenerChanged = false;
+            for (int i = first; i <= last && i < changedUniverses.length; i++) {
+                listenerChanged |= changedUniverses[i];
+            }
+
+            if (listenerChanged
+                    && System.currentTimeMillis() > listener.getLastUpdateTime() + listener.getUpdateDelay()) {
+
+                int values[] = new int[listener.getFootPrint()];
+                for (int i = 0; i < listener.getFootPrint(); i++) {
+                    values[i] = getChannel(listener.getChannel() + i).getValue();
+                }
+                listener.processStatusUpdate(values);
+            }
+        }
+    }
+
+    /**
+     * Add a new status update listener, which can receive values when a channel
+     * is changed.
+     *
+     * @param listener
+     *            status listener to add.
+     */
+    public void addStatusListener(DmxStatusUpdateListener listener) {
+        updateListeners.add(listener);
+    }
+
+    /**
+     * Stop a given status update listener from receiving updates.
+     *
+     * @param listener
+     *            status listener to remove.
+     */
+    public void removeStatusListener(DmxStatusUpdateListener listener) {
+        updateListeners.remove(listener);
+    }
+
     /**
      * @return true if the transmitter is calculating values and transmitting
      */
@@ -153,20 +242,44 @@ public final class DmxTransmitter extends TimerTask {
     }
 
     /**
-     * Get the DMX channel in the current universe.
+     * Get the DMX channel. Channel 1-512 are in universe 0, 513-1024 in
+     * universe 1 and so on.
      *
      * @param channel
      *            number
      * @return DMX channel
      */
     public DmxChannel getChannel(int channel) {
-        return universe.getChannel(channel);
+        return getUniverse((channel - 1) / DmxUniverse.CHANNELS).getChannel(channel);
     }
 
     /**
+     * Get a DMX universe. If it doesn't exist, it is created.
+     *
+     * @param universeId
+     *            universe number, starting at 0
      * @return DMX universe
      */
-    public DmxUniverse getUniverse() {
+    public synchronized DmxUniverse getUniverse(int universeId) {
+        DmxUniverse universe = universes.get(universeId);
+        if (universe == null) {
+            universe = new DmxUniverse(universeId);
+            universes.set(universeId, universe);
+        }
         return universe;
     }
+
+    /**
+     * @return all DMX universes in use
+     */
+    public List<DmxUniverse> getUniverses() {
+        List<DmxUniverse> result = new ArrayList<DmxUniverse>();
+        for (int i = 0; i < universes.length(); i++) {
+            DmxUniverse universe = universes.get(i);
+            if (universe != null) {
+                result.add(universe);
+            }
+        }
+        return result;
+    }
 }
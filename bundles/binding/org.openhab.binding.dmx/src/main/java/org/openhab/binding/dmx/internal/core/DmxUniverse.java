@@ -8,18 +8,20 @@
  */
 package org.openhab.binding.dmx.internal.core;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Vector;
+import java.util.Arrays;
 
-import org.openhab.binding.dmx.DmxStatusUpdateListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * DMX Universe. Can contain up to 512 DMX channels.
  *
+ * The channel values are calculated into an int array and copied into one of
+ * two alternating frame buffers, so no buffers are allocated per frame and the
+ * frame handed to the connection is not modified while the next one is
+ * calculated. A universe without changed channels and running actions is not
+ * recalculated at all.
+ *
  * @author Davy Vanherbergen
  * @since 1.2.0
  */
@@ -27,68 +29,159 @@ public class DmxUniverse {
 
     private static final Logger logger = LoggerFactory.getLogger(DmxUniverse.class);
 
-    private Vector<DmxChannel> channels = new Vector<DmxChannel>();
+    /** Number of channels in a universe **/
+    public static final int CHANNELS = 512;
+
+    /** Maximum number of universes, i.e. channel 1 - 32768 **/
+    public static final int MAX_UNIVERSES = 64;
+
+    /* REPEAT_INTERVAL is 750 ms (results in 800-1000ms) repetition time */
+    private static final int REPEAT_INTERVAL = 750;
+    private static final int REPEAT_COUNT = 3;
+
+    private final int universeId;
+
+    /** channels sorted by id, replaced on every change **/
+    private volatile DmxChannel[] channels = new DmxChannel[0];
+
+    private final DmxChannel[] channelsByIndex = new DmxChannel[CHANNELS];
+
+    /** current output value of each channel **/
+    private final int[] values = new int[CHANNELS];
+
+    private byte[][] frames = new byte[][] { new byte[32], new byte[32] };
 
-    private short[] buffer = new short[512];
+    private int currentFrame = 0;
+
+    private volatile int minimumBufferSize = 32;
+
+    /** true if a channel was changed since the last calculation **/
+    private volatile boolean changed = true;
+
+    /** true if a channel had running actions in the last calculation **/
+    private boolean animated = false;
 
     private boolean bufferChanged = false;
 
-    private int minimumBufferSize = 32;
+    private long lastTransmit = 0;
+    private int packetRepeatCount = 0;
 
-    private List<DmxStatusUpdateListener> updateListeners = new ArrayList<DmxStatusUpdateListener>();
+    private volatile long frameCount;
+    private volatile long lastJitter;
+    private volatile long maxJitter;
+    private volatile long lastSendTime;
+    private volatile long maxSendTime;
 
     /**
-     * Change the buffer value at the given index.
-     * 
-     * @param index
-     * @param value
+     * Create a new universe.
+     *
+     * @param universeId
+     *            universe number, starting at 0
      */
-    private void setBufferValue(int index, short value) {
+    public DmxUniverse(int universeId) {
+        this.universeId = universeId;
+    }
 
-        if (buffer[index] == value) {
-            return;
-        } else {
-            buffer[index] = value;
-            bufferChanged = true;
-        }
+    /**
+     * @return universe number, starting at 0
+     */
+    public int getUniverseId() {
+        return universeId;
+    }
+
+    /**
+     * @return the index of a channel in this universe
+     */
+    private int getIndex(int channelId) {
+        return channelId - 1 - universeId * CHANNELS;
     }
 
     /**
-     * Calculate the current DMX buffer state.
-     * 
-     * @return DMX buffer.
+     * Mark the universe for recalculation in the next frame.
      */
-    public byte[] calculateBuffer() {
+    void markChanged() {
+        changed = true;
+    }
+
+    /**
+     * Calculate the current DMX frame. Channels are only asked for their next
+     * value if a channel was changed or has running actions, otherwise the
+     * previous frame is kept.
+     *
+     * @param calculationTime
+     *            time in ms used by the channel actions
+     * @return true if the frame changed.
+     */
+    public boolean calculateFrame(long calculationTime) {
 
         bufferChanged = false;
-        long calculationTime = System.currentTimeMillis();
+        if (!changed && !animated) {
+            return false;
+        }
+
+        // reset first, so changes during the calculation are picked up by the next frame
+        changed = false;
+        boolean stillAnimated = false;
+
+        DmxChannel[] current = channels;
+        for (int i = 0; i < current.length; i++) {
+            DmxChannel channel = current[i];
+            int index = getIndex(channel.getChannelId());
+            int value = channel.getNextValue(calculationTime);
+            if (values[index] != value) {
+                values[index] = value;
+                bufferChanged = true;
+            }
+            if (channel.hasRunningActions()) {
+                stillAnimated = true;
+            }
+        }
+        animated = stillAnimated;
 
-        for (DmxChannel channel : channels) {
-            setBufferValue(channel.getChannelId() - 1, channel.getNextValue(calculationTime).shortValue());
+        int size = minimumBufferSize;
+        byte[] frame = frames[currentFrame];
+        if (frame.length != size) {
+            frames = new byte[][] { new byte[size], new byte[size] };
+            bufferChanged = true;
         }
 
-        byte[] b = new byte[minimumBufferSize];
-        for (int i = 0; i < minimumBufferSize; i++) {
-            b[i] = (byte) (buffer[i]);
+        if (bufferChanged) {
+            currentFrame ^= 1;
+            frame = frames[currentFrame];
+            for (int i = 0; i < size; i++) {
+                frame[i] = (byte) values[i];
+            }
         }
-        return b;
+        return bufferChanged;
+    }
+
+    /**
+     * @return the last calculated frame. The buffer is reused two frames later.
+     */
+    public byte[] getFrame() {
+        return frames[currentFrame];
     }
 
     /**
      * Add a new DMX channel.
-     * 
+     *
      * @param channel
      *            to add.
      */
-    private synchronized void addChannel(DmxChannel channel) {
+    private void addChannel(DmxChannel channel) {
 
-        logger.trace("Adding channel {}", channel.getChannelId());
-        channels.add(channel);
-        Collections.sort(channels);
+        logger.trace("Adding channel {} to universe {}", channel.getChannelId(), universeId);
+        DmxChannel[] extended = Arrays.copyOf(channels, channels.length + 1);
+        extended[extended.length - 1] = channel;
+        Arrays.sort(extended);
+        int index = getIndex(channel.getChannelId());
+        channelsByIndex[index] = channel;
 
-        if (channel.getChannelId() > minimumBufferSize) {
-            minimumBufferSize = channel.getChannelId();
+        if (index + 1 > minimumBufferSize) {
+            minimumBufferSize = index + 1;
         }
+        channels = extended;
+        markChanged();
     }
 
     /**
@@ -100,19 +193,17 @@ public class DmxUniverse {
 
     /**
      * Find a channel by id. If it doesn't exist, it is created.
-     * 
+     *
      * @param channelId
-     *            int
+     *            channel id, e.g. 513-1024 for universe 1
      * @return channel
      */
-    public DmxChannel getChannel(int channelId) {
-        for (DmxChannel c : channels) {
-            if (c.getChannelId() == channelId) {
-                return c;
-            }
+    public synchronized DmxChannel getChannel(int channelId) {
+        DmxChannel c = channelsByIndex[getIndex(channelId)];
+        if (c == null) {
+            c = new DmxChannel(channelId, this);
+            addChannel(c);
         }
-        DmxChannel c = new DmxChannel(channelId);
-        addChannel(c);
         return c;
     }
 
@@ -127,42 +218,88 @@ public class DmxUniverse {
     }
 
     /**
-     * Add a new status update listener, which can receive values when a channel
-     * is changed.
-     * 
-     * @param listener
-     *            status listener to add.
+     * Check if the last calculated frame has to be sent.
+     *
+     * @param repeatMode
+     *            configured repeat mode
+     * @param now
+     *            current time in ms
+     * @return true if the frame has to be sent
+     */
+    public boolean isTransmitRequired(DmxTransmitter.DmxRepeatMode repeatMode, long now) {
+        if (bufferChanged) {
+            packetRepeatCount = 0;
+        } else if (repeatMode == DmxTransmitter.DmxRepeatMode.ALWAYS) {
+            logger.trace("repeat mode always, sending DMX only");
+        } else if ((repeatMode == DmxTransmitter.DmxRepeatMode.REDUCED)
+                && ((packetRepeatCount < REPEAT_COUNT) || ((now - lastTransmit) > REPEAT_INTERVAL))) {
+            logger.trace("output needs refresh, sending DMX only");
+            if (packetRepeatCount < REPEAT_COUNT) {
+                packetRepeatCount++;
+            }
+        } else {
+            return false;
+        }
+        lastTransmit = now;
+        return true;
+    }
+
+    /**
+     * Record the timing of a transmitted frame.
+     *
+     * @param jitter
+     *            delay in ns between the scheduled frame time and the start of
+     *            the transmission
+     * @param sendTime
+     *            time in ns the connection needed to send the frame
      */
-    public void addStatusListener(DmxStatusUpdateListener listener) {
-        updateListeners.add(listener);
+    public void recordTransmit(long jitter, long sendTime) {
+        frameCount++;
+        lastJitter = jitter;
+        lastSendTime = sendTime;
+        if (jitter > maxJitter) {
+            maxJitter = jitter;
+        }
+        if (sendTime > maxSendTime) {
+            maxSendTime = sendTime;
+        }
     }
 
     /**
-     * Stop a given status update listener from receiving updates.
-     * 
-     * @param listener
-     *            status listener to remove.
+     * @return number of transmitted frames
      */
-    public void removeStatusListener(DmxStatusUpdateListener listener) {
-        updateListeners.remove(listener);
+    public long getFrameCount() {
+        return frameCount;
     }
 
     /**
-     * Broadcast status update to all listeners.
+     * @return delay in ns between the scheduled time and the start of the last
+     *         transmission
      */
-    public void notifyStatusListeners() {
+    public long getLastJitter() {
+        return lastJitter;
+    }
 
-        for (DmxStatusUpdateListener listener : updateListeners) {
+    /**
+     * @return maximum delay in ns between the scheduled time and the start of a
+     *         transmission
+     */
+    public long getMaxJitter() {
+        return maxJitter;
+    }
 
-            if (System.currentTimeMillis() > listener.getLastUpdateTime() + listener.getUpdateDelay()) {
+    /**
+     * @return time in ns needed to send the last frame
+     */
+    public long getLastSendTime() {
+        return lastSendTime;
+    }
 
-                int values[] = new int[listener.getFootPrint()];
-                for (int i = 0; i < listener.getFootPrint(); i++) {
-                    values[i] = getChannel(listener.getChannel() + i).getValue();
-                }
-                listener.processStatusUpdate(values);
-            }
-        }
+    /**
+     * @return maximum time in ns needed to send a frame
+     */
+    public long getMaxSendTime() {
+        return maxSendTime;
     }
 
 }
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.ebus.internal.parser;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class EBusArithmeticExpressionTest {
+
+    private static final Map<String, Object> NO_VALUES = Collections.emptyMap();
+
+    private static Double evaluate(String script, Map<String, Object> scope) {
+        EBusArithmeticExpression expression = EBusArithmeticExpression.compile(script);
+        assertNotNull("not compiled: " + script, expression);
+        return expression.evaluate(scope);
+    }
+
+    @Test
+    public void testOperatorPrecedence() {
+        assertEquals(7d, evaluate("1 + 2 * 3", NO_VALUES), 0);
+        assertEquals(9d, evaluate("(1 + 2) * 3", NO_VALUES), 0);
+        assertEquals(1d, evaluate("8 / 4 / 2", NO_VALUES), 0);
+        assertEquals(4d, evaluate("10 - 4 - 2", NO_VALUES), 0);
+        assertEquals(3d, evaluate("1.5*2", NO_VALUES), 0);
+    }
+
+    @Test
+    public void testUnaryMinus() {
+        assertEquals(-2d, evaluate("-2", NO_VALUES), 0);
+        assertEquals(5d, evaluate("3 - -2", NO_VALUES), 0);
+        assertEquals(-6d, evaluate("-(1 + 2) * 2", NO_VALUES), 0);
+    }
+
+    @Test
+    public void testVariables() {
+        Map<String, Object> scope = new HashMap<String, Object>();
+        scope.put("thisValue", new BigDecimal("21.5"));
+        scope.put("heating.temp_vl", 3);
+        scope.put("offset", 0.5d);
+
+        assertEquals(10.75d, evaluate("thisValue / 2", scope), 0.0001);
+        assertEquals(22d, evaluate("thisValue + offset", scope), 0.0001);
+    }
+
+    @Test
+    public void testMissingOrNonNumericVariable() {
+        Map<String, Object> scope = new HashMap<String, Object>();
+        scope.put("text", "on");
+
+        assertNull(evaluate("missing * 2", scope));
+        assertNull(evaluate("text * 2", scope));
+    }
+
+    @Test
+    public void testNonFiniteResult() {
+        assertNull(evaluate("1 / 0", NO_VALUES));
+        assertNull(evaluate("0 / 0", NO_VALUES));
+    }
+
+    @Test
+    public void testOtherScriptsAreNotCompiled() {
+        assertNull(EBusArithmeticExpression.compile("Math.round(thisValue)"));
+        assertNull(EBusArithmeticExpression.compile("thisValue > 0 ? 1 : 0"));
+        assertNull(EBusArithmeticExpression.compile("thisValue +"));
+        assertNull(EBusArithmeticExpression.compile("(thisValue"));
+        assertNull(EBusArithmeticExpression.compile("thisValue % 2"));
+        assertNull(EBusArithmeticExpression.compile(""));
+    }
+}
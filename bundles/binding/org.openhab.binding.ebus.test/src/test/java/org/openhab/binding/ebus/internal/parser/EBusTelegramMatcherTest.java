@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.ebus.internal.parser;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class EBusTelegramMatcherTest {
+
+    /**
+     * Returns a buffer with the given bytes before its position, like a received telegram.
+     */
+    private static ByteBuffer telegram(int... bytes) {
+        ByteBuffer buffer = ByteBuffer.allocate(50);
+        for (int b : bytes) {
+            buffer.put((byte) b);
+        }
+        return buffer;
+    }
+
+    @Test
+    public void testFixedBytes() {
+        EBusTelegramMatcher matcher = EBusTelegramMatcher.compile("FF 15 B5 09");
+
+        assertNotNull(matcher);
+        assertTrue(matcher.matches(telegram(0xFF, 0x15, 0xB5, 0x09)));
+        assertFalse(matcher.matches(telegram(0xFF, 0x15, 0xB5, 0x0A)));
+        assertFalse(matcher.matches(telegram(0x00, 0x15, 0xB5, 0x09)));
+    }
+
+    @Test
+    public void testLengthMustMatchWithoutTail() {
+        EBusTelegramMatcher matcher = EBusTelegramMatcher.compile("FF 15 B5 09");
+
+        assertFalse(matcher.matches(telegram(0xFF, 0x15, 0xB5)));
+        assertFalse(matcher.matches(telegram(0xFF, 0x15, 0xB5, 0x09, 0x00)));
+    }
+
+    @Test
+    public void testWildcardByte() {
+        EBusTelegramMatcher matcher = EBusTelegramMatcher.compile("FF [0-9A-Z]{2} B5 09");
+
+        assertNotNull(matcher);
+        assertTrue(matcher.matches(telegram(0xFF, 0x00, 0xB5, 0x09)));
+        assertTrue(matcher.matches(telegram(0xFF, 0xFE, 0xB5, 0x09)));
+        assertFalse(matcher.matches(telegram(0xFF, 0xFE, 0xB6, 0x09)));
+
+        assertTrue(matcher.isFixed(0));
+        assertFalse(matcher.isFixed(1));
+        assertEquals((byte) 0xB5, matcher.getValue(2));
+        assertFalse(matcher.isFixed(4));
+    }
+
+    @Test
+    public void testTrailingAnyRequiresOneMoreByte() {
+        EBusTelegramMatcher matcher = EBusTelegramMatcher.compile("FF 15 .*");
+
+        assertNotNull(matcher);
+        assertFalse(matcher.matches(telegram(0xFF, 0x15)));
+        assertTrue(matcher.matches(telegram(0xFF, 0x15, 0x00)));
+        assertTrue(matcher.matches(telegram(0xFF, 0x15, 0x00, 0x01, 0x02)));
+        assertFalse(matcher.matches(telegram(0xFF, 0x16, 0x00)));
+    }
+
+    @Test
+    public void testOtherRegexFeaturesAreNotCompiled() {
+        assertNull(EBusTelegramMatcher.compile("FF 1. B5"));
+        assertNull(EBusTelegramMatcher.compile("(FF|00) 15"));
+        assertNull(EBusTelegramMatcher.compile("ff 15"));
+        assertNull(EBusTelegramMatcher.compile("FF  15"));
+        assertNull(EBusTelegramMatcher.compile("FF .* 15"));
+        assertNull(EBusTelegramMatcher.compile(""));
+    }
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.ebus.internal.parser;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang.StringUtils;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.type.TypeReference;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.ebus.internal.configuration.TelegramConfiguration;
+import org.openhab.binding.ebus.internal.utils.EBusUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replays telegrams built from the shipped configuration files and compares the configurations found by
+ * {@link EBusConfigurationProvider#getCommandsByTelegram(ByteBuffer)} with those whose regex filter matches the hex
+ * string of the telegram.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class EBusTelegramReplayTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(EBusTelegramReplayTest.class);
+
+    private static final File RESOURCES = new File("../org.openhab.binding.ebus/src/main/resources");
+
+    private static final String ANY_BYTE = "[0-9A-Z]{2}";
+
+    private final Random random = new Random(42);
+
+    private EBusConfigurationProvider provider;
+
+    /** the loaded configurations in the order of the registry of the provider */
+    private List<TelegramConfiguration> registry;
+
+    @Before
+    public void setUp() throws IOException {
+        File[] files = RESOURCES.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith("-configuration.json");
+            }
+        });
+        assertNotNull("configuration files not found in " + RESOURCES.getAbsolutePath(), files);
+        Arrays.sort(files);
+
+        provider = new EBusConfigurationProvider();
+        registry = new ArrayList<TelegramConfiguration>();
+        ObjectMapper mapper = new ObjectMapper();
+        for (File file : files) {
+            provider.loadConfigurationFile(file.toURI().toURL());
+            List<TelegramConfiguration> configurations = mapper.readValue(file,
+                    new TypeReference<List<TelegramConfiguration>>() {
+                    });
+            for (TelegramConfiguration configuration : configurations) {
+                provider.transformDataTypes(configuration);
+                registry.add(configuration);
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesLikeRegexFilters() {
+        List<ByteBuffer> telegrams = createTelegrams(20);
+        int matched = 0;
+
+        for (ByteBuffer telegram : telegrams) {
+            List<String> expected = describe(matchByRegex(telegram));
+            assertEquals(EBusUtils.toHexDumpString(telegram).toString(), expected,
+                    describe(provider.getCommandsByTelegram(telegram)));
+            if (!expected.isEmpty()) {
+                matched++;
+            }
+        }
+
+        // most telegrams are built to match, the mutated and random ones mostly don't
+        assertTrue(matched > telegrams.size() / 2);
+        assertTrue(matched < telegrams.size());
+    }
+
+    @Test
+    public void testReplayBenchmark() {
+        List<ByteBuffer> telegrams = createTelegrams(20);
+        int rounds = 5;
+
+        // warm up both ways first
+        replayByRegex(telegrams);
+        replayByMatcher(telegrams);
+
+        long regexNanos = Long.MAX_VALUE;
+        long matcherNanos = Long.MAX_VALUE;
+        int regexMatches = 0;
+        int matcherMatches = 0;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            regexMatches = replayByRegex(telegrams);
+            regexNanos = Math.min(regexNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            matcherMatches = replayByMatcher(telegrams);
+            matcherNanos = Math.min(matcherNanos, System.nanoTime() - start);
+        }
+
+        assertEquals(regexMatches, matcherMatches);
+        logger.info("replayed {} telegrams against {} configurations: regex filters {} ms ({} ns per telegram), "
+                + "telegram matchers {} ms ({} ns per telegram)", telegrams.size(), registry.size(),
+                TimeUnit.NANOSECONDS.toMillis(regexNanos), regexNanos / telegrams.size(),
+                TimeUnit.NANOSECONDS.toMillis(matcherNanos), matcherNanos / telegrams.size());
+    }
+
+    private int replayByRegex(List<ByteBuffer> telegrams) {
+        int matches = 0;
+        for (ByteBuffer telegram : telegrams) {
+            matches += matchByRegex(telegram).size();
+        }
+        return matches;
+    }
+
+    private int replayByMatcher(List<ByteBuffer> telegrams) {
+        int matches = 0;
+        for (ByteBuffer telegram : telegrams) {
+            matches += provider.getCommandsByTelegram(telegram).size();
+        }
+        return matches;
+    }
+
+    /**
+     * Matches the telegram the way the provider did before the telegram matchers were introduced.
+     */
+    private List<TelegramConfiguration> matchByRegex(ByteBuffer telegram) {
+        String bufferString = EBusUtils.toHexDumpString(telegram).toString();
+        List<TelegramConfiguration> matched = new ArrayList<TelegramConfiguration>();
+        for (TelegramConfiguration configuration : registry) {
+            if (configuration.getFilterPattern().matcher(bufferString).matches()) {
+                matched.add(configuration);
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Builds telegrams for the filters of all configurations, the same telegrams with a changed byte and telegrams of
+     * random bytes with the command of a configuration.
+     *
+     * @param variants the number of telegrams built per configuration
+     */
+    private List<ByteBuffer> createTelegrams(int variants) {
+        List<ByteBuffer> telegrams = new ArrayList<ByteBuffer>();
+        for (TelegramConfiguration configuration : registry) {
+            String[] tokens = StringUtils.split(configuration.getFilterPattern().pattern(), ' ');
+            for (int i = 0; i < variants; i++) {
+                byte[] bytes = createBytes(tokens);
+                if (bytes == null) {
+                    break;
+                }
+                telegrams.add(toBuffer(bytes));
+
+                byte[] mutated = bytes.clone();
+                mutated[random.nextInt(mutated.length)] ^= 1 << random.nextInt(8);
+                telegrams.add(toBuffer(mutated));
+
+                byte[] randomBytes = new byte[4 + random.nextInt(20)];
+                random.nextBytes(randomBytes);
+                if (bytes.length > 3) {
+                    randomBytes[2] = bytes[2];
+                    randomBytes[3] = bytes[3];
+                }
+                telegrams.add(toBuffer(randomBytes));
+            }
+        }
+        return telegrams;
+    }
+
+    /**
+     * @return bytes matching the filter tokens, or <code>null</code> if the filter uses other regex features
+     */
+    private byte[] createBytes(String[] tokens) {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        for (int i = 0; i < tokens.length; i++) {
+            String token = tokens[i];
+            if (token.equals(ANY_BYTE)) {
+                buffer.put((byte) random.nextInt(256));
+            } else if (token.equals(".*") && i == tokens.length - 1) {
+                for (int j = random.nextInt(12); j >= 0; j--) {
+                    buffer.put((byte) random.nextInt(256));
+                }
+            } else if (token.matches("[0-9A-F]{2}")) {
+                buffer.put((byte) Integer.parseInt(token, 16));
+            } else {
+                return null;
+            }
+        }
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Returns a buffer with the given bytes before its position, like a received telegram.
+     */
+    private static ByteBuffer toBuffer(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        buffer.put(bytes);
+        return buffer;
+    }
+
+    private static List<String> describe(List<TelegramConfiguration> configurations) {
+        List<String> descriptions = new ArrayList<String>();
+        for (TelegramConfiguration configuration : configurations) {
+            descriptions.add(configuration.getFilterPattern().pattern() + " " + configuration.getClazz() + "."
+                    + configuration.getId() + " " + configuration.getComment());
+        }
+        return descriptions;
+    }
+
+}
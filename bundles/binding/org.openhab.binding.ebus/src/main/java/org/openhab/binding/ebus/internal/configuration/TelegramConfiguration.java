@@ -14,6 +14,7 @@ import java.util.regex.Pattern;
 import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.codehaus.jackson.annotate.JsonIgnoreProperties;
 import org.codehaus.jackson.annotate.JsonProperty;
+import org.openhab.binding.ebus.internal.parser.EBusTelegramMatcher;
 
 /**
  * This class stores the json configuration files for an eBus bytes telegram.
@@ -25,6 +26,7 @@ import org.codehaus.jackson.annotate.JsonProperty;
 public class TelegramConfiguration {
 
     private Pattern cfilter;
+    private EBusTelegramMatcher matcher;
     private String clazz;
     private String command;
     private String comment;
@@ -129,6 +131,16 @@ public class TelegramConfiguration {
         return cfilter;
     }
 
+    /**
+     * The byte matcher compiled from the filter, <code>null</code> if the filter
+     * can only be matched as regular expression
+     * 
+     * @return
+     */
+    public EBusTelegramMatcher getFilterMatcher() {
+        return matcher;
+    }
+
     /**
      * The ID of the eBus telegram
      * 
@@ -218,6 +230,13 @@ public class TelegramConfiguration {
         this.cfilter = cfilter;
     }
 
+    /**
+     * @param matcher
+     */
+    public void setFilterMatcher(EBusTelegramMatcher matcher) {
+        this.matcher = matcher;
+    }
+
     /**
      * @param id
      */
@@ -16,6 +16,7 @@ import javax.script.CompiledScript;
 import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.codehaus.jackson.annotate.JsonIgnoreProperties;
 import org.codehaus.jackson.annotate.JsonProperty;
+import org.openhab.binding.ebus.internal.parser.EBusArithmeticExpression;
 
 /**
  * This class stores the values of an eBus bytes telegram.
@@ -28,6 +29,7 @@ public class TelegramValue {
 
     private Integer bit;
     private CompiledScript csript;
+    private EBusArithmeticExpression expression;
     private String debug;
     private BigDecimal factor;
     private String label;
@@ -59,6 +61,15 @@ public class TelegramValue {
         return csript;
     }
 
+    /**
+     * Returns the script compiled to an arithmetic expression, if it is a simple one
+     * 
+     * @return
+     */
+    public EBusArithmeticExpression getExpression() {
+        return expression;
+    }
+
     /**
      * Get debug string
      * 
@@ -181,6 +192,13 @@ public class TelegramValue {
         this.csript = csript;
     }
 
+    /**
+     * @param expression
+     */
+    public void setExpression(EBusArithmeticExpression expression) {
+        this.expression = expression;
+    }
+
     /**
      * @param debug
      */
@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.ebus.internal.parser;
+
+import java.util.Map;
+
+/**
+ * A simple arithmetic expression (numbers, variables, <code>+ - * /</code> and
+ * brackets) of a configuration script, evaluated without the script engine.
+ * Scripts using any other JavaScript feature can't be compiled and are still
+ * evaluated by the script engine.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public abstract class EBusArithmeticExpression {
+
+    /**
+     * Evaluates the expression.
+     *
+     * @param scope The values of the variables
+     * @return The result or <code>null</code> if a variable is missing or not a number
+     *         or the result is not finite, the script engine has to be used then
+     */
+    public Double evaluate(Map<String, Object> scope) {
+        try {
+            double value = eval(scope);
+            return Double.isNaN(value) || Double.isInfinite(value) ? null : value;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    protected abstract double eval(Map<String, Object> scope);
+
+    /**
+     * Compiles a script into an arithmetic expression.
+     *
+     * @param script The script
+     * @return The expression or <code>null</code> if the script is not a simple arithmetic expression
+     */
+    public static EBusArithmeticExpression compile(String script) {
+        Parser parser = new Parser(script);
+        try {
+            EBusArithmeticExpression expression = parser.parseSum();
+            parser.skipWhitespace();
+            return parser.pos == script.length() ? expression : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static class Parser {
+        private final String s;
+        private int pos = 0;
+
+        Parser(String s) {
+            this.s = s;
+        }
+
+        EBusArithmeticExpression parseSum() {
+            EBusArithmeticExpression left = parseProduct();
+            while (true) {
+                skipWhitespace();
+                if (accept('+')) {
+                    left = new Binary('+', left, parseProduct());
+                } else if (accept('-')) {
+                    left = new Binary('-', left, parseProduct());
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        EBusArithmeticExpression parseProduct() {
+            EBusArithmeticExpression left = parseFactor();
+            while (true) {
+                skipWhitespace();
+                if (accept('*')) {
+                    left = new Binary('*', left, parseFactor());
+                } else if (accept('/')) {
+                    left = new Binary('/', left, parseFactor());
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        EBusArithmeticExpression parseFactor() {
+            skipWhitespace();
+            if (accept('-')) {
+                return new Binary('-', new Constant(0), parseFactor());
+            }
+            if (accept('(')) {
+                EBusArithmeticExpression inner = parseSum();
+                skipWhitespace();
+                if (!accept(')')) {
+                    throw new IllegalArgumentException("missing )");
+                }
+                return inner;
+            }
+
+            int start = pos;
+            if (pos < s.length() && Character.isDigit(s.charAt(pos))) {
+                while (pos < s.length() && (Character.isDigit(s.charAt(pos)) || s.charAt(pos) == '.')) {
+                    pos++;
+                }
+                return new Constant(Double.parseDouble(s.substring(start, pos)));
+            }
+            if (pos < s.length() && Character.isJavaIdentifierStart(s.charAt(pos))) {
+                while (pos < s.length() && Character.isJavaIdentifierPart(s.charAt(pos))) {
+                    pos++;
+                }
+                return new Variable(s.substring(start, pos));
+            }
+            throw new IllegalArgumentException("unexpected character at " + pos);
+        }
+
+        boolean accept(char c) {
+            if (pos < s.length() && s.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void skipWhitespace() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) {
+                pos++;
+            }
+        }
+    }
+
+    private static class Constant extends EBusArithmeticExpression {
+        private final double value;
+
+        Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        protected double eval(Map<String, Object> scope) {
+            return value;
+        }
+    }
+
+    private static class Variable extends EBusArithmeticExpression {
+        private final String name;
+
+        Variable(String name) {
+            this.name = name;
+        }
+
+        @Override
+        protected double eval(Map<String, Object> scope) {
+            Object value = scope.get(name);
+            if (!(value instanceof Number)) {
+                throw new IllegalArgumentException("no number: " + name);
+            }
+            return ((Number) value).doubleValue();
+        }
+    }
+
+    private static class Binary extends EBusArithmeticExpression {
+        private final char operator;
+        private final EBusArithmeticExpression left;
+        private final EBusArithmeticExpression right;
+
+        Binary(char operator, EBusArithmeticExpression left, EBusArithmeticExpression right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        protected double eval(Map<String, Object> scope) {
+            double a = left.eval(scope);
+            double b = right.eval(scope);
+            switch (operator) {
+                case '+':
+                    return a + b;
+                case '-':
+                    return a - b;
+                case '*':
+                    return a * b;
+                default:
+                    return a / b;
+            }
+        }
+    }
+}
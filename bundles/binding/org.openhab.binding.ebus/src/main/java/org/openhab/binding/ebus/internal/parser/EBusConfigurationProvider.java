@@ -11,6 +11,7 @@ package org.openhab.binding.ebus.internal.parser;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -32,6 +33,7 @@ import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.type.TypeReference;
 import org.openhab.binding.ebus.internal.configuration.TelegramConfiguration;
 import org.openhab.binding.ebus.internal.configuration.TelegramValue;
+import org.openhab.binding.ebus.internal.utils.EBusUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,6 +64,12 @@ public class EBusConfigurationProvider {
 
     private Map<String, String> loadedFilters = new HashMap<String, String>();
 
+    // The configurations by primary and secondary command, built from the registry
+    private volatile Map<Integer, List<TelegramConfiguration>> commandIndex = new HashMap<Integer, List<TelegramConfiguration>>();
+
+    // The configurations which can match any command
+    private volatile List<TelegramConfiguration> anyCommandEntries = new ArrayList<TelegramConfiguration>();
+
     // The script engine if available
     private Compilable compEngine;
 
@@ -101,6 +109,7 @@ public class EBusConfigurationProvider {
         if (telegramRegistry != null) {
             telegramRegistry.clear();
         }
+        buildCommandIndex();
     }
 
     /**
@@ -137,6 +146,56 @@ public class EBusConfigurationProvider {
         if (loadedTelegramRegistry != null && !loadedTelegramRegistry.isEmpty()) {
             telegramRegistry.addAll(loadedTelegramRegistry);
         }
+
+        buildCommandIndex();
+    }
+
+    /**
+     * Groups the configurations by their primary and secondary command bytes, so a
+     * received telegram is only matched against the configurations of its command.
+     * Configurations without fixed command bytes are added to every group, the
+     * registry order is kept within the groups.
+     */
+    private void buildCommandIndex() {
+        final Map<Integer, List<TelegramConfiguration>> index = new HashMap<Integer, List<TelegramConfiguration>>();
+        final List<TelegramConfiguration> anyCommand = new ArrayList<TelegramConfiguration>();
+
+        for (TelegramConfiguration entry : telegramRegistry) {
+            Integer key = getCommandKey(entry.getFilterMatcher());
+            if (key != null && !index.containsKey(key)) {
+                index.put(key, new ArrayList<TelegramConfiguration>());
+            }
+        }
+
+        for (TelegramConfiguration entry : telegramRegistry) {
+            Integer key = getCommandKey(entry.getFilterMatcher());
+            if (key != null) {
+                index.get(key).add(entry);
+            } else {
+                anyCommand.add(entry);
+                for (List<TelegramConfiguration> entries : index.values()) {
+                    entries.add(entry);
+                }
+            }
+        }
+
+        commandIndex = index;
+        anyCommandEntries = anyCommand;
+    }
+
+    /**
+     * Returns the primary and secondary command of the matcher as key, or <code>null</code>
+     * if the matcher doesn't define both command bytes.
+     */
+    private Integer getCommandKey(EBusTelegramMatcher matcher) {
+        if (matcher != null && matcher.isFixed(2) && matcher.isFixed(3)) {
+            return getCommandKey(matcher.getValue(2), matcher.getValue(3));
+        }
+        return null;
+    }
+
+    private Integer getCommandKey(byte primaryCommand, byte secondaryCommand) {
+        return ((primaryCommand & 0xFF) << 8) | (secondaryCommand & 0xFF);
     }
 
     /**
@@ -150,6 +209,7 @@ public class EBusConfigurationProvider {
             filter = P_PLACEHOLDER.matcher(filter).replaceAll("[0-9A-Z]{2}");
             logger.trace("Compile RegEx filter: {}", filter);
             configurationEntry.setFilterPattern(Pattern.compile(filter));
+            configurationEntry.setFilterMatcher(EBusTelegramMatcher.compile(filter));
 
         } else {
             // Build filter string
@@ -174,6 +234,7 @@ public class EBusConfigurationProvider {
 
             logger.trace("Compile RegEx filter: {}", filter);
             configurationEntry.setFilterPattern(Pattern.compile(filter));
+            configurationEntry.setFilterMatcher(EBusTelegramMatcher.compile(filter));
         }
 
         // remove brackets if used
@@ -189,6 +250,9 @@ public class EBusConfigurationProvider {
                 if (StringUtils.isNotEmpty(entry.getValue().getScript())) {
                     String script = entry.getValue().getScript();
 
+                    // simple arithmetic doesn't need the script engine
+                    entry.getValue().setExpression(EBusArithmeticExpression.compile(script));
+
                     // check if engine is available
                     if (StringUtils.isNotEmpty(script) && compEngine != null) {
                         try {
@@ -209,6 +273,9 @@ public class EBusConfigurationProvider {
                 if (StringUtils.isNotEmpty(entry.getValue().getScript())) {
                     String script = entry.getValue().getScript();
 
+                    // simple arithmetic doesn't need the script engine
+                    entry.getValue().setExpression(EBusArithmeticExpression.compile(script));
+
                     // check if engine is available
                     if (StringUtils.isNotEmpty(script) && compEngine != null) {
                         try {
@@ -225,21 +292,38 @@ public class EBusConfigurationProvider {
     }
 
     /**
-     * Return all configuration which filter match the bufferString paramter
+     * Return all configurations which filter match the telegram. The telegram is
+     * only converted to a hex string if a filter can't be matched byte by byte.
      * 
-     * @param bufferString The byte string to check against all loaded filters
+     * @param buffer The telegram bytes up to the buffer position
      * @return All configurations with matching filter
      */
-    public List<TelegramConfiguration> getCommandsByFilter(String bufferString) {
+    public List<TelegramConfiguration> getCommandsByTelegram(ByteBuffer buffer) {
 
         final List<TelegramConfiguration> matchedTelegramRegistry = new ArrayList<TelegramConfiguration>();
 
-        /** select matching telegram registry entries */
-        for (TelegramConfiguration registryEntry : telegramRegistry) {
-            Pattern pattern = registryEntry.getFilterPattern();
-            Matcher matcher = pattern.matcher(bufferString);
-            if (matcher.matches()) {
-                matchedTelegramRegistry.add(registryEntry);
+        List<TelegramConfiguration> candidates = null;
+        if (buffer.position() > 3) {
+            candidates = commandIndex.get(getCommandKey(buffer.get(2), buffer.get(3)));
+        }
+        if (candidates == null) {
+            candidates = anyCommandEntries;
+        }
+
+        String bufferString = null;
+        for (TelegramConfiguration registryEntry : candidates) {
+            EBusTelegramMatcher matcher = registryEntry.getFilterMatcher();
+            if (matcher != null) {
+                if (matcher.matches(buffer)) {
+                    matchedTelegramRegistry.add(registryEntry);
+                }
+            } else {
+                if (bufferString == null) {
+                    bufferString = EBusUtils.toHexDumpString(buffer).toString();
+                }
+                if (registryEntry.getFilterPattern().matcher(bufferString).matches()) {
+                    matchedTelegramRegistry.add(registryEntry);
+                }
             }
         }
 
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.ebus.internal.parser;
+
+import java.nio.ByteBuffer;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * Matches eBus telegrams byte by byte against a filter, without converting the
+ * telegram to a hex string first. Only filters made of hex bytes, <code>[0-9A-Z]{2}</code>
+ * placeholders and an optional trailing <code>.*</code> can be compiled, all other
+ * filters must still be matched by their regular expression.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class EBusTelegramMatcher {
+
+    private static final String ANY_BYTE = "[0-9A-Z]{2}";
+
+    private static final String ANY_TAIL = ".*";
+
+    private final byte[] values;
+    private final boolean[] wildcards;
+    private final boolean open;
+
+    private EBusTelegramMatcher(byte[] values, boolean[] wildcards, boolean open) {
+        this.values = values;
+        this.wildcards = wildcards;
+        this.open = open;
+    }
+
+    /**
+     * Compiles a regex filter as built by the configuration provider.
+     *
+     * @param filter The regex filter
+     * @return The matcher or <code>null</code> if the filter uses other regex features
+     */
+    public static EBusTelegramMatcher compile(String filter) {
+        String[] tokens = StringUtils.split(filter, ' ');
+        if (tokens == null || tokens.length == 0 || !filter.equals(StringUtils.join(tokens, ' '))) {
+            return null;
+        }
+
+        boolean open = tokens[tokens.length - 1].equals(ANY_TAIL);
+        int length = open ? tokens.length - 1 : tokens.length;
+
+        byte[] values = new byte[length];
+        boolean[] wildcards = new boolean[length];
+
+        for (int i = 0; i < length; i++) {
+            String token = tokens[i];
+            if (token.equals(ANY_BYTE)) {
+                wildcards[i] = true;
+            } else if (token.length() == 2 && isUpperHex(token.charAt(0)) && isUpperHex(token.charAt(1))) {
+                values[i] = (byte) Integer.parseInt(token, 16);
+            } else {
+                return null;
+            }
+        }
+
+        return new EBusTelegramMatcher(values, wildcards, open);
+    }
+
+    private static boolean isUpperHex(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'A' && c <= 'F');
+    }
+
+    /**
+     * Checks the telegram bytes from index 0 up to the buffer position.
+     *
+     * @param buffer The telegram
+     * @return <code>true</code> if the telegram matches
+     */
+    public boolean matches(ByteBuffer buffer) {
+        int length = buffer.position();
+
+        // a trailing " .*" requires at least one more byte
+        if (open ? length <= values.length : length != values.length) {
+            return false;
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            if (!wildcards[i] && buffer.get(i) != values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns if the byte at <code>index</code> has a fixed value
+     *
+     * @param index The byte index
+     * @return <code>true</code> if the byte has a fixed value
+     */
+    public boolean isFixed(int index) {
+        return index < values.length && !wildcards[index];
+    }
+
+    /**
+     * Returns the fixed value of the byte at <code>index</code>
+     *
+     * @param index The byte index
+     * @return The byte value
+     */
+    public byte getValue(int index) {
+        return values[index];
+    }
+}
@@ -158,8 +158,13 @@ public class EBusTelegramParser {
 
         Object value = null;
 
+        // simple arithmetic is evaluated directly, everything else by the script engine
+        if (entry.getValue().getExpression() != null) {
+            value = entry.getValue().getExpression().evaluate(scopeValues);
+        }
+
         // executes compiled script
-        if (entry.getValue().getCsript() != null) {
+        if (value == null && entry.getValue().getCsript() != null) {
             CompiledScript cscript = entry.getValue().getCsript();
 
             // Add global variables thisValue and keyName to JavaScript context
@@ -268,11 +273,13 @@ public class EBusTelegramParser {
         final ByteBuffer byteBuffer = telegram.getBuffer();
 
         // Get hex string for debugging
-        final String bufferString = EBusUtils.toHexDumpString(byteBuffer).toString();
+        final String bufferString = loggerAnalyses.isDebugEnabled() || loggerBrutforce.isTraceEnabled()
+                ? EBusUtils.toHexDumpString(byteBuffer).toString()
+                : null;
 
         // queries the configuration provider for matching registry entries
         final List<TelegramConfiguration> matchedTelegramRegistry = configurationProvider
-                .getCommandsByFilter(bufferString);
+                .getCommandsByTelegram(byteBuffer);
 
         loggerAnalyses.debug(bufferString);
 
@@ -340,7 +347,7 @@ public class EBusTelegramParser {
                 }
 
                 // If compiled script available for this key, execute it now
-                if (settings.getCsript() != null) {
+                if (settings.getCsript() != null || settings.getExpression() != null) {
                     try {
 
                         // Add global variables thisValue and keyName to JavaScript context
@@ -350,7 +357,13 @@ public class EBusTelegramParser {
                         bindings.put("thisValue", value); // alias thisValue
 
                         // Evaluates script
-                        value = evaluateScript(entry, bindings);
+                        Object result = evaluateScript(entry, bindings);
+                        if (result != null || settings.getCsript() != null) {
+                            value = result;
+                        } else {
+                            // the expression can't be evaluated natively and there is no script engine
+                            logger.trace("Expression of {} returned no result, keep the raw value ...", uniqueKey);
+                        }
 
                     } catch (ScriptException e) {
                         logger.error("Error on evaluating JavaScript!", e);
@@ -363,7 +376,7 @@ public class EBusTelegramParser {
                 String format = String.format("%-35s%-10s%s", uniqueKey, value, label);
                 String alias = null;
 
-                if (settings.getMapping() != null) {
+                if (settings.getMapping() != null && value != null) {
                     Map<String, String> mapping = settings.getMapping();
                     alias = mapping.get(value.toString());
                 }
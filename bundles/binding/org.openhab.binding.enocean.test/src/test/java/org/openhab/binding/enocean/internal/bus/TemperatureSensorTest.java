@@ -9,6 +9,7 @@
 package org.openhab.binding.enocean.internal.bus;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import java.math.BigDecimal;
 
@@ -35,4 +36,56 @@ public class TemperatureSensorTest extends BasicBindingTest {
         assertEquals("Update State", new DecimalType(temperature), publisher.getUpdateState());
     }
 
+    @Test
+    public void testReceiveSubsequentTempertureUpdates() {
+        parameterAddress = new EnoceanParameterAddress(EnoceanId.fromString(EnoceanBindingProviderMock.DEVICE_ID),
+                Parameter.TEMPERATURE);
+        provider.setParameterAddress(parameterAddress);
+        binding.addBindingProvider(provider);
+        provider.setItem(new NumberItem("dummie"));
+        binding.valueChanged(parameterAddress, new NumberWithUnit(Unit.DEGREE_CELSIUS, new BigDecimal("20.3")));
+        BigDecimal temperature = new BigDecimal("21.5");
+        binding.valueChanged(
+                new EnoceanParameterAddress(EnoceanId.fromString(EnoceanBindingProviderMock.DEVICE_ID),
+                        Parameter.TEMPERATURE),
+                new NumberWithUnit(Unit.DEGREE_CELSIUS, temperature));
+        assertEquals("Update State", new DecimalType(temperature), publisher.getUpdateState());
+    }
+
+    @Test
+    public void testIgnoreTempertureUpdateOfUnboundDevice() {
+        parameterAddress = new EnoceanParameterAddress(EnoceanId.fromString(EnoceanBindingProviderMock.DEVICE_ID),
+                Parameter.TEMPERATURE);
+        provider.setParameterAddress(parameterAddress);
+        binding.addBindingProvider(provider);
+        provider.setItem(new NumberItem("dummie"));
+        binding.valueChanged(
+                new EnoceanParameterAddress(EnoceanId.fromString("00:00:00:01"), Parameter.TEMPERATURE),
+                new NumberWithUnit(Unit.DEGREE_CELSIUS, new BigDecimal("20.3")));
+        assertNull("Update State", publisher.getUpdateState());
+    }
+
+    @Test
+    public void testIgnoreUnboundParameterOfBoundDevice() {
+        parameterAddress = new EnoceanParameterAddress(EnoceanId.fromString(EnoceanBindingProviderMock.DEVICE_ID),
+                Parameter.TEMPERATURE);
+        provider.setParameterAddress(parameterAddress);
+        binding.addBindingProvider(provider);
+        provider.setItem(new NumberItem("dummie"));
+        binding.valueChanged(
+                new EnoceanParameterAddress(EnoceanId.fromString(EnoceanBindingProviderMock.DEVICE_ID),
+                        Parameter.HUMIDITY),
+                new NumberWithUnit(Unit.HUMIDITY, new BigDecimal("45")));
+        assertNull("Update State", publisher.getUpdateState());
+
+        // the ignored value must not leave a profile behind which hides the parameter once it gets bound
+        EnoceanParameterAddress humidityAddress = new EnoceanParameterAddress(
+                EnoceanId.fromString(EnoceanBindingProviderMock.DEVICE_ID), Parameter.HUMIDITY);
+        provider.setParameterAddress(humidityAddress);
+        binding.allBindingsChanged(provider);
+        BigDecimal humidity = new BigDecimal("46");
+        binding.valueChanged(humidityAddress, new NumberWithUnit(Unit.HUMIDITY, humidity));
+        assertEquals("Update State", new DecimalType(humidity), publisher.getUpdateState());
+    }
+
 }
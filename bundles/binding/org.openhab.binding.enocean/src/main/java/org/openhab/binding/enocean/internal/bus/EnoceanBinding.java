@@ -13,10 +13,12 @@ import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.opencean.core.ESP3Host;
 import org.opencean.core.EnoceanReceiver;
 import org.opencean.core.EnoceanSerialConnector;
+import org.opencean.core.address.EnoceanId;
 import org.opencean.core.address.EnoceanParameterAddress;
 import org.opencean.core.common.EEPId;
 import org.opencean.core.common.ParameterAddress;
@@ -66,7 +68,23 @@ public class EnoceanBinding extends AbstractBinding<EnoceanBindingProvider>
     private static final String CONFIG_KEY_SERIAL_PORT = "serialPort";
 
     private ConverterFactory converterFactory = new ConverterFactory();
-    private Map<String, Profile> profiles = new HashMap<String, Profile>();
+
+    /**
+     * The profiles by the parameter address they are bound to. The addresses compare the device id bytes, channel
+     * and parameter, so no string keys are built for incoming telegrams.
+     */
+    private Map<EnoceanParameterAddress, Profile> profiles = new ConcurrentHashMap<EnoceanParameterAddress, Profile>();
+
+    /**
+     * The bound items by device id and parameter address. It is rebuilt on first use after the bindings have
+     * changed.
+     */
+    private volatile Map<EnoceanId, Map<EnoceanParameterAddress, Item>> itemIndex = null;
+
+    /** guards the rebuild and the reset of {@link #itemIndex}, so a stale rebuild can't outlive a reset */
+    private final Object itemIndexLock = new Object();
+
+    private Map<Class<? extends Profile>, Constructor<? extends Profile>> profileConstructors = new ConcurrentHashMap<Class<? extends Profile>, Constructor<? extends Profile>>();
 
     protected EventPublisher eventPublisher = null;
 
@@ -131,6 +149,7 @@ public class EnoceanBinding extends AbstractBinding<EnoceanBindingProvider>
 
     protected void removeBindingProvider(EnoceanBindingProvider bindingProvider) {
         super.removeBindingProvider(bindingProvider);
+        resetItemIndex();
     }
 
     @Override
@@ -166,6 +185,7 @@ public class EnoceanBinding extends AbstractBinding<EnoceanBindingProvider>
 
     @Override
     public void allBindingsChanged(BindingProvider provider) {
+        resetItemIndex();
         if (provider instanceof EnoceanBindingProvider) {
             EnoceanBindingProvider enoceanBindingProvider = (EnoceanBindingProvider) provider;
             initializeAllItemsInProvider(enoceanBindingProvider);
@@ -174,6 +194,7 @@ public class EnoceanBinding extends AbstractBinding<EnoceanBindingProvider>
 
     @Override
     public void bindingChanged(BindingProvider provider, String itemName) {
+        resetItemIndex();
         if (esp3Host != null) {
             if (provider instanceof EnoceanBindingProvider) {
                 EnoceanBindingProvider enoceanBindingProvider = (EnoceanBindingProvider) provider;
@@ -198,47 +219,56 @@ public class EnoceanBinding extends AbstractBinding<EnoceanBindingProvider>
         EEPId eep = enoceanBindingProvider.getEEP(itemName);
         esp3Host.addDeviceProfile(parameterAddress.getEnoceanDeviceId(), eep);
         Item item = enoceanBindingProvider.getItem(itemName);
-        if (profiles.containsKey(parameterAddress.getAsString())) {
-            Profile profile = profiles.get(parameterAddress.getAsString());
+        Profile profile = profiles.get(parameterAddress);
+        if (profile != null) {
             profile.removeItem(item);
         }
-        Class<Profile> customProfileClass = enoceanBindingProvider.getCustomProfile(itemName);
+
+        Class<? extends Profile> profileClass = getProfileClass(enoceanBindingProvider.getCustomProfile(itemName), eep,
+                item, parameterAddress);
+        if (profileClass == null) {
+            return;
+        }
+        if (profile != null) {
+            // the profile instance is shared by all items of the address
+            profile.addItem(item);
+            return;
+        }
+        try {
+            profiles.put(parameterAddress, createProfile(profileClass, item));
+        } catch (Exception e) {
+            logger.error("Could not create class for profile " + profileClass, e);
+        }
+    }
+
+    private Class<? extends Profile> getProfileClass(Class<Profile> customProfileClass, EEPId eep, Item item,
+            EnoceanParameterAddress parameterAddress) {
         if (customProfileClass != null) {
-            Constructor<Profile> constructor;
-            Profile profile;
-            try {
-                constructor = customProfileClass.getConstructor(Item.class, EventPublisher.class);
-                profile = constructor.newInstance(item, eventPublisher);
-                addProfile(item, parameterAddress, profile);
-            } catch (Exception e) {
-                logger.error("Could not create class for profile " + customProfileClass, e);
-            }
+            return customProfileClass;
         } else if (EEPId.EEP_F6_02_01.equals(eep) || EEPId.EEP_F6_10_00.equals(eep)) {
             if (item.getClass().equals(RollershutterItem.class)) {
-                RollershutterProfile profile = new RollershutterProfile(item, eventPublisher);
-                addProfile(item, parameterAddress, profile);
+                return RollershutterProfile.class;
             }
             if (item.getClass().equals(DimmerItem.class)) {
-                DimmerOnOffProfile profile = new DimmerOnOffProfile(item, eventPublisher);
-                addProfile(item, parameterAddress, profile);
+                return DimmerOnOffProfile.class;
             }
             if (item.getClass().equals(SwitchItem.class) && parameterAddress.getParameterId() == null) {
-                SwitchOnOffProfile profile = new SwitchOnOffProfile(item, eventPublisher);
-                addProfile(item, parameterAddress, profile);
+                return SwitchOnOffProfile.class;
             }
             if (item.getClass().equals(StringItem.class) && EEPId.EEP_F6_10_00.equals(eep)) {
-                WindowHandleProfile profile = new WindowHandleProfile(item, eventPublisher);
-                addProfile(item, parameterAddress, profile);
+                return WindowHandleProfile.class;
             }
         }
+        return null;
     }
 
-    private void addProfile(Item item, ParameterAddress parameterAddress, Profile profile) {
-        if (profiles.containsKey(parameterAddress.getAsString())) {
-            profiles.get(parameterAddress.getAsString()).addItem(item);
-        } else {
-            profiles.put(parameterAddress.getAsString(), profile);
+    private Profile createProfile(Class<? extends Profile> profileClass, Item item) throws Exception {
+        Constructor<? extends Profile> constructor = profileConstructors.get(profileClass);
+        if (constructor == null) {
+            constructor = profileClass.getConstructor(Item.class, EventPublisher.class);
+            profileConstructors.put(profileClass, constructor);
         }
+        return constructor.newInstance(item, eventPublisher);
     }
 
     private void queryAndSendActualState(EnoceanBindingProvider provider, String itemName) {
@@ -264,15 +294,45 @@ public class EnoceanBinding extends AbstractBinding<EnoceanBindingProvider>
         this.eventPublisher = null;
     }
 
-    private Item getItemForParameter(ParameterAddress parameterAddress) {
-        for (EnoceanBindingProvider provider : providers) {
-            for (String itemName : provider.getItemNames()) {
-                if (parameterAddress.equals(provider.getParameterAddress(itemName))) {
-                    return provider.getItem(itemName);
+    private void resetItemIndex() {
+        synchronized (itemIndexLock) {
+            itemIndex = null;
+        }
+    }
+
+    /**
+     * Returns the bound items by device id and parameter address, building the index if the bindings have changed.
+     */
+    private Map<EnoceanId, Map<EnoceanParameterAddress, Item>> getItemIndex() {
+        Map<EnoceanId, Map<EnoceanParameterAddress, Item>> index = itemIndex;
+        if (index != null) {
+            return index;
+        }
+        synchronized (itemIndexLock) {
+            index = itemIndex;
+            if (index == null) {
+                index = new HashMap<EnoceanId, Map<EnoceanParameterAddress, Item>>();
+                for (EnoceanBindingProvider provider : providers) {
+                    for (String itemName : provider.getItemNames()) {
+                        EnoceanParameterAddress parameterAddress = provider.getParameterAddress(itemName);
+                        if (parameterAddress == null) {
+                            continue;
+                        }
+                        EnoceanId deviceId = parameterAddress.getEnoceanDeviceId();
+                        Map<EnoceanParameterAddress, Item> deviceItems = index.get(deviceId);
+                        if (deviceItems == null) {
+                            deviceItems = new HashMap<EnoceanParameterAddress, Item>();
+                            index.put(deviceId, deviceItems);
+                        }
+                        if (!deviceItems.containsKey(parameterAddress)) {
+                            deviceItems.put(parameterAddress, provider.getItem(itemName));
+                        }
+                    }
                 }
+                itemIndex = index;
             }
+            return index;
         }
-        return null;
     }
 
     private State getValueFromDevice(ParameterAddress parameterAddress, Item item) {
@@ -283,21 +343,41 @@ public class EnoceanBinding extends AbstractBinding<EnoceanBindingProvider>
     @Override
     public void valueChanged(ParameterAddress parameterAddress, Value valueObject) {
         logger.debug("Received new value {} for device at {}", valueObject, parameterAddress);
-        Profile profile = null;
-        if (profiles.containsKey(parameterAddress.getAsString())) {
-            profile = profiles.get(parameterAddress.getAsString());
-        } else if (profiles.containsKey(parameterAddress.getChannelAsString())) {
-            profile = profiles.get(parameterAddress.getChannelAsString());
-        } else if (profiles.containsKey(parameterAddress.getDeviceAsString())) {
-            profile = profiles.get(parameterAddress.getDeviceAsString());
-        } else {
-            Item item = getItemForParameter(parameterAddress);
+        EnoceanParameterAddress address = toEnoceanParameterAddress(parameterAddress);
+        EnoceanId deviceId = address.getEnoceanDeviceId();
+
+        Profile profile = profiles.get(address);
+        if (profile == null && address.getParameterId() != null) {
+            profile = profiles.get(new EnoceanParameterAddress(deviceId, address.getChannelId(), (String) null));
+        }
+        if (profile == null && (address.getChannelId() != null || address.getParameterId() != null)) {
+            profile = profiles.get(new EnoceanParameterAddress(deviceId));
+        }
+        if (profile == null) {
+            Map<EnoceanParameterAddress, Item> deviceItems = getItemIndex().get(deviceId);
+            if (deviceItems == null) {
+                logger.trace("No item bound to device {}", deviceId);
+                return;
+            }
+            Item item = deviceItems.get(address);
+            if (item == null) {
+                logger.trace("No item bound to parameter {}", address);
+                return;
+            }
             profile = new StandardProfile(item, eventPublisher);
-            addProfile(item, parameterAddress, profile);
+            profiles.put(address, profile);
         }
         profile.valueChanged(parameterAddress, valueObject);
     }
 
+    private EnoceanParameterAddress toEnoceanParameterAddress(ParameterAddress parameterAddress) {
+        if (parameterAddress instanceof EnoceanParameterAddress) {
+            return (EnoceanParameterAddress) parameterAddress;
+        }
+        return new EnoceanParameterAddress(EnoceanId.fromString(parameterAddress.getDeviceId()),
+                parameterAddress.getChannelId(), parameterAddress.getParameterId());
+    }
+
     /**
      * Connect to EnOcean controller through the java lib.
      */
@@ -8,6 +8,9 @@
  */
 package org.openhab.binding.enocean.internal.profiles;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.opencean.core.common.Parameter;
 import org.opencean.core.common.ParameterAddress;
 import org.opencean.core.common.values.Value;
@@ -46,6 +49,11 @@ public class StandardProfile extends BasicProfile {
 
     private ConverterFactory converterFactory = new ConverterFactory();
 
+    /**
+     * The converters by item type and parameter, they are looked up and created only once
+     */
+    private Map<Class<? extends Item>, Map<String, StateConverter<?, ?>>> converters = new HashMap<Class<? extends Item>, Map<String, StateConverter<?, ?>>>();
+
     public StandardProfile(Item item, EventPublisher eventPublisher) {
         super(item, eventPublisher);
         converterFactory.addStateConverter(Parameter.TEMPERATURE.name(), DecimalType.class,
@@ -70,8 +78,7 @@ public class StandardProfile extends BasicProfile {
             if (item == null) {
                 continue;
             }
-            StateConverter<?, ?> converter = converterFactory.getToStateConverter(parameterAddress.getParameterId(),
-                    item);
+            StateConverter<?, ?> converter = getToStateConverter(parameterAddress.getParameterId(), item);
             if (converter == null) {
                 logger.warn("No converter found for " + parameterAddress + " - doing nothing.");
                 return;
@@ -82,4 +89,16 @@ public class StandardProfile extends BasicProfile {
         }
     }
 
+    private synchronized StateConverter<?, ?> getToStateConverter(String parameterId, Item item) {
+        Map<String, StateConverter<?, ?>> itemConverters = converters.get(item.getClass());
+        if (itemConverters == null) {
+            itemConverters = new HashMap<String, StateConverter<?, ?>>();
+            converters.put(item.getClass(), itemConverters);
+        }
+        if (!itemConverters.containsKey(parameterId)) {
+            itemConverters.put(parameterId, converterFactory.getToStateConverter(parameterId, item));
+        }
+        return itemConverters.get(parameterId);
+    }
+
 }
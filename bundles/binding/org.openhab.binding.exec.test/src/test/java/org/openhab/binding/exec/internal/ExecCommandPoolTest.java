@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.exec.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class ExecCommandPoolTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private ExecCommandPool pool;
+
+    /**
+     * Creates a pool whose executions block until {@link #release} is counted down and answer with the command line.
+     */
+    private ExecCommandPool createPool(int maxConcurrent) {
+        return new ExecCommandPool(maxConcurrent, Collections.<String, ExecCoprocess> emptyMap()) {
+            @Override
+            String execute(String commandLine, int timeout) {
+                executions.incrementAndGet();
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    return null;
+                }
+                return "response of " + commandLine;
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testIdenticalCommandLinesShareOneExecution() throws InterruptedException {
+        pool = createPool(4);
+        RecordingListener listener = new RecordingListener(3);
+
+        pool.submit("uptime", 1000, listener);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        pool.submit("uptime", 1000, listener);
+        pool.submit("uptime", 1000, listener);
+        assertEquals(1, pool.getInFlightCount());
+
+        release.countDown();
+        assertTrue(listener.await());
+        assertEquals(1, executions.get());
+        assertEquals(3, listener.responses.size());
+        for (String response : listener.responses) {
+            assertEquals("response of uptime", response);
+        }
+        assertEquals(0, pool.getInFlightCount());
+    }
+
+    @Test
+    public void testDifferentCommandLinesAreExecutedSeparately() throws InterruptedException {
+        pool = createPool(4);
+        RecordingListener listener = new RecordingListener(2);
+        release.countDown();
+
+        pool.submit("uptime", 1000, listener);
+        pool.submit("date", 1000, listener);
+
+        assertTrue(listener.await());
+        assertEquals(2, executions.get());
+        assertTrue(listener.responses.contains("response of uptime"));
+        assertTrue(listener.responses.contains("response of date"));
+    }
+
+    @Test
+    public void testSubmitAfterShutdownFailsTheListener() throws InterruptedException {
+        pool = createPool(1);
+        pool.shutdown();
+        RecordingListener listener = new RecordingListener(1);
+
+        pool.submit("uptime", 1000, listener);
+
+        assertTrue(listener.await());
+        assertEquals(Collections.singletonList((String) null), listener.responses);
+        assertEquals(0, pool.getInFlightCount());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    public void testShutdownFailsRunningAndQueuedListeners() throws InterruptedException {
+        pool = createPool(1);
+        RecordingListener listener = new RecordingListener(2);
+
+        pool.submit("uptime", 1000, listener);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // waits for the only thread of the pool
+        pool.submit("date", 1000, listener);
+        assertEquals(2, pool.getInFlightCount());
+
+        pool.shutdown();
+
+        assertTrue(listener.await());
+        assertEquals(2, listener.responses.size());
+        assertNull(listener.responses.get(0));
+        assertNull(listener.responses.get(1));
+        assertEquals(0, pool.getInFlightCount());
+
+        // the interrupted execution must not notify the listener a second time
+        Thread.sleep(100);
+        assertEquals(2, listener.responses.size());
+    }
+
+    private static class RecordingListener implements ExecCommandPool.ResponseListener {
+
+        final List<String> responses = new CopyOnWriteArrayList<String>();
+        final CountDownLatch received;
+
+        RecordingListener(int expected) {
+            received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void responseReceived(String commandLine, String response) {
+            responses.add(response);
+            received.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            return received.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+}
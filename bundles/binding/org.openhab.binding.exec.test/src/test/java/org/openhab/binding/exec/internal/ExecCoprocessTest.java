@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.exec.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs a shell loop as coprocess, so these tests are skipped where there is no <code>/bin/sh</code>.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class ExecCoprocessTest {
+
+    private static final String SHELL = "/bin/sh";
+
+    private ExecCoprocess coprocess;
+
+    @Before
+    public void init() {
+        Assume.assumeTrue(new File(SHELL).canExecute());
+    }
+
+    @After
+    public void tearDown() {
+        if (coprocess != null) {
+            coprocess.stop();
+        }
+    }
+
+    @Test
+    public void testRequestsAreAnsweredInOrder() {
+        coprocess = new ExecCoprocess("echo", SHELL + "@@-c@@while read line; do echo \"reply $line\"; done");
+
+        assertEquals("reply 1", coprocess.request("1", 5000));
+        assertEquals("reply 2", coprocess.request("2", 5000));
+        assertEquals("reply 3", coprocess.request("3", 5000));
+    }
+
+    @Test
+    public void testStderrIsNotTakenAsReply() {
+        coprocess = new ExecCoprocess("noisy",
+                SHELL + "@@-c@@while read line; do echo \"warning $line\" >&2; echo \"reply $line\"; done");
+
+        assertEquals("reply 1", coprocess.request("1", 5000));
+        assertEquals("reply 2", coprocess.request("2", 5000));
+    }
+
+    @Test
+    public void testCoprocessIsRestartedAfterTimeout() {
+        coprocess = new ExecCoprocess("slow",
+                SHELL + "@@-c@@while read line; do if [ \"$line\" = slow ]; then sleep 1; fi; echo \"reply $line\"; done");
+
+        assertNull(coprocess.request("slow", 100));
+        // the late reply to the first request must not be returned for this one
+        assertEquals("reply 2", coprocess.request("2", 5000));
+    }
+
+}
@@ -67,4 +67,17 @@ public class ExecGenericBindingProviderTest {
         List<String> itemNames = provider.getInBindingItemNames();
         Assert.assertEquals(itemName, itemNames.get(0));
     }
+
+    @Test
+    public void testParseBindingConfigInCoprocess() throws BindingConfigParseException {
+        String itemName = "Number";
+        SwitchItem item = new SwitchItem(itemName);
+        String bindingConfig = "<[coprocess:sensors cpu_temp:10000:REGEX((.*))]";
+
+        provider.processBindingConfiguration("New", item, bindingConfig);
+
+        Assert.assertEquals("coprocess:sensors cpu_temp", provider.getCommandLine(itemName));
+        Assert.assertEquals(10000, provider.getRefreshInterval(itemName));
+        Assert.assertEquals("REGEX((.*))", provider.getTransformation(itemName));
+    }
 }
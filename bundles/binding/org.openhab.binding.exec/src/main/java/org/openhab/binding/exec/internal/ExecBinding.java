@@ -8,24 +8,19 @@
  */
 package org.openhab.binding.exec.internal;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Dictionary;
-import java.util.HashMap;
+import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.apache.commons.exec.CommandLine;
-import org.apache.commons.exec.DefaultExecuteResultHandler;
-import org.apache.commons.exec.DefaultExecutor;
-import org.apache.commons.exec.ExecuteException;
-import org.apache.commons.exec.ExecuteWatchdog;
-import org.apache.commons.exec.Executor;
-import org.apache.commons.exec.PumpStreamHandler;
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.exec.ExecBindingProvider;
 import org.openhab.core.binding.AbstractActiveBinding;
@@ -69,7 +64,20 @@ public class ExecBinding extends AbstractActiveBinding<ExecBindingProvider>imple
     /** the interval to find new refresh candidates (defaults to 1000 milliseconds) */
     private int granularity = 1000;
 
-    private Map<String, Long> lastUpdateMap = new HashMap<String, Long>();
+    /** the maximum number of in-binding command lines executed at the same time (defaults to 4) */
+    private int maxConcurrent = 4;
+
+    private static final String COPROCESS_CONFIG_PREFIX = "coprocess.";
+
+    private Map<String, Long> lastUpdateMap = new ConcurrentHashMap<String, Long>();
+
+    /** the items whose in-binding command line is being executed or waiting for a free thread */
+    private Set<String> refreshingItems = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /** the long-lived coprocesses configured by <code>coprocess.&lt;id&gt;</code>, keyed by id */
+    private Map<String, ExecCoprocess> coprocesses = new ConcurrentHashMap<String, ExecCoprocess>();
+
+    private volatile ExecCommandPool commandPool = new ExecCommandPool(maxConcurrent, coprocesses);
 
     /** RegEx to extract a parse a function String <code>'(.*?)\((.*)\)'</code> */
     private static final Pattern EXTRACT_FUNCTION_PATTERN = Pattern.compile("(.*?)\\((.*)\\)");
@@ -90,15 +98,22 @@ public class ExecBinding extends AbstractActiveBinding<ExecBindingProvider>imple
         setProperlyConfigured(true);
     }
 
+    @Override
+    public void deactivate() {
+        super.deactivate();
+        commandPool.shutdown();
+        refreshingItems.clear();
+        stopCoprocesses();
+    }
+
     @Override
     public void execute() {
-        for (ExecBindingProvider provider : providers) {
-            for (String itemName : provider.getInBindingItemNames()) {
+        for (final ExecBindingProvider provider : providers) {
+            for (final String itemName : provider.getInBindingItemNames()) {
 
                 String commandLine = provider.getCommandLine(itemName);
 
                 int refreshInterval = provider.getRefreshInterval(itemName);
-                String transformation = provider.getTransformation(itemName);
 
                 Long lastUpdateTimeStamp = lastUpdateMap.get(itemName);
                 if (lastUpdateTimeStamp == null) {
@@ -108,40 +123,54 @@ public class ExecBinding extends AbstractActiveBinding<ExecBindingProvider>imple
                 long age = System.currentTimeMillis() - lastUpdateTimeStamp;
                 boolean needsUpdate = age >= refreshInterval;
 
-                if (needsUpdate) {
+                // don't queue an item again while its last refresh hasn't finished yet
+                if (needsUpdate && refreshingItems.add(itemName)) {
 
                     logger.debug("item '{}' is about to be refreshed now", itemName);
 
                     commandLine = String.format(commandLine, Calendar.getInstance().getTime(), "", itemName);
 
-                    String response = executeCommandAndWaitResponse(commandLine);
+                    lastUpdateMap.put(itemName, System.currentTimeMillis());
+                    commandPool.submit(commandLine, timeout, new ExecCommandPool.ResponseListener() {
+                        @Override
+                        public void responseReceived(String commandLine, String response) {
+                            try {
+                                handleResponse(provider, itemName, commandLine, response);
+                            } finally {
+                                lastUpdateMap.put(itemName, System.currentTimeMillis());
+                                refreshingItems.remove(itemName);
+                            }
+                        }
+                    });
+                }
+            }
+        }
+    }
 
-                    if (response == null) {
-                        logger.error("No response received from command '{}'", commandLine);
-                        lastUpdateMap.put(itemName, System.currentTimeMillis());
-                        continue;
-                    }
+    private void handleResponse(ExecBindingProvider provider, String itemName, String commandLine,
+            String response) {
+        if (response == null) {
+            logger.error("No response received from command '{}'", commandLine);
+            return;
+        }
 
-                    String transformedResponse = response;
-                    // If transformation is needed
-                    if (transformation.length() > 0) {
-                        transformedResponse = transformResponse(response, transformation);
-                    }
+        String transformation = provider.getTransformation(itemName);
 
-                    List<Class<? extends State>> acceptedDataTypes = provider.getAcceptedDataTypes(itemName);
-                    State state = null;
-                    if (acceptedDataTypes != null) {
-                        state = TypeParser.parseState(acceptedDataTypes, transformedResponse);
-                    }
-                    if (state != null) {
-                        eventPublisher.postUpdate(itemName, state);
-                    } else {
-                        logger.debug("Couldn't create state for value '{}'", transformedResponse);
-                    }
+        String transformedResponse = response;
+        // If transformation is needed
+        if (transformation != null && transformation.length() > 0) {
+            transformedResponse = transformResponse(response, transformation);
+        }
 
-                    lastUpdateMap.put(itemName, System.currentTimeMillis());
-                }
-            }
+        List<Class<? extends State>> acceptedDataTypes = provider.getAcceptedDataTypes(itemName);
+        State state = null;
+        if (acceptedDataTypes != null) {
+            state = TypeParser.parseState(acceptedDataTypes, transformedResponse);
+        }
+        if (state != null) {
+            eventPublisher.postUpdate(itemName, state);
+        } else {
+            logger.debug("Couldn't create state for value '{}'", transformedResponse);
         }
     }
 
@@ -298,75 +327,6 @@ public class ExecBinding extends AbstractActiveBinding<ExecBindingProvider>imple
         }
     }
 
-    /**
-     * <p>
-     * Executes <code>commandLine</code>. Sometimes (especially observed on
-     * MacOS) the commandLine isn't executed properly. In that cases another
-     * exec-method is to be used. To accomplish this please use the special
-     * delimiter '<code>@@</code>'. If <code>commandLine</code> contains this
-     * delimiter it is split into a String[] array and the special exec-method
-     * is used.
-     * </p>
-     * <p>
-     * A possible {@link IOException} gets logged but no further processing is
-     * done.
-     * </p>
-     *
-     * @param commandLine the command line to execute
-     * @return response data from executed command line
-     */
-    private String executeCommandAndWaitResponse(String commandLine) {
-        String retval = null;
-
-        CommandLine cmdLine = null;
-
-        if (commandLine.contains(CMD_LINE_DELIMITER)) {
-            String[] cmdArray = commandLine.split(CMD_LINE_DELIMITER);
-            cmdLine = new CommandLine(cmdArray[0]);
-
-            for (int i = 1; i < cmdArray.length; i++) {
-                cmdLine.addArgument(cmdArray[i], false);
-            }
-        } else {
-            cmdLine = CommandLine.parse(commandLine);
-        }
-
-        DefaultExecuteResultHandler resultHandler = new DefaultExecuteResultHandler();
-
-        ExecuteWatchdog watchdog = new ExecuteWatchdog(timeout);
-        Executor executor = new DefaultExecutor();
-
-        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
-        PumpStreamHandler streamHandler = new PumpStreamHandler(stdout);
-
-        executor.setExitValue(1);
-        executor.setStreamHandler(streamHandler);
-        executor.setWatchdog(watchdog);
-
-        try {
-            executor.execute(cmdLine, resultHandler);
-            logger.debug("executed commandLine '{}'", commandLine);
-        } catch (ExecuteException e) {
-            logger.error("couldn't execute commandLine '" + commandLine + "'", e);
-        } catch (IOException e) {
-            logger.error("couldn't execute commandLine '" + commandLine + "'", e);
-        }
-
-        // some time later the result handler callback was invoked so we
-        // can safely request the exit code
-        try {
-            resultHandler.waitFor();
-            int exitCode = resultHandler.getExitValue();
-            retval = StringUtils.chomp(stdout.toString());
-            logger.debug("exit code '{}', result '{}'", exitCode, retval);
-
-        } catch (InterruptedException e) {
-            logger.error("Timeout occurred when executing commandLine '" + commandLine + "'", e);
-        }
-
-        return retval;
-    }
-
     @Override
     @SuppressWarnings("rawtypes")
     public void updated(Dictionary config) throws ConfigurationException {
@@ -381,10 +341,46 @@ public class ExecBinding extends AbstractActiveBinding<ExecBindingProvider>imple
             if (StringUtils.isNotBlank(granularityString)) {
                 granularity = Integer.parseInt(granularityString);
             }
+
+            int newMaxConcurrent = 4;
+            String maxConcurrentString = (String) config.get("maxConcurrent");
+            if (StringUtils.isNotBlank(maxConcurrentString)) {
+                newMaxConcurrent = Integer.parseInt(maxConcurrentString);
+                if (newMaxConcurrent < 1) {
+                    throw new ConfigurationException("maxConcurrent", "maxConcurrent must be at least 1");
+                }
+            }
+
+            stopCoprocesses();
+            Enumeration keys = config.keys();
+            while (keys.hasMoreElements()) {
+                String key = (String) keys.nextElement();
+                if (key.startsWith(COPROCESS_CONFIG_PREFIX)) {
+                    String id = key.substring(COPROCESS_CONFIG_PREFIX.length());
+                    String coprocessCommandLine = (String) config.get(key);
+                    if (StringUtils.isNotBlank(id) && StringUtils.isNotBlank(coprocessCommandLine)) {
+                        coprocesses.put(id, new ExecCoprocess(id, coprocessCommandLine.trim()));
+                    }
+                }
+            }
+
+            if (newMaxConcurrent != maxConcurrent) {
+                maxConcurrent = newMaxConcurrent;
+                ExecCommandPool oldPool = commandPool;
+                commandPool = new ExecCommandPool(maxConcurrent, coprocesses);
+                oldPool.shutdown();
+            }
         }
 
     }
 
+    private void stopCoprocesses() {
+        for (ExecCoprocess coprocess : coprocesses.values()) {
+            coprocess.stop();
+        }
+        coprocesses.clear();
+    }
+
     protected void addBindingProvider(ExecBindingProvider provider) {
         super.addBindingProvider(provider);
 
@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.exec.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.exec.CommandLine;
+import org.apache.commons.exec.DefaultExecuteResultHandler;
+import org.apache.commons.exec.DefaultExecutor;
+import org.apache.commons.exec.ExecuteWatchdog;
+import org.apache.commons.exec.Executor;
+import org.apache.commons.exec.PumpStreamHandler;
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes the command lines of the Exec in-bindings on a bounded pool of threads.
+ * <p>
+ * Identical command lines which are submitted while an execution of that command line is still running are not
+ * executed again but receive the response of the running execution. Command lines of the form
+ * <code>coprocess:&lt;id&gt; &lt;request&gt;</code> are not forked at all but sent to the configured long-lived
+ * {@link ExecCoprocess} with the given id.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class ExecCommandPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecCommandPool.class);
+
+    private static final String CMD_LINE_DELIMITER = "@@";
+
+    private static final String COPROCESS_PREFIX = "coprocess:";
+
+    /**
+     * Receives the response of an executed command line. Called on one of the pool's threads.
+     */
+    public interface ResponseListener {
+        /**
+         * @param commandLine the executed command line
+         * @param response the response or <code>null</code> if the execution failed
+         */
+        void responseReceived(String commandLine, String response);
+    }
+
+    private final ThreadPoolExecutor executor;
+
+    /** the listeners of all command lines being executed or waiting for a free thread, keyed by command line */
+    private final Map<String, List<ResponseListener>> inFlight = new HashMap<String, List<ResponseListener>>();
+
+    private final Map<String, ExecCoprocess> coprocesses;
+
+    /**
+     * @param maxConcurrent the maximum number of command lines executed at the same time
+     * @param coprocesses the long-lived coprocesses by id
+     */
+    public ExecCommandPool(int maxConcurrent, Map<String, ExecCoprocess> coprocesses) {
+        this.coprocesses = coprocesses;
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "Exec Command Pool " + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queues <code>commandLine</code> for execution. If the same command line is already queued or running, the
+     * listener is attached to that execution instead.
+     *
+     * @param commandLine the command line to execute
+     * @param timeout the timeout for this execution in milliseconds
+     * @param listener receives the response
+     */
+    public void submit(final String commandLine, final int timeout, ResponseListener listener) {
+        synchronized (inFlight) {
+            List<ResponseListener> listeners = inFlight.get(commandLine);
+            if (listeners != null) {
+                logger.debug("commandLine '{}' is already being executed, sharing its response", commandLine);
+                listeners.add(listener);
+                return;
+            }
+            listeners = new ArrayList<ResponseListener>();
+            listeners.add(listener);
+            inFlight.put(commandLine, listeners);
+        }
+
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    String response = null;
+                    try {
+                        response = execute(commandLine, timeout);
+                    } finally {
+                        complete(commandLine, response);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.debug("pool is shut down, discarding commandLine '{}'", commandLine);
+            complete(commandLine, null);
+        }
+    }
+
+    /**
+     * @return the number of distinct command lines being executed or waiting for a free thread
+     */
+    public int getInFlightCount() {
+        synchronized (inFlight) {
+            return inFlight.size();
+        }
+    }
+
+    /**
+     * Stops the pool. Queued executions are discarded and running ones are interrupted, the listeners of both
+     * receive a <code>null</code> response right away.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        Map<String, List<ResponseListener>> discarded;
+        synchronized (inFlight) {
+            discarded = new HashMap<String, List<ResponseListener>>(inFlight);
+            inFlight.clear();
+        }
+        for (Map.Entry<String, List<ResponseListener>> entry : discarded.entrySet()) {
+            notifyListeners(entry.getKey(), entry.getValue(), null);
+        }
+    }
+
+    private void complete(String commandLine, String response) {
+        List<ResponseListener> listeners;
+        synchronized (inFlight) {
+            listeners = inFlight.remove(commandLine);
+        }
+        if (listeners != null) {
+            notifyListeners(commandLine, listeners, response);
+        }
+    }
+
+    private void notifyListeners(String commandLine, List<ResponseListener> listeners, String response) {
+        for (ResponseListener listener : listeners) {
+            try {
+                listener.responseReceived(commandLine, response);
+            } catch (RuntimeException e) {
+                logger.error("error while handling the response of commandLine '{}'", commandLine, e);
+            }
+        }
+    }
+
+    /**
+     * Executes <code>commandLine</code> on the calling thread, either by forking it or by sending it to its coprocess.
+     *
+     * @param commandLine the command line to execute
+     * @param timeout the timeout for the execution in milliseconds
+     * @return the response or <code>null</code> if the execution failed
+     */
+    String execute(String commandLine, int timeout) {
+        if (commandLine.startsWith(COPROCESS_PREFIX)) {
+            String rest = commandLine.substring(COPROCESS_PREFIX.length());
+            String id = StringUtils.substringBefore(rest, " ");
+            String request = StringUtils.substringAfter(rest, " ");
+            ExecCoprocess coprocess = coprocesses.get(id);
+            if (coprocess == null) {
+                logger.error("no coprocess with id '{}' configured for commandLine '{}'", id, commandLine);
+                return null;
+            }
+            return coprocess.request(request, timeout);
+        }
+        return executeCommandAndWaitResponse(commandLine, timeout);
+    }
+
+    /**
+     * <p>
+     * Executes <code>commandLine</code>. Sometimes (especially observed on
+     * MacOS) the commandLine isn't executed properly. In that cases another
+     * exec-method is to be used. To accomplish this please use the special
+     * delimiter '<code>@@</code>'. If <code>commandLine</code> contains this
+     * delimiter it is split into a String[] array and the special exec-method
+     * is used.
+     * </p>
+     * <p>
+     * A possible {@link IOException} gets logged but no further processing is
+     * done.
+     * </p>
+     *
+     * @param commandLine the command line to execute
+     * @param timeout the timeout for the execution in milliseconds
+     * @return response data from executed command line
+     */
+    static String executeCommandAndWaitResponse(String commandLine, int timeout) {
+        String retval = null;
+
+        CommandLine cmdLine = parseCommandLine(commandLine);
+
+        DefaultExecuteResultHandler resultHandler = new DefaultExecuteResultHandler();
+
+        ExecuteWatchdog watchdog = new ExecuteWatchdog(timeout);
+        Executor executor = new DefaultExecutor();
+
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        PumpStreamHandler streamHandler = new PumpStreamHandler(stdout);
+
+        executor.setExitValue(1);
+        executor.setStreamHandler(streamHandler);
+        executor.setWatchdog(watchdog);
+
+        try {
+            executor.execute(cmdLine, resultHandler);
+            logger.debug("executed commandLine '{}'", commandLine);
+        } catch (IOException e) {
+            logger.error("couldn't execute commandLine '" + commandLine + "'", e);
+        }
+
+        // some time later the result handler callback was invoked so we
+        // can safely request the exit code
+        try {
+            resultHandler.waitFor();
+            int exitCode = resultHandler.getExitValue();
+            retval = StringUtils.chomp(stdout.toString());
+            logger.debug("exit code '{}', result '{}'", exitCode, retval);
+
+        } catch (InterruptedException e) {
+            logger.error("Timeout occurred when executing commandLine '" + commandLine + "'", e);
+        }
+
+        return retval;
+    }
+
+    /**
+     * Splits <code>commandLine</code> at the special delimiter '<code>@@</code>' if present and parses it
+     * otherwise.
+     *
+     * @param commandLine the command line to parse
+     * @return the parsed command line
+     */
+    static CommandLine parseCommandLine(String commandLine) {
+        CommandLine cmdLine;
+        if (commandLine.contains(CMD_LINE_DELIMITER)) {
+            String[] cmdArray = commandLine.split(CMD_LINE_DELIMITER);
+            cmdLine = new CommandLine(cmdArray[0]);
+
+            for (int i = 1; i < cmdArray.length; i++) {
+                cmdLine.addArgument(cmdArray[i], false);
+            }
+        } else {
+            cmdLine = CommandLine.parse(commandLine);
+        }
+        return cmdLine;
+    }
+
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.exec.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.exec.CommandLine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A long-lived process (e.g. a script interpreter) which answers requests written to its stdin with exactly one
+ * line on its stdout. Requests are serialized, so a coprocess never sees more than one outstanding request.
+ * <p>
+ * The process is started on the first request and restarted on the next request whenever it has died or did not
+ * answer within the timeout, so a late reply can never be mistaken for the reply to a later request.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class ExecCoprocess {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecCoprocess.class);
+
+    private final String id;
+    private final String commandLine;
+
+    private Process process;
+    private BufferedWriter writer;
+    private BlockingQueue<String> replies;
+
+    /**
+     * @param id the id of the coprocess as referenced by the in-bindings
+     * @param commandLine the command line which starts the coprocess
+     */
+    public ExecCoprocess(String id, String commandLine) {
+        this.id = id;
+        this.commandLine = commandLine;
+    }
+
+    public String getCommandLine() {
+        return commandLine;
+    }
+
+    /**
+     * Writes <code>request</code> as one line to the coprocess and waits for its reply line.
+     *
+     * @param request the request line
+     * @param timeout the time to wait for the reply in milliseconds
+     * @return the reply or <code>null</code> if the coprocess couldn't be started or did not answer in time
+     */
+    public synchronized String request(String request, int timeout) {
+        try {
+            if (process == null || !isAlive()) {
+                start();
+            }
+            replies.clear();
+            writer.write(request);
+            writer.newLine();
+            writer.flush();
+
+            String reply = replies.poll(timeout, TimeUnit.MILLISECONDS);
+            if (reply == null) {
+                logger.warn("coprocess '{}' didn't answer request '{}' within {}ms, restarting it", id, request,
+                        timeout);
+                stop();
+            } else {
+                logger.debug("coprocess '{}' answered request '{}' with '{}'", id, request, reply);
+            }
+            return reply;
+        } catch (IOException e) {
+            logger.error("couldn't communicate with coprocess '{}'", id, e);
+            stop();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Terminates the coprocess if it is running.
+     */
+    public synchronized void stop() {
+        if (process != null) {
+            process.destroy();
+            process = null;
+            writer = null;
+            replies = null;
+        }
+    }
+
+    private void start() throws IOException {
+        stop();
+
+        CommandLine cmdLine = ExecCommandPool.parseCommandLine(commandLine);
+        String[] cmdArray = cmdLine.toStrings();
+        process = new ProcessBuilder(cmdArray).start();
+        writer = new BufferedWriter(new OutputStreamWriter(process.getOutputStream()));
+
+        final BlockingQueue<String> queue = new LinkedBlockingQueue<String>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+        startDaemon(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        queue.offer(line);
+                    }
+                } catch (IOException e) {
+                    logger.debug("stopped reading from coprocess '{}': {}", id, e.getMessage());
+                }
+            }
+        }, "Exec Coprocess " + id);
+
+        // stderr is only logged, a line on it must not be taken as the reply to a request
+        final BufferedReader errorReader = new BufferedReader(new InputStreamReader(process.getErrorStream()));
+        startDaemon(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    String line;
+                    while ((line = errorReader.readLine()) != null) {
+                        logger.warn("coprocess '{}' wrote to stderr: {}", id, line);
+                    }
+                } catch (IOException e) {
+                    logger.debug("stopped reading stderr of coprocess '{}': {}", id, e.getMessage());
+                }
+            }
+        }, "Exec Coprocess " + id + " stderr");
+        replies = queue;
+
+        logger.info("started coprocess '{}' with commandLine '{}'", id, Arrays.asList(cmdArray));
+    }
+
+    private static void startDaemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private boolean isAlive() {
+        try {
+            process.exitValue();
+            logger.warn("coprocess '{}' has terminated, restarting it", id);
+            return false;
+        } catch (IllegalThreadStateException e) {
+            return true;
+        }
+    }
+
+}
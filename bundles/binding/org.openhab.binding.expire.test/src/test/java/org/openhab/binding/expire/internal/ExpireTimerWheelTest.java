@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.expire.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests of the {@link ExpireTimerWheel} with the tick of the binding, including a benchmark with 10000 armed timers.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class ExpireTimerWheelTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpireTimerWheelTest.class);
+
+    private static final long TICK = 10;
+
+    /** the time a timer may fire late in addition to one tick, for slow test machines */
+    private static final long SLACK = 40;
+
+    private final RecordingListener listener = new RecordingListener();
+
+    private ExpireTimerWheel wheel;
+
+    @After
+    public void tearDown() {
+        if (wheel != null) {
+            wheel.stop();
+        }
+    }
+
+    @Test
+    public void firesArmedTimer() throws InterruptedException {
+        start(4096);
+        schedule("item", 100);
+
+        assertEquals("item", listener.next());
+        assertOnTime("item");
+        assertFalse(wheel.isScheduled("item"));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void reArmingPostponesTimer() throws InterruptedException {
+        start(4096);
+        schedule("item", 100);
+        Thread.sleep(50);
+        schedule("item", 100);
+        assertEquals(1, wheel.size());
+
+        assertEquals("item", listener.next());
+        assertOnTime("item");
+        assertNull(listener.poll(200));
+    }
+
+    @Test
+    public void cancelledTimerDoesNotFire() throws InterruptedException {
+        start(4096);
+        schedule("item", 50);
+        schedule("other", 50);
+
+        assertTrue(wheel.cancel("item"));
+        assertFalse(wheel.cancel("item"));
+        assertEquals("other", listener.next());
+        assertNull(listener.poll(200));
+    }
+
+    @Test
+    public void catchesUpAfterIdle() throws InterruptedException {
+        start(4096);
+        schedule("item", 20);
+        assertEquals("item", listener.next());
+
+        // the wheel doesn't advance while no timer is armed
+        Thread.sleep(300);
+        schedule("item", 100);
+        assertEquals("item", listener.next());
+        assertOnTime("item");
+    }
+
+    @Test
+    public void firesAfterSeveralRounds() throws InterruptedException {
+        // one revolution of a wheel with 4 buckets takes 40 ms
+        start(4);
+        schedule("item", 250);
+        schedule("short", 30);
+
+        assertEquals("short", listener.next());
+        assertEquals("item", listener.next());
+        assertOnTime("item");
+    }
+
+    @Test
+    public void firesWithinOneTick() throws InterruptedException {
+        start(4096);
+        for (int i = 0; i < 20; i++) {
+            schedule("item" + i, 20 + i * 17);
+        }
+
+        long[] late = new long[20];
+        for (int i = 0; i < 20; i++) {
+            String itemName = listener.next();
+            late[i] = assertOnTime(itemName);
+        }
+        Arrays.sort(late);
+        // most timers fire within one tick
+        assertTrue("median " + late[10] + " ms late", late[10] <= TICK + SLACK / 4);
+    }
+
+    @Test
+    public void skipsTimerReArmedAfterItExpired() throws InterruptedException {
+        start(4096);
+        listener.onExpiry = new Runnable() {
+            @Override
+            public void run() {
+                // the first expiry re-arms the other item, which may have expired in the same tick
+                listener.onExpiry = null;
+                wheel.schedule("first", 1000);
+                wheel.schedule("second", 1000);
+            }
+        };
+        wheel.schedule("first", 50);
+        wheel.schedule("second", 50);
+
+        listener.next();
+        assertNull(listener.poll(300));
+        assertEquals(2, wheel.size());
+    }
+
+    @Test
+    public void stopDiscardsTimers() throws InterruptedException {
+        start(4096);
+        schedule("item", 50);
+        wheel.stop();
+
+        assertEquals(0, wheel.size());
+        assertNull(listener.poll(200));
+    }
+
+    @Test
+    public void tenThousandTimers() throws InterruptedException {
+        final int count = 10000;
+        start(4096);
+        Random random = new Random(42);
+
+        long armStart = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            schedule("item" + i, 200 + random.nextInt(1000));
+        }
+        long armNanos = System.nanoTime() - armStart;
+
+        // re-arm every second timer and cancel every fourth one
+        long rearmStart = System.nanoTime();
+        for (int i = 0; i < count; i += 2) {
+            schedule("item" + i, 200 + random.nextInt(1000));
+        }
+        for (int i = 1; i < count; i += 4) {
+            wheel.cancel("item" + i);
+        }
+        long rearmNanos = System.nanoTime() - rearmStart;
+        int expected = count - count / 4;
+        assertEquals(expected, wheel.size());
+
+        long[] late = new long[expected];
+        for (int i = 0; i < expected; i++) {
+            late[i] = assertOnTime(listener.next());
+        }
+        assertNull(listener.poll(100));
+        Arrays.sort(late);
+
+        logger.info("armed {} timers in {} ms, re-armed and cancelled {} in {} ms, fired late by {} ms (median), "
+                + "{} ms (99th percentile), {} ms (max)", count, TimeUnit.NANOSECONDS.toMillis(armNanos),
+                count / 2 + count / 4, TimeUnit.NANOSECONDS.toMillis(rearmNanos), late[expected / 2],
+                late[expected * 99 / 100], late[expected - 1]);
+        assertTrue("median " + late[expected / 2] + " ms late", late[expected / 2] <= TICK + SLACK / 4);
+    }
+
+    private void start(int wheelSize) {
+        wheel = new ExpireTimerWheel(TICK, wheelSize, listener, "Expire Timer Wheel Test");
+        wheel.start();
+    }
+
+    private void schedule(String itemName, long delay) {
+        listener.deadlines.put(itemName, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay));
+        wheel.schedule(itemName, delay);
+    }
+
+    /**
+     * Asserts that the timer of the item did not fire early nor more than a tick late.
+     *
+     * @return the milliseconds the timer fired late
+     */
+    private long assertOnTime(String itemName) {
+        long late = TimeUnit.NANOSECONDS
+                .toMillis(listener.expiries.get(itemName) - listener.deadlines.get(itemName));
+        assertTrue(itemName + " fired " + -late + " ms early", late >= 0);
+        assertTrue(itemName + " fired " + late + " ms late", late <= TICK + SLACK);
+        return late;
+    }
+
+    private static class RecordingListener implements ExpireTimerWheel.ExpiryListener {
+
+        final ConcurrentHashMap<String, Long> deadlines = new ConcurrentHashMap<String, Long>();
+
+        final ConcurrentHashMap<String, Long> expiries = new ConcurrentHashMap<String, Long>();
+
+        private final BlockingQueue<String> expired = new LinkedBlockingQueue<String>();
+
+        volatile Runnable onExpiry;
+
+        @Override
+        public void expired(String itemName) {
+            expiries.put(itemName, System.nanoTime());
+            expired.add(itemName);
+            Runnable runnable = onExpiry;
+            if (runnable != null) {
+                runnable.run();
+            }
+        }
+
+        String next() throws InterruptedException {
+            String itemName = poll(3000);
+            assertNotNull("no timer fired", itemName);
+            return itemName;
+        }
+
+        String poll(long timeout) throws InterruptedException {
+            return expired.poll(timeout, TimeUnit.MILLISECONDS);
+        }
+    }
+
+}
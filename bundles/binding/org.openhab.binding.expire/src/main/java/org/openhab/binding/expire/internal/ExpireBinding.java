@@ -9,10 +9,9 @@
 package org.openhab.binding.expire.internal;
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.openhab.binding.expire.ExpireBindingProvider;
-import org.openhab.core.binding.AbstractActiveBinding;
+import org.openhab.core.binding.AbstractBinding;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.State;
 import org.osgi.framework.BundleContext;
@@ -27,20 +26,28 @@ import org.slf4j.LoggerFactory;
  * @author John Cocula - minor refactoring
  * @since 1.9.0
  */
-public class ExpireBinding extends AbstractActiveBinding<ExpireBindingProvider> {
+public class ExpireBinding extends AbstractBinding<ExpireBindingProvider>
+        implements ExpireTimerWheel.ExpiryListener {
 
     private static final Logger logger = LoggerFactory.getLogger(ExpireBinding.class);
 
     /**
-     * The refresh interval is used to check if any of the bound items is expired.
-     * One second should be fine for all use cases, so it's final and cannot be configured.
+     * The resolution of the timer wheel in milliseconds, i.e. the maximum delay after which an expired item is
+     * actually expired.
      */
-    private static final long refreshInterval = 1000;
+    private static final long TICK_DURATION = 10;
 
     /**
-     * Mapping of item names to future timestamps (in milliseconds) to expire them.
+     * The number of buckets of the timer wheel. With a tick of 10ms one revolution covers about 40 seconds; longer
+     * durations just take some more rounds.
      */
-    private Map<String, Long> itemExpireMap = new ConcurrentHashMap<String, Long>();
+    private static final int WHEEL_SIZE = 4096;
+
+    /**
+     * Holds the pending expiry timers of all items, at most one per item.
+     */
+    private final ExpireTimerWheel timerWheel = new ExpireTimerWheel(TICK_DURATION, WHEEL_SIZE, this,
+            "Expire Timer Wheel");
 
     public ExpireBinding() {
     }
@@ -60,7 +67,7 @@ public class ExpireBinding extends AbstractActiveBinding<ExpireBindingProvider>
      * @param configuration Configuration properties for this component obtained from the ConfigAdmin service
      */
     public void activate(final BundleContext bundleContext, final Map<String, Object> configuration) {
-        setProperlyConfigured(true);
+        timerWheel.start();
     }
 
     /**
@@ -90,33 +97,10 @@ public class ExpireBinding extends AbstractActiveBinding<ExpireBindingProvider>
     public void deactivate(final int reason) {
         // deallocate resources here that are no longer needed and
         // should be reset when activating this binding again
-        itemExpireMap.clear();
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    protected long getRefreshInterval() {
-        return refreshInterval;
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    protected String getName() {
-        return "Expire Refresh Service";
-    }
-
-    private boolean isReadyToExpire(String itemName) {
-        Long nextExpireTs = itemExpireMap.get(itemName);
-        return (nextExpireTs != null) && (nextExpireTs <= System.currentTimeMillis());
+        timerWheel.stop();
     }
 
     private void expire(String itemName, ExpireBindingProvider provider) {
-        itemExpireMap.remove(itemName); // disable expire trigger until next update or command
-
         Command expireCommand = provider.getExpireCommand(itemName);
         State expireState = provider.getExpireState(itemName);
 
@@ -135,18 +119,11 @@ public class ExpireBinding extends AbstractActiveBinding<ExpireBindingProvider>
      * {@inheritDoc}
      */
     @Override
-    protected void execute() {
-        logger.trace("Executing...");
-
-        // only bother to iterate if there is any possible work to do
-        if (!itemExpireMap.isEmpty()) {
-
-            for (ExpireBindingProvider provider : providers) {
-                for (String itemName : provider.getItemNames()) {
-                    if (isReadyToExpire(itemName)) {
-                        expire(itemName, provider);
-                    }
-                }
+    public void expired(String itemName) {
+        for (ExpireBindingProvider provider : providers) {
+            if (provider.providesBindingFor(itemName)) {
+                expire(itemName, provider);
+                break;
             }
         }
     }
@@ -166,13 +143,13 @@ public class ExpireBinding extends AbstractActiveBinding<ExpireBindingProvider>
                 if ((expireCommand != null && expireCommand.equals(newCommand))
                         || (expireState != null && expireState.equals(newCommand))) {
                     // New command is expired command or state -> no further action needed
-                    itemExpireMap.remove(itemName); // remove expire trigger until next update or command
+                    timerWheel.cancel(itemName); // remove expire trigger until next update or command
                     logger.debug("Item {} received command '{}'; stopping any future expiration.", itemName,
                             newCommand);
                 } else {
-                    // New command is not the expired command or state, so add the trigger to the map
+                    // New command is not the expired command or state, so (re-)arm the trigger
                     long duration = provider.getDuration(itemName);
-                    itemExpireMap.put(itemName, System.currentTimeMillis() + duration);
+                    timerWheel.schedule(itemName, duration);
                     logger.debug("Item {} will expire (with '{}' {}) in {} ms", itemName,
                             expireCommand == null ? expireState : expireCommand,
                             expireCommand == null ? "state" : "command", duration);
@@ -197,12 +174,12 @@ public class ExpireBinding extends AbstractActiveBinding<ExpireBindingProvider>
                 if ((expireCommand != null && expireCommand.equals(newState))
                         || (expireState != null && expireState.equals(newState))) {
                     // New state is expired command or state -> no further action needed
-                    itemExpireMap.remove(itemName); // remove expire trigger until next update or command
+                    timerWheel.cancel(itemName); // remove expire trigger until next update or command
                     logger.debug("Item {} received update '{}'; stopping any future expiration.", itemName, newState);
                 } else {
-                    // New state is not the expired command or state, so add the trigger to the map
+                    // New state is not the expired command or state, so (re-)arm the trigger
                     long duration = provider.getDuration(itemName);
-                    itemExpireMap.put(itemName, System.currentTimeMillis() + duration);
+                    timerWheel.schedule(itemName, duration);
                     logger.debug("Item {} will expire (with '{}' {}) in {} ms", itemName,
                             expireCommand == null ? expireState : expireCommand,
                             expireCommand == null ? "state" : "command", duration);
@@ -0,0 +1,300 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.expire.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A hashed timer wheel that keeps one pending expiry timer per item name.
+ *
+ * Arming, re-arming and cancelling a timer are O(1) operations: every timer is linked into the bucket of the tick it
+ * expires in, and timers that lie more than one wheel revolution ahead carry the number of remaining rounds. The
+ * worker thread only advances the wheel while timers are armed and blocks otherwise, so an idle wheel costs no CPU.
+ * Timers never fire early and fire at most one tick late.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class ExpireTimerWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpireTimerWheel.class);
+
+    /**
+     * Receives the names of items whose timer has expired. Called from the wheel's worker thread while the wheel is
+     * locked, so a timer which is re-armed or cancelled concurrently is never reported. Implementations may re-arm
+     * timers, but must not block.
+     */
+    public interface ExpiryListener {
+        void expired(String itemName);
+    }
+
+    private final Object lock = new Object();
+
+    private final long tickNanos;
+    private final int mask;
+    private final Timeout[] wheel;
+    private final Map<String, Timeout> timeouts = new HashMap<String, Timeout>();
+    /** items whose timer expired and whose listener call is still pending */
+    private final Set<String> expiring = new HashSet<String>();
+    private final ExpiryListener listener;
+    private final String threadName;
+
+    private long startNanos;
+    /** the next tick the worker will process */
+    private long tick;
+    private Thread worker;
+    private boolean running;
+
+    /**
+     * @param tickDuration the resolution of the wheel in milliseconds
+     * @param wheelSize the number of buckets; rounded up to the next power of two
+     * @param listener receives all expired item names
+     * @param threadName the name of the worker thread
+     */
+    public ExpireTimerWheel(long tickDuration, int wheelSize, ExpiryListener listener, String threadName) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be greater than 0: " + tickDuration);
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("wheelSize out of range: " + wheelSize);
+        }
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickDuration);
+        this.mask = size - 1;
+        this.wheel = new Timeout[size];
+        this.listener = listener;
+        this.threadName = threadName;
+    }
+
+    /**
+     * Starts the worker thread. Has no effect if the wheel is already running.
+     */
+    public void start() {
+        synchronized (lock) {
+            if (running) {
+                return;
+            }
+            running = true;
+            startNanos = System.nanoTime();
+            tick = 0;
+            worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    work();
+                }
+            }, threadName);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Stops the worker thread and discards all armed timers.
+     */
+    public void stop() {
+        synchronized (lock) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            clear();
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Arms the timer of <code>itemName</code> to expire after <code>delay</code> milliseconds, replacing any timer
+     * that is already armed for this item.
+     *
+     * @param itemName the item to arm the timer for
+     * @param delay the delay in milliseconds
+     */
+    public void schedule(String itemName, long delay) {
+        synchronized (lock) {
+            unlink(timeouts.remove(itemName));
+            expiring.remove(itemName);
+            if (timeouts.isEmpty()) {
+                // the worker does not advance the wheel while idle, so catch up with the clock first
+                tick = elapsedTicks();
+            }
+
+            long deadline = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(delay, 0));
+            long expiryTick = deadline / tickNanos;
+
+            Timeout timeout = new Timeout(itemName);
+            timeout.remainingRounds = Math.max(expiryTick - tick, 0) / wheel.length;
+            timeout.bucket = (int) (Math.max(expiryTick, tick) & mask);
+            link(timeout);
+            timeouts.put(itemName, timeout);
+
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Disarms the timer of <code>itemName</code>, if any.
+     *
+     * @param itemName the item to disarm the timer for
+     * @return <code>true</code> if a timer was armed
+     */
+    public boolean cancel(String itemName) {
+        synchronized (lock) {
+            Timeout timeout = timeouts.remove(itemName);
+            unlink(timeout);
+            expiring.remove(itemName);
+            return timeout != null;
+        }
+    }
+
+    /**
+     * @param itemName the item to check
+     * @return <code>true</code> if a timer is armed for <code>itemName</code>
+     */
+    public boolean isScheduled(String itemName) {
+        synchronized (lock) {
+            return timeouts.containsKey(itemName);
+        }
+    }
+
+    /**
+     * @return the number of currently armed timers
+     */
+    public int size() {
+        synchronized (lock) {
+            return timeouts.size();
+        }
+    }
+
+    /**
+     * Disarms all timers.
+     */
+    public void clear() {
+        synchronized (lock) {
+            for (int i = 0; i < wheel.length; i++) {
+                wheel[i] = null;
+            }
+            timeouts.clear();
+            expiring.clear();
+        }
+    }
+
+    private void work() {
+        List<String> expired = new ArrayList<String>();
+        while (true) {
+            synchronized (lock) {
+                if (!running || worker != Thread.currentThread()) {
+                    // stopped, or superseded by a worker of a later start()
+                    return;
+                }
+                try {
+                    if (timeouts.isEmpty()) {
+                        lock.wait();
+                        continue;
+                    }
+                    long sleepNanos = (tick + 1) * tickNanos - (System.nanoTime() - startNanos);
+                    if (sleepNanos > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(lock, sleepNanos);
+                        continue;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                    return;
+                }
+                expireBucket(wheel[(int) (tick & mask)], expired);
+                tick++;
+            }
+
+            for (String itemName : expired) {
+                synchronized (lock) {
+                    // skip the item if an update re-armed or cancelled its timer since it expired
+                    if (!expiring.remove(itemName)) {
+                        continue;
+                    }
+                    try {
+                        listener.expired(itemName);
+                    } catch (RuntimeException e) {
+                        logger.error("Error while expiring item {}", itemName, e);
+                    }
+                }
+            }
+            expired.clear();
+        }
+    }
+
+    private void expireBucket(Timeout head, List<String> expired) {
+        Timeout timeout = head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.remainingRounds <= 0) {
+                unlink(timeout);
+                timeouts.remove(timeout.itemName);
+                expiring.add(timeout.itemName);
+                expired.add(timeout.itemName);
+            } else {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+    }
+
+    private long elapsedTicks() {
+        return (System.nanoTime() - startNanos) / tickNanos;
+    }
+
+    private void link(Timeout timeout) {
+        Timeout head = wheel[timeout.bucket];
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        wheel[timeout.bucket] = timeout;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout == null) {
+            return;
+        }
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else if (wheel[timeout.bucket] == timeout) {
+            wheel[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+    }
+
+    private static class Timeout {
+        final String itemName;
+        long remainingRounds;
+        int bucket;
+        Timeout prev;
+        Timeout next;
+
+        Timeout(String itemName) {
+            this.itemName = itemName;
+        }
+    }
+
+}
@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.hue.internal.hardware;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the merging, group actions and pacing of the {@link HueCommandQueue} against a queue recording the requests
+ * instead of sending them.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class HueCommandQueueTest {
+
+    private RecordingQueue queue;
+
+    @Before
+    public void setUp() {
+        queue = new RecordingQueue();
+    }
+
+    @After
+    public void tearDown() {
+        queue.stop();
+        queue.gate.release(1000);
+    }
+
+    @Test
+    public void testMergesWritesWhileWaiting() throws InterruptedException {
+        queue.gate.drainPermits();
+        queue.setLightState("1", state("bri", 10, "on", true));
+        assertRequest("lights/1/state", "{\"bri\":10,\"on\":true}");
+
+        // a dragged slider and a color picker while the first request is still being sent
+        queue.setLightState("1", state("bri", 20, "on", true));
+        queue.setLightState("1", state("hue", 1000, "sat", 200, "bri", 30, "on", true));
+        queue.setLightState("1", state("bri", 40, "on", true));
+        queue.setLightState("1", state("on", false));
+        assertTrue(queue.isPending("1"));
+
+        queue.gate.release(1000);
+        assertRequest("lights/1/state", "{\"bri\":40,\"on\":false,\"hue\":1000,\"sat\":200}");
+        assertNoRequest();
+        assertFalse(queue.isPending("1"));
+    }
+
+    @Test
+    public void testOnlyLatestColorModeIsSent() throws InterruptedException {
+        queue.gate.drainPermits();
+        queue.setLightState("9", state("on", true));
+        assertRequest("lights/9/state", "{\"on\":true}");
+
+        queue.setLightState("1", state("hue", 1000, "sat", 200, "bri", 30, "on", true));
+        queue.setLightState("1", state("ct", 300));
+        queue.setLightState("2", state("ct", 300));
+        queue.setLightState("2", state("sat", 100));
+
+        queue.gate.release(1000);
+        assertRequest("lights/1/state", "{\"bri\":30,\"on\":true,\"ct\":300}");
+        assertRequest("lights/2/state", "{\"sat\":100}");
+        assertNoRequest();
+    }
+
+    @Test
+    public void testKeepsOrderOfLights() throws InterruptedException {
+        queue.gate.drainPermits();
+        queue.setLightState("9", state("on", true));
+        assertRequest("lights/9/state", "{\"on\":true}");
+
+        queue.setLightState("3", state("bri", 1));
+        queue.setLightState("1", state("bri", 2));
+        queue.setLightState("3", state("bri", 3));
+
+        queue.gate.release(1000);
+        assertRequest("lights/3/state", "{\"bri\":3}");
+        assertRequest("lights/1/state", "{\"bri\":2}");
+        assertNoRequest();
+    }
+
+    @Test
+    public void testSendsGroupAction() throws InterruptedException {
+        Map<String, Set<String>> groups = new HashMap<String, Set<String>>();
+        groups.put("1", lights("1", "2", "3"));
+        groups.put("2", lights("1", "2"));
+        groups.put("3", lights("3", "4"));
+        queue.setGroups(groups);
+
+        queue.gate.drainPermits();
+        queue.setLightState("9", state("on", true));
+        assertRequest("lights/9/state", "{\"on\":true}");
+
+        queue.setLightState("1", state("on", false));
+        queue.setLightState("2", state("on", false));
+        queue.setLightState("4", state("on", true));
+        queue.setLightState("3", state("on", false));
+
+        // the biggest group whose lights all wait with the same state, light 4 is sent on its own
+        queue.gate.release(1000);
+        assertRequest("groups/1/action", "{\"on\":false}");
+        assertRequest("lights/4/state", "{\"on\":true}");
+        assertNoRequest();
+    }
+
+    @Test
+    public void testPacesGroupActions() throws InterruptedException {
+        Map<String, Set<String>> groups = new HashMap<String, Set<String>>();
+        groups.put("1", lights("1", "2"));
+        queue.setGroups(groups);
+
+        queue.gate.drainPermits();
+        queue.setLightState("9", state("on", true));
+        assertRequest("lights/9/state", "{\"on\":true}");
+        queue.setLightState("1", state("on", false));
+        queue.setLightState("2", state("on", false));
+        queue.gate.release(1);
+        assertRequest("groups/1/action", "{\"on\":false}");
+
+        // a second group action within a second is sent light by light
+        queue.setLightState("1", state("on", true));
+        queue.setLightState("2", state("on", true));
+        queue.gate.release(1000);
+        assertRequest("lights/1/state", "{\"on\":true}");
+        assertRequest("lights/2/state", "{\"on\":true}");
+        assertNoRequest();
+    }
+
+    @Test
+    public void testPacesRequests() throws InterruptedException {
+        for (int i = 1; i <= 5; i++) {
+            queue.setLightState(String.valueOf(i), state("bri", i));
+        }
+
+        long previous = 0;
+        for (int i = 1; i <= 5; i++) {
+            Request request = assertRequest("lights/" + i + "/state", "{\"bri\":" + i + "}");
+            if (i > 1) {
+                assertTrue(request.nanos - previous >= TimeUnit.MILLISECONDS
+                        .toNanos(HueCommandQueue.COMMAND_INTERVAL - 1));
+            }
+            previous = request.nanos;
+        }
+    }
+
+    @Test
+    public void testStopDropsPendingStates() throws InterruptedException {
+        queue.gate.drainPermits();
+        queue.setLightState("1", state("on", true));
+        assertRequest("lights/1/state", "{\"on\":true}");
+        queue.setLightState("2", state("on", true));
+
+        queue.stop();
+        assertFalse(queue.isPending("2"));
+        queue.gate.release(1000);
+        assertNoRequest();
+    }
+
+    private Request assertRequest(String path, String message) throws InterruptedException {
+        Request request = queue.requests.poll(2, TimeUnit.SECONDS);
+        assertNotNull("no request to " + path, request);
+        assertEquals(path + " " + message, request.path + " " + request.message);
+        return request;
+    }
+
+    private void assertNoRequest() throws InterruptedException {
+        Request request = queue.requests.poll(3 * HueCommandQueue.COMMAND_INTERVAL, TimeUnit.MILLISECONDS);
+        assertNull(request == null ? null : request.path + " " + request.message, request);
+    }
+
+    private static Map<String, Object> state(Object... namesAndValues) {
+        Map<String, Object> state = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            state.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return state;
+    }
+
+    private static Set<String> lights(String... ids) {
+        return new HashSet<String>(Arrays.asList(ids));
+    }
+
+    private static class Request {
+
+        final String path;
+        final String message;
+        final long nanos = System.nanoTime();
+
+        Request(String path, String message) {
+            this.path = path;
+            this.message = message;
+        }
+    }
+
+    /**
+     * Records the requests instead of sending them. Each request takes a permit of the gate, so the tests can hold the
+     * queue in the middle of a request and queue further changes meanwhile.
+     */
+    private static class RecordingQueue extends HueCommandQueue {
+
+        final BlockingQueue<Request> requests = new LinkedBlockingQueue<Request>();
+
+        final Semaphore gate = new Semaphore(1000);
+
+        RecordingQueue() {
+            super(new HueBridge("127.0.0.1", "test"));
+        }
+
+        @Override
+        void send(String path, String message) {
+            requests.add(new Request(path, message));
+            gate.acquireUninterruptibly();
+        }
+    }
+
+}
@@ -11,6 +11,8 @@ package org.openhab.binding.hue.internal;
 import java.io.IOException;
 import java.util.Dictionary;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
@@ -19,8 +21,10 @@ import org.openhab.binding.hue.internal.HueBindingConfig.BindingType;
 import org.openhab.binding.hue.internal.data.HueSettings;
 import org.openhab.binding.hue.internal.hardware.HueBridge;
 import org.openhab.binding.hue.internal.hardware.HueBulb;
+import org.openhab.binding.hue.internal.hardware.HueCommandQueue;
 import org.openhab.binding.hue.internal.tools.SsdpDiscovery;
 import org.openhab.core.binding.AbstractActiveBinding;
+import org.openhab.core.binding.BindingProvider;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.HSBType;
 import org.openhab.core.library.types.IncreaseDecreaseType;
@@ -60,6 +64,12 @@ public class HueBinding extends AbstractActiveBinding<HueBindingProvider>impleme
     // expensive.
     private HashMap<String, HueBulb> bulbCache = new HashMap<String, HueBulb>();
 
+    /** the in-binding items by bulb id, rebuilt lazily after binding changes */
+    private volatile Map<String, Map<String, HueBindingConfig>> itemIndex = null;
+
+    /** guards the rebuild and the reset of {@link #itemIndex}, so a stale rebuild can't outlive a reset */
+    private final Object itemIndexLock = new Object();
+
     /**
      * Default constructor for the Hue binding.
      */
@@ -84,7 +94,8 @@ public class HueBinding extends AbstractActiveBinding<HueBindingProvider>impleme
 
     /**
      * Get current hue settings of the bulbs and update the items that are connected with the bulb.
-     * The refreshinterval determines the polling frequency.
+     * The refreshinterval determines the polling frequency. Only item states which differ from the last posted or
+     * commanded state are posted, bulbs with commands waiting to be sent are skipped until the commands are sent.
      */
     @Override
     public void execute() {
@@ -101,6 +112,11 @@ public class HueBinding extends AbstractActiveBinding<HueBindingProvider>impleme
                 logger.warn("openHAB not authorized to access Hue bridge");
                 return;
             }
+            HueCommandQueue commandQueue = activeBridge.getCommandQueue();
+            commandQueue.setGroups(settings.getGroups());
+
+            Set<String> refreshedBulbs = new HashSet<String>();
+            int changedBulbs = 0;
             Set<String> keys = settings.getKeys();
             for (String key : keys) {
                 try {
@@ -108,8 +124,14 @@ public class HueBinding extends AbstractActiveBinding<HueBindingProvider>impleme
                     if (bulb == null) {
                         bulb = new HueBulb(activeBridge, key, settings);
                         bulbCache.put(key, bulb);
+                        refreshedBulbs.add(key);
+                        changedBulbs++;
+                    } else if (!commandQueue.isPending(key)) {
+                        if (bulb.getStatus(settings)) {
+                            changedBulbs++;
+                        }
+                        refreshedBulbs.add(key);
                     }
-                    bulb.getStatus(settings);
                 } catch (NumberFormatException e) {
                     logger.warn("lights index {} is not a number", key);
                 }
@@ -117,69 +139,149 @@ public class HueBinding extends AbstractActiveBinding<HueBindingProvider>impleme
 
             // Update the items that are linked with the bulbs.
             // Multiple items of different types can be linked to one bulb.
+            // The bulb status is compared against the states kept per item rather than against the previous
+            // status of the bulb, which already holds the commanded values.
+            for (Map.Entry<String, Map<String, HueBindingConfig>> device : getItemIndex().entrySet()) {
+                if (!refreshedBulbs.contains(device.getKey())) {
+                    continue;
+                }
+                HueBulb bulb = bulbCache.get(device.getKey());
+                for (Map.Entry<String, HueBindingConfig> item : device.getValue().entrySet()) {
+                    updateItem(item.getKey(), item.getValue(), bulb, true);
+                }
+            }
+            logger.debug("Done Hue data refresh, {} of {} bulbs changed.", changedBulbs, keys.size());
+        }
+    }
+
+    /**
+     * Posts the state of the bulb to the item if it differs from the last posted state.
+     *
+     * @param postUpdate
+     *            false to only remember the state, e.g. when the item already shows it after a command
+     */
+    private void updateItem(String hueItemName, HueBindingConfig deviceConfig, HueBulb bulb, boolean postUpdate) {
+        // Enhancement: only send a postUpdate for items that have changed.
+        // Tried to use item.getState() as found in enOcean binding, but the state value was always
+        // uninitialized
+        // State actualState = provider.getItem(itemName).getState(); --> always return
+        // Uninitialized
+        // Workaround for now, store the OnOff state in deviceConfig
+        //
+        if ((bulb.getIsOn() == true) && (bulb.getIsReachable() == true)) {
+            if ((deviceConfig.itemStateOnOffType == null)
+                    || (deviceConfig.itemStateOnOffType.equals(OnOffType.ON) == false)) {
+                if (postUpdate) {
+                    eventPublisher.postUpdate(hueItemName, OnOffType.ON);
+                }
+                deviceConfig.itemStateOnOffType = OnOffType.ON;
+            }
+        } else {
+            if ((deviceConfig.itemStateOnOffType == null)
+                    || (deviceConfig.itemStateOnOffType.equals(OnOffType.OFF) == false)) {
+                if (postUpdate) {
+                    eventPublisher.postUpdate(hueItemName, OnOffType.OFF);
+                }
+                deviceConfig.itemStateOnOffType = OnOffType.OFF;
+            }
+        }
+
+        if (deviceConfig.getType().equals(BindingType.brightness)) {
+            if ((bulb.getIsOn() == true) && (bulb.getIsReachable() == true)) {
+                // Only postUpdate when bulb is on, otherwise dimmer item is not retaining state and
+                // shows to max brightness value
+                PercentType newPercent = new PercentType(
+                        (int) Math.round((bulb.getBrightness() * (double) 100) / HueBulb.MAX_BRIGHTNESS));
+                if ((deviceConfig.itemStatePercentType == null)
+                        || (deviceConfig.itemStatePercentType.equals(newPercent) == false)) {
+                    if (postUpdate) {
+                        eventPublisher.postUpdate(hueItemName, newPercent);
+                    }
+                    deviceConfig.itemStatePercentType = newPercent;
+                }
+            }
+        } else if (deviceConfig.getType().equals(BindingType.rgb)) {
+            if ((bulb.getIsOn() == true) && (bulb.getIsReachable() == true)) {
+                // Only postUpdate when bulb is on, otherwise color item is not retaining state and
+                // shows to max brightness value
+                DecimalType decimalHue = new DecimalType(bulb.getHue() / (double) 182);
+                PercentType percentBrightness = new PercentType(
+                        (int) Math.round((bulb.getBrightness() * (double) 100) / HueBulb.MAX_BRIGHTNESS));
+                PercentType percentSaturation = new PercentType(
+                        (int) Math.round((bulb.getSaturation() * (double) 100) / HueBulb.MAX_SATURATION));
+                HSBType newHsb = new HSBType(decimalHue, percentSaturation, percentBrightness);
+                if ((deviceConfig.itemStateHSBType == null)
+                        || (deviceConfig.itemStateHSBType.equals(newHsb) == false)) {
+                    if (postUpdate) {
+                        eventPublisher.postUpdate(hueItemName, newHsb);
+                    }
+                    deviceConfig.itemStateHSBType = newHsb;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the configurations of the in-binding items by bulb id, the index is rebuilt after binding changes.
+     */
+    private Map<String, Map<String, HueBindingConfig>> getItemIndex() {
+        Map<String, Map<String, HueBindingConfig>> index = itemIndex;
+        if (index != null) {
+            return index;
+        }
+        synchronized (itemIndexLock) {
+            index = itemIndex;
+            if (index != null) {
+                return index;
+            }
+            index = new HashMap<String, Map<String, HueBindingConfig>>();
             for (HueBindingProvider provider : this.providers) {
                 for (String hueItemName : provider.getInBindingItemNames()) {
-                    HueBindingConfig deviceConfig = getConfigForItemName(hueItemName);
-
+                    HueBindingConfig deviceConfig = provider.getItemConfig(hueItemName);
                     if (deviceConfig != null) {
-                        HueBulb bulb = bulbCache.get(deviceConfig.getDeviceId());
-                        if (bulb != null) {
-
-                            // Enhancement: only send a postUpdate for items that have changed.
-                            // Tried to use item.getState() as found in enOcean binding, but the state value was always
-                            // uninitialized
-                            // State actualState = provider.getItem(itemName).getState(); --> always return
-                            // Uninitialized
-                            // Workaround for now, store the OnOff state in deviceConfig
-                            //
-                            if ((bulb.getIsOn() == true) && (bulb.getIsReachable() == true)) {
-                                if ((deviceConfig.itemStateOnOffType == null)
-                                        || (deviceConfig.itemStateOnOffType.equals(OnOffType.ON) == false)) {
-                                    eventPublisher.postUpdate(hueItemName, OnOffType.ON);
-                                    deviceConfig.itemStateOnOffType = OnOffType.ON;
-                                }
-                            } else {
-                                if ((deviceConfig.itemStateOnOffType == null)
-                                        || (deviceConfig.itemStateOnOffType.equals(OnOffType.OFF) == false)) {
-                                    eventPublisher.postUpdate(hueItemName, OnOffType.OFF);
-                                    deviceConfig.itemStateOnOffType = OnOffType.OFF;
-                                }
-                            }
-
-                            if (deviceConfig.getType().equals(BindingType.brightness)) {
-                                if ((bulb.getIsOn() == true) && (bulb.getIsReachable() == true)) {
-                                    // Only postUpdate when bulb is on, otherwise dimmer item is not retaining state and
-                                    // shows to max brightness value
-                                    PercentType newPercent = new PercentType((int) Math
-                                            .round((bulb.getBrightness() * (double) 100) / HueBulb.MAX_BRIGHTNESS));
-                                    if ((deviceConfig.itemStatePercentType == null)
-                                            || (deviceConfig.itemStatePercentType.equals(newPercent) == false)) {
-                                        eventPublisher.postUpdate(hueItemName, newPercent);
-                                        deviceConfig.itemStatePercentType = newPercent;
-                                    }
-                                }
-                            } else if (deviceConfig.getType().equals(BindingType.rgb)) {
-                                if ((bulb.getIsOn() == true) && (bulb.getIsReachable() == true)) {
-                                    // Only postUpdate when bulb is on, otherwise color item is not retaining state and
-                                    // shows to max brightness value
-                                    DecimalType decimalHue = new DecimalType(bulb.getHue() / (double) 182);
-                                    PercentType percentBrightness = new PercentType((int) Math
-                                            .round((bulb.getBrightness() * (double) 100) / HueBulb.MAX_BRIGHTNESS));
-                                    PercentType percentSaturation = new PercentType((int) Math
-                                            .round((bulb.getSaturation() * (double) 100) / HueBulb.MAX_SATURATION));
-                                    HSBType newHsb = new HSBType(decimalHue, percentSaturation, percentBrightness);
-                                    if ((deviceConfig.itemStateHSBType == null)
-                                            || (deviceConfig.itemStateHSBType.equals(newHsb) == false)) {
-                                        eventPublisher.postUpdate(hueItemName, newHsb);
-                                        deviceConfig.itemStateHSBType = newHsb;
-                                    }
-                                }
-                            }
+                        Map<String, HueBindingConfig> items = index.get(deviceConfig.getDeviceId());
+                        if (items == null) {
+                            items = new HashMap<String, HueBindingConfig>();
+                            index.put(deviceConfig.getDeviceId(), items);
                         }
+                        items.put(hueItemName, deviceConfig);
                     }
                 }
             }
-            logger.debug("Done Hue data refresh.");
+            itemIndex = index;
+            return index;
+        }
+    }
+
+    private void resetItemIndex() {
+        synchronized (itemIndexLock) {
+            itemIndex = null;
+        }
+    }
+
+    @Override
+    public void bindingChanged(BindingProvider provider, String itemName) {
+        resetItemIndex();
+        super.bindingChanged(provider, itemName);
+    }
+
+    @Override
+    public void allBindingsChanged(BindingProvider provider) {
+        resetItemIndex();
+        super.allBindingsChanged(provider);
+    }
+
+    @Override
+    public void removeBindingProvider(BindingProvider provider) {
+        resetItemIndex();
+        super.removeBindingProvider(provider);
+    }
+
+    @Override
+    public void deactivate() {
+        if (activeBridge != null) {
+            activeBridge.dispose();
+            activeBridge = null;
         }
     }
 
@@ -258,6 +360,8 @@ public class HueBinding extends AbstractActiveBinding<HueBindingProvider>impleme
             }
         }
 
+        // the item already shows the commanded state, so the next refresh only posts states which deviate from it
+        updateItem(itemName, deviceConfig, bulb, false);
     }
 
     /**
@@ -295,7 +399,12 @@ public class HueBinding extends AbstractActiveBinding<HueBindingProvider>impleme
 
             // connect the Hue bridge with the new configs
             if (this.bridgeIP != null) {
+                if (activeBridge != null) {
+                    activeBridge.dispose();
+                }
                 activeBridge = null;
+                // the cached bulbs send their commands to the previous bridge
+                bulbCache.clear();
                 String secret = (String) config.get("secret");
                 HueBridge bridge = new HueBridge(bridgeIP, secret);
                 if (bridge.isAuthorized()) {
@@ -9,6 +9,9 @@
 package org.openhab.binding.hue.internal.data;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -117,6 +120,32 @@ public class HueSettings {
         return settingsData.node("lights").getKeys();
     }
 
+    /**
+     * Return the lights of the groups configured on the Hue hub, including
+     * group 0 which contains all lights
+     * 
+     * @return the light keys of each group by group id
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Set<String>> getGroups() {
+        Map<String, Set<String>> groups = new HashMap<String, Set<String>>();
+        if (settingsData == null) {
+            logger.error("Hue bridge settings not initialized correctly.");
+            return groups;
+        }
+        groups.put("0", new HashSet<String>(getKeys()));
+        SettingsTree groupsNode = settingsData.node("groups");
+        if (groupsNode != null) {
+            for (String groupId : groupsNode.getKeys()) {
+                Object lights = groupsNode.node(groupId).value("lights");
+                if (lights instanceof List) {
+                    groups.put(groupId, new HashSet<String>((List<String>) lights));
+                }
+            }
+        }
+        return groups;
+    }
+
     /**
      * Determines whether the given bulb is valid in the settings of the bridge.
      * 
@@ -40,6 +40,8 @@ public class HueBridge {
 
     private Client client;
 
+    private final HueCommandQueue commandQueue = new HueCommandQueue(this);
+
     private static final int RETRY_INTERVAL_IN_SEC = 5;
 
     /**
@@ -191,6 +193,20 @@ public class HueBridge {
         }
     }
 
+    /**
+     * @return The queue sending the state changes of the lights to the bridge.
+     */
+    public HueCommandQueue getCommandQueue() {
+        return commandQueue;
+    }
+
+    /**
+     * Stops sending state changes to the bridge.
+     */
+    public void dispose() {
+        commandQueue.stop();
+    }
+
     /**
      * @return The IP of the Hue bridge.
      */
@@ -8,14 +8,13 @@
  */
 package org.openhab.binding.hue.internal.hardware;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.openhab.binding.hue.internal.data.HueSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.sun.jersey.api.client.Client;
-import com.sun.jersey.api.client.ClientResponse;
-import com.sun.jersey.api.client.WebResource;
-
 /**
  * The representation of a physical Hue bulb, providing control of the bulbs
  * features.
@@ -58,8 +57,6 @@ public class HueBulb {
     /** The maximum saturation value of the Hue bulb */
     public static final int MAX_SATURATION = 254;
 
-    private Client client;
-
     public HueBulb(HueBridge connectedBridge, String deviceId) {
         this(connectedBridge, deviceId, connectedBridge.getSettings());
     }
@@ -76,29 +73,37 @@ public class HueBulb {
         this.bridge = connectedBridge;
         this.deviceId = deviceId;
         getStatus(settings);
-
-        this.client = Client.create();
-        this.client.setReadTimeout(1000);
-        this.client.setConnectTimeout(2000);
     }
 
     /**
      * Update the internal bulb status according to the Philips hub
      * 
      * @param HueSettings retrieved from hub
+     * @return true if the status differs from the previous one
      */
-    public void getStatus(HueSettings settings) {
+    public boolean getStatus(HueSettings settings) {
         if (settings.isValidId(deviceId)) {
-            this.isOn = settings.isBulbOn(this.deviceId);
-            this.isReachable = settings.isReachable(this.deviceId);
-            this.colorTemperature = settings.getColorTemperature(this.deviceId);
-            this.brightness = settings.getBrightness(this.deviceId);
-            this.hue = settings.getHue(this.deviceId);
-            this.saturation = settings.getSaturation(this.deviceId);
+            boolean newIsOn = settings.isBulbOn(this.deviceId);
+            boolean newIsReachable = settings.isReachable(this.deviceId);
+            int newColorTemperature = settings.getColorTemperature(this.deviceId);
+            int newBrightness = settings.getBrightness(this.deviceId);
+            int newHue = settings.getHue(this.deviceId);
+            int newSaturation = settings.getSaturation(this.deviceId);
+            boolean changed = newIsOn != isOn || newIsReachable != isReachable
+                    || newColorTemperature != colorTemperature || newBrightness != brightness || newHue != hue
+                    || newSaturation != saturation;
+
+            this.isOn = newIsOn;
+            this.isReachable = newIsReachable;
+            this.colorTemperature = newColorTemperature;
+            this.brightness = newBrightness;
+            this.hue = newHue;
+            this.saturation = newSaturation;
             // set isOsram16 to true if the bulb is of that special type
             if (settings.getModelId(this.deviceId).equalsIgnoreCase(OSRAM_PAR16_MODELID)) {
                 this.isOsramPar16 = true;
             }
+            return changed;
         } else {
             logger.warn("Not a valid id on the bridge: " + deviceId);
             throw new IllegalStateException("Not a valid id on the bridge: " + deviceId);
@@ -164,7 +169,7 @@ public class HueBulb {
 
         if (this.brightness > 0) {
             this.isOn = true;
-            executeMessage("{\"bri\":" + this.brightness + ",\"on\":true}");
+            executeMessage(state("bri", this.brightness, "on", true));
         } else {
             // Call the switchOn method to take care of Osram bulb while dimming
             this.switchOn(false);
@@ -187,15 +192,15 @@ public class HueBulb {
         this.isOn = powerOn;
         if (powerOn) {
             if (this.isOsramPar16) {
-                executeMessage("{\"on\":true,\"bri\":254}");
+                executeMessage(state("on", true, "bri", 254));
             } else {
-                executeMessage("{\"on\":true}");
+                executeMessage(state("on", true));
             }
         } else {
             if (this.isOsramPar16) {
-                executeMessage("{\"on\":false,\"transitiontime\":0}");
+                executeMessage(state("on", false, "transitiontime", 0));
             } else {
-                executeMessage("{\"on\":false}");
+                executeMessage(state("on", false));
             }
         }
         return true;
@@ -235,7 +240,7 @@ public class HueBulb {
         this.colorTemperature = this.colorTemperature < 154 ? 154 : this.colorTemperature;
         this.colorTemperature = this.colorTemperature > 500 ? 500 : this.colorTemperature;
 
-        executeMessage("{\"ct\":" + this.colorTemperature + "}");
+        executeMessage(state("ct", this.colorTemperature));
     }
 
     /**
@@ -270,29 +275,29 @@ public class HueBulb {
         this.brightness = brightness;
         this.isOn = true;
 
-        String input = "{\"hue\":" + this.hue + ",\"sat\":" + this.saturation + ",\"bri\":" + this.brightness
-                + ",\"on\":" + this.isOn + "}";
-        executeMessage(input);
+        executeMessage(state("hue", this.hue, "sat", this.saturation, "bri", this.brightness, "on", this.isOn));
     }
 
     /**
-     * Sends the message to the bulb for execution.
+     * Queues the state change for sending it to the bulb. Changes which are
+     * queued while the bulb is waiting are sent together.
      * 
-     * @param message
-     *            A Json message with the information that should be send to the
-     *            bulb.
+     * @param state
+     *            The state attributes that should be send to the bulb.
      */
-    private void executeMessage(String message) {
-        String targetURL = bridge.getUrl() + "lights/" + deviceId + "/state";
-        WebResource webResource = client.resource(targetURL);
-
-        ClientResponse response = webResource.type("application/json").put(ClientResponse.class, message);
-
-        logger.debug("Sent message: '" + message + "' to " + targetURL);
+    private void executeMessage(Map<String, Object> state) {
+        bridge.getCommandQueue().setLightState(deviceId, state);
+    }
 
-        if (response.getStatus() != 200) {
-            logger.error("Failed to connect to Hue bridge: HTTP error code: " + response.getStatus());
+    /**
+     * Creates the state attributes from alternating names and values.
+     */
+    private static Map<String, Object> state(Object... namesAndValues) {
+        Map<String, Object> state = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            state.put((String) namesAndValues[i], namesAndValues[i + 1]);
         }
+        return state;
     }
 
     /**
@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.hue.internal.hardware;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.WebResource;
+
+/**
+ * Sends the state changes of the lights to the bridge at the rate the bridge can handle. While a light is waiting to
+ * be sent, further changes of the light are merged into its pending state, so a dragged slider results in one request
+ * per send slot instead of one per step. Lights waiting with the same state are sent as one group action if they form
+ * a group of the bridge.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class HueCommandQueue implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HueCommandQueue.class);
+
+    /** minimum time in ms between two requests, the bridge handles about 10 light commands per second */
+    static final long COMMAND_INTERVAL = 100;
+
+    /** minimum time in ms between two group actions, the bridge handles about one per second */
+    static final long GROUP_COMMAND_INTERVAL = 1000;
+
+    private final HueBridge bridge;
+
+    private final Client client;
+
+    /** the pending state of each light in the order the lights were queued */
+    private final Map<String, Map<String, Object>> pending = new LinkedHashMap<String, Map<String, Object>>();
+
+    private Map<String, Set<String>> groups = Collections.emptyMap();
+
+    private Thread thread = null;
+
+    private long lastGroupCommand = 0;
+
+    /**
+     * Constructor for the HueCommandQueue.
+     *
+     * @param bridge
+     *            The bridge the commands are sent to.
+     */
+    public HueCommandQueue(HueBridge bridge) {
+        this.bridge = bridge;
+        this.client = Client.create();
+        this.client.setReadTimeout(1000);
+        this.client.setConnectTimeout(2000);
+    }
+
+    /**
+     * Queues a state change of a light. If the light is already waiting, the change is merged into its pending state.
+     *
+     * @param deviceId
+     *            The number under which the bulb is filed in the bridge.
+     * @param state
+     *            The state attributes to change, e.g. <code>bri</code> and <code>on</code>.
+     */
+    public synchronized void setLightState(String deviceId, Map<String, Object> state) {
+        Map<String, Object> merged = pending.get(deviceId);
+        if (merged == null) {
+            merged = new LinkedHashMap<String, Object>();
+            pending.put(deviceId, merged);
+        } else {
+            logger.trace("Merging state {} into pending state {} of light {}", state, merged, deviceId);
+        }
+
+        // the bridge prefers ct over hue and sat, so only the latest color mode may be sent
+        if (state.containsKey("ct")) {
+            merged.remove("hue");
+            merged.remove("sat");
+        } else if (state.containsKey("hue") || state.containsKey("sat")) {
+            merged.remove("ct");
+        }
+        merged.putAll(state);
+
+        if (thread == null) {
+            thread = new Thread(this, "Hue command queue");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        notifyAll();
+    }
+
+    /**
+     * @param deviceId
+     *            The number under which the bulb is filed in the bridge.
+     * @return true if a state change of the light has not been sent yet.
+     */
+    public synchronized boolean isPending(String deviceId) {
+        return pending.containsKey(deviceId);
+    }
+
+    /**
+     * Sets the groups of the bridge which may be used to send the same state to several lights at once.
+     *
+     * @param groups
+     *            The lights of each group by group id.
+     */
+    public synchronized void setGroups(Map<String, Set<String>> groups) {
+        this.groups = groups;
+    }
+
+    /**
+     * Stops sending. Pending state changes are dropped.
+     */
+    public synchronized void stop() {
+        pending.clear();
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    /**
+     * @{inheritDoc}
+     */
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                String path;
+                String message;
+                synchronized (this) {
+                    while (pending.isEmpty() && thread == Thread.currentThread()) {
+                        wait();
+                    }
+                    if (thread != Thread.currentThread()) {
+                        return;
+                    }
+
+                    Map.Entry<String, Map<String, Object>> next = pending.entrySet().iterator().next();
+                    message = toJson(next.getValue());
+                    String groupId = findGroup(next.getValue());
+                    if (groupId != null) {
+                        pending.keySet().removeAll(groups.get(groupId));
+                        lastGroupCommand = System.currentTimeMillis();
+                        path = "groups/" + groupId + "/action";
+                    } else {
+                        pending.remove(next.getKey());
+                        path = "lights/" + next.getKey() + "/state";
+                    }
+                }
+
+                send(path, message);
+                Thread.sleep(COMMAND_INTERVAL);
+            }
+        } catch (InterruptedException e) {
+            logger.debug("Hue command queue stopped");
+        }
+    }
+
+    /**
+     * Finds the biggest group whose lights are all waiting with the given state.
+     *
+     * @return the group id or null if the lights have to be sent one by one.
+     */
+    private String findGroup(Map<String, Object> state) {
+        if (System.currentTimeMillis() - lastGroupCommand < GROUP_COMMAND_INTERVAL) {
+            return null;
+        }
+
+        Set<String> lights = new HashSet<String>();
+        for (Map.Entry<String, Map<String, Object>> entry : pending.entrySet()) {
+            if (entry.getValue().equals(state)) {
+                lights.add(entry.getKey());
+            }
+        }
+        if (lights.size() < 2) {
+            return null;
+        }
+
+        String groupId = null;
+        int groupSize = 1;
+        for (Map.Entry<String, Set<String>> group : groups.entrySet()) {
+            Set<String> groupLights = group.getValue();
+            if (groupLights.size() > groupSize && lights.containsAll(groupLights)) {
+                groupId = group.getKey();
+                groupSize = groupLights.size();
+            }
+        }
+        return groupId;
+    }
+
+    private static String toJson(Map<String, Object> state) {
+        StringBuilder json = new StringBuilder("{");
+        for (Map.Entry<String, Object> attribute : state.entrySet()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append('"').append(attribute.getKey()).append("\":").append(attribute.getValue());
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Sends the message to the bridge for execution. Overridden by tests to record the requests.
+     *
+     * @param path
+     *            The resource of the light or group below the api url.
+     * @param message
+     *            A Json message with the information that should be send.
+     */
+    void send(String path, String message) {
+        String targetURL = bridge.getUrl() + path;
+        WebResource webResource = client.resource(targetURL);
+
+        try {
+            ClientResponse response = webResource.type("application/json").put(ClientResponse.class, message);
+
+            logger.debug("Sent message: '" + message + "' to " + targetURL);
+
+            if (response.getStatus() != 200) {
+                logger.error("Failed to connect to Hue bridge: HTTP error code: " + response.getStatus());
+            }
+        } catch (ClientHandlerException e) {
+            logger.warn("Failed to send message '{}' to Hue bridge: {}", message, e.getMessage());
+        }
+    }
+}
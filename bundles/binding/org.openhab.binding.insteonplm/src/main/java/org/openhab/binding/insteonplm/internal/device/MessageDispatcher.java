@@ -132,7 +132,7 @@ public abstract class MessageDispatcher {
             boolean isConsumed = false;
             int key = -1;
             try {
-                cmd = msg.getByte("Cmd");
+                cmd = msg.getCmd();
                 cmd1 = msg.getByte("command1");
             } catch (FieldException e) {
                 logger.debug("no command found, dropping msg {}", msg);
@@ -197,7 +197,7 @@ public abstract class MessageDispatcher {
             boolean isConsumed = false;
             int key = -1;
             try {
-                cmd = msg.getByte("Cmd");
+                cmd = msg.getCmd();
                 cmd1 = msg.getByte("command1");
             } catch (FieldException e) {
                 logger.debug("no command found, dropping msg {}", msg);
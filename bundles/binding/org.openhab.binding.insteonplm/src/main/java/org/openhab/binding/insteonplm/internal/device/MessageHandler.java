@@ -240,7 +240,7 @@ public abstract class MessageHandler {
     protected boolean isDuplicate(Msg msg) {
         boolean isDuplicate = false;
         try {
-            MsgType t = MsgType.s_fromValue(msg.getByte("messageFlags"));
+            MsgType t = MsgType.s_fromValue(msg.getMessageFlags());
             int hops = msg.getHopsLeft();
             if (t == MsgType.ALL_LINK_BROADCAST) {
                 int group = msg.getAddress("toAddress").getLowByte() & 0xff;
@@ -841,7 +841,7 @@ public abstract class MessageHandler {
             byte cmd = 0x00;
             byte cmd2 = 0x00;
             try {
-                cmd = msg.getByte("Cmd");
+                cmd = msg.getCmd();
                 cmd2 = msg.getByte("command2");
             } catch (FieldException e) {
                 logger.debug("{} no cmd found, dropping msg {}", nm(), msg);
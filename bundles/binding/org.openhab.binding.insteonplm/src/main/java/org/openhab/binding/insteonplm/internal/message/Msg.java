@@ -66,10 +66,10 @@ public class Msg {
 
     // has the structure of all known messages
     private static final HashMap<String, Msg> s_msgMap = new HashMap<String, Msg>();
-    // maps between command number and the length of the header
-    private static final HashMap<Integer, Integer> s_headerMap = new HashMap<Integer, Integer>();
-    // has templates for all message from modem to host
-    private static final HashMap<Integer, Msg> s_replyMap = new HashMap<Integer, Msg>();
+    // maps between command number and the length of the header, indexed by unsigned command number
+    private static final int[] s_headerLengths = new int[256];
+    // has templates for all message from modem to host, indexed by s_cmdToKey()
+    private static final Msg[] s_replyTemplates = new Msg[512];
 
     private int m_headerLength = -1;
     private byte[] m_data = null;
@@ -100,8 +100,8 @@ public class Msg {
     public Msg(Msg m) {
         m_headerLength = m.m_headerLength;
         m_data = m.m_data.clone();
-        // the message definition usually doesn't change, but just to be sure...
-        m_definition = new MsgDefinition(m.m_definition);
+        // the message definitions don't change once the templates are loaded, so share it
+        m_definition = m.m_definition;
         m_direction = m.m_direction;
     }
 
@@ -124,7 +124,7 @@ public class Msg {
             logger.error("got field exception while parsing xml insteon message definitions", e);
         }
         s_buildHeaderMap();
-        s_buildLengthMap();
+        s_buildReplyMap();
     }
 
     //
@@ -174,14 +174,11 @@ public class Msg {
         if (m_data == null || getLength() < 2) {
             return false;
         }
-        if (m_definition == null) {
+        if (m_definition == null || m_definition.getMessageFlagsField() == null) {
             return false;
         }
-        if (!m_definition.containsField("messageFlags")) {
-            return (false);
-        }
         try {
-            byte flags = getByte("messageFlags");
+            byte flags = getMessageFlags();
             return ((flags & 0x10) == 0x10);
         } catch (FieldException e) {
             // do nothing
@@ -192,24 +189,33 @@ public class Msg {
     public boolean isUnsolicited() {
         // if the message has an ACK/NACK, it is in response to our message,
         // otherwise it is out-of-band, i.e. unsolicited
-        return (m_definition != null) && (!m_definition.containsField("ACK/NACK"));
+        return (m_definition != null) && (!m_definition.hasAckNack());
     }
 
     public boolean isEcho() {
         return isPureNack() || !isUnsolicited();
     }
 
-    public boolean isOfType(MsgType mt) {
+    /**
+     * Returns the message type encoded in the message flags
+     *
+     * @return the message type, or null if the message has no flags
+     */
+    public MsgType getMsgType() {
         try {
-            MsgType t = MsgType.s_fromValue(getByte("messageFlags"));
-            return (t == mt);
+            return MsgType.s_fromValue(getMessageFlags());
         } catch (FieldException e) {
-            return false;
+            return null;
         }
     }
 
+    public boolean isOfType(MsgType mt) {
+        return getMsgType() == mt;
+    }
+
     public boolean isBroadcast() {
-        return isOfType(MsgType.ALL_LINK_BROADCAST) || isOfType(MsgType.BROADCAST);
+        MsgType t = getMsgType();
+        return t == MsgType.ALL_LINK_BROADCAST || t == MsgType.BROADCAST;
     }
 
     public boolean isCleanup() {
@@ -217,7 +223,8 @@ public class Msg {
     }
 
     public boolean isAllLink() {
-        return isOfType(MsgType.ALL_LINK_BROADCAST) || isOfType(MsgType.ALL_LINK_CLEANUP);
+        MsgType t = getMsgType();
+        return t == MsgType.ALL_LINK_BROADCAST || t == MsgType.ALL_LINK_CLEANUP;
     }
 
     public boolean isAckOfDirect() {
@@ -225,12 +232,13 @@ public class Msg {
     }
 
     public boolean isAllLinkCleanupAckOrNack() {
-        return isOfType(MsgType.ALL_LINK_CLEANUP_ACK) || isOfType(MsgType.ALL_LINK_CLEANUP_NACK);
+        MsgType t = getMsgType();
+        return t == MsgType.ALL_LINK_CLEANUP_ACK || t == MsgType.ALL_LINK_CLEANUP_NACK;
     }
 
     public boolean isX10() {
         try {
-            int cmd = getByte("Cmd") & 0xff;
+            int cmd = getCmd() & 0xff;
             if (cmd == 0x63 || cmd == 0x52) {
                 return true;
             }
@@ -268,10 +276,36 @@ public class Msg {
     }
 
     public int getHopsLeft() throws FieldException {
-        int hops = (getByte("messageFlags") & 0x0c) >> 2;
+        int hops = (getMessageFlags() & 0x0c) >> 2;
         return hops;
     }
 
+    /**
+     * Fetches the message flags without looking up the field by name
+     *
+     * @return the message flags
+     * @throws FieldException if the message has no message flags
+     */
+    public byte getMessageFlags() throws FieldException {
+        if (m_definition == null || m_definition.getMessageFlagsField() == null) {
+            throw new FieldException("field messageFlags not found");
+        }
+        return m_definition.getMessageFlagsField().getByte(m_data);
+    }
+
+    /**
+     * Fetches the modem command without looking up the field by name
+     *
+     * @return the modem command
+     * @throws FieldException if the message has no command field
+     */
+    public byte getCmd() throws FieldException {
+        if (m_definition == null || m_definition.getCmdField() == null) {
+            throw new FieldException("field Cmd not found");
+        }
+        return m_definition.getCmdField().getByte(m_data);
+    }
+
     /**
      * Will initialize the message with a byte[], an offset, and a length
      * 
@@ -527,7 +561,7 @@ public class Msg {
         if (m_buf == null || m_buf.length < 2) {
             return null;
         }
-        Msg template = s_replyMap.get(s_cmdToKey(m_buf[1], isExtended));
+        Msg template = s_replyTemplates[s_cmdToKey(m_buf[1], isExtended)];
         if (template == null) {
             return null; // cannot find lookup map
         }
@@ -547,11 +581,7 @@ public class Msg {
      * @return the length of the header to expect
      */
     public static int s_getHeaderLength(byte cmd) {
-        Integer len = s_headerMap.get(new Integer(cmd));
-        if (len == null) {
-            return (-1); // not found
-        }
-        return len;
+        return s_headerLengths[cmd & 0xff]; // -1 if not found
     }
 
     /**
@@ -562,8 +592,7 @@ public class Msg {
      * @return message length, or -1 if length cannot be determined
      */
     public static int s_getMessageLength(byte b, boolean isExtended) {
-        int key = s_cmdToKey(b, isExtended);
-        Msg msg = s_replyMap.get(key);
+        Msg msg = s_replyTemplates[s_cmdToKey(b, isExtended)];
         if (msg == null) {
             return -1;
         }
@@ -608,22 +637,22 @@ public class Msg {
     }
 
     private static int s_cmdToKey(byte cmd, boolean isExtended) {
-        return (cmd + (isExtended ? 256 : 0));
+        return ((cmd & 0xff) + (isExtended ? 256 : 0));
     }
 
     private static void s_buildHeaderMap() {
+        Arrays.fill(s_headerLengths, -1);
         for (Msg m : s_msgMap.values()) {
             if (m.getDirection() == Direction.FROM_MODEM) {
-                s_headerMap.put(new Integer(m.getCommandNumber()), m.getHeaderLength());
+                s_headerLengths[m.getCommandNumber() & 0xff] = m.getHeaderLength();
             }
         }
     }
 
-    private static void s_buildLengthMap() {
+    private static void s_buildReplyMap() {
         for (Msg m : s_msgMap.values()) {
             if (m.getDirection() == Direction.FROM_MODEM) {
-                Integer key = new Integer(s_cmdToKey(m.getCommandNumber(), m.isExtended()));
-                s_replyMap.put(key, m);
+                s_replyTemplates[s_cmdToKey(m.getCommandNumber(), m.isExtended())] = m;
             }
         }
     }
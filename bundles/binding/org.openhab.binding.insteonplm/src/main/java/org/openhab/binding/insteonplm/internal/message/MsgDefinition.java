@@ -15,12 +15,20 @@ import java.util.HashMap;
  * For more info, see the public Insteon Developer's Guide, 2nd edition,
  * and the Insteon Modem Developer's Guide.
  *
+ * The fields that are read for every message (message flags, command
+ * and ACK/NACK) are resolved when they are added, so they can be read
+ * without a lookup by name. Definitions are built once when the message
+ * templates are loaded and are shared by all messages created from them.
+ *
  * @author Daniel Pfrommer
  * @since 1.5.0
  */
 
 public class MsgDefinition {
     private HashMap<String, Field> m_fields = new HashMap<String, Field>();
+    private Field m_messageFlags = null;
+    private Field m_cmd = null;
+    private Field m_ackNack = null;
 
     MsgDefinition() {
     }
@@ -32,6 +40,9 @@ public class MsgDefinition {
      */
     MsgDefinition(MsgDefinition m) {
         m_fields = new HashMap<String, Field>(m.m_fields);
+        m_messageFlags = m.m_messageFlags;
+        m_cmd = m.m_cmd;
+        m_ackNack = m.m_ackNack;
     }
 
     public HashMap<String, Field> getFields() {
@@ -44,6 +55,34 @@ public class MsgDefinition {
 
     public void addField(Field field) {
         m_fields.put(field.getName(), field);
+        if (field.getName().equals("messageFlags")) {
+            m_messageFlags = field;
+        } else if (field.getName().equals("Cmd")) {
+            m_cmd = field;
+        } else if (field.getName().equals("ACK/NACK")) {
+            m_ackNack = field;
+        }
+    }
+
+    /**
+     * @return the message flags field, or null if the message has none
+     */
+    public Field getMessageFlagsField() {
+        return m_messageFlags;
+    }
+
+    /**
+     * @return the command field, or null if the message has none
+     */
+    public Field getCmdField() {
+        return m_cmd;
+    }
+
+    /**
+     * @return true if the message has an ACK/NACK field
+     */
+    public boolean hasAckNack() {
+        return m_ackNack != null;
     }
 
     /**
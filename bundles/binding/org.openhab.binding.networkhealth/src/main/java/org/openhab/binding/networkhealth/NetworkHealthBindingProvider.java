@@ -37,4 +37,10 @@ public interface NetworkHealthBindingProvider extends BindingProvider {
      */
     public int getTimeout(String itemName);
 
+    /**
+     * @return <code>true</code> if the given <code>itemName</code> receives the round trip time
+     *         in milliseconds instead of the reachability
+     */
+    public boolean isRoundTripTime(String itemName);
+
 }
@@ -8,16 +8,17 @@
  */
 package org.openhab.binding.networkhealth.internal;
 
-import java.io.IOException;
-import java.net.SocketTimeoutException;
 import java.util.Dictionary;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.openhab.binding.networkhealth.NetworkHealthBindingProvider;
 import org.openhab.core.binding.AbstractActiveBinding;
+import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.OnOffType;
-import org.openhab.io.net.actions.Ping;
+import org.openhab.core.types.UnDefType;
+import org.openhab.io.net.actions.PingEngine;
+import org.openhab.io.net.actions.PingEngine.Target;
 import org.osgi.service.cm.ConfigurationException;
 import org.osgi.service.cm.ManagedService;
 import org.slf4j.Logger;
@@ -36,9 +37,12 @@ public class NetworkHealthBinding extends AbstractActiveBinding<NetworkHealthBin
 
     private static final Logger logger = LoggerFactory.getLogger(NetworkHealthBinding.class);
 
-    /** the port to use for connecting to a given host (defaults to 5000) */
+    /** the timeout to use for connecting to a given host (defaults to 5000) */
     private int timeout = 5000;
 
+    /** the checks of the hosts are started at random times within this period (in ms, defaults to 1000) */
+    private int spread = 1000;
+
     /** the refresh interval which is used to poll the vitality of the given hosts (defaults to 60000ms) */
     private long refreshInterval = 60000;
 
@@ -72,44 +76,51 @@ public class NetworkHealthBinding extends AbstractActiveBinding<NetworkHealthBin
 
     /**
      * @{inheritDoc}
+     *
+     * All hosts are checked at once by the {@link PingEngine}, so the duration of a cycle is about the longest
+     * timeout plus the spread instead of the sum of the timeouts of all unreachable hosts.
      */
     @Override
     public void execute() {
+        Map<String, Target> itemTargets = new HashMap<String, Target>();
+        Map<String, Boolean> roundTripTimeItems = new HashMap<String, Boolean>();
         for (NetworkHealthBindingProvider provider : providers) {
             for (String itemName : provider.getItemNames()) {
-
                 String hostname = provider.getHostname(itemName);
-                int port = provider.getPort(itemName);
-
-                if (provider.getTimeout(itemName) > 0) {
-                    timeout = provider.getTimeout(itemName);
+                if (hostname == null) {
+                    continue;
                 }
+                int itemTimeout = provider.getTimeout(itemName) > 0 ? provider.getTimeout(itemName) : timeout;
+                itemTargets.put(itemName, new Target(hostname, provider.getPort(itemName), itemTimeout));
+                roundTripTimeItems.put(itemName, provider.isRoundTripTime(itemName));
+            }
+        }
+        if (itemTargets.isEmpty()) {
+            return;
+        }
 
-                boolean success = false;
-
-                try {
-                    success = Ping.checkVitality(hostname, port, timeout);
-
-                    if(success) {
-                        logger.debug("established connection [host '{}' port '{}' timeout '{}']",
-                            new Object[] { hostname, port, timeout });
-                    } else {
-                        logger.debug("couldn't establish connection [host '{}' port '{}' timeout '{}']",
-                            new Object[] { hostname, port, timeout });
-                    }
-                } catch (SocketTimeoutException se) {
-                    logger.debug("timed out while connecting [host '{}' port '{}' timeout '{}']",
-                            new Object[] { hostname, port, timeout });
-                } catch (IOException ioe) {
-                    logger.debug("couldn't establish network connection [host '{}' port '{}' timeout '{}']",
-                            new Object[] { hostname, port, timeout });
-                }
-                if (eventPublisher != null) {
+        Map<Target, Long> roundTripTimes = PingEngine.check(itemTargets.values(), spread);
+
+        for (Map.Entry<String, Target> itemTarget : itemTargets.entrySet()) {
+            String itemName = itemTarget.getKey();
+            Target target = itemTarget.getValue();
+            long roundTripTime = roundTripTimes.get(target);
+            boolean success = roundTripTime >= 0;
+
+            if (success) {
+                logger.debug("established connection in {}ms [host '{}' port '{}' timeout '{}']",
+                        new Object[] { roundTripTime, target.getHost(), target.getPort(), target.getTimeout() });
+            } else {
+                logger.debug("couldn't establish connection [host '{}' port '{}' timeout '{}']",
+                        new Object[] { target.getHost(), target.getPort(), target.getTimeout() });
+            }
 
+            if (eventPublisher != null) {
+                if (roundTripTimeItems.get(itemName)) {
+                    eventPublisher.postUpdate(itemName, success ? new DecimalType(roundTripTime) : UnDefType.UNDEF);
+                } else if (shouldPostUpdate(target.getHost(), target.getPort(), success)) {
                     // check cached state and update only if state differs
-                    if (shouldPostUpdate(hostname, port, success)) {
-                        eventPublisher.postUpdate(itemName, success ? OnOffType.ON : OnOffType.OFF);
-                    }
+                    eventPublisher.postUpdate(itemName, success ? OnOffType.ON : OnOffType.OFF);
                 }
             }
         }
@@ -161,6 +172,11 @@ public class NetworkHealthBinding extends AbstractActiveBinding<NetworkHealthBin
                 timeout = Integer.parseInt(timeoutString);
             }
 
+            String spreadString = (String) config.get("spread");
+            if (spreadString != null && !spreadString.isEmpty()) {
+                spread = Integer.parseInt(spreadString);
+            }
+
             String refreshIntervalString = (String) config.get("refresh");
             if (refreshIntervalString != null && !refreshIntervalString.isEmpty()) {
                 refreshInterval = Long.parseLong(refreshIntervalString);
@@ -0,0 +1,231 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.onewire.internal.connection;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.onewire.internal.deviceproperties.AbstractOneWireDevicePropertyBindingConfig;
+import org.openhab.binding.onewire.internal.deviceproperties.OneWireDevicePropertyNumberBindingConfig;
+import org.openhab.core.metrics.Gauge;
+import org.openhab.core.metrics.Metric;
+import org.openhab.core.metrics.MetricsRegistry;
+import org.openhab.model.item.binding.BindingConfigParseException;
+import org.osgi.service.cm.ConfigurationException;
+import org.owfs.jowfsclient.OwfsConnection;
+import org.owfs.jowfsclient.OwfsConnectionConfig;
+import org.owfs.jowfsclient.OwfsException;
+
+/**
+ * Tests of the batch reads of {@link OneWireConnection} against a connection recording the requests.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class OneWireConnectionTest {
+
+    private RecordingConnection connection;
+
+    @Before
+    public void setUp() {
+        connection = new RecordingConnection();
+        OneWireConnection.setConnection(connection);
+    }
+
+    @After
+    public void tearDown() throws ConfigurationException {
+        configure("true");
+        OneWireConnection.setConnection(null);
+    }
+
+    @Test
+    public void testBusPath() {
+        assertEquals("bus.0", OneWireConnection.getBusPath("bus.0/28.67C6697351FF"));
+        assertEquals("bus.0/1F.1234", OneWireConnection.getBusPath("/bus.0/1F.1234/28.67C6697351FF/"));
+        assertEquals("", OneWireConnection.getBusPath("28.67C6697351FF"));
+        assertEquals("", OneWireConnection.getBusPath(null));
+    }
+
+    @Test
+    public void testGroupsByBus() throws BindingConfigParseException {
+        AbstractOneWireDevicePropertyBindingConfig first = config("bus.0/28.A", "temperature");
+        AbstractOneWireDevicePropertyBindingConfig second = config("bus.1/28.B", "temperature");
+        AbstractOneWireDevicePropertyBindingConfig third = config("bus.0/26.C", "humidity");
+        AbstractOneWireDevicePropertyBindingConfig root = config("28.D", "temperature");
+
+        Map<String, List<AbstractOneWireDevicePropertyBindingConfig>> busses = OneWireConnection
+                .groupByBus(Arrays.asList(first, second, third, root));
+
+        assertEquals(Arrays.asList("bus.0", "bus.1", ""), new ArrayList<String>(busses.keySet()));
+        assertEquals(Arrays.asList(first, third), busses.get("bus.0"));
+        assertEquals(Arrays.asList(second), busses.get("bus.1"));
+        assertEquals(Arrays.asList(root), busses.get(""));
+    }
+
+    @Test
+    public void testCountsTemperatures() throws BindingConfigParseException {
+        assertEquals(2, OneWireConnection.countTemperatureProperties(Arrays.asList(config("28.A", "temperature"),
+                config("28.B", "temperature12"), config("26.C", "humidity"))));
+        assertEquals(0, OneWireConnection.countTemperatureProperties(Arrays.asList(config("26.C", "humidity"))));
+    }
+
+    @Test
+    public void testConvertsTemperaturesSimultaneously() throws BindingConfigParseException {
+        AbstractOneWireDevicePropertyBindingConfig first = config("bus.0/28.A", "temperature");
+        AbstractOneWireDevicePropertyBindingConfig second = config("bus.0/28.B", "temperature");
+        AbstractOneWireDevicePropertyBindingConfig single = config("bus.1/28.C", "temperature");
+        AbstractOneWireDevicePropertyBindingConfig humidity = config("bus.1/26.D", "humidity");
+
+        Map<AbstractOneWireDevicePropertyBindingConfig, String> values = OneWireConnection
+                .readFromOneWire(Arrays.asList(first, single, second, humidity));
+
+        assertEquals(4, values.size());
+        assertEquals("21.5", values.get(first));
+        assertEquals("21.5", values.get(humidity));
+
+        // the conversion is only triggered on the bus with more than one temperature, before its reads
+        assertEquals(Arrays.asList("write bus.0/simultaneous/temperature=1", "read bus.0/28.A/temperature",
+                "read bus.0/28.B/temperature", "read bus.1/28.C/temperature", "read bus.1/26.D/humidity"),
+                connection.getRequests("write", "read"));
+    }
+
+    @Test
+    public void testConvertsOnRootBus() throws BindingConfigParseException {
+        OneWireConnection.readFromOneWire(Arrays.asList(config("28.A", "temperature"), config("28.B", "temperature")));
+
+        assertEquals("write simultaneous/temperature=1", connection.getRequests("write").get(0));
+    }
+
+    @Test
+    public void testSimultaneousConversionDisabled() throws BindingConfigParseException, ConfigurationException {
+        configure("false");
+
+        OneWireConnection.readFromOneWire(
+                Arrays.asList(config("bus.0/28.A", "temperature"), config("bus.0/28.B", "temperature")));
+
+        assertTrue(connection.getRequests("write").isEmpty());
+        assertEquals(2, connection.getRequests("read").size());
+    }
+
+    @Test
+    public void testChecksDeviceOncePerBatch() throws BindingConfigParseException {
+        OneWireConnection.readFromOneWire(Arrays.asList(config("bus.0/28.A", "temperature"),
+                config("bus.0/28.A", "temperature12"), config("bus.0/28.A", "power")));
+
+        assertEquals(1, connection.getRequests("exists").size());
+        assertEquals(3, connection.getRequests("read").size());
+    }
+
+    @Test
+    public void testMissingDeviceIsNotRead() throws BindingConfigParseException {
+        connection.missing = "bus.0";
+        AbstractOneWireDevicePropertyBindingConfig missing = config("bus.0/28.A", "temperature");
+
+        Map<AbstractOneWireDevicePropertyBindingConfig, String> values = OneWireConnection
+                .readFromOneWire(Arrays.asList(missing));
+
+        assertTrue(values.containsKey(missing));
+        assertNull(values.get(missing));
+        assertTrue(connection.getRequests("read").isEmpty());
+    }
+
+    @Test
+    public void testPublishesBusCycleTime() throws BindingConfigParseException {
+        MetricsRegistry.clear();
+        OneWireConnection.readFromOneWire(Arrays.asList(config("bus.7/28.A", "temperature")));
+
+        Metric metric = null;
+        for (Metric candidate : MetricsRegistry.getMetrics()) {
+            if (candidate.getId().equals("openhab_onewire_bus_cycle_seconds{bus=\"bus.7\"}")) {
+                metric = candidate;
+            }
+        }
+        assertNotNull(metric);
+        assertTrue(((Gauge) metric).getValue() >= 0);
+    }
+
+    private static void configure(String simultaneousConversion) throws ConfigurationException {
+        Hashtable<String, Object> config = new Hashtable<String, Object>();
+        config.put("ip", "127.0.0.1");
+        config.put("simultaneous_conversion", simultaneousConversion);
+        OneWireConnection.updated(config);
+    }
+
+    private static AbstractOneWireDevicePropertyBindingConfig config(String deviceId, String propertyName)
+            throws BindingConfigParseException {
+        return new OneWireDevicePropertyNumberBindingConfig("deviceId=" + deviceId + ";propertyName=" + propertyName);
+    }
+
+    /**
+     * Records the requests and answers every read with the same value.
+     */
+    private static class RecordingConnection implements OwfsConnection {
+
+        private final List<String> requests = new ArrayList<String>();
+
+        String missing;
+
+        List<String> getRequests(String... types) {
+            List<String> result = new ArrayList<String>();
+            for (String request : requests) {
+                for (String type : types) {
+                    if (request.startsWith(type + " ")) {
+                        result.add(request);
+                    }
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void setConfiguration(OwfsConnectionConfig config) {
+        }
+
+        @Override
+        public void disconnect() throws IOException {
+        }
+
+        @Override
+        public String read(String path) throws IOException, OwfsException {
+            requests.add("read " + path);
+            return "21.5";
+        }
+
+        @Override
+        public void write(String path, String value) throws IOException, OwfsException {
+            requests.add("write " + path + "=" + value);
+        }
+
+        @Override
+        public Boolean exists(String path) throws IOException, OwfsException {
+            requests.add("exists " + path);
+            return !path.equals(missing);
+        }
+
+        @Override
+        public List<String> listDirectoryAll(String path) throws OwfsException, IOException {
+            return new ArrayList<String>();
+        }
+
+        @Override
+        public List<String> listDirectory(String path) throws OwfsException, IOException {
+            return new ArrayList<String>();
+        }
+    }
+
+}
@@ -8,8 +8,10 @@
  */
 package org.openhab.binding.onewire.internal;
 
+import java.util.ArrayList;
 import java.util.Dictionary;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -258,6 +260,41 @@ public class OneWireBinding extends AbstractBinding<OneWireBindingProvider>
         updateItemFromOneWire(lvItemName);
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.openhab.binding.onewire.internal.listener.
+     * OneWireDevicePropertyWantsUpdateListener#
+     * devicePropertiesWantUpdate(java.util.List)
+     */
+    @Override
+    public void devicePropertiesWantUpdate(List<OneWireDevicePropertyWantsUpdateEvent> pvWantsUpdateEvents) {
+        if (OneWireConnection.getConnection() == null) {
+            return;
+        }
+
+        List<String> lvItemNames = new ArrayList<String>(pvWantsUpdateEvents.size());
+        List<AbstractOneWireDevicePropertyBindingConfig> lvBindingConfigs = new ArrayList<AbstractOneWireDevicePropertyBindingConfig>(
+                pvWantsUpdateEvents.size());
+        for (OneWireDevicePropertyWantsUpdateEvent lvEvent : pvWantsUpdateEvents) {
+            String lvItemName = lvEvent.getItemName();
+            AbstractOneWireDevicePropertyBindingConfig lvBindingConfig = getDevicePropertyBindingConfig(lvItemName);
+            if (lvBindingConfig != null) {
+                lvItemNames.add(lvItemName);
+                lvBindingConfigs.add(lvBindingConfig);
+            }
+        }
+
+        logger.debug("{} items want update!", lvItemNames.size());
+
+        Map<AbstractOneWireDevicePropertyBindingConfig, String> lvReadValues = OneWireConnection
+                .readFromOneWire(lvBindingConfigs);
+        for (int i = 0; i < lvItemNames.size(); i++) {
+            AbstractOneWireDevicePropertyBindingConfig lvBindingConfig = lvBindingConfigs.get(i);
+            updateItem(lvItemNames.get(i), lvBindingConfig, lvReadValues.get(lvBindingConfig));
+        }
+    }
+
     /**
      *
      * @param pvItemName
@@ -291,37 +328,62 @@ public class OneWireBinding extends AbstractBinding<OneWireBindingProvider>
     public void updateItemFromOneWire(String pvItemName) {
         if (OneWireConnection.getConnection() != null) {
 
-            AbstractOneWireDevicePropertyBindingConfig pvBindingConfig = (AbstractOneWireDevicePropertyBindingConfig) getBindingConfig(
-                    pvItemName);
+            AbstractOneWireDevicePropertyBindingConfig pvBindingConfig = getDevicePropertyBindingConfig(pvItemName);
 
             if (pvBindingConfig == null) {
-                logger.error("no bindingConfig found for itemName={} cannot update! It will be removed from scheduler",
-                        pvItemName);
-                ivOneWireReaderScheduler.removeItem(pvItemName);
                 return;
             }
 
             String lvReadValue = OneWireConnection.readFromOneWire(pvBindingConfig);
 
-            Item lvItem = getItem(pvItemName);
-            if (lvReadValue != null) {
-                Type lvNewType = pvBindingConfig.convertReadValueToType(lvReadValue);
-                if (lvItem != null) {
-                    postUpdate(lvItem, lvNewType);
-                } else {
-                    logger.error("There is no Item for ItemName={}", pvItemName);
-                }
-            } else {
-                String lvLogText = "Set Item for itemName=" + pvItemName
-                        + " to Undefined, because the readvalue is null";
-                if (pvBindingConfig.isIgnoreReadErrors()) {
-                    logger.debug(lvLogText);
-                } else {
-                    logger.error(lvLogText);
-                }
+            updateItem(pvItemName, pvBindingConfig, lvReadValue);
+        }
+    }
+
+    /**
+     *
+     * @param pvItemName
+     * @return the corresponding AbstractOneWireDevicePropertyBindingConfig to the given <code>pvItemName</code>, or
+     *         null if there is none and the item was removed from the scheduler
+     */
+    private AbstractOneWireDevicePropertyBindingConfig getDevicePropertyBindingConfig(String pvItemName) {
+        AbstractOneWireDevicePropertyBindingConfig lvBindingConfig = (AbstractOneWireDevicePropertyBindingConfig) getBindingConfig(
+                pvItemName);
+
+        if (lvBindingConfig == null) {
+            logger.error("no bindingConfig found for itemName={} cannot update! It will be removed from scheduler",
+                    pvItemName);
+            ivOneWireReaderScheduler.removeItem(pvItemName);
+        }
+        return lvBindingConfig;
+    }
 
-                postUpdate(lvItem, UnDefType.UNDEF);
+    /**
+     * Update an item with a value read from its 1-wire device property
+     *
+     * @param pvItemName
+     * @param pvBindingConfig
+     * @param pvReadValue the read value, null if it couldn't be read
+     */
+    private void updateItem(String pvItemName, AbstractOneWireDevicePropertyBindingConfig pvBindingConfig,
+            String pvReadValue) {
+        Item lvItem = getItem(pvItemName);
+        if (pvReadValue != null) {
+            Type lvNewType = pvBindingConfig.convertReadValueToType(pvReadValue);
+            if (lvItem != null) {
+                postUpdate(lvItem, lvNewType);
+            } else {
+                logger.error("There is no Item for ItemName={}", pvItemName);
             }
+        } else {
+            String lvLogText = "Set Item for itemName=" + pvItemName + " to Undefined, because the readvalue is null";
+            if (pvBindingConfig.isIgnoreReadErrors()) {
+                logger.debug(lvLogText);
+            } else {
+                logger.error(lvLogText);
+            }
+
+            postUpdate(lvItem, UnDefType.UNDEF);
         }
     }
 
@@ -9,12 +9,21 @@
 package org.openhab.binding.onewire.internal.connection;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Dictionary;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.onewire.internal.deviceproperties.AbstractOneWireDevicePropertyBindingConfig;
+import org.openhab.core.metrics.Gauge;
+import org.openhab.core.metrics.MetricsRegistry;
 import org.osgi.service.cm.ConfigurationException;
 import org.owfs.jowfsclient.Enums.OwBusReturn;
 import org.owfs.jowfsclient.Enums.OwPersistence;
@@ -75,11 +84,23 @@ public class OneWireConnection {
      */
     private static int cvServerRetryInterval = 60;
 
+    /**
+     * Trigger a simultaneous temperature conversion on each bus before reading a batch with more than one
+     * temperature (optional, defaults to true)
+     */
+    private static boolean cvSimultaneousConversion = true;
+
     /**
      * signals that the connection is established
      */
     private static boolean cvIsEstablished = false;
 
+    /**
+     * Duration in milliseconds of the last read cycle of each bus, published as gauge
+     * <code>openhab_onewire_bus_cycle_seconds</code>
+     */
+    private static Map<String, Long> cvBusCycleTimes = new ConcurrentHashMap<String, Long>();
+
     /**
      * Returns an OwfsConnection
      *
@@ -94,6 +115,16 @@ public class OneWireConnection {
         return cvOwConnection;
     }
 
+    /**
+     * Replaces the connection to the owserver, used by tests
+     *
+     * @param pvConnection
+     */
+    static synchronized void setConnection(OwfsConnection pvConnection) {
+        cvOwConnection = pvConnection;
+        cvIsEstablished = pvConnection != null;
+    }
+
     /**
      * Tries to connect either by IP or serial bus, depending on supplied config data.
      *
@@ -238,6 +269,12 @@ public class OneWireConnection {
         }
         logger.debug("onewire:server_retryInterval = {} seconds", cvServerRetryInterval);
 
+        String lvSimultaneousString = Objects.toString(pvConfig.get("simultaneous_conversion"), null);
+        if (StringUtils.isNotBlank(lvSimultaneousString)) {
+            cvSimultaneousConversion = Boolean.parseBoolean(lvSimultaneousString);
+        }
+        logger.debug("onewire:simultaneous_conversion = {}", cvSimultaneousConversion);
+
         if (cvOwConnection == null) {
             logger.debug("Not connected to owserver yet. Trying to connect...");
             if (!connect()) {
@@ -280,14 +317,163 @@ public class OneWireConnection {
      * @return device property value as String
      */
     public static synchronized String readFromOneWire(AbstractOneWireDevicePropertyBindingConfig pvBindingConfig) {
+        return readFromOneWire(pvBindingConfig, null);
+    }
+
+    /**
+     * Reads the values of several device properties from the 1-Wire network. The properties are grouped by bus
+     * and all reads are sent over the persistent owserver connection, one bus after the other. If a bus has more than
+     * one temperature property, a simultaneous conversion is triggered first, so the sensors convert together instead
+     * of waiting for their own conversion on every read.
+     *
+     * @param pvBindingConfigs
+     * @return the read values for the binding configs, a value is null if it couldn't be read
+     */
+    public static synchronized Map<AbstractOneWireDevicePropertyBindingConfig, String> readFromOneWire(
+            List<AbstractOneWireDevicePropertyBindingConfig> pvBindingConfigs) {
+        Map<AbstractOneWireDevicePropertyBindingConfig, String> lvReadValues = new IdentityHashMap<AbstractOneWireDevicePropertyBindingConfig, String>();
+
+        for (Map.Entry<String, List<AbstractOneWireDevicePropertyBindingConfig>> lvBus : groupByBus(pvBindingConfigs)
+                .entrySet()) {
+            long lvStart = System.currentTimeMillis();
+            List<AbstractOneWireDevicePropertyBindingConfig> lvBusConfigs = lvBus.getValue();
+
+            int lvTemperatureCount = countTemperatureProperties(lvBusConfigs);
+            if (cvSimultaneousConversion && lvTemperatureCount > 1) {
+                triggerSimultaneousConversion(lvBus.getKey());
+            }
+
+            Set<String> lvExistingDevices = new HashSet<String>();
+            for (AbstractOneWireDevicePropertyBindingConfig lvBindingConfig : lvBusConfigs) {
+                lvReadValues.put(lvBindingConfig, readFromOneWire(lvBindingConfig, lvExistingDevices));
+            }
+
+            long lvCycleTime = System.currentTimeMillis() - lvStart;
+            if (cvBusCycleTimes.put(lvBus.getKey(), lvCycleTime) == null) {
+                registerBusCycleGauge(lvBus.getKey());
+            }
+            logger.debug("read {} properties ({} temperatures) from bus '{}' in {}ms", lvBusConfigs.size(),
+                    lvTemperatureCount, lvBus.getKey(), lvCycleTime);
+        }
+
+        return lvReadValues;
+    }
+
+    /**
+     * Groups device properties by the bus their device is connected to, keeping the order of the busses and of the
+     * properties on each bus
+     *
+     * @param pvBindingConfigs
+     * @return the binding configs by bus path
+     */
+    static Map<String, List<AbstractOneWireDevicePropertyBindingConfig>> groupByBus(
+            List<AbstractOneWireDevicePropertyBindingConfig> pvBindingConfigs) {
+        Map<String, List<AbstractOneWireDevicePropertyBindingConfig>> lvBusses = new LinkedHashMap<String, List<AbstractOneWireDevicePropertyBindingConfig>>();
+        for (AbstractOneWireDevicePropertyBindingConfig lvBindingConfig : pvBindingConfigs) {
+            String lvBusPath = getBusPath(lvBindingConfig.getDeviceId());
+            List<AbstractOneWireDevicePropertyBindingConfig> lvBusConfigs = lvBusses.get(lvBusPath);
+            if (lvBusConfigs == null) {
+                lvBusConfigs = new ArrayList<AbstractOneWireDevicePropertyBindingConfig>();
+                lvBusses.put(lvBusPath, lvBusConfigs);
+            }
+            lvBusConfigs.add(lvBindingConfig);
+        }
+        return lvBusses;
+    }
+
+    /**
+     * @param pvBindingConfigs
+     * @return the number of temperature properties, which profit from a simultaneous conversion
+     */
+    static int countTemperatureProperties(List<AbstractOneWireDevicePropertyBindingConfig> pvBindingConfigs) {
+        int lvTemperatureCount = 0;
+        for (AbstractOneWireDevicePropertyBindingConfig lvBindingConfig : pvBindingConfigs) {
+            if (isTemperatureProperty(lvBindingConfig.getPropertyName())) {
+                lvTemperatureCount++;
+            }
+        }
+        return lvTemperatureCount;
+    }
+
+    /**
+     * Publishes the duration of the last read cycle of a bus in the {@link MetricsRegistry}
+     *
+     * @param pvBusPath
+     */
+    private static void registerBusCycleGauge(final String pvBusPath) {
+        MetricsRegistry.gauge("openhab_onewire_bus_cycle_seconds", "Duration of the last read cycle of a 1-Wire bus",
+                new Gauge.ValueProvider() {
+                    @Override
+                    public double getValue() {
+                        Long lvCycleTime = cvBusCycleTimes.get(pvBusPath);
+                        return lvCycleTime == null ? 0 : lvCycleTime / 1000.0;
+                    }
+                }, "bus", pvBusPath.isEmpty() ? "/" : pvBusPath);
+    }
+
+    /**
+     * Returns the path of the bus a device is connected to, which is the device id without its last part, e.g.
+     * <code>bus.0</code> for <code>bus.0/28.67C6697351FF</code> or an empty string for devices on the root bus
+     *
+     * @param pvDeviceId
+     * @return the bus path
+     */
+    public static String getBusPath(String pvDeviceId) {
+        String lvDeviceId = StringUtils.strip(StringUtils.trimToEmpty(pvDeviceId), "/");
+        int lvIndex = lvDeviceId.lastIndexOf('/');
+        return lvIndex < 0 ? "" : lvDeviceId.substring(0, lvIndex);
+    }
+
+    private static boolean isTemperatureProperty(String pvPropertyName) {
+        return pvPropertyName != null && pvPropertyName.startsWith("temperature");
+    }
+
+    /**
+     * Starts a temperature conversion on all sensors of a bus at once. owserver then returns the converted value
+     * on the following temperature reads without a conversion per sensor.
+     *
+     * @param pvBusPath
+     */
+    private static void triggerSimultaneousConversion(String pvBusPath) {
+        String lvPath = pvBusPath.isEmpty() ? "simultaneous/temperature" : pvBusPath + "/simultaneous/temperature";
+        try {
+            logger.debug("triggering simultaneous temperature conversion on '{}'", lvPath);
+            OwfsConnection lvConnection = getConnection();
+            if (lvConnection != null) {
+                lvConnection.write(lvPath, "1");
+            }
+        } catch (OwfsException oe) {
+            logger.debug("simultaneous temperature conversion on '{}' failed, sensors convert on read: {}", lvPath,
+                    oe.getMessage());
+        } catch (IOException ioe) {
+            logger.warn("couldn't trigger simultaneous temperature conversion on '{}' ip:port={}:{}", lvPath, cvIp,
+                    cvPort, ioe);
+            reconnect();
+        }
+    }
+
+    /**
+     * Read a Value for a device property from 1-Wire network
+     *
+     * @param pvBindingConfig
+     * @param pvExistingDevices devices already found in the current batch, may be null
+     * @return device property value as String
+     */
+    private static String readFromOneWire(AbstractOneWireDevicePropertyBindingConfig pvBindingConfig,
+            Set<String> pvExistingDevices) {
         String lvDevicePropertyPath = pvBindingConfig.getDevicePropertyPath();
+        String lvDeviceId = pvBindingConfig.getDeviceId();
 
         int lvAttempt = 1;
         while (lvAttempt <= cvRetry) {
             try {
                 logger.debug("trying to read from '{}', read attempt={}",
                         new Object[] { lvDevicePropertyPath, lvAttempt });
-                if (checkIfDeviceExists(lvDevicePropertyPath)) {
+                boolean lvExists = pvExistingDevices != null && pvExistingDevices.contains(lvDeviceId);
+                if (lvExists || checkIfDeviceExists(lvDevicePropertyPath)) {
+                    if (pvExistingDevices != null) {
+                        pvExistingDevices.add(lvDeviceId);
+                    }
                     String lvReadValue = OneWireConnection.getConnection().read(lvDevicePropertyPath);
                     logger.debug("Read value '{}' from {}, read attempt={}",
                             new Object[] { lvReadValue, lvDevicePropertyPath, lvAttempt });
@@ -9,6 +9,7 @@
 package org.openhab.binding.onewire.internal.listener;
 
 import java.util.EventListener;
+import java.util.List;
 
 /**
  * This Interface definies a Listener for Items which wanted to be updated
@@ -26,4 +27,11 @@ public interface OneWireDevicePropertyWantsUpdateListener extends EventListener
      */
     public void devicePropertyWantsUpdate(OneWireDevicePropertyWantsUpdateEvent wantsUpdateEvent);
 
+    /**
+     * Called with all items which are due at the same time, so they can be read from the 1-Wire bus as one batch
+     *
+     * @param wantsUpdateEvents
+     */
+    public void devicePropertiesWantUpdate(List<OneWireDevicePropertyWantsUpdateEvent> wantsUpdateEvents);
+
 }
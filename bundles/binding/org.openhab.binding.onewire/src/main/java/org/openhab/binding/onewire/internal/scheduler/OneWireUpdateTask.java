@@ -11,6 +11,9 @@
  */
 package org.openhab.binding.onewire.internal.scheduler;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 
 import org.openhab.binding.onewire.internal.listener.OneWireDevicePropertyWantsUpdateListener;
@@ -56,9 +59,19 @@ public class OneWireUpdateTask extends Thread {
                 logger.debug("Autorefresh: got new item {} in update queue", lvItemName);
 
                 if (lvItemName != null) {
-                    logger.debug("Autorefresh: Trying to update Item: {}", lvItemName);
-                    ivWantsUpdateListener
-                            .devicePropertyWantsUpdate(new OneWireDevicePropertyWantsUpdateEvent(this, lvItemName));
+                    // take all items which are due now, so they are read as one batch per bus
+                    List<String> lvItemNames = new ArrayList<String>();
+                    lvItemNames.add(lvItemName);
+                    ivUpdateQueue.drainTo(lvItemNames);
+
+                    List<OneWireDevicePropertyWantsUpdateEvent> lvEvents = new ArrayList<OneWireDevicePropertyWantsUpdateEvent>(
+                            lvItemNames.size());
+                    for (String lvName : new LinkedHashSet<String>(lvItemNames)) {
+                        lvEvents.add(new OneWireDevicePropertyWantsUpdateEvent(this, lvName));
+                    }
+
+                    logger.debug("Autorefresh: Trying to update {} Item(s)", lvEvents.size());
+                    ivWantsUpdateListener.devicePropertiesWantUpdate(lvEvents);
                 }
             }
         } catch (InterruptedException ex) {
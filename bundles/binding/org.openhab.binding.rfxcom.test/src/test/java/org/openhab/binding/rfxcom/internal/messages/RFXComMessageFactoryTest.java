@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.rfxcom.internal.messages;
+
+import static org.junit.Assert.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.junit.Test;
+import org.openhab.binding.rfxcom.internal.RFXComException;
+import org.openhab.binding.rfxcom.internal.messages.RFXComBaseMessage.PacketType;
+
+/**
+ * Test for RFXCom-binding
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class RFXComMessageFactoryTest {
+
+    private static final Map<PacketType, Class<?>> MESSAGE_CLASSES = new LinkedHashMap<PacketType, Class<?>>();
+
+    static {
+        MESSAGE_CLASSES.put(PacketType.INTERFACE_CONTROL, RFXComControlMessage.class);
+        MESSAGE_CLASSES.put(PacketType.INTERFACE_MESSAGE, RFXComInterfaceMessage.class);
+        MESSAGE_CLASSES.put(PacketType.TRANSMITTER_MESSAGE, RFXComTransmitterMessage.class);
+        MESSAGE_CLASSES.put(PacketType.UNDECODED_RF_MESSAGE, RFXComUndecodedRFMessage.class);
+        MESSAGE_CLASSES.put(PacketType.LIGHTING1, RFXComLighting1Message.class);
+        MESSAGE_CLASSES.put(PacketType.LIGHTING2, RFXComLighting2Message.class);
+        MESSAGE_CLASSES.put(PacketType.LIGHTING3, RFXComLighting3Message.class);
+        MESSAGE_CLASSES.put(PacketType.LIGHTING4, RFXComLighting4Message.class);
+        MESSAGE_CLASSES.put(PacketType.LIGHTING5, RFXComLighting5Message.class);
+        MESSAGE_CLASSES.put(PacketType.LIGHTING6, RFXComLighting6Message.class);
+        MESSAGE_CLASSES.put(PacketType.CHIME, RFXComChimeMessage.class);
+        MESSAGE_CLASSES.put(PacketType.FAN, RFXComFanMessage.class);
+        MESSAGE_CLASSES.put(PacketType.CURTAIN1, RFXComCurtain1Message.class);
+        MESSAGE_CLASSES.put(PacketType.BLINDS1, RFXComBlinds1Message.class);
+        MESSAGE_CLASSES.put(PacketType.RFY, RFXComRfyMessage.class);
+        MESSAGE_CLASSES.put(PacketType.SECURITY1, RFXComSecurity1Message.class);
+        MESSAGE_CLASSES.put(PacketType.SECURITY2, RFXComSecurity2Message.class);
+        MESSAGE_CLASSES.put(PacketType.THERMOSTAT1, RFXComThermostat1Message.class);
+        MESSAGE_CLASSES.put(PacketType.THERMOSTAT2, RFXComThermostat2Message.class);
+        MESSAGE_CLASSES.put(PacketType.THERMOSTAT3, RFXComThermostat3Message.class);
+        MESSAGE_CLASSES.put(PacketType.TEMPERATURE_RAIN, RFXComTemperatureRainMessage.class);
+        MESSAGE_CLASSES.put(PacketType.TEMPERATURE, RFXComTemperatureMessage.class);
+        MESSAGE_CLASSES.put(PacketType.HUMIDITY, RFXComHumidityMessage.class);
+        MESSAGE_CLASSES.put(PacketType.TEMPERATURE_HUMIDITY, RFXComTemperatureHumidityMessage.class);
+        MESSAGE_CLASSES.put(PacketType.TEMPERATURE_HUMIDITY_BAROMETRIC, RFXComTemperatureHumidityBarometricMessage.class);
+        MESSAGE_CLASSES.put(PacketType.RAIN, RFXComRainMessage.class);
+        MESSAGE_CLASSES.put(PacketType.WIND, RFXComWindMessage.class);
+        MESSAGE_CLASSES.put(PacketType.UV, RFXComUVMessage.class);
+        MESSAGE_CLASSES.put(PacketType.DATE_TIME, RFXComDateTimeMessage.class);
+        MESSAGE_CLASSES.put(PacketType.CURRENT, RFXComCurrentMessage.class);
+        MESSAGE_CLASSES.put(PacketType.ENERGY, RFXComEnergyMessage.class);
+        MESSAGE_CLASSES.put(PacketType.CURRENT_ENERGY, RFXComCurrentEnergyMessage.class);
+        MESSAGE_CLASSES.put(PacketType.POWER, RFXComPowerMessage.class);
+        MESSAGE_CLASSES.put(PacketType.WEIGHT, RFXComWeightMessage.class);
+    }
+
+    @Test
+    public void testGetPacketType() {
+        for (PacketType packetType : PacketType.values()) {
+            assertEquals(packetType, RFXComMessageFactory.getPacketType(packetType.toByte()));
+        }
+        assertEquals(PacketType.UNKNOWN, RFXComMessageFactory.getPacketType((byte) 0x7F));
+    }
+
+    @Test(expected = RFXComException.class)
+    public void testUnknownPacket() throws Exception {
+        RFXComMessageFactory.getMessageInterface(new byte[] { 0x03, 0x7F, 0x00, 0x00 });
+    }
+
+    @Test
+    public void testCreateMessageOfPacketType() throws RFXComException {
+        for (Map.Entry<PacketType, Class<?>> entry : MESSAGE_CLASSES.entrySet()) {
+            RFXComMessageInterface message = RFXComMessageFactory.getMessageInterface(entry.getKey());
+            assertSame(entry.getKey().toString(), entry.getValue(), message.getClass());
+        }
+    }
+
+    @Test
+    public void testNotImplementedPacketTypes() {
+        for (PacketType packetType : PacketType.values()) {
+            if (MESSAGE_CLASSES.containsKey(packetType)) {
+                continue;
+            }
+            try {
+                RFXComMessageFactory.getMessageInterface(packetType);
+                fail("expected an exception for " + packetType);
+            } catch (RFXComException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testDecodeDispatchesOnPacketType() throws RFXComException {
+        assertDecodedAs(RFXComTemperatureMessage.class, "08500110000180BC69");
+        assertDecodedAs(RFXComLighting2Message.class, "0B11000600109B520B000080");
+        assertDecodedAs(RFXComWindMessage.class, "105601122F000087000000140000000079");
+        assertDecodedAs(RFXComTemperatureHumidityBarometricMessage.class, "0D54020EE90000C9270203E70439");
+    }
+
+    @Test(expected = RFXComException.class)
+    public void testDecodeFailureIsWrapped() throws RFXComException {
+        // a temperature packet which is too short to be decoded
+        RFXComMessageFactory.getMessageInterface(new byte[] { 0x03, 0x50, 0x01, 0x10 });
+    }
+
+    private static void assertDecodedAs(Class<?> messageClass, String hexMessage) throws RFXComException {
+        RFXComMessageInterface message = RFXComMessageFactory
+                .getMessageInterface(DatatypeConverter.parseHexBinary(hexMessage));
+        assertSame(messageClass, message.getClass());
+        assertEquals(hexMessage, DatatypeConverter.printHexBinary(message.decodeMessage()));
+    }
+}
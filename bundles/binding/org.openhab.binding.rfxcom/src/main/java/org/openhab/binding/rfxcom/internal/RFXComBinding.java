@@ -9,8 +9,11 @@
 package org.openhab.binding.rfxcom.internal;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.EventObject;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -27,6 +30,7 @@ import org.openhab.binding.rfxcom.internal.messages.RFXComMessageFactory;
 import org.openhab.binding.rfxcom.internal.messages.RFXComMessageInterface;
 import org.openhab.binding.rfxcom.internal.messages.RFXComTransmitterMessage;
 import org.openhab.core.binding.AbstractBinding;
+import org.openhab.core.binding.BindingProvider;
 import org.openhab.core.events.EventPublisher;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.State;
@@ -55,6 +59,15 @@ public class RFXComBinding extends AbstractBinding<RFXComBindingProvider> {
 
     private final MessageLister eventLister = new MessageLister();
 
+    /**
+     * The in-binding items by device id, rebuilt on the next received packet after
+     * the item bindings have changed (<code>null</code>).
+     */
+    private volatile Map<String, List<String>> inBindingItems = null;
+
+    /** guards the rebuild and the reset of {@link #inBindingItems}, so a stale rebuild can't outlive a reset */
+    private final Object inBindingItemsLock = new Object();
+
     public RFXComBinding() {
     }
 
@@ -76,6 +89,69 @@ public class RFXComBinding extends AbstractBinding<RFXComBindingProvider> {
         }
     }
 
+    @Override
+    public void allBindingsChanged(BindingProvider provider) {
+        super.allBindingsChanged(provider);
+        resetInBindingItems();
+    }
+
+    @Override
+    public void bindingChanged(BindingProvider provider, String itemName) {
+        super.bindingChanged(provider, itemName);
+        resetInBindingItems();
+    }
+
+    @Override
+    public void removeBindingProvider(BindingProvider provider) {
+        super.removeBindingProvider(provider);
+        resetInBindingItems();
+    }
+
+    private void resetInBindingItems() {
+        synchronized (inBindingItemsLock) {
+            inBindingItems = null;
+        }
+    }
+
+    /**
+     * Returns the in-binding items by device id, building the index if the item bindings have changed.
+     */
+    private Map<String, List<String>> getInBindingItems() {
+        Map<String, List<String>> items = inBindingItems;
+        if (items != null) {
+            return items;
+        }
+        synchronized (inBindingItemsLock) {
+            items = inBindingItems;
+            if (items == null) {
+                items = new HashMap<String, List<String>>();
+                for (RFXComBindingProvider provider : providers) {
+                    for (String itemName : provider.getItemNames()) {
+                        String id = provider.getId(itemName);
+                        if (id != null && provider.isInBinding(itemName)) {
+                            List<String> itemNames = items.get(id);
+                            if (itemNames == null) {
+                                itemNames = new ArrayList<String>();
+                                items.put(id, itemNames);
+                            }
+                            itemNames.add(itemName);
+                        }
+                    }
+                }
+                inBindingItems = items;
+            }
+            return items;
+        }
+    }
+
+    /**
+     * Returns the value selector of the item from the first provider binding it.
+     */
+    private RFXComValueSelector getValueSelector(String itemName) {
+        RFXComBindingProvider provider = findFirstMatchingBindingProvider(itemName);
+        return provider != null ? provider.getValueSelector(itemName) : null;
+    }
+
     @Override
     public void setEventPublisher(EventPublisher eventPublisher) {
         this.eventPublisher = eventPublisher;
@@ -232,6 +308,12 @@ public class RFXComBinding extends AbstractBinding<RFXComBindingProvider> {
         @Override
         public void packetReceived(EventObject event, byte[] packet) {
 
+            if (RFXComMessageFactory.getPacketType(packet[1]) != PacketType.TRANSMITTER_MESSAGE
+                    && getInBindingItems().isEmpty()) {
+                // no need to decode packets if there is nothing to update
+                return;
+            }
+
             try {
                 RFXComMessageInterface obj = RFXComMessageFactory.getMessageInterface(packet);
 
@@ -241,30 +323,26 @@ public class RFXComBinding extends AbstractBinding<RFXComBindingProvider> {
                 } else {
                     final String deviceId = obj.generateDeviceId();
 
+                    // most received packets are from devices nobody has bound, skip them right away
+                    final List<String> itemNames = getInBindingItems().get(deviceId);
+                    if (itemNames == null) {
+                        logger.trace("No items bound to device id '{}'", deviceId);
+                        return;
+                    }
+
                     final List<RFXComValueSelector> supportedValueSelectors = obj.getSupportedValueSelectors();
 
                     if (supportedValueSelectors != null) {
-
-                        for (RFXComBindingProvider provider : providers) {
-                            for (String itemName : provider.getItemNames()) {
-
-                                String id1 = provider.getId(itemName);
-                                boolean inBinding = provider.isInBinding(itemName);
-
-                                if (id1.equals(deviceId) && inBinding) {
-
-                                    RFXComValueSelector valueSelector = provider.getValueSelector(itemName);
-
-                                    if (supportedValueSelectors.contains(valueSelector)) {
-                                        try {
-                                            State value = obj.convertToState(valueSelector);
-                                            eventPublisher.postUpdate(itemName, value);
-                                        } catch (RFXComException e) {
-                                            logger.warn("Data conversion error", e);
-                                        }
-                                    }
+                        for (String itemName : itemNames) {
+                            RFXComValueSelector valueSelector = getValueSelector(itemName);
+
+                            if (supportedValueSelectors.contains(valueSelector)) {
+                                try {
+                                    State value = obj.convertToState(valueSelector);
+                                    eventPublisher.postUpdate(itemName, value);
+                                } catch (RFXComException e) {
+                                    logger.warn("Data conversion error", e);
                                 }
-
                             }
                         }
                     }
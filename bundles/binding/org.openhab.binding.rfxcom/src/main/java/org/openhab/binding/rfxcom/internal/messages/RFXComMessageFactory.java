@@ -8,68 +8,26 @@
  */
 package org.openhab.binding.rfxcom.internal.messages;
 
-import java.lang.reflect.Constructor;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
-
 import org.openhab.binding.rfxcom.internal.RFXComException;
 import org.openhab.binding.rfxcom.internal.messages.RFXComBaseMessage.PacketType;
 
 public class RFXComMessageFactory {
 
-    final static String classUrl = "org.openhab.binding.rfxcom.internal.messages.";
+    /**
+     * Packet types indexed by their unsigned packet type byte, resolved once.
+     */
+    private static final PacketType[] packetTypes = new PacketType[256];
 
-    @SuppressWarnings("serial")
-    private static final Map<PacketType, String> messageClasses = Collections
-            .unmodifiableMap(new HashMap<PacketType, String>() {
-                {
-                    put(PacketType.INTERFACE_CONTROL, "RFXComControlMessage");
-                    put(PacketType.INTERFACE_MESSAGE, "RFXComInterfaceMessage");
-                    put(PacketType.TRANSMITTER_MESSAGE, "RFXComTransmitterMessage");
-                    put(PacketType.UNDECODED_RF_MESSAGE, "RFXComUndecodedRFMessage");
-                    put(PacketType.LIGHTING1, "RFXComLighting1Message");
-                    put(PacketType.LIGHTING2, "RFXComLighting2Message");
-                    put(PacketType.LIGHTING3, "RFXComLighting3Message");
-                    put(PacketType.LIGHTING4, "RFXComLighting4Message");
-                    put(PacketType.LIGHTING5, "RFXComLighting5Message");
-                    put(PacketType.LIGHTING6, "RFXComLighting6Message");
-                    put(PacketType.CHIME, "RFXComChimeMessage");
-                    put(PacketType.FAN, "RFXComFanMessage");
-                    put(PacketType.CURTAIN1, "RFXComCurtain1Message");
-                    put(PacketType.BLINDS1, "RFXComBlinds1Message");
-                    put(PacketType.RFY, "RFXComRfyMessage");
-                    put(PacketType.SECURITY1, "RFXComSecurity1Message");
-                    put(PacketType.SECURITY2, "RFXComSecurity2Message");
-                    put(PacketType.CAMERA1, "RFXComCamera1Message");
-                    put(PacketType.REMOTE_CONTROL, "RFXComRemoteControlMessage");
-                    put(PacketType.THERMOSTAT1, "RFXComThermostat1Message");
-                    put(PacketType.THERMOSTAT2, "RFXComThermostat2Message");
-                    put(PacketType.THERMOSTAT3, "RFXComThermostat3Message");
-                    put(PacketType.BBQ1, "RFXComBBQMessage");
-                    put(PacketType.TEMPERATURE_RAIN, "RFXComTemperatureRainMessage");
-                    put(PacketType.TEMPERATURE, "RFXComTemperatureMessage");
-                    put(PacketType.HUMIDITY, "RFXComHumidityMessage");
-                    put(PacketType.TEMPERATURE_HUMIDITY, "RFXComTemperatureHumidityMessage");
-                    put(PacketType.BAROMETRIC, "RFXComBarometricMessage");
-                    put(PacketType.TEMPERATURE_HUMIDITY_BAROMETRIC, "RFXComTemperatureHumidityBarometricMessage");
-                    put(PacketType.RAIN, "RFXComRainMessage");
-                    put(PacketType.WIND, "RFXComWindMessage");
-                    put(PacketType.UV, "RFXComUVMessage");
-                    put(PacketType.DATE_TIME, "RFXComDateTimeMessage");
-                    put(PacketType.CURRENT, "RFXComCurrentMessage");
-                    put(PacketType.ENERGY, "RFXComEnergyMessage");
-                    put(PacketType.CURRENT_ENERGY, "RFXComCurrentEnergyMessage");
-                    put(PacketType.POWER, "RFXComPowerMessage");
-                    put(PacketType.WEIGHT, "RFXComWeightMessage");
-                    put(PacketType.GAS, "RFXComGasMessage");
-                    put(PacketType.WATER, "RFXComWaterMessage");
-                    put(PacketType.RFXSENSOR, "RFXComRFXSensorMessage");
-                    put(PacketType.RFXMETER, "RFXComRFXMeterMessage");
-                    put(PacketType.FS20, "RFXComFS20Message");
-                    put(PacketType.IO_LINES, "RFXComIOLinesMessage");
-                }
-            });
+    static {
+        for (int i = 0; i < packetTypes.length; i++) {
+            packetTypes[i] = PacketType.UNKNOWN;
+        }
+        for (PacketType p : PacketType.values()) {
+            if (p != PacketType.UNKNOWN) {
+                packetTypes[p.toByte() & 0xFF] = p;
+            }
+        }
+    }
 
     /**
      * Command to reset RFXCOM controller.
@@ -93,34 +51,94 @@ public class RFXComMessageFactory {
             0x00, 0x00, 0x00 };
 
     public static RFXComMessageInterface getMessageInterface(PacketType packetType) throws RFXComException {
-
-        try {
-            String className = messageClasses.get(packetType);
-            Class<?> cl = Class.forName(classUrl + className);
-            return (RFXComMessageInterface) cl.newInstance();
-
-        } catch (ClassNotFoundException e) {
-            throw new RFXComException("Message " + packetType + " not implemented", e);
-
-        } catch (Exception e) {
-            throw new RFXComException(e);
-        }
+        return createMessage(packetType, null);
     }
 
     public static RFXComMessageInterface getMessageInterface(byte[] packet) throws RFXComException {
+        return createMessage(getPacketType(packet[1]), packet);
+    }
 
-        PacketType packetType = getPacketType(packet[1]);
-
+    /**
+     * Creates the message of the given packet type, decoded from <code>data</code> if it is not null.
+     */
+    private static RFXComMessageInterface createMessage(PacketType packetType, byte[] data) throws RFXComException {
         try {
-            String className = messageClasses.get(packetType);
-            Class<?> cl = Class.forName(classUrl + className);
-            Constructor<?> c = cl.getConstructor(byte[].class);
-            return (RFXComMessageInterface) c.newInstance(packet);
-
-        } catch (ClassNotFoundException e) {
-            throw new RFXComException("Message " + packetType + "(" + packet[1] + ") not implemented", e);
-
-        } catch (Exception e) {
+            switch (packetType) {
+            case INTERFACE_CONTROL:
+                return data == null ? new RFXComControlMessage() : new RFXComControlMessage(data);
+            case INTERFACE_MESSAGE:
+                return data == null ? new RFXComInterfaceMessage() : new RFXComInterfaceMessage(data);
+            case TRANSMITTER_MESSAGE:
+                return data == null ? new RFXComTransmitterMessage() : new RFXComTransmitterMessage(data);
+            case UNDECODED_RF_MESSAGE:
+                return data == null ? new RFXComUndecodedRFMessage() : new RFXComUndecodedRFMessage(data);
+            case LIGHTING1:
+                return data == null ? new RFXComLighting1Message() : new RFXComLighting1Message(data);
+            case LIGHTING2:
+                return data == null ? new RFXComLighting2Message() : new RFXComLighting2Message(data);
+            case LIGHTING3:
+                return data == null ? new RFXComLighting3Message() : new RFXComLighting3Message(data);
+            case LIGHTING4:
+                return data == null ? new RFXComLighting4Message() : new RFXComLighting4Message(data);
+            case LIGHTING5:
+                return data == null ? new RFXComLighting5Message() : new RFXComLighting5Message(data);
+            case LIGHTING6:
+                return data == null ? new RFXComLighting6Message() : new RFXComLighting6Message(data);
+            case CHIME:
+                return data == null ? new RFXComChimeMessage() : new RFXComChimeMessage(data);
+            case FAN:
+                return data == null ? new RFXComFanMessage() : new RFXComFanMessage(data);
+            case CURTAIN1:
+                return data == null ? new RFXComCurtain1Message() : new RFXComCurtain1Message(data);
+            case BLINDS1:
+                return data == null ? new RFXComBlinds1Message() : new RFXComBlinds1Message(data);
+            case RFY:
+                return data == null ? new RFXComRfyMessage() : new RFXComRfyMessage(data);
+            case SECURITY1:
+                return data == null ? new RFXComSecurity1Message() : new RFXComSecurity1Message(data);
+            case SECURITY2:
+                return data == null ? new RFXComSecurity2Message() : new RFXComSecurity2Message(data);
+            case THERMOSTAT1:
+                return data == null ? new RFXComThermostat1Message() : new RFXComThermostat1Message(data);
+            case THERMOSTAT2:
+                return data == null ? new RFXComThermostat2Message() : new RFXComThermostat2Message(data);
+            case THERMOSTAT3:
+                return data == null ? new RFXComThermostat3Message() : new RFXComThermostat3Message(data);
+            case TEMPERATURE_RAIN:
+                return data == null ? new RFXComTemperatureRainMessage() : new RFXComTemperatureRainMessage(data);
+            case TEMPERATURE:
+                return data == null ? new RFXComTemperatureMessage() : new RFXComTemperatureMessage(data);
+            case HUMIDITY:
+                return data == null ? new RFXComHumidityMessage() : new RFXComHumidityMessage(data);
+            case TEMPERATURE_HUMIDITY:
+                return data == null ? new RFXComTemperatureHumidityMessage()
+                        : new RFXComTemperatureHumidityMessage(data);
+            case TEMPERATURE_HUMIDITY_BAROMETRIC:
+                return data == null ? new RFXComTemperatureHumidityBarometricMessage()
+                        : new RFXComTemperatureHumidityBarometricMessage(data);
+            case RAIN:
+                return data == null ? new RFXComRainMessage() : new RFXComRainMessage(data);
+            case WIND:
+                return data == null ? new RFXComWindMessage() : new RFXComWindMessage(data);
+            case UV:
+                return data == null ? new RFXComUVMessage() : new RFXComUVMessage(data);
+            case DATE_TIME:
+                return data == null ? new RFXComDateTimeMessage() : new RFXComDateTimeMessage(data);
+            case CURRENT:
+                return data == null ? new RFXComCurrentMessage() : new RFXComCurrentMessage(data);
+            case ENERGY:
+                return data == null ? new RFXComEnergyMessage() : new RFXComEnergyMessage(data);
+            case CURRENT_ENERGY:
+                return data == null ? new RFXComCurrentEnergyMessage() : new RFXComCurrentEnergyMessage(data);
+            case POWER:
+                return data == null ? new RFXComPowerMessage() : new RFXComPowerMessage(data);
+            case WEIGHT:
+                return data == null ? new RFXComWeightMessage() : new RFXComWeightMessage(data);
+            default:
+                String type = data == null ? packetType.toString() : packetType + "(" + data[1] + ")";
+                throw new RFXComException("Message " + type + " not implemented");
+            }
+        } catch (RuntimeException e) {
             throw new RFXComException(e);
         }
     }
@@ -136,13 +154,7 @@ public class RFXComMessageFactory {
         throw new IllegalArgumentException("Unknown packet type " + packetType);
     }
 
-    private static PacketType getPacketType(byte packetType) {
-        for (PacketType p : PacketType.values()) {
-            if (p.toByte() == packetType) {
-                return p;
-            }
-        }
-
-        return PacketType.UNKNOWN;
+    public static PacketType getPacketType(byte packetType) {
+        return packetTypes[packetType & 0xFF];
     }
 }
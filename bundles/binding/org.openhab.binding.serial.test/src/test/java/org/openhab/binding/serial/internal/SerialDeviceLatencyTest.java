@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.serial.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.Test;
+import org.openhab.core.events.EventPublisher;
+import org.openhab.core.library.items.StringItem;
+import org.openhab.core.types.Command;
+import org.openhab.core.types.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the time from the last byte of a frame to the item update for the framing modes of
+ * {@link SerialDevice}. The bytes are sent at the pace of a 9600 baud line through a pipe, unless the system property
+ * <code>serial.benchmark.pty</code> names the two ends of a pseudo-terminal pair (e.g. created by
+ * <code>socat -d -d pty,raw,echo=0 pty,raw,echo=0</code>) as <code>&lt;write end&gt;,&lt;read end&gt;</code>.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class SerialDeviceLatencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SerialDeviceLatencyTest.class);
+
+    private static final String ITEM_NAME = "Serial_String";
+
+    private static final String FRAME = "T:21.5\r\n";
+
+    private static final int FRAMES = 10;
+
+    /** 10 bits per byte at 9600 baud */
+    private static final long BYTE_NANOS = TimeUnit.SECONDS.toNanos(10) / 9600;
+
+    @Test
+    public void testFramingLatency() throws Exception {
+        List<Long> timeout = measure(new SerialFrameDecoder());
+        List<Long> shortTimeout = measure(SerialFrameDecoder.parse("TIMEOUT:20"));
+        List<Long> delimiter = measure(SerialFrameDecoder.parse("DELIMITER:\\r\\n"));
+        List<Long> length = measure(SerialFrameDecoder.parse("LENGTH:" + FRAME.length()));
+
+        log("TIMEOUT:" + SerialFrameDecoder.DEFAULT_TIMEOUT, timeout);
+        log("TIMEOUT:20", shortTimeout);
+        log("DELIMITER:\\r\\n", delimiter);
+        log("LENGTH:" + FRAME.length(), length);
+
+        // a frame is only complete after the inter-byte timeout, a delimiter or length completes it right away
+        assertTrue(median(timeout) >= TimeUnit.MILLISECONDS.toMicros(SerialFrameDecoder.DEFAULT_TIMEOUT - 10));
+        assertTrue(median(delimiter) < median(shortTimeout));
+        assertTrue(median(length) < median(shortTimeout));
+        assertTrue(median(shortTimeout) < median(timeout));
+    }
+
+    /**
+     * Sends {@link #FRAMES} frames and returns the latency of each in microseconds.
+     */
+    private List<Long> measure(SerialFrameDecoder decoder) throws Exception {
+        RecordingPublisher publisher = new RecordingPublisher();
+        SerialDevice device = new SerialDevice("benchmark", "US-ASCII");
+        device.addConfig(ITEM_NAME, StringItem.class, null, false, null, null, null, null, null, null);
+        device.setFrameDecoder(decoder);
+        device.setEventPublisher(publisher);
+
+        OutputStream out;
+        InputStream in;
+        String pty = System.getProperty("serial.benchmark.pty");
+        if (pty != null) {
+            String[] ends = pty.split(",");
+            out = new FileOutputStream(ends[0]);
+            in = new FileInputStream(ends[1]);
+        } else {
+            PipedOutputStream pipe = new PipedOutputStream();
+            out = pipe;
+            in = new PipedInputStream(pipe, 4096);
+        }
+        device.setInputStream(in);
+
+        Listener listener = new Listener(device, in);
+        listener.start();
+        try {
+            List<Long> latencies = new ArrayList<Long>();
+            byte[] frame = FRAME.getBytes("US-ASCII");
+            for (int i = 0; i < FRAMES; i++) {
+                long next = System.nanoTime();
+                long sent = 0;
+                for (byte b : frame) {
+                    LockSupport.parkNanos(next - System.nanoTime());
+                    // the latency is measured from the moment the last byte is written
+                    sent = System.nanoTime();
+                    out.write(b);
+                    out.flush();
+                    next += BYTE_NANOS;
+                }
+
+                Long received = publisher.updates.poll(1, TimeUnit.SECONDS);
+                assertNotNull("no update for frame " + i, received);
+                latencies.add(TimeUnit.NANOSECONDS.toMicros(received - sent));
+
+                // let the line go quiet, so that the next frame isn't merged in the timeout modes
+                Thread.sleep(10);
+            }
+            return latencies;
+        } finally {
+            listener.running = false;
+            listener.join();
+            out.close();
+            in.close();
+        }
+    }
+
+    private static long median(List<Long> latencies) {
+        List<Long> sorted = new ArrayList<Long>(latencies);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static void log(String framing, List<Long> latencies) {
+        logger.info("FRAME({}): median latency {} us, max {} us", framing, median(latencies),
+                Collections.max(latencies));
+    }
+
+    /**
+     * Calls {@link SerialDevice#receive()} when bytes are available, like the data available event of the serial
+     * port.
+     */
+    private static class Listener extends Thread {
+
+        private final SerialDevice device;
+        private final InputStream in;
+
+        volatile boolean running = true;
+
+        Listener(SerialDevice device, InputStream in) {
+            this.device = device;
+            this.in = in;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    if (in.available() > 0) {
+                        device.receive();
+                    } else {
+                        Thread.sleep(1);
+                    }
+                } catch (IOException e) {
+                    return;
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Records the time of every update.
+     */
+    private static class RecordingPublisher implements EventPublisher {
+
+        final BlockingQueue<Long> updates = new LinkedBlockingQueue<Long>();
+
+        @Override
+        public void sendCommand(String itemName, Command command) {
+        }
+
+        @Override
+        public void postCommand(String itemName, Command command) {
+        }
+
+        @Override
+        public void postUpdate(String itemName, State newState) {
+            updates.add(System.nanoTime());
+        }
+    }
+
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.serial.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.model.item.binding.BindingConfigParseException;
+
+/**
+ * Tests of the {@link SerialFrameDecoder} framing modes, with frames split over several reads.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class SerialFrameDecoderTest {
+
+    @Test
+    public void testInvalidConfigurations() {
+        for (String config : Arrays.asList("DELIMITER", "DELIMITER:", ":1", "UNKNOWN:1", "LENGTH:0", "LENGTH:x",
+                "LENGTH:65537", "PREFIX:3", "TIMEOUT:-1", "DELIMITER:\\x4", "DELIMITER:\\xZZ")) {
+            try {
+                SerialFrameDecoder.parse(config);
+                fail("FRAME(" + config + ") was accepted");
+            } catch (BindingConfigParseException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testDelimiter() throws Exception {
+        SerialFrameDecoder decoder = SerialFrameDecoder.parse("DELIMITER:\\r\\n");
+
+        assertEquals(0, decoder.getTimeout());
+        assertFrames(decode(decoder, "T:21.5\r\nH:40\r\n"), "T:21.5", "H:40");
+        assertFrames(decode(decoder, "\r\n"), "");
+    }
+
+    @Test
+    public void testDelimiterEscapes() throws Exception {
+        assertFrames(decode(SerialFrameDecoder.parse("DELIMITER:\\x03"), "one\u0003two\u0003"), "one", "two");
+        assertFrames(decode(SerialFrameDecoder.parse("DELIMITER:;"), "a;b;c"), "a", "b");
+        assertFrames(decode(SerialFrameDecoder.parse("DELIMITER:\\t\\\\"), "a\t\\b"), "a");
+    }
+
+    @Test
+    public void testDelimiterSplitOverReads() throws Exception {
+        SerialFrameDecoder decoder = SerialFrameDecoder.parse("DELIMITER:\\r\\n");
+
+        assertFrames(decode(decoder, "T:2"));
+        assertFrames(decode(decoder, "1.5\r"));
+        assertFrames(decode(decoder, "\nH:4"), "T:21.5");
+        assertFrames(decode(decoder, "0\r\nP:"), "H:40");
+        assertFrames(decode(decoder, "1013\r\n"), "P:1013");
+    }
+
+    @Test
+    public void testDelimiterByteByByte() throws Exception {
+        SerialFrameDecoder decoder = SerialFrameDecoder.parse("DELIMITER:ab");
+
+        // a partial delimiter which isn't completed belongs to the frame
+        List<String> frames = new ArrayList<String>();
+        for (char c : "xaayabab".toCharArray()) {
+            frames.addAll(decode(decoder, String.valueOf(c)));
+        }
+        assertEquals(Arrays.asList("xaay", ""), frames);
+    }
+
+    @Test
+    public void testLength() throws Exception {
+        SerialFrameDecoder decoder = SerialFrameDecoder.parse("LENGTH:3");
+
+        assertEquals(0, decoder.getTimeout());
+        assertFrames(decode(decoder, "abcdefg"), "abc", "def");
+        assertFrames(decode(decoder, "h"));
+        assertFrames(decode(decoder, "i"), "ghi");
+    }
+
+    @Test
+    public void testOneBytePrefix() throws Exception {
+        SerialFrameDecoder decoder = SerialFrameDecoder.parse("PREFIX:1");
+
+        assertFrames(decode(decoder, "\u0002ab\u0000\u0001c"), "ab", "", "c");
+        assertFrames(decode(decoder, "\u0003x"));
+        assertFrames(decode(decoder, "yz\u0001"), "xyz");
+        assertFrames(decode(decoder, "!"), "!");
+    }
+
+    @Test
+    public void testTwoBytePrefix() throws Exception {
+        SerialFrameDecoder decoder = SerialFrameDecoder.parse("PREFIX:2");
+        byte[] frame = new byte[300];
+        Arrays.fill(frame, (byte) 'x');
+
+        // the length prefix is split over two reads as well
+        assertTrue(decoder.decode(new byte[] { 0x01 }, 1).isEmpty());
+        assertTrue(decoder.decode(new byte[] { 0x2c, 'x' }, 2).isEmpty());
+        List<byte[]> frames = decoder.decode(frame, 299);
+        assertEquals(1, frames.size());
+        assertArrayEquals(frame, frames.get(0));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        SerialFrameDecoder decoder = SerialFrameDecoder.parse("TIMEOUT:20");
+
+        assertEquals(20, decoder.getTimeout());
+        assertFrames(decode(decoder, "T:21"));
+        assertFrames(decode(decoder, ".5\r\n"));
+        assertEquals("T:21.5\r\n", new String(decoder.flush(), "US-ASCII"));
+        assertEquals(0, decoder.flush().length);
+        assertEquals(SerialFrameDecoder.DEFAULT_TIMEOUT, new SerialFrameDecoder().getTimeout());
+    }
+
+    @Test
+    public void testOversizeFrameIsDropped() throws Exception {
+        SerialFrameDecoder decoder = SerialFrameDecoder.parse("DELIMITER:\\n");
+        byte[] chunk = new byte[1000];
+        Arrays.fill(chunk, (byte) 'x');
+
+        for (int i = 0; i < 70; i++) {
+            assertTrue(decoder.decode(chunk, chunk.length).isEmpty());
+        }
+        List<String> frames = decode(decoder, "\nok\n");
+
+        // the first 66000 bytes were dropped when the frame got bigger than 65536 bytes
+        assertEquals(2, frames.size());
+        assertEquals(4000, frames.get(0).length());
+        assertEquals("ok", frames.get(1));
+    }
+
+    @Test
+    public void testOversizeTimeoutFrameIsFlushed() throws Exception {
+        SerialFrameDecoder decoder = new SerialFrameDecoder();
+        byte[] chunk = new byte[1000];
+
+        int frames = 0;
+        for (int i = 0; i < 70; i++) {
+            frames += decoder.decode(chunk, chunk.length).size();
+        }
+        assertEquals(1, frames);
+        assertEquals(70000 - 66000, decoder.flush().length);
+    }
+
+    @Test
+    public void testLongFramesReadByteByByteAreDecodedInLinearTime() throws Exception {
+        SerialFrameDecoder delimiterDecoder = SerialFrameDecoder.parse("DELIMITER:\\r\\n");
+        SerialFrameDecoder lengthDecoder = SerialFrameDecoder.parse("LENGTH:65536");
+        byte[] data = { 'x' };
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 65536; i++) {
+            assertTrue(delimiterDecoder.decode(data, 1).isEmpty());
+            assertEquals(i == 65535 ? 1 : 0, lengthDecoder.decode(data, 1).size());
+        }
+        assertEquals(65536, delimiterDecoder.decode("\r\n".getBytes("US-ASCII"), 2).get(0).length);
+        long millis = (System.nanoTime() - start) / 1000000;
+
+        // rescanning or copying the buffered bytes on every read takes several seconds
+        assertTrue("took " + millis + " ms", millis < 1000);
+    }
+
+    private static List<String> decode(SerialFrameDecoder decoder, String data) throws UnsupportedEncodingException {
+        byte[] bytes = data.getBytes("ISO-8859-1");
+        List<String> frames = new ArrayList<String>();
+        for (byte[] frame : decoder.decode(bytes, bytes.length)) {
+            frames.add(new String(frame, "ISO-8859-1"));
+        }
+        return frames;
+    }
+
+    private static void assertFrames(List<String> frames, String... expected) {
+        assertEquals(Arrays.asList(expected), frames);
+    }
+
+}
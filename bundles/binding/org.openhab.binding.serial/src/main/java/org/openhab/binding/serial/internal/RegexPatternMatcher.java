@@ -38,33 +38,11 @@ public class RegexPatternMatcher {
      */
     private static final Pattern SUBST_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
 
-    /**
-     * Returns compiled pattern for specific regular expression that is stored in patternCache
-     *
-     * @param regExpression
-     * @return
-     */
-    private static Pattern getPattern(String regExpression) {
-        return cache(regExpression);
-    }
-
-    /**
-     * Returns true if given regular expression is a substitution pattern
-     * This fact is indicated by patternCache containing "null" for given pattern
-     *
-     * @param regExpression
-     * @return
-     */
-    private static boolean isSubtitution(String regExpression) {
-        return cache(regExpression) == null;
-    }
-
     /**
      * Caches given regular expression.
      * If the expression is a substitution pattern, it marks it as a substitution with a null
      *
-     * @return Pattern from cache
-     * @see RegexPatternMatcher#isSubtitution isSubtitution
+     * @return Pattern from cache, null for a substitution pattern
      */
     private static synchronized Pattern cache(String regExpression) {
         if (!patternCache.containsKey(regExpression)) {
@@ -103,7 +81,8 @@ public class RegexPatternMatcher {
         logger.debug("about to transform '{}' by the function '{}'", source, regExpression);
 
         // Check if RegEx is a substitution (s/<regex>/result/g) or (s/<regex>/result/)
-        if (isSubtitution(regExpression)) {
+        Pattern pattern = cache(regExpression);
+        if (pattern == null) {
             Matcher substMatcher = SUBST_PATTERN.matcher(regExpression);
 
             // If there is no match of substitution, source is returned
@@ -124,7 +103,7 @@ public class RegexPatternMatcher {
             return new String[] { result };
         } else {
             // Not a substitution, return matches
-            Matcher matcher = getPattern(regExpression).matcher(source.trim());
+            Matcher matcher = pattern.matcher(source.trim());
 
             List<String> results = new ArrayList<>();
 
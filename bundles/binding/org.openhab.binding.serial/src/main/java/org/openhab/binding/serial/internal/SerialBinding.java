@@ -189,6 +189,7 @@ public class SerialBinding extends AbstractEventSubscriber implements BindingCon
         String stopCommand = null;
         String format = null;
         String charset = null;
+        SerialFrameDecoder frameDecoder = null;
 
         int parameterSplitterAt = bindingConfig.indexOf(",");
 
@@ -228,6 +229,9 @@ public class SerialBinding extends AbstractEventSubscriber implements BindingCon
                 } else if (substring.startsWith("CHARSET(")) {
                     charset = substring.substring(8, substring.length());
                     logger.debug("CHARSET: '{}'", charset);
+                } else if (substring.startsWith("FRAME(")) {
+                    frameDecoder = SerialFrameDecoder.parse(substring.substring(6, substring.length()));
+                    logger.debug("FRAME: '{}'", substring.substring(6, substring.length()));
                 } else {
                     logger.warn("Unrecognized transform: {}", substring);
                 }
@@ -261,6 +265,9 @@ public class SerialBinding extends AbstractEventSubscriber implements BindingCon
             }
 
             serialDevice.setEventPublisher(eventPublisher);
+            if (frameDecoder != null) {
+                serialDevice.setFrameDecoder(frameDecoder);
+            }
             try {
                 serialDevice.initialize();
             } catch (InitializationException e) {
@@ -63,6 +63,7 @@ public class SerialDevice implements SerialPortEventListener {
     private CommPortIdentifier portId;
     private SerialPort serialPort;
     private Charset charset;
+    private SerialFrameDecoder frameDecoder = new SerialFrameDecoder();
 
     private InputStream inputStream;
 
@@ -152,6 +153,24 @@ public class SerialDevice implements SerialPortEventListener {
         }
     }
 
+    /**
+     * Sets how the received bytes are split into frames, each frame is matched against the items separately.
+     *
+     * @param frameDecoder the decoder of this port
+     */
+    public void setFrameDecoder(SerialFrameDecoder frameDecoder) {
+        this.frameDecoder = frameDecoder;
+    }
+
+    /**
+     * Reads from the given stream instead of the serial port, used by tests.
+     *
+     * @param inputStream the stream to read the received bytes from
+     */
+    void setInputStream(InputStream inputStream) {
+        this.inputStream = inputStream;
+    }
+
     public void setEventPublisher(EventPublisher eventPublisher) {
         this.eventPublisher = eventPublisher;
     }
@@ -296,105 +315,151 @@ public class SerialDevice implements SerialPortEventListener {
                 break;
             case SerialPortEvent.DATA_AVAILABLE:
                 // we get here if data has been received
-                StringBuilder sb = new StringBuilder();
-                byte[] readBuffer = new byte[20];
-                try {
-                    do {
-                        // read data from serial device
-                        while (inputStream.available() > 0) {
-                            int bytes = inputStream.read(readBuffer);
-                            sb.append(new String(readBuffer, 0, bytes, charset));
+                receive();
+                break;
+        }
+    }
+
+    /**
+     * Reads the available bytes and processes the frames they complete. With an inter-byte timeout, reads until no
+     * byte was received for the timeout.
+     */
+    void receive() {
+        byte[] readBuffer = new byte[1024];
+        try {
+            int timeout = frameDecoder.getTimeout();
+            if (timeout > 0) {
+                // read until no byte was received for the timeout, so that interrupted transmissions are merged
+                long lastReceived = System.currentTimeMillis();
+                boolean processed = false;
+                while (true) {
+                    while (inputStream.available() > 0) {
+                        int bytes = inputStream.read(readBuffer);
+                        for (byte[] frame : frameDecoder.decode(readBuffer, bytes)) {
+                            processFrame(frame);
+                            processed = true;
                         }
+                        lastReceived = System.currentTimeMillis();
+                    }
+                    long wait = lastReceived + timeout - System.currentTimeMillis();
+                    if (wait <= 0) {
+                        break;
+                    }
+                    try {
+                        Thread.sleep(Math.min(wait, 5));
+                    } catch (InterruptedException e) {
+                        // ignore interruption
+                    }
+                }
+                byte[] frame = frameDecoder.flush();
+                if (frame.length > 0 || !processed) {
+                    // an empty frame still toggles switch and contact items
+                    processFrame(frame);
+                }
+            } else {
+                // dispatch complete frames right away, incomplete ones are kept until more data arrives
+                while (inputStream.available() > 0) {
+                    int bytes = inputStream.read(readBuffer);
+                    for (byte[] frame : frameDecoder.decode(readBuffer, bytes)) {
+                        processFrame(frame);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Error receiving data on serial port {}: {}", port, e.getMessage());
+        }
+    }
+
+    /**
+     * Posts the updates of all items for a received frame
+     *
+     * @param frame the received bytes
+     */
+    private void processFrame(byte[] frame) {
+        // sent data
+        String result = new String(frame, charset);
+
+        // send data to the bus
+        logger.debug("Received message '{}' on serial port {}", result, port);
+
+        if (eventPublisher != null) {
+            if (configMap != null && !configMap.isEmpty()) {
+                // items sharing a pattern are matched once per frame
+                Map<String, String[]> matchesByPattern = new HashMap<>();
+
+                for (Entry<String, ItemType> entry : configMap.entrySet()) {
+                    String pattern = entry.getValue().pattern;
+                    // use pattern
+                    if (pattern != null) {
                         try {
-                            // add wait states around reading the stream, so that interrupted transmissions are merged
-                            Thread.sleep(100);
-                        } catch (InterruptedException e) {
-                            // ignore interruption
-                        }
-                    } while (inputStream.available() > 0);
-                    // sent data
-                    String result = sb.toString();
-
-                    // send data to the bus
-                    logger.debug("Received message '{}' on serial port {}", result, port);
-
-                    if (eventPublisher != null) {
-                        if (configMap != null && !configMap.isEmpty()) {
-                            for (Entry<String, ItemType> entry : configMap.entrySet()) {
-                                String pattern = entry.getValue().pattern;
-                                // use pattern
-                                if (pattern != null) {
-                                    try {
-                                        String[] matches = RegexPatternMatcher.getMatches(pattern, result);
-
-                                        for (int i = 0; i < matches.length; i++) {
-                                            String match = matches[i];
-
-                                            try {
-                                                State state = null;
-
-                                                if (entry.getValue().type.equals(NumberItem.class)) {
-                                                    state = new DecimalType(match);
-                                                } else if (entry.getValue().type == RollershutterItem.class) {
-                                                    state = new PercentType(match);
-                                                } else {
-                                                    state = new StringType(match);
-                                                }
-
-                                                eventPublisher.postUpdate(entry.getKey(), state);
-                                            } catch (NumberFormatException e) {
-                                                logger.warn("Unable to convert regex result '{}' for item {} to number",
-                                                        result, entry.getKey());
-                                            }
-                                        }
-                                    } catch (TransformationException e) {
-                                        logger.warn("Unable to transform!", e);
-                                    }
-                                } else if (entry.getValue().type == StringItem.class) {
-                                    if (entry.getValue().base64) {
-                                        result = Base64.encodeBase64String(result.getBytes(charset));
-                                    }
-                                    eventPublisher.postUpdate(entry.getKey(), new StringType(result));
-
-                                } else if (entry.getValue().type == SwitchItem.class) {
-                                    if (result.trim().isEmpty()) {
-                                        eventPublisher.postUpdate(entry.getKey(), OnOffType.ON);
-                                        eventPublisher.postUpdate(entry.getKey(), OnOffType.OFF);
-                                    } else if (result.equals(getOnCommand(entry.getKey()))) {
-                                        eventPublisher.postUpdate(entry.getKey(), OnOffType.ON);
-                                    } else if (result.equals(getOffCommand(entry.getKey()))) {
-                                        eventPublisher.postUpdate(entry.getKey(), OnOffType.OFF);
-                                    }
-                                } else if (entry.getValue().type == ContactItem.class) {
-                                    if (result.trim().isEmpty()) {
-                                        eventPublisher.postUpdate(entry.getKey(), OpenClosedType.CLOSED);
-                                        eventPublisher.postUpdate(entry.getKey(), OpenClosedType.OPEN);
-                                    } else if (result.equals(getOnCommand(entry.getKey()))) {
-                                        eventPublisher.postUpdate(entry.getKey(), OpenClosedType.CLOSED);
-                                    } else if (result.equals(getOffCommand(entry.getKey()))) {
-                                        eventPublisher.postUpdate(entry.getKey(), OpenClosedType.OPEN);
-                                    }
-                                } else if (entry.getValue().type == RollershutterItem.class
-                                        || entry.getValue().type == DimmerItem.class) {
-                                    if (result.trim().isEmpty()) {
-                                        eventPublisher.postUpdate(entry.getKey(), new PercentType(50));
-                                    } else if (result.equals(getUpCommand(entry.getKey()))) {
-                                        eventPublisher.postUpdate(entry.getKey(), PercentType.HUNDRED);
-                                    } else if (result.equals(getDownCommand(entry.getKey()))) {
-                                        eventPublisher.postUpdate(entry.getKey(), PercentType.ZERO);
-                                    } else if (result.equals(getStopCommand(entry.getKey()))) {
-                                        eventPublisher.postUpdate(entry.getKey(), new PercentType(50));
+                            String[] matches = matchesByPattern.get(pattern);
+                            if (matches == null) {
+                                matches = RegexPatternMatcher.getMatches(pattern, result);
+                                matchesByPattern.put(pattern, matches);
+                            }
+
+                            for (int i = 0; i < matches.length; i++) {
+                                String match = matches[i];
+
+                                try {
+                                    State state = null;
+
+                                    if (entry.getValue().type.equals(NumberItem.class)) {
+                                        state = new DecimalType(match);
+                                    } else if (entry.getValue().type == RollershutterItem.class) {
+                                        state = new PercentType(match);
+                                    } else {
+                                        state = new StringType(match);
                                     }
+
+                                    eventPublisher.postUpdate(entry.getKey(), state);
+                                } catch (NumberFormatException e) {
+                                    logger.warn("Unable to convert regex result '{}' for item {} to number", result,
+                                            entry.getKey());
                                 }
                             }
+                        } catch (TransformationException e) {
+                            logger.warn("Unable to transform!", e);
+                        }
+                    } else if (entry.getValue().type == StringItem.class) {
+                        String value = result;
+                        if (entry.getValue().base64) {
+                            value = Base64.encodeBase64String(frame);
+                        }
+                        eventPublisher.postUpdate(entry.getKey(), new StringType(value));
+
+                    } else if (entry.getValue().type == SwitchItem.class) {
+                        if (result.trim().isEmpty()) {
+                            eventPublisher.postUpdate(entry.getKey(), OnOffType.ON);
+                            eventPublisher.postUpdate(entry.getKey(), OnOffType.OFF);
+                        } else if (result.equals(getOnCommand(entry.getKey()))) {
+                            eventPublisher.postUpdate(entry.getKey(), OnOffType.ON);
+                        } else if (result.equals(getOffCommand(entry.getKey()))) {
+                            eventPublisher.postUpdate(entry.getKey(), OnOffType.OFF);
+                        }
+                    } else if (entry.getValue().type == ContactItem.class) {
+                        if (result.trim().isEmpty()) {
+                            eventPublisher.postUpdate(entry.getKey(), OpenClosedType.CLOSED);
+                            eventPublisher.postUpdate(entry.getKey(), OpenClosedType.OPEN);
+                        } else if (result.equals(getOnCommand(entry.getKey()))) {
+                            eventPublisher.postUpdate(entry.getKey(), OpenClosedType.CLOSED);
+                        } else if (result.equals(getOffCommand(entry.getKey()))) {
+                            eventPublisher.postUpdate(entry.getKey(), OpenClosedType.OPEN);
+                        }
+                    } else if (entry.getValue().type == RollershutterItem.class
+                            || entry.getValue().type == DimmerItem.class) {
+                        if (result.trim().isEmpty()) {
+                            eventPublisher.postUpdate(entry.getKey(), new PercentType(50));
+                        } else if (result.equals(getUpCommand(entry.getKey()))) {
+                            eventPublisher.postUpdate(entry.getKey(), PercentType.HUNDRED);
+                        } else if (result.equals(getDownCommand(entry.getKey()))) {
+                            eventPublisher.postUpdate(entry.getKey(), PercentType.ZERO);
+                        } else if (result.equals(getStopCommand(entry.getKey()))) {
+                            eventPublisher.postUpdate(entry.getKey(), new PercentType(50));
                         }
-
                     }
-
-                } catch (IOException e) {
-                    logger.debug("Error receiving data on serial port {}: {}", port, e.getMessage());
                 }
-                break;
+            }
         }
     }
 
@@ -0,0 +1,272 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.serial.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.openhab.model.item.binding.BindingConfigParseException;
+
+/**
+ * Splits the byte stream of a serial port into frames. The framing is configured by <code>FRAME(...)</code>:
+ * <ul>
+ * <li><code>DELIMITER:&lt;chars&gt;</code> - a frame ends with the given delimiter, which is not part of the
+ * frame</li>
+ * <li><code>LENGTH:&lt;n&gt;</code> - every frame has <code>n</code> bytes</li>
+ * <li><code>PREFIX:&lt;1|2&gt;</code> - every frame starts with its length in one or two bytes (big endian),
+ * the prefix is not part of the frame</li>
+ * <li><code>TIMEOUT:&lt;ms&gt;</code> - a frame ends when no byte was received for the given time</li>
+ * </ul>
+ * Without a configuration the frame ends after 100ms without a byte.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class SerialFrameDecoder {
+
+    enum Mode {
+        DELIMITER,
+        LENGTH,
+        PREFIX,
+        TIMEOUT
+    }
+
+    /** the default inter-byte timeout in milliseconds */
+    static final int DEFAULT_TIMEOUT = 100;
+
+    /** incomplete frames are dropped when they get bigger than this */
+    private static final int MAX_FRAME_SIZE = 65536;
+
+    private final Mode mode;
+    private final byte[] delimiter;
+    private final int length;
+
+    /** the received bytes, the incomplete frame starts at <code>start</code> and ends before <code>end</code> */
+    private byte[] buffer = new byte[1024];
+    private int start = 0;
+    private int end = 0;
+
+    /** where the search for the next delimiter continues, the bytes before can't start one */
+    private int scanned = 0;
+
+    private SerialFrameDecoder(Mode mode, byte[] delimiter, int length) {
+        this.mode = mode;
+        this.delimiter = delimiter;
+        this.length = length;
+    }
+
+    /**
+     * Creates a decoder which ends a frame after {@link #DEFAULT_TIMEOUT} milliseconds without a byte.
+     */
+    public SerialFrameDecoder() {
+        this(Mode.TIMEOUT, null, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Parses the content of a <code>FRAME(...)</code> binding parameter.
+     *
+     * @param config the framing, e.g. <code>DELIMITER:\r\n</code>
+     * @return a new decoder
+     * @throws BindingConfigParseException if the framing is invalid
+     */
+    public static SerialFrameDecoder parse(String config) throws BindingConfigParseException {
+        int separatorAt = config.indexOf(':');
+        if (separatorAt < 1 || separatorAt == config.length() - 1) {
+            throw new BindingConfigParseException("Invalid FRAME '" + config + "', expected <mode>:<value>");
+        }
+
+        Mode mode;
+        try {
+            mode = Mode.valueOf(config.substring(0, separatorAt).trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BindingConfigParseException("Unknown FRAME mode in '" + config
+                    + "', valid modes are DELIMITER, LENGTH, PREFIX and TIMEOUT");
+        }
+
+        String value = config.substring(separatorAt + 1);
+        if (mode == Mode.DELIMITER) {
+            return new SerialFrameDecoder(mode, unescape(value), 0);
+        }
+
+        int number;
+        try {
+            number = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new BindingConfigParseException("Invalid number in FRAME '" + config + "'");
+        }
+        if (number < 1 || (mode == Mode.PREFIX && number > 2) || (mode == Mode.LENGTH && number > MAX_FRAME_SIZE)) {
+            throw new BindingConfigParseException("Value out of range in FRAME '" + config + "'");
+        }
+        return new SerialFrameDecoder(mode, null, number);
+    }
+
+    /**
+     * Converts <code>\r</code>, <code>\n</code>, <code>\t</code>, <code>\\</code> and <code>\xHH</code> escapes
+     * into bytes.
+     */
+    private static byte[] unescape(String value) throws BindingConfigParseException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\' || i == value.length() - 1) {
+                bytes.write(c);
+                continue;
+            }
+
+            char escaped = value.charAt(++i);
+            switch (escaped) {
+                case 'r':
+                    bytes.write('\r');
+                    break;
+                case 'n':
+                    bytes.write('\n');
+                    break;
+                case 't':
+                    bytes.write('\t');
+                    break;
+                case 'x':
+                    if (i + 2 >= value.length()) {
+                        throw new BindingConfigParseException("Invalid escape in FRAME delimiter '" + value + "'");
+                    }
+                    try {
+                        bytes.write(Integer.parseInt(value.substring(i + 1, i + 3), 16));
+                    } catch (NumberFormatException e) {
+                        throw new BindingConfigParseException("Invalid escape in FRAME delimiter '" + value + "'");
+                    }
+                    i += 2;
+                    break;
+                default:
+                    bytes.write(escaped);
+                    break;
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return the inter-byte timeout in milliseconds if frames end after a pause, otherwise 0
+     */
+    public int getTimeout() {
+        return mode == Mode.TIMEOUT ? length : 0;
+    }
+
+    /**
+     * Adds received bytes and returns the frames they complete. With an inter-byte timeout the bytes are only
+     * buffered until {@link #flush()} is called.
+     *
+     * @param data the received bytes
+     * @param count the number of valid bytes in <code>data</code>
+     * @return the completed frames, may be empty
+     */
+    public List<byte[]> decode(byte[] data, int count) {
+        append(data, count);
+        if (mode == Mode.TIMEOUT) {
+            if (end - start > MAX_FRAME_SIZE) {
+                return Collections.singletonList(flush());
+            }
+            return Collections.emptyList();
+        }
+
+        List<byte[]> frames = new ArrayList<>();
+        int frameEnd;
+        while ((frameEnd = findFrameEnd()) >= 0) {
+            switch (mode) {
+                case DELIMITER:
+                    frames.add(Arrays.copyOfRange(buffer, start, frameEnd - delimiter.length));
+                    break;
+                case PREFIX:
+                    frames.add(Arrays.copyOfRange(buffer, start + length, frameEnd));
+                    break;
+                default:
+                    frames.add(Arrays.copyOfRange(buffer, start, frameEnd));
+                    break;
+            }
+            start = frameEnd;
+            scanned = frameEnd;
+        }
+
+        if (start == end || end - start > MAX_FRAME_SIZE) {
+            start = 0;
+            end = 0;
+            scanned = 0;
+        }
+        return frames;
+    }
+
+    /**
+     * Appends received bytes to the buffer. The incomplete frame is only moved to the front when the buffer is full,
+     * and the buffer only grows if that isn't enough, so every byte is copied a constant number of times on average.
+     */
+    private void append(byte[] data, int count) {
+        if (end + count > buffer.length) {
+            if (start > 0) {
+                System.arraycopy(buffer, start, buffer, 0, end - start);
+                end -= start;
+                scanned -= start;
+                start = 0;
+            }
+            if (end + count > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, end + count));
+            }
+        }
+        System.arraycopy(data, 0, buffer, end, count);
+        end += count;
+    }
+
+    /**
+     * Returns the index after the frame starting at <code>start</code> or -1 if the frame is incomplete.
+     */
+    private int findFrameEnd() {
+        switch (mode) {
+            case DELIMITER:
+                for (int i = scanned; i <= end - delimiter.length; i++) {
+                    int j = 0;
+                    while (j < delimiter.length && buffer[i + j] == delimiter[j]) {
+                        j++;
+                    }
+                    if (j == delimiter.length) {
+                        return i + delimiter.length;
+                    }
+                }
+                // a delimiter may start in the last bytes and end in the next read
+                scanned = Math.max(scanned, end - delimiter.length + 1);
+                return -1;
+            case LENGTH:
+                return end - start >= length ? start + length : -1;
+            case PREFIX:
+                if (end - start < length) {
+                    return -1;
+                }
+                int frameLength = buffer[start] & 0xff;
+                if (length == 2) {
+                    frameLength = (frameLength << 8) | (buffer[start + 1] & 0xff);
+                }
+                int frameEnd = start + length + frameLength;
+                return frameEnd <= end ? frameEnd : -1;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Returns and removes all buffered bytes as one frame.
+     *
+     * @return the buffered bytes, may be empty
+     */
+    public byte[] flush() {
+        byte[] bytes = Arrays.copyOfRange(buffer, start, end);
+        start = 0;
+        end = 0;
+        scanned = 0;
+        return bytes;
+    }
+}
@@ -0,0 +1,430 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.snmp.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.snmp.SnmpBindingProvider;
+import org.openhab.core.binding.BindingChangeListener;
+import org.openhab.core.events.EventPublisher;
+import org.openhab.core.items.Item;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.items.StringItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.types.Command;
+import org.openhab.core.types.State;
+import org.osgi.service.cm.ConfigurationException;
+import org.snmp4j.CommandResponderEvent;
+import org.snmp4j.CommunityTarget;
+import org.snmp4j.MessageDispatcherImpl;
+import org.snmp4j.PDU;
+import org.snmp4j.Snmp;
+import org.snmp4j.event.ResponseEvent;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.smi.Address;
+import org.snmp4j.smi.GenericAddress;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.VariableBinding;
+
+/**
+ * Tests of the polling and the dispatching of received variables of the {@link SnmpBinding}, with the requests
+ * recorded instead of sent.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class SnmpBindingTest {
+
+    private static final Address AGENT = GenericAddress.parse("udp:192.168.1.10/161");
+
+    private static final Address OTHER_AGENT = GenericAddress.parse("udp:192.168.1.11/161");
+
+    private static final OID SYS_UPTIME = new OID("1.3.6.1.2.1.1.3.0");
+
+    private static final OID SYS_NAME = new OID("1.3.6.1.2.1.1.5.0");
+
+    private static final OID IF_IN_OCTETS = new OID("1.3.6.1.2.1.2.2.1.10.1");
+
+    private RecordingBinding binding;
+
+    private TestProvider provider;
+
+    private final Map<String, State> updates = new LinkedHashMap<String, State>();
+
+    private final EventPublisher eventPublisher = new EventPublisher() {
+        @Override
+        public void sendCommand(String itemName, Command command) {
+        }
+
+        @Override
+        public void postCommand(String itemName, Command command) {
+        }
+
+        @Override
+        public void postUpdate(String itemName, State newState) {
+            updates.put(itemName, newState);
+        }
+    };
+
+    @Before
+    public void setUp() throws ConfigurationException {
+        provider = new TestProvider();
+        binding = createBinding(null);
+    }
+
+    @After
+    public void tearDown() {
+        binding.deactivate();
+    }
+
+    @Test
+    public void testPollsDueOidsWithOneGetPerAgent() {
+        provider.bind("uptime", AGENT, SYS_UPTIME);
+        provider.bind("name", AGENT, SYS_NAME);
+        provider.bind("octets", AGENT, IF_IN_OCTETS);
+        provider.bind("otherUptime", OTHER_AGENT, SYS_UPTIME);
+        provider.bind("privateName", AGENT, SYS_NAME).community = "private";
+        provider.bind("v2Name", AGENT, SYS_NAME).version = SnmpConstants.version2c;
+
+        binding.execute();
+
+        assertEquals(4, binding.pdus.size());
+        for (PDU pdu : binding.pdus) {
+            // the items are bound to exact OIDs, GETBULK would return their successors
+            assertEquals(PDU.GET, pdu.getType());
+        }
+        assertEquals(Arrays.asList(SYS_UPTIME, SYS_NAME, IF_IN_OCTETS), getOids(binding.pdus.get(0)));
+        assertEquals(AGENT, binding.targets.get(0).getAddress());
+        assertEquals(new OctetString("public"), binding.targets.get(0).getCommunity());
+        assertEquals(Arrays.asList(SYS_UPTIME), getOids(binding.pdus.get(1)));
+        assertEquals(OTHER_AGENT, binding.targets.get(1).getAddress());
+        assertEquals(new OctetString("private"), binding.targets.get(2).getCommunity());
+        assertEquals(SnmpConstants.version2c, binding.targets.get(3).getVersion());
+    }
+
+    @Test
+    public void testPollsSharedOidOnce() {
+        provider.bind("uptime", AGENT, SYS_UPTIME);
+        provider.bind("uptimeSeconds", AGENT, SYS_UPTIME);
+
+        binding.execute();
+
+        assertEquals(1, binding.pdus.size());
+        assertEquals(Arrays.asList(SYS_UPTIME), getOids(binding.pdus.get(0)));
+    }
+
+    @Test
+    public void testCapsVarBindsPerPdu() throws ConfigurationException {
+        binding.deactivate();
+        binding = createBinding("2");
+        for (int i = 1; i <= 5; i++) {
+            provider.bind("octets" + i, AGENT, new OID("1.3.6.1.2.1.2.2.1.10." + i));
+        }
+
+        binding.execute();
+
+        assertEquals(3, binding.pdus.size());
+        assertEquals(2, binding.pdus.get(0).size());
+        assertEquals(2, binding.pdus.get(1).size());
+        assertEquals(new OID("1.3.6.1.2.1.2.2.1.10.5"), binding.pdus.get(2).get(0).getOid());
+        for (CommunityTarget target : binding.targets) {
+            assertEquals(AGENT, target.getAddress());
+        }
+    }
+
+    @Test
+    public void testDefaultVarBindsPerPdu() {
+        for (int i = 1; i <= 25; i++) {
+            provider.bind("octets" + i, AGENT, new OID("1.3.6.1.2.1.2.2.1.10." + i));
+        }
+
+        binding.execute();
+
+        assertEquals(2, binding.pdus.size());
+        assertEquals(20, binding.pdus.get(0).size());
+        assertEquals(5, binding.pdus.get(1).size());
+    }
+
+    @Test
+    public void testPollsOnlyDueItems() {
+        provider.bind("uptime", AGENT, SYS_UPTIME);
+        provider.bind("trapOnly", AGENT, SYS_NAME).refreshInterval = 0;
+
+        binding.execute();
+        binding.execute();
+
+        assertEquals(1, binding.pdus.size());
+        assertEquals(Arrays.asList(SYS_UPTIME), getOids(binding.pdus.get(0)));
+    }
+
+    @Test
+    public void testDispatchesByAddressAndOid() {
+        provider.bind("uptime", AGENT, SYS_UPTIME);
+        provider.bind("uptimeCopy", AGENT, SYS_UPTIME);
+        provider.bind("name", AGENT, SYS_NAME).itemType = StringItem.class;
+        provider.bind("otherUptime", OTHER_AGENT, SYS_UPTIME);
+
+        binding.onResponse(response(AGENT, new VariableBinding(SYS_UPTIME, new Integer32(42)),
+                new VariableBinding(SYS_NAME, new OctetString("router")),
+                new VariableBinding(IF_IN_OCTETS, new Integer32(7))));
+
+        assertEquals(3, updates.size());
+        assertEquals(new DecimalType(42), updates.get("uptime"));
+        assertEquals(new DecimalType(42), updates.get("uptimeCopy"));
+        assertEquals(new StringType("router"), updates.get("name"));
+        assertFalse(updates.containsKey("otherUptime"));
+    }
+
+    @Test
+    public void testIgnoresUnknownAgent() {
+        provider.bind("uptime", AGENT, SYS_UPTIME);
+
+        binding.onResponse(response(GenericAddress.parse("udp:192.168.1.99/161"),
+                new VariableBinding(SYS_UPTIME, new Integer32(42))));
+
+        assertTrue(updates.isEmpty());
+    }
+
+    @Test
+    public void testRebuildsIndexAfterBindingChange() {
+        provider.bind("uptime", AGENT, SYS_UPTIME);
+        binding.onResponse(response(AGENT, new VariableBinding(SYS_NAME, new Integer32(1))));
+        assertTrue(updates.isEmpty());
+
+        provider.bind("name", AGENT, SYS_NAME);
+        binding.bindingChanged(provider, "name");
+        binding.onResponse(response(AGENT, new VariableBinding(SYS_NAME, new Integer32(1))));
+        assertEquals(new DecimalType(1), updates.get("name"));
+
+        provider.unbind("name");
+        binding.allBindingsChanged(provider);
+        updates.clear();
+        binding.onResponse(response(AGENT, new VariableBinding(SYS_NAME, new Integer32(2))));
+        assertTrue(updates.isEmpty());
+    }
+
+    @Test
+    public void testDispatchesTrapFromAnyPort() {
+        provider.bind("uptime", AGENT, SYS_UPTIME);
+        PDU trap = new PDU();
+        trap.setType(PDU.TRAP);
+        trap.add(new VariableBinding(SYS_UPTIME, new Integer32(5)));
+
+        Address sender = GenericAddress.parse("udp:192.168.1.10/50123");
+        binding.processPdu(new CommandResponderEvent(new MessageDispatcherImpl(), null, sender, 0, 0, null, 0, null,
+                trap, 0, null));
+
+        assertEquals(new DecimalType(5), updates.get("uptime"));
+    }
+
+    @Test
+    public void testRequestsOidsSeparatelyAfterFailedGet() {
+        provider.bind("uptime", AGENT, SYS_UPTIME);
+        provider.bind("name", AGENT, SYS_NAME);
+        binding.execute();
+        PDU request = binding.pdus.get(0);
+        CommunityTarget target = binding.targets.get(0);
+        binding.pdus.clear();
+
+        PDU error = new PDU();
+        error.setType(PDU.RESPONSE);
+        error.setErrorStatus(PDU.noSuchName);
+        error.setErrorIndex(2);
+        binding.onResponse(new ResponseEvent(new Snmp(), AGENT, request, error, target));
+
+        assertTrue(updates.isEmpty());
+        assertEquals(2, binding.pdus.size());
+        assertEquals(Arrays.asList(SYS_UPTIME), getOids(binding.pdus.get(0)));
+        assertEquals(Arrays.asList(SYS_NAME), getOids(binding.pdus.get(1)));
+
+        // a failed single OID is not requested again
+        binding.onResponse(new ResponseEvent(new Snmp(), AGENT, binding.pdus.get(0), error, target));
+        assertEquals(2, binding.pdus.size());
+    }
+
+    /**
+     * Creates a binding whose refresh thread isn't started, so the tests call {@link SnmpBinding#execute()}.
+     */
+    private RecordingBinding createBinding(String maxVarBinds) throws ConfigurationException {
+        RecordingBinding binding = new RecordingBinding();
+        Hashtable<String, Object> config = new Hashtable<String, Object>();
+        // listen on any free port, the requests are recorded anyway
+        config.put("port", "0");
+        if (maxVarBinds != null) {
+            config.put("maxvarbinds", maxVarBinds);
+        }
+        // the binding is configured before the provider is added, which keeps the refresh thread from starting
+        binding.updated(config);
+        binding.addBindingProvider(provider);
+        binding.setEventPublisher(eventPublisher);
+        return binding;
+    }
+
+    private static ResponseEvent response(Address address, VariableBinding... variableBindings) {
+        PDU request = new PDU();
+        request.setType(PDU.GET);
+        PDU response = new PDU();
+        response.setType(PDU.RESPONSE);
+        for (VariableBinding variableBinding : variableBindings) {
+            request.add(new VariableBinding(variableBinding.getOid()));
+            response.add(variableBinding);
+        }
+        return new ResponseEvent(new Snmp(), address, request, response, null);
+    }
+
+    private static List<OID> getOids(PDU pdu) {
+        List<OID> oids = new ArrayList<OID>();
+        for (VariableBinding variableBinding : pdu.getVariableBindings()) {
+            oids.add(variableBinding.getOid());
+        }
+        return oids;
+    }
+
+    private static class RecordingBinding extends SnmpBinding {
+
+        final List<CommunityTarget> targets = new ArrayList<CommunityTarget>();
+
+        final List<PDU> pdus = new ArrayList<PDU>();
+
+        @Override
+        void sendPDU(CommunityTarget target, PDU pdu) {
+            targets.add(target);
+            pdus.add(pdu);
+        }
+    }
+
+    private static class Binding {
+        Address address;
+        OID oid;
+        String community = "public";
+        int version = SnmpConstants.version1;
+        int refreshInterval = 60000;
+        Class<? extends Item> itemType = NumberItem.class;
+    }
+
+    private static class TestProvider implements SnmpBindingProvider {
+
+        private final Map<String, Binding> bindings = new LinkedHashMap<String, Binding>();
+
+        Binding bind(String itemName, Address address, OID oid) {
+            Binding binding = new Binding();
+            binding.address = address;
+            binding.oid = oid;
+            bindings.put(itemName, binding);
+            return binding;
+        }
+
+        void unbind(String itemName) {
+            bindings.remove(itemName);
+        }
+
+        @Override
+        public void addBindingChangeListener(BindingChangeListener listener) {
+        }
+
+        @Override
+        public void removeBindingChangeListener(BindingChangeListener listener) {
+        }
+
+        @Override
+        public boolean providesBindingFor(String itemName) {
+            return bindings.containsKey(itemName);
+        }
+
+        @Override
+        public boolean providesBinding() {
+            return !bindings.isEmpty();
+        }
+
+        @Override
+        public Collection<String> getItemNames() {
+            return bindings.keySet();
+        }
+
+        @Override
+        public Class<? extends Item> getItemType(String itemName) {
+            return bindings.get(itemName).itemType;
+        }
+
+        @Override
+        public OID getOID(String itemName) {
+            return bindings.get(itemName).oid;
+        }
+
+        @Override
+        public OID getOID(String itemName, Command command) {
+            return null;
+        }
+
+        @Override
+        public int getSnmpVersion(String itemName) {
+            return bindings.get(itemName).version;
+        }
+
+        @Override
+        public int getSnmpVersion(String itemName, Command command) {
+            return 0;
+        }
+
+        @Override
+        public int getRefreshInterval(String itemName) {
+            return bindings.get(itemName).refreshInterval;
+        }
+
+        @Override
+        public List<String> getInBindingItemNames() {
+            return new ArrayList<String>(bindings.keySet());
+        }
+
+        @Override
+        public Address getAddress(String itemName) {
+            return bindings.get(itemName).address;
+        }
+
+        @Override
+        public Address getAddress(String itemName, Command command) {
+            return null;
+        }
+
+        @Override
+        public OctetString getCommunity(String itemName) {
+            return new OctetString(bindings.get(itemName).community);
+        }
+
+        @Override
+        public OctetString getCommunity(String itemName, Command command) {
+            return null;
+        }
+
+        @Override
+        public Integer32 getValue(String itemName, Command command) {
+            return null;
+        }
+
+        @Override
+        public String doTransformation(String itemName, String value) {
+            return value;
+        }
+    }
+
+}
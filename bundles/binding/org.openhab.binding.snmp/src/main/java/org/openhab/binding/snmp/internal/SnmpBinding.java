@@ -9,13 +9,17 @@
 package org.openhab.binding.snmp.internal;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Dictionary;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.snmp.SnmpBindingProvider;
 import org.openhab.core.binding.AbstractActiveBinding;
+import org.openhab.core.binding.BindingProvider;
 import org.openhab.core.items.Item;
 import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.library.items.StringItem;
@@ -76,6 +80,10 @@ public class SnmpBinding extends AbstractActiveBinding<SnmpBindingProvider>
     private static int timeout = 1500;
     private static int retries = 0;
 
+    private static final int DEFAULT_MAX_VARBINDS = 20;
+    /** The maximum number of OIDs polled with one GET request */
+    private static int maxVarBinds = DEFAULT_MAX_VARBINDS;
+
     /**
      * the interval to find new refresh candidates (defaults to 1000
      * milliseconds)
@@ -84,6 +92,15 @@ public class SnmpBinding extends AbstractActiveBinding<SnmpBindingProvider>
 
     private Map<String, Long> lastUpdateMap = new HashMap<String, Long>();
 
+    /**
+     * The in binding items by address and OID, to route the variables of a received PDU directly to their items.
+     * It is rebuilt on first use after the bindings have changed.
+     */
+    private volatile Map<Address, Map<OID, List<String>>> itemIndex = null;
+
+    /** guards the rebuild and the reset of {@link #itemIndex}, so a stale rebuild can't outlive a reset */
+    private final Object itemIndexLock = new Object();
+
     @Override
     public void activate() {
         logger.debug("SNMP binding activated");
@@ -212,55 +229,146 @@ public class SnmpBinding extends AbstractActiveBinding<SnmpBindingProvider>
         // address.
         ((Snmp) event.getSource()).cancel(event.getRequest(), this);
 
-        dispatchPdu(event.getPeerAddress(), event.getResponse());
+        PDU request = event.getRequest();
+        PDU response = event.getResponse();
+        if (response != null && response.getErrorStatus() != PDU.noError && request != null
+                && request.getType() == PDU.GET && request.size() > 1
+                && event.getUserObject() instanceof CommunityTarget) {
+            // a single unknown OID fails the whole request in SNMPv1, and the response may be too big,
+            // so the OIDs are requested one by one then
+            logger.debug("SNMP: GET of {} OIDs from {} failed with '{}', requesting them separately", request.size(),
+                    event.getPeerAddress(), response.getErrorStatusText());
+            CommunityTarget target = (CommunityTarget) event.getUserObject();
+            for (VariableBinding variableBinding : request.getVariableBindings()) {
+                PDU pdu = new PDU();
+                pdu.add(new VariableBinding(variableBinding.getOid()));
+                pdu.setType(PDU.GET);
+                sendPDU(target, pdu);
+            }
+            return;
+        }
+
+        dispatchPdu(event.getPeerAddress(), response);
     }
 
     private void dispatchPdu(Address address, PDU pdu) {
         if (pdu != null & address != null) {
             logger.debug("Received PDU from '{}' '{}'", address, pdu);
-            for (SnmpBindingProvider provider : providers) {
-                for (String itemName : provider.getItemNames()) {
-                    // Check the IP address
-                    if (!provider.getAddress(itemName).equals(address)) {
+            Map<OID, List<String>> addressItems = getItemIndex().get(address);
+            if (addressItems == null) {
+                logger.trace("No items bound to address '{}'", address);
+                return;
+            }
+
+            for (VariableBinding variableBinding : pdu.getVariableBindings()) {
+                List<String> itemNames = addressItems.get(variableBinding.getOid());
+                if (itemNames == null) {
+                    logger.trace("No item bound to OID '{}'", variableBinding.getOid());
+                    continue;
+                }
+
+                Variable variable = variableBinding.getVariable();
+                for (String itemName : itemNames) {
+                    SnmpBindingProvider provider = getProvider(itemName);
+                    if (provider == null) {
                         continue;
                     }
 
-                    // Check the OID
-                    OID oid = provider.getOID(itemName);
-                    Variable variable = pdu.getVariable(oid);
-                    if (variable != null) {
-                        Class<? extends Item> itemType = provider.getItemType(itemName);
-
-                        // Do any transformations
-                        String value = variable.toString();
-                        try {
-                            value = provider.doTransformation(itemName, value);
-                        } catch (TransformationException e) {
-                            logger.error("Transformation error with item {}: {}", itemName, e);
-                        }
+                    Class<? extends Item> itemType = provider.getItemType(itemName);
+
+                    // Do any transformations
+                    String value = variable.toString();
+                    try {
+                        value = provider.doTransformation(itemName, value);
+                    } catch (TransformationException e) {
+                        logger.error("Transformation error with item {}: {}", itemName, e);
+                    }
+
+                    // Change to a state
+                    State state = null;
+                    if (itemType.isAssignableFrom(StringItem.class)) {
+                        state = StringType.valueOf(value);
+                    } else if (itemType.isAssignableFrom(NumberItem.class)) {
+                        state = DecimalType.valueOf(value);
+                    } else if (itemType.isAssignableFrom(SwitchItem.class)) {
+                        state = OnOffType.valueOf(value);
+                    }
+
+                    if (state != null) {
+                        eventPublisher.postUpdate(itemName, state);
+                    } else {
+                        logger.debug("'{}' couldn't be parsed to a State. Valid State-Types are String and Number",
+                                variable.toString());
+                    }
+                }
+            }
+        }
+    }
 
-                        // Change to a state
-                        State state = null;
-                        if (itemType.isAssignableFrom(StringItem.class)) {
-                            state = StringType.valueOf(value);
-                        } else if (itemType.isAssignableFrom(NumberItem.class)) {
-                            state = DecimalType.valueOf(value);
-                        } else if (itemType.isAssignableFrom(SwitchItem.class)) {
-                            state = OnOffType.valueOf(value);
+    /**
+     * Returns the in binding items by address and OID, building the index if the bindings have changed.
+     */
+    private Map<Address, Map<OID, List<String>>> getItemIndex() {
+        Map<Address, Map<OID, List<String>>> index = itemIndex;
+        if (index != null) {
+            return index;
+        }
+        synchronized (itemIndexLock) {
+            index = itemIndex;
+            if (index == null) {
+                index = new HashMap<Address, Map<OID, List<String>>>();
+                for (SnmpBindingProvider provider : providers) {
+                    for (String itemName : provider.getInBindingItemNames()) {
+                        Address address = provider.getAddress(itemName);
+                        OID oid = provider.getOID(itemName);
+                        if (address == null || oid == null) {
+                            continue;
                         }
 
-                        if (state != null) {
-                            eventPublisher.postUpdate(itemName, state);
-                        } else {
-                            logger.debug("'{}' couldn't be parsed to a State. Valid State-Types are String and Number",
-                                    variable.toString());
+                        Map<OID, List<String>> addressItems = index.get(address);
+                        if (addressItems == null) {
+                            addressItems = new HashMap<OID, List<String>>();
+                            index.put(address, addressItems);
                         }
-                    } else {
-                        logger.trace("PDU doesn't contain a variable with OID '{}'", oid.toString());
+                        List<String> itemNames = addressItems.get(oid);
+                        if (itemNames == null) {
+                            itemNames = new ArrayList<String>(1);
+                            addressItems.put(oid, itemNames);
+                        }
+                        itemNames.add(itemName);
                     }
                 }
+                itemIndex = index;
+            }
+            return index;
+        }
+    }
+
+    private SnmpBindingProvider getProvider(String itemName) {
+        for (SnmpBindingProvider provider : providers) {
+            if (provider.providesBindingFor(itemName)) {
+                return provider;
             }
         }
+        return null;
+    }
+
+    /**
+     * @{inheritDoc
+     */
+    @Override
+    public void bindingChanged(BindingProvider provider, String itemName) {
+        resetItemIndex();
+        super.bindingChanged(provider, itemName);
+    }
+
+    /**
+     * @{inheritDoc
+     */
+    @Override
+    public void allBindingsChanged(BindingProvider provider) {
+        resetItemIndex();
+        super.allBindingsChanged(provider);
     }
 
     /**
@@ -306,12 +414,7 @@ public class SnmpBinding extends AbstractActiveBinding<SnmpBindingProvider>
         pdu.setRequestID(new Integer32(1));
 
         logger.debug("SNMP: Send CMD PDU {} {}", providerCmd.getAddress(itemName, command), pdu);
-
-        if (snmp == null) {
-            logger.error("SNMP: snmp not initialised - aborting request");
-        } else {
-            sendPDU(target, pdu);
-        }
+        sendPDU(target, pdu);
     }
 
     /**
@@ -319,6 +422,9 @@ public class SnmpBinding extends AbstractActiveBinding<SnmpBindingProvider>
      */
     @Override
     public void execute() {
+        // the due OIDs of each agent, community and version are polled together
+        Map<String, PollRequest> requests = new LinkedHashMap<String, PollRequest>();
+
         for (SnmpBindingProvider provider : providers) {
             for (String itemName : provider.getInBindingItemNames()) {
                 int refreshInterval = provider.getRefreshInterval(itemName);
@@ -339,32 +445,70 @@ public class SnmpBinding extends AbstractActiveBinding<SnmpBindingProvider>
                 if (needsUpdate) {
                     logger.debug("Item '{}' is about to be refreshed", itemName);
 
-                    // Set up the target
-                    CommunityTarget target = new CommunityTarget();
-                    target.setCommunity(provider.getCommunity(itemName));
-                    target.setAddress(provider.getAddress(itemName));
-                    target.setRetries(retries);
-                    target.setTimeout(timeout);
-                    target.setVersion(provider.getSnmpVersion(itemName));
-
-                    // Create the PDU
-                    PDU pdu = new PDU();
-                    pdu.add(new VariableBinding(provider.getOID(itemName)));
-                    pdu.setType(PDU.GET);
-
-                    logger.debug("SNMP: Send PDU {} {}", provider.getAddress(itemName), pdu);
-
-                    if (snmp == null) {
-                        logger.error("SNMP: snmp not initialised - aborting request");
-                    } else {
-                        sendPDU(target, pdu);
+                    Address address = provider.getAddress(itemName);
+                    OctetString itemCommunity = provider.getCommunity(itemName);
+                    int version = provider.getSnmpVersion(itemName);
+                    String key = address + "#" + itemCommunity + "#" + version;
+
+                    PollRequest request = requests.get(key);
+                    if (request == null) {
+                        // Set up the target
+                        CommunityTarget target = new CommunityTarget();
+                        target.setCommunity(itemCommunity);
+                        target.setAddress(address);
+                        target.setRetries(retries);
+                        target.setTimeout(timeout);
+                        target.setVersion(version);
+
+                        request = new PollRequest(target);
+                        requests.put(key, request);
                     }
+                    request.add(provider.getOID(itemName));
 
                     lastUpdateMap.put(itemName, System.currentTimeMillis());
                 }
             }
         }
 
+        for (PollRequest request : requests.values()) {
+            for (PDU pdu : request.getPDUs()) {
+                logger.debug("SNMP: Send PDU {} {}", request.target.getAddress(), pdu);
+                sendPDU(request.target, pdu);
+            }
+        }
+    }
+
+    /**
+     * The OIDs to poll from one target, split into GET requests of at most <code>maxVarBinds</code> OIDs.
+     */
+    private static class PollRequest {
+        private final CommunityTarget target;
+        private final List<OID> oids = new ArrayList<OID>();
+
+        PollRequest(CommunityTarget target) {
+            this.target = target;
+        }
+
+        void add(OID oid) {
+            if (!oids.contains(oid)) {
+                oids.add(oid);
+            }
+        }
+
+        List<PDU> getPDUs() {
+            List<PDU> pdus = new ArrayList<PDU>();
+            PDU pdu = null;
+            for (OID oid : oids) {
+                if (pdu == null || pdu.size() >= maxVarBinds) {
+                    // Create the PDU
+                    pdu = new PDU();
+                    pdu.setType(PDU.GET);
+                    pdus.add(pdu);
+                }
+                pdu.add(new VariableBinding(oid));
+            }
+            return pdus;
+        }
     }
 
     protected void addBindingProvider(SnmpBindingProvider bindingProvider) {
@@ -373,6 +517,13 @@ public class SnmpBinding extends AbstractActiveBinding<SnmpBindingProvider>
 
     protected void removeBindingProvider(SnmpBindingProvider bindingProvider) {
         super.removeBindingProvider(bindingProvider);
+        resetItemIndex();
+    }
+
+    private void resetItemIndex() {
+        synchronized (itemIndexLock) {
+            itemIndex = null;
+        }
     }
 
     /**
@@ -429,6 +580,14 @@ public class SnmpBinding extends AbstractActiveBinding<SnmpBindingProvider>
                         SnmpBinding.retries);
             }
 
+            String maxVarBindsString = (String) config.get("maxvarbinds");
+            if (StringUtils.isNotBlank(maxVarBindsString) && maxVarBindsString.matches("\\d+")
+                    && Integer.parseInt(maxVarBindsString) > 0) {
+                SnmpBinding.maxVarBinds = Integer.parseInt(maxVarBindsString);
+            } else {
+                SnmpBinding.maxVarBinds = DEFAULT_MAX_VARBINDS;
+            }
+            logger.debug("SNMP GET requests contain up to {} OIDs", SnmpBinding.maxVarBinds);
         }
 
         for (SnmpBindingProvider provider : providers) {
@@ -444,9 +603,16 @@ public class SnmpBinding extends AbstractActiveBinding<SnmpBindingProvider>
         setProperlyConfigured(true);
     }
 
-    private void sendPDU(CommunityTarget target, PDU pdu) {
+    /**
+     * Sends a request asynchronously, the response is passed to {@link #onResponse(ResponseEvent)}.
+     */
+    void sendPDU(CommunityTarget target, PDU pdu) {
+        if (snmp == null) {
+            logger.error("SNMP: snmp not initialised - aborting request");
+            return;
+        }
         try {
-            snmp.send(pdu, target, null, this);
+            snmp.send(pdu, target, target, this);
         } catch (IOException e) {
             logger.error("Error sending PDU", e);
         }
@@ -11,15 +11,17 @@ package org.openhab.binding.sonos.internal;
 import static org.quartz.JobBuilder.newJob;
 import static org.quartz.SimpleScheduleBuilder.simpleSchedule;
 import static org.quartz.TriggerBuilder.newTrigger;
-import static org.quartz.impl.matchers.GroupMatcher.jobGroupEquals;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -28,6 +30,7 @@ import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.sonos.SonosBindingProvider;
 import org.openhab.binding.sonos.SonosCommandType;
 import org.openhab.core.binding.AbstractActiveBinding;
+import org.openhab.core.binding.BindingProvider;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.StringType;
@@ -43,7 +46,6 @@ import org.quartz.JobDataMap;
 import org.quartz.JobDetail;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
-import org.quartz.JobKey;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 import org.quartz.Trigger;
@@ -105,6 +107,11 @@ public class SonosBinding extends AbstractActiveBinding<SonosBindingProvider>imp
     private Map<String, SonosZonePlayerState> sonosSavedPlayerState = null;
     private List<SonosZoneGroup> sonosSavedGroupState = null;
 
+    /** the names of the Quartz polling jobs scheduled by this binding */
+    private final Set<String> pollingJobs = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    /** <code>true</code> if the polling jobs need to be (re-)established on the next refresh */
+    private volatile boolean pollingJobsDirty = true;
+
     private class PlayerCache extends ArrayList<SonosZonePlayer> {
 
         private static final long serialVersionUID = 7973128806169191738L;
@@ -213,6 +220,8 @@ public class SonosBinding extends AbstractActiveBinding<SonosBindingProvider>imp
                 thePlayer.setDevice(device);
                 thePlayer.setService(upnpService);
                 thePlayer.updateCurrentZoneName();
+                // polling jobs for this device can be set up now
+                pollingJobsDirty = true;
 
                 // add GENA service to capture zonegroup information
                 Service service = device.findService(new UDAServiceId("ZoneGroupTopology"));
@@ -285,6 +294,18 @@ public class SonosBinding extends AbstractActiveBinding<SonosBindingProvider>imp
         // Nothing to do here. We start the binding when the first item bindigconfig is processed
     }
 
+    @Override
+    public void bindingChanged(BindingProvider provider, String itemName) {
+        super.bindingChanged(provider, itemName);
+        pollingJobsDirty = true;
+    }
+
+    @Override
+    public void allBindingsChanged(BindingProvider provider) {
+        super.allBindingsChanged(provider);
+        pollingJobsDirty = true;
+    }
+
     @Override
     protected void internalReceiveCommand(String itemName, Command command) {
 
@@ -764,11 +785,20 @@ public class SonosBinding extends AbstractActiveBinding<SonosBindingProvider>imp
                 bindingStarted = true;
             }
 
+            // the item bindings and the discovered devices only change occasionally, so only look for new
+            // players and polling jobs if any of them changed since the last refresh
+            if (!pollingJobsDirty) {
+                return;
+            }
+            pollingJobsDirty = false;
+
             Scheduler sched = null;
             try {
                 sched = StdSchedulerFactory.getDefaultScheduler();
             } catch (SchedulerException e) {
                 logger.error("An exception occurred while getting a reference to the Quartz Scheduler");
+                pollingJobsDirty = true;
+                return;
             }
 
             // Cycle through the Items and setup sonos zone players if required
@@ -799,73 +829,55 @@ public class SonosBinding extends AbstractActiveBinding<SonosBindingProvider>imp
                 }
             }
 
-            // Cycle through the item binding configuration that define polling criteria
+            // Cycle through the item binding configuration that define polling criteria. There is a single job per
+            // zone player and job class, no matter how many items are bound to it.
             for (SonosCommandType sonosCommandType : SonosCommandType.getPolling()) {
                 for (SonosBindingProvider provider : providers) {
                     for (String itemName : provider.getItemNames(sonosCommandType.getSonosCommand())) {
                         for (Command aCommand : provider.getCommands(itemName, sonosCommandType.getSonosCommand())) {
 
+                            String sonosID = provider.getSonosID(itemName, aCommand);
+                            String jobName = sonosID + "-" + sonosCommandType.getJobClass().toString();
+                            if (pollingJobs.contains(jobName)) {
+                                continue;
+                            }
+
                             // We are dealing with a valid device
-                            SonosZonePlayer thePlayer = sonosZonePlayerCache
-                                    .getById(provider.getSonosID(itemName, aCommand));
-
-                            if (thePlayer != null) {
-
-                                RemoteDevice theDevice = thePlayer.getDevice();
-
-                                // Only set up a polling job if the device supports the given SonosCommandType
-                                // Not all Sonos devices have the same capabilities
-                                if (theDevice != null) {
-                                    if (theDevice
-                                            .findService(new UDAServiceId(sonosCommandType.getService())) != null) {
-
-                                        boolean jobExists = false;
-
-                                        // enumerate each job group
-                                        try {
-                                            for (String group : sched.getJobGroupNames()) {
-                                                // enumerate each job in group
-                                                for (JobKey jobKey : sched.getJobKeys(jobGroupEquals(group))) {
-                                                    if (jobKey.getName().equals(provider.getSonosID(itemName, aCommand)
-                                                            + "-" + sonosCommandType.getJobClass().toString())) {
-                                                        jobExists = true;
-                                                        break;
-                                                    }
-                                                }
-                                            }
-                                        } catch (SchedulerException e1) {
-                                            logger.error(
-                                                    "An exception occurred while quering the Quartz Scheduler ({})",
-                                                    e1.getMessage());
-                                        }
-
-                                        if (!jobExists) {
-                                            // set up the Quartz jobs
-                                            JobDataMap map = new JobDataMap();
-                                            map.put("Player", thePlayer);
-
-                                            JobDetail job = newJob(sonosCommandType.getJobClass()).withIdentity(
-                                                    provider.getSonosID(itemName, aCommand) + "-"
-                                                            + sonosCommandType.getJobClass().toString(),
-                                                    "Sonos-" + provider.toString()).usingJobData(map).build();
-
-                                            Trigger trigger = newTrigger()
-                                                    .withIdentity(
-                                                            provider.getSonosID(itemName, aCommand) + "-"
-                                                                    + sonosCommandType.getJobClass().toString(),
-                                                            "Sonos-" + provider.toString())
-                                                    .startNow().withSchedule(simpleSchedule().repeatForever()
-                                                            .withIntervalInMilliseconds(pollingPeriod))
-                                                    .build();
-
-                                            try {
-                                                sched.scheduleJob(job, trigger);
-                                            } catch (SchedulerException e) {
-                                                logger.error("An exception occurred while scheduling a Quartz Job ({})",
-                                                        e.getMessage());
-                                            }
-                                        }
+                            SonosZonePlayer thePlayer = sonosZonePlayerCache.getById(sonosID);
+                            RemoteDevice theDevice = thePlayer != null ? thePlayer.getDevice() : null;
+
+                            if (theDevice == null) {
+                                // not discovered yet, try again on the next refresh
+                                pollingJobsDirty = true;
+                                continue;
+                            }
+
+                            // Only set up a polling job if the device supports the given SonosCommandType
+                            // Not all Sonos devices have the same capabilities
+                            if (theDevice.findService(new UDAServiceId(sonosCommandType.getService())) != null) {
+
+                                // set up the Quartz jobs
+                                JobDataMap map = new JobDataMap();
+                                map.put("Player", thePlayer);
+
+                                JobDetail job = newJob(sonosCommandType.getJobClass())
+                                        .withIdentity(jobName, "Sonos-" + provider.toString()).usingJobData(map)
+                                        .build();
+
+                                Trigger trigger = newTrigger().withIdentity(jobName, "Sonos-" + provider.toString())
+                                        .startNow().withSchedule(simpleSchedule().repeatForever()
+                                                .withIntervalInMilliseconds(pollingPeriod))
+                                        .build();
+
+                                try {
+                                    if (!sched.checkExists(job.getKey())) {
+                                        sched.scheduleJob(job, trigger);
                                     }
+                                    pollingJobs.add(jobName);
+                                } catch (SchedulerException e) {
+                                    logger.error("An exception occurred while scheduling a Quartz Job ({})",
+                                            e.getMessage());
+                                    pollingJobsDirty = true;
                                 }
                             }
                         }
@@ -987,7 +999,10 @@ public class SonosBinding extends AbstractActiveBinding<SonosBindingProvider>imp
             JobDataMap dataMap = context.getJobDetail().getJobDataMap();
             SonosZonePlayer thePlayer = (SonosZonePlayer) dataMap.get("Player");
 
-            thePlayer.updateMediaInfo();
+            // the media info only changes along with the transport state, which is evented through GENA
+            if (thePlayer.isPollNeeded("MediaInfo", "AVTransport")) {
+                thePlayer.updateMediaInfo();
+            }
 
         }
     }
@@ -14,6 +14,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.joda.time.DateTime;
@@ -80,6 +81,15 @@ class SonosZonePlayer {
     private Map<String, StateVariableValue> stateMap = Collections
             .synchronizedMap(new HashMap<String, StateVariableValue>());
 
+    /** polls suppressed because of GENA events are nevertheless executed after this time in milliseconds */
+    private static final long MAX_SUPPRESSED_POLL_AGE = 60000;
+
+    /** the time of the last GENA event received, keyed by service type */
+    private final Map<String, Long> lastEventTimes = new ConcurrentHashMap<String, Long>();
+
+    /** the time of the last executed poll, keyed by poll */
+    private final Map<String, Long> lastPollTimes = new ConcurrentHashMap<String, Long>();
+
     /**
      * @return the stateMap
      */
@@ -118,6 +128,27 @@ class SonosZonePlayer {
         }
     }
 
+    /**
+     * Determines whether a poll of values which only change along with the GENA evented state of
+     * <code>serviceType</code> has to be executed. This is the case if no events are received for this service, if
+     * an event was received since the last poll, or if the last poll is too old.
+     *
+     * @param poll the name of the poll
+     * @param serviceType the service type whose events trigger the poll
+     * @return <code>true</code> if the poll has to be executed now
+     */
+    public boolean isPollNeeded(String poll, String serviceType) {
+        long now = System.currentTimeMillis();
+        Long lastEventTime = lastEventTimes.get(serviceType);
+        Long lastPollTime = lastPollTimes.get(poll);
+        if (lastEventTime != null && lastPollTime != null && lastEventTime < lastPollTime
+                && now - lastPollTime < MAX_SUPPRESSED_POLL_AGE) {
+            return false;
+        }
+        lastPollTimes.put(poll, now);
+        return true;
+    }
+
     protected boolean isUpdatedValue(String valueName, StateVariableValue newValue) {
         if (newValue != null && valueName != null) {
             StateVariableValue oldValue = stateMap.get(valueName);
@@ -191,11 +222,15 @@ class SonosZonePlayer {
         @Override
         protected void failed(GENASubscription subscription, UpnpResponse responseStatus, Exception exception,
                 String defaultMsg) {
+            // don't suppress any polls as long as there is no subscription
+            lastEventTimes.remove(service.getServiceType().getType());
         }
 
         @Override
         public void eventReceived(GENASubscription sub) {
 
+            lastEventTimes.put(service.getServiceType().getType(), System.currentTimeMillis());
+
             // get the device linked to this service linked to this subscription
             Map<String, StateVariableValue> values = sub.getCurrentValues();
             Map<String, StateVariableValue> mapToProcess = new HashMap<String, StateVariableValue>();
@@ -253,6 +288,8 @@ class SonosZonePlayer {
         @Override
         protected void ended(GENASubscription subscription, CancelReason reason, UpnpResponse responseStatus) {
 
+            lastEventTimes.remove(service.getServiceType().getType());
+
             if (device != null && isConfigured()) {
                 // rebooting the GENA subscription
                 Service service = subscription.getService();
@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.systeminfo.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class ProcCollectorTest {
+
+    private File root;
+    private ProcCollector collector;
+
+    @Before
+    public void init() throws IOException {
+        root = Files.createTempDirectory("proc").toFile();
+        collector = new ProcCollector(root);
+    }
+
+    @After
+    public void cleanup() {
+        delete(root);
+    }
+
+    @Test
+    public void testLoadAverage() throws IOException {
+        write("loadavg", "0.52 0.58 0.59 1/389 12345\n");
+
+        Map<SysteminfoCommandType, Number> values = collector.collect(SysteminfoMetricGroup.LOAD, null);
+        assertEquals(0.52, values.get(SysteminfoCommandType.LOAD_AVERAGE_1MIN).doubleValue(), 0.001);
+        assertEquals(0.58, values.get(SysteminfoCommandType.LOAD_AVERAGE_5MIN).doubleValue(), 0.001);
+        assertEquals(0.59, values.get(SysteminfoCommandType.LOAD_AVERAGE_15MIN).doubleValue(), 0.001);
+    }
+
+    @Test
+    public void testCpuSinceLastSample() throws IOException {
+        write("stat", "cpu  100 0 100 800 0 0 0 0 0 0\ncpu0 100 0 100 800 0 0 0 0 0 0\n");
+        collector.collect(SysteminfoMetricGroup.CPU, null);
+
+        write("stat", "cpu  130 10 140 900 20 0 0 0 0 0\n");
+        Map<SysteminfoCommandType, Number> values = collector.collect(SysteminfoMetricGroup.CPU, null);
+        assertEquals(15.0, values.get(SysteminfoCommandType.CPU_USER).doubleValue(), 0.001);
+        assertEquals(5.0, values.get(SysteminfoCommandType.CPU_NICE).doubleValue(), 0.001);
+        assertEquals(20.0, values.get(SysteminfoCommandType.CPU_SYSTEM).doubleValue(), 0.001);
+        assertEquals(10.0, values.get(SysteminfoCommandType.CPU_WAIT).doubleValue(), 0.001);
+        assertEquals(50.0, values.get(SysteminfoCommandType.CPU_COMBINED).doubleValue(), 0.001);
+    }
+
+    @Test
+    public void testMemory() throws IOException {
+        write("meminfo", "MemTotal:        1000 kB\nMemFree:          200 kB\nMemAvailable:     600 kB\n"
+                + "SwapTotal:        500 kB\nSwapFree:         400 kB\n");
+
+        Map<SysteminfoCommandType, Number> values = collector.collect(SysteminfoMetricGroup.MEMORY, null);
+        assertEquals(1024000L, values.get(SysteminfoCommandType.MEM_TOTAL));
+        assertEquals(819200L, values.get(SysteminfoCommandType.MEM_USED));
+        assertEquals(614400L, values.get(SysteminfoCommandType.MEM_ACTUAL_FREE));
+        assertEquals(60.0, values.get(SysteminfoCommandType.MEM_FREE_PERCENT).doubleValue(), 0.001);
+        assertEquals(40.0, values.get(SysteminfoCommandType.MEM_USED_PERCENT).doubleValue(), 0.001);
+    }
+
+    @Test
+    public void testNetworkAndDisk() throws IOException {
+        write("net/dev", "Inter-|   Receive |  Transmit\n face |bytes packets|bytes packets\n"
+                + "    lo: 100 1 0 0 0 0 0 0 100 1 0 0 0 0 0 0\n"
+                + "  eth0:2000 20 0 0 0 0 0 0 3000 30 0 0 0 0 0 0\n");
+        write("diskstats", "   8       0 sda 10 0 200 0 20 0 400 0 0 0 0\n");
+
+        Map<SysteminfoCommandType, Number> values = collector.collect(SysteminfoMetricGroup.NETWORK, "eth0");
+        assertEquals(2000L, values.get(SysteminfoCommandType.NET_RX_BYTES));
+        assertEquals(3000L, values.get(SysteminfoCommandType.NET_TX_BYTES));
+
+        values = collector.collect(SysteminfoMetricGroup.DISK, "/dev/sda");
+        assertEquals(10L, values.get(SysteminfoCommandType.DISK_READS));
+        assertEquals(102400L, values.get(SysteminfoCommandType.DISK_READ_BYTES));
+        assertEquals(20L, values.get(SysteminfoCommandType.DISK_WRITES));
+        assertEquals(204800L, values.get(SysteminfoCommandType.DISK_WRITE_BYTES));
+    }
+
+    @Test
+    public void testProcessByName() throws IOException {
+        write("uptime", "1000.00 3000.00\n");
+        write("42/stat", "42 (java) S 1 42 42 0 -1 0 0 0 0 0 300 200 0 0 20 0 30 0 50000 0 0\n");
+        write("42/status", "Name:\tjava\nVmSize:\t   2000 kB\nVmRSS:\t    500 kB\n");
+        write("43/stat", "43 (bash) S 1 43 43 0 -1 0 0 0 0 0 1 1 0 0 20 0 1 0 100 0 0\n");
+
+        Map<SysteminfoCommandType, Number> values = collector.collect(SysteminfoMetricGroup.PROCESS, "=java");
+        assertEquals(512000L, values.get(SysteminfoCommandType.PROCESS_REAL_MEM));
+        assertEquals(2048000L, values.get(SysteminfoCommandType.PROCESS_VIRTUAL_MEM));
+        assertEquals(3000L, values.get(SysteminfoCommandType.PROCESS_CPU_USER));
+        assertEquals(2000L, values.get(SysteminfoCommandType.PROCESS_CPU_SYSTEM));
+        assertEquals(5000L, values.get(SysteminfoCommandType.PROCESS_CPU_TOTAL));
+        assertEquals(500L, values.get(SysteminfoCommandType.PROCESS_UPTIME));
+    }
+
+    @Test(expected = IOException.class)
+    public void testProcessNotFound() throws IOException {
+        write("43/stat", "43 (bash) S 1 43 43 0 -1 0 0 0 0 0 1 1 0 0 20 0 1 0 100 0 0\n");
+        collector.collect(SysteminfoMetricGroup.PROCESS, "java");
+    }
+
+    private void write(String name, String content) throws IOException {
+        File file = new File(root, name);
+        file.getParentFile().mkdirs();
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.US_ASCII)) {
+            writer.write(content);
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+}
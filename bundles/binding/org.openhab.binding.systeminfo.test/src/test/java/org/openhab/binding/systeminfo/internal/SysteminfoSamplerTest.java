@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.systeminfo.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class SysteminfoSamplerTest {
+
+    private CountingCollector collector;
+    private SysteminfoSampler sampler;
+
+    @Before
+    public void init() {
+        collector = new CountingCollector();
+        sampler = new SysteminfoSampler(collector);
+    }
+
+    @Test
+    public void testGroupReadOncePerCycle() {
+        sampler.beginCycle(1000);
+        sampler.getValues(SysteminfoMetricGroup.CPU, null);
+        sampler.getValues(SysteminfoMetricGroup.CPU, null);
+        Map<SysteminfoCommandType, Number> values = sampler.getValues(SysteminfoMetricGroup.CPU, null);
+
+        assertEquals(1, collector.reads.size());
+        assertEquals(1, values.get(SysteminfoCommandType.CPU_COMBINED).intValue());
+
+        sampler.beginCycle(2000);
+        values = sampler.getValues(SysteminfoMetricGroup.CPU, null);
+        assertEquals(2, collector.reads.size());
+        assertEquals(2, values.get(SysteminfoCommandType.CPU_COMBINED).intValue());
+    }
+
+    @Test
+    public void testTargetsReadSeparately() {
+        sampler.beginCycle(1000);
+        sampler.getValues(SysteminfoMetricGroup.NETWORK, "eth0");
+        sampler.getValues(SysteminfoMetricGroup.NETWORK, "wlan0");
+        sampler.getValues(SysteminfoMetricGroup.NETWORK, "eth0");
+
+        assertEquals(2, collector.reads.size());
+        assertEquals("network:eth0", collector.reads.get(0));
+        assertEquals("network:wlan0", collector.reads.get(1));
+    }
+
+    @Test
+    public void testGroupInterval() {
+        sampler.setInterval(SysteminfoMetricGroup.MEMORY, 5000);
+
+        sampler.beginCycle(1000);
+        sampler.getValues(SysteminfoMetricGroup.MEMORY, null);
+        sampler.beginCycle(3000);
+        sampler.getValues(SysteminfoMetricGroup.MEMORY, null);
+        assertEquals(1, collector.reads.size());
+
+        sampler.beginCycle(6000);
+        sampler.getValues(SysteminfoMetricGroup.MEMORY, null);
+        assertEquals(2, collector.reads.size());
+    }
+
+    @Test
+    public void testFailedReadIsEmpty() {
+        collector.fail = true;
+        sampler.beginCycle(1000);
+        assertTrue(sampler.getValues(SysteminfoMetricGroup.LOAD, null).isEmpty());
+    }
+
+    private static class CountingCollector implements SysteminfoCollector {
+
+        private final List<String> reads = new ArrayList<String>();
+        private boolean fail = false;
+
+        @Override
+        public String getName() {
+            return "counting";
+        }
+
+        @Override
+        public Map<SysteminfoCommandType, Number> collect(SysteminfoMetricGroup group, String target)
+                throws IOException {
+            if (fail) {
+                throw new IOException("not available");
+            }
+            reads.add(target != null ? group + ":" + target : group.toString());
+            Map<SysteminfoCommandType, Number> values = new EnumMap<SysteminfoCommandType, Number>(
+                    SysteminfoCommandType.class);
+            values.put(SysteminfoCommandType.CPU_COMBINED, reads.size());
+            return values;
+        }
+
+        @Override
+        public void dispose() {
+        }
+    }
+
+}
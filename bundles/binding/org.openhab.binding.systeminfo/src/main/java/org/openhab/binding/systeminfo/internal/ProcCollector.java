@@ -0,0 +1,377 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.systeminfo.internal;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collector which reads the Linux <code>/proc</code> file system, so no native library is needed. The file system
+ * values are read through {@link File}, the number of files of a file system is not available.
+ *
+ * Process names are matched against the command name of the process (<code>/proc/&lt;pid&gt;/stat</code>) the same
+ * way as the SIGAR collector does it, except for PTQL queries which are not supported.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class ProcCollector implements SysteminfoCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcCollector.class);
+
+    /** clock ticks per second of the CPU times in /proc, fixed to 100 on all common Linux platforms */
+    private static final int USER_HZ = 100;
+
+    /** size of a sector in /proc/diskstats, independent of the sector size of the device */
+    private static final int SECTOR_SIZE = 512;
+
+    private final File root;
+
+    /** the CPU times of the previous sample, to calculate the percentages since then */
+    private long[] lastCpuTimes = null;
+
+    /** the total CPU time in ms and the time of the previous sample of each process */
+    private final Map<Long, long[]> lastProcessTimes = new HashMap<Long, long[]>();
+
+    /**
+     * Creates a collector reading <code>/proc</code>.
+     */
+    public ProcCollector() {
+        this(new File("/proc"));
+    }
+
+    ProcCollector(File root) {
+        this.root = root;
+    }
+
+    /**
+     * @return true if the <code>/proc</code> file system is available
+     */
+    public static boolean isSupported() {
+        return new File("/proc/stat").canRead();
+    }
+
+    /**
+     * @{inheritDoc
+     */
+    @Override
+    public String getName() {
+        return "proc";
+    }
+
+    /**
+     * @{inheritDoc
+     */
+    @Override
+    public Map<SysteminfoCommandType, Number> collect(SysteminfoMetricGroup group, String target) throws IOException {
+        Map<SysteminfoCommandType, Number> values = new EnumMap<SysteminfoCommandType, Number>(
+                SysteminfoCommandType.class);
+
+        switch (group) {
+            case LOAD:
+                String[] load = split(readFirstLine("loadavg"));
+                values.put(SysteminfoCommandType.LOAD_AVERAGE_1MIN, Double.parseDouble(load[0]));
+                values.put(SysteminfoCommandType.LOAD_AVERAGE_5MIN, Double.parseDouble(load[1]));
+                values.put(SysteminfoCommandType.LOAD_AVERAGE_15MIN, Double.parseDouble(load[2]));
+                break;
+
+            case CPU:
+                collectCpu(values);
+                break;
+
+            case UPTIME:
+                values.put(SysteminfoCommandType.UPTIME, Double.parseDouble(split(readFirstLine("uptime"))[0]));
+                break;
+
+            case MEMORY:
+                Map<String, Long> memInfo = readMemInfo();
+                long total = memInfo.get("MemTotal");
+                long free = memInfo.get("MemFree");
+                Long available = memInfo.get("MemAvailable");
+                long actualFree = available != null ? available
+                        : free + memInfo.get("Buffers") + memInfo.get("Cached");
+                values.put(SysteminfoCommandType.MEM_TOTAL, total);
+                values.put(SysteminfoCommandType.MEM_FREE, free);
+                values.put(SysteminfoCommandType.MEM_USED, total - free);
+                values.put(SysteminfoCommandType.MEM_ACTUAL_FREE, actualFree);
+                values.put(SysteminfoCommandType.MEM_ACTUAL_USED, total - actualFree);
+                if (total > 0) {
+                    values.put(SysteminfoCommandType.MEM_FREE_PERCENT, actualFree * 100.0 / total);
+                    values.put(SysteminfoCommandType.MEM_USED_PERCENT, (total - actualFree) * 100.0 / total);
+                }
+                break;
+
+            case SWAP:
+                Map<String, Long> swapInfo = readMemInfo();
+                long swapTotal = swapInfo.get("SwapTotal");
+                long swapFree = swapInfo.get("SwapFree");
+                values.put(SysteminfoCommandType.SWAP_TOTAL, swapTotal);
+                values.put(SysteminfoCommandType.SWAP_FREE, swapFree);
+                values.put(SysteminfoCommandType.SWAP_USED, swapTotal - swapFree);
+                for (String line : readLines("vmstat")) {
+                    String[] fields = split(line);
+                    if (fields[0].equals("pswpin")) {
+                        values.put(SysteminfoCommandType.SWAP_PAGE_IN, Long.parseLong(fields[1]));
+                    } else if (fields[0].equals("pswpout")) {
+                        values.put(SysteminfoCommandType.SWAP_PAGE_OUT, Long.parseLong(fields[1]));
+                    }
+                }
+                break;
+
+            case NETWORK:
+                for (String line : readLines("net/dev")) {
+                    int colon = line.indexOf(':');
+                    if (colon > 0 && line.substring(0, colon).trim().equals(target)) {
+                        String[] fields = split(line.substring(colon + 1));
+                        values.put(SysteminfoCommandType.NET_RX_BYTES, Long.parseLong(fields[0]));
+                        values.put(SysteminfoCommandType.NET_TX_BYTES, Long.parseLong(fields[8]));
+                    }
+                }
+                break;
+
+            case DISK:
+                String device = StringUtils.removeStart(target, "/dev/");
+                for (String line : readLines("diskstats")) {
+                    String[] fields = split(line);
+                    if (fields.length > 9 && fields[2].equals(device)) {
+                        values.put(SysteminfoCommandType.DISK_READS, Long.parseLong(fields[3]));
+                        values.put(SysteminfoCommandType.DISK_READ_BYTES, Long.parseLong(fields[5]) * SECTOR_SIZE);
+                        values.put(SysteminfoCommandType.DISK_WRITES, Long.parseLong(fields[7]));
+                        values.put(SysteminfoCommandType.DISK_WRITE_BYTES, Long.parseLong(fields[9]) * SECTOR_SIZE);
+                    }
+                }
+                break;
+
+            case FILESYSTEM:
+                File mountPoint = new File(target);
+                long fsTotal = mountPoint.getTotalSpace();
+                if (fsTotal > 0) {
+                    long fsFree = mountPoint.getFreeSpace();
+                    long fsUsed = fsTotal - fsFree;
+                    long fsAvailable = mountPoint.getUsableSpace();
+                    values.put(SysteminfoCommandType.FS_TOTAL, fsTotal);
+                    values.put(SysteminfoCommandType.FS_FREE, fsFree);
+                    values.put(SysteminfoCommandType.FS_USED, fsUsed);
+                    values.put(SysteminfoCommandType.FS_USE_PERCENT, fsUsed * 100.0 / (fsUsed + fsAvailable));
+                }
+                break;
+
+            case DIRECTORY:
+                final long[] usage = new long[2];
+                Files.walkFileTree(new File(target).toPath(), new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                        usage[0] += attributes.size();
+                        usage[1]++;
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException e) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+                values.put(SysteminfoCommandType.DIR_USAGE, usage[0]);
+                values.put(SysteminfoCommandType.DIR_FILES, usage[1]);
+                break;
+
+            case PROCESS:
+                collectProcess(findPid(target), values);
+                break;
+
+            default:
+                break;
+        }
+
+        return values;
+    }
+
+    private void collectCpu(Map<SysteminfoCommandType, Number> values) throws IOException {
+        // cpu user nice system idle iowait irq softirq steal
+        String[] fields = split(readFirstLine("stat"));
+        long[] times = new long[8];
+        for (int i = 0; i < times.length && i + 1 < fields.length; i++) {
+            times[i] = Long.parseLong(fields[i + 1]);
+        }
+
+        long[] delta = times.clone();
+        if (lastCpuTimes != null) {
+            for (int i = 0; i < delta.length; i++) {
+                delta[i] -= lastCpuTimes[i];
+            }
+        }
+        lastCpuTimes = times;
+
+        double total = 0;
+        for (long time : delta) {
+            total += time;
+        }
+        if (total <= 0) {
+            return;
+        }
+        values.put(SysteminfoCommandType.CPU_USER, delta[0] * 100 / total);
+        values.put(SysteminfoCommandType.CPU_NICE, delta[1] * 100 / total);
+        values.put(SysteminfoCommandType.CPU_SYSTEM, delta[2] * 100 / total);
+        values.put(SysteminfoCommandType.CPU_WAIT, delta[4] * 100 / total);
+        values.put(SysteminfoCommandType.CPU_COMBINED, (delta[0] + delta[1] + delta[2] + delta[4]) * 100 / total);
+    }
+
+    private void collectProcess(long pid, Map<SysteminfoCommandType, Number> values) throws IOException {
+        for (String line : readLines(pid + "/status")) {
+            String[] fields = split(line);
+            if (fields[0].equals("VmRSS:")) {
+                values.put(SysteminfoCommandType.PROCESS_REAL_MEM, Long.parseLong(fields[1]) * 1024);
+            } else if (fields[0].equals("VmSize:")) {
+                values.put(SysteminfoCommandType.PROCESS_VIRTUAL_MEM, Long.parseLong(fields[1]) * 1024);
+            }
+        }
+
+        // the fields after the command name, starting with the state (field 3)
+        String stat = readFirstLine(pid + "/stat");
+        String[] fields = split(stat.substring(stat.lastIndexOf(')') + 1));
+        long user = Long.parseLong(fields[11]) * 1000 / USER_HZ;
+        long system = Long.parseLong(fields[12]) * 1000 / USER_HZ;
+        long startTicks = Long.parseLong(fields[19]);
+        long now = System.currentTimeMillis();
+
+        values.put(SysteminfoCommandType.PROCESS_CPU_USER, user);
+        values.put(SysteminfoCommandType.PROCESS_CPU_SYSTEM, system);
+        values.put(SysteminfoCommandType.PROCESS_CPU_TOTAL, user + system);
+
+        long[] last = lastProcessTimes.put(pid, new long[] { user + system, now });
+        double percent = 0;
+        if (last != null && now > last[1]) {
+            percent = (user + system - last[0]) * 100.0 / (now - last[1]);
+        }
+        values.put(SysteminfoCommandType.PROCESS_CPU_PERCENT, percent);
+
+        double uptime = Double.parseDouble(split(readFirstLine("uptime"))[0]);
+        values.put(SysteminfoCommandType.PROCESS_UPTIME, (long) (uptime - (double) startTicks / USER_HZ));
+    }
+
+    /**
+     * Finds the pid of a process by name, see the README for the supported patterns.
+     */
+    private long findPid(String processName) throws IOException {
+        if (processName.equals("$$")) {
+            return Long.parseLong(new File(root, "self").getCanonicalFile().getName());
+        } else if (processName.startsWith("#")) {
+            throw new IOException("PTQL queries are not supported by the proc collector");
+        }
+
+        List<Long> pids = new ArrayList<Long>();
+        File[] processes = root.listFiles();
+        if (processes != null) {
+            for (File process : processes) {
+                if (!StringUtils.isNumeric(process.getName())) {
+                    continue;
+                }
+                String stat;
+                try {
+                    stat = readFirstLine(process.getName() + "/stat");
+                } catch (IOException e) {
+                    // the process has ended in the meantime
+                    continue;
+                }
+                String name = stat.substring(stat.indexOf('(') + 1, stat.lastIndexOf(')'));
+                if (matches(processName, name)) {
+                    pids.add(Long.parseLong(process.getName()));
+                }
+            }
+        }
+
+        if (pids.size() != 1) {
+            throw new IOException("Query '" + processName + "' matched " + pids.size() + " processes");
+        }
+        logger.debug("Return pid {}", pids.get(0));
+        return pids.get(0);
+    }
+
+    private static boolean matches(String processName, String name) {
+        if (processName.startsWith("*")) {
+            return name.startsWith(processName.replace("*", ""));
+        } else if (processName.endsWith("*")) {
+            return name.endsWith(processName.replace("*", ""));
+        } else if (processName.startsWith("=")) {
+            return name.equals(processName.replace("=", ""));
+        } else {
+            return name.contains(processName);
+        }
+    }
+
+    /**
+     * @return the entries of /proc/meminfo in bytes
+     */
+    private Map<String, Long> readMemInfo() throws IOException {
+        Map<String, Long> memInfo = new HashMap<String, Long>();
+        for (String line : readLines("meminfo")) {
+            String[] fields = split(line);
+            if (fields.length >= 2) {
+                long value = Long.parseLong(fields[1]);
+                if (fields.length > 2 && fields[2].equals("kB")) {
+                    value *= 1024;
+                }
+                memInfo.put(StringUtils.removeEnd(fields[0], ":"), value);
+            }
+        }
+        return memInfo;
+    }
+
+    private String readFirstLine(String file) throws IOException {
+        List<String> lines = readLines(file);
+        if (lines.isEmpty()) {
+            throw new IOException("File " + file + " is empty");
+        }
+        return lines.get(0);
+    }
+
+    private List<String> readLines(String file) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(new File(root, file)), StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static String[] split(String line) {
+        return StringUtils.split(line);
+    }
+
+    /**
+     * @{inheritDoc
+     */
+    @Override
+    public void dispose() {
+        lastCpuTimes = null;
+        lastProcessTimes.clear();
+    }
+
+}
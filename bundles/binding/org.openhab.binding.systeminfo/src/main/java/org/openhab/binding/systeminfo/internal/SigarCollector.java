@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.systeminfo.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hyperic.sigar.CpuPerc;
+import org.hyperic.sigar.DirUsage;
+import org.hyperic.sigar.DiskUsage;
+import org.hyperic.sigar.FileSystem;
+import org.hyperic.sigar.FileSystemUsage;
+import org.hyperic.sigar.Mem;
+import org.hyperic.sigar.NetInterfaceStat;
+import org.hyperic.sigar.ProcCpu;
+import org.hyperic.sigar.ProcMem;
+import org.hyperic.sigar.Sigar;
+import org.hyperic.sigar.SigarException;
+import org.hyperic.sigar.Swap;
+import org.hyperic.sigar.ptql.ProcessFinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collector based on the Hyperic SIGAR native library.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class SigarCollector implements SysteminfoCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(SigarCollector.class);
+
+    private Sigar sigar;
+
+    /**
+     * Loads the native library.
+     *
+     * @param variant
+     *            the variant of the native library to load, e.g. <code>raspbian</code>, or null for the standard
+     *            library of the platform
+     */
+    public SigarCollector(String variant) {
+        Sigar.variant = variant;
+        sigar = new Sigar();
+
+        logger.info("Using Sigar version {}", Sigar.VERSION_STRING);
+        logger.info("Using native version {}", Sigar.NATIVE_VERSION_STRING);
+
+        try {
+            String[] interfaces = sigar.getNetInterfaceList();
+            logger.debug("valid net interfaces: {}", Arrays.toString(interfaces));
+
+            FileSystem[] filesystems = sigar.getFileSystemList();
+            logger.debug("file systems: {}", Arrays.toString(filesystems));
+
+            List<String> disks = new ArrayList<String>();
+            for (int i = 0; i < filesystems.length; i++) {
+                FileSystem fs = filesystems[i];
+                if (fs.getType() == FileSystem.TYPE_LOCAL_DISK) {
+                    disks.add(fs.getDevName());
+                }
+            }
+
+            logger.debug("valid disk names: {}", Arrays.toString(disks.toArray()));
+
+        } catch (SigarException e) {
+            logger.error("System monitor error:", e);
+        }
+    }
+
+    /**
+     * @{inheritDoc
+     */
+    @Override
+    public String getName() {
+        return "sigar";
+    }
+
+    /**
+     * @{inheritDoc
+     */
+    @Override
+    public Map<SysteminfoCommandType, Number> collect(SysteminfoMetricGroup group, String target)
+            throws SigarException {
+        Map<SysteminfoCommandType, Number> values = new EnumMap<SysteminfoCommandType, Number>(
+                SysteminfoCommandType.class);
+
+        switch (group) {
+            case LOAD:
+                double[] loadAverage = sigar.getLoadAverage();
+                values.put(SysteminfoCommandType.LOAD_AVERAGE_1MIN, loadAverage[0]);
+                values.put(SysteminfoCommandType.LOAD_AVERAGE_5MIN, loadAverage[1]);
+                values.put(SysteminfoCommandType.LOAD_AVERAGE_15MIN, loadAverage[2]);
+                break;
+
+            case CPU:
+                CpuPerc cpu = sigar.getCpuPerc();
+                values.put(SysteminfoCommandType.CPU_COMBINED, cpu.getCombined() * 100);
+                values.put(SysteminfoCommandType.CPU_USER, cpu.getUser() * 100);
+                values.put(SysteminfoCommandType.CPU_SYSTEM, cpu.getSys() * 100);
+                values.put(SysteminfoCommandType.CPU_NICE, cpu.getNice() * 100);
+                values.put(SysteminfoCommandType.CPU_WAIT, cpu.getWait() * 100);
+                break;
+
+            case UPTIME:
+                values.put(SysteminfoCommandType.UPTIME, sigar.getUptime().getUptime());
+                break;
+
+            case MEMORY:
+                Mem mem = sigar.getMem();
+                values.put(SysteminfoCommandType.MEM_FREE_PERCENT, mem.getFreePercent());
+                values.put(SysteminfoCommandType.MEM_USED_PERCENT, mem.getUsedPercent());
+                values.put(SysteminfoCommandType.MEM_FREE, mem.getFree());
+                values.put(SysteminfoCommandType.MEM_USED, mem.getUsed());
+                values.put(SysteminfoCommandType.MEM_ACTUAL_FREE, mem.getActualFree());
+                values.put(SysteminfoCommandType.MEM_ACTUAL_USED, mem.getActualUsed());
+                values.put(SysteminfoCommandType.MEM_TOTAL, mem.getTotal());
+                break;
+
+            case SWAP:
+                Swap swap = sigar.getSwap();
+                values.put(SysteminfoCommandType.SWAP_FREE, swap.getFree());
+                values.put(SysteminfoCommandType.SWAP_TOTAL, swap.getTotal());
+                values.put(SysteminfoCommandType.SWAP_USED, swap.getUsed());
+                values.put(SysteminfoCommandType.SWAP_PAGE_IN, swap.getPageIn());
+                values.put(SysteminfoCommandType.SWAP_PAGE_OUT, swap.getPageOut());
+                break;
+
+            case NETWORK:
+                NetInterfaceStat net = sigar.getNetInterfaceStat(target);
+                values.put(SysteminfoCommandType.NET_RX_BYTES, net.getRxBytes());
+                values.put(SysteminfoCommandType.NET_TX_BYTES, net.getTxBytes());
+                break;
+
+            case DISK:
+                DiskUsage disk = sigar.getDiskUsage(target);
+                values.put(SysteminfoCommandType.DISK_READS, disk.getReads());
+                values.put(SysteminfoCommandType.DISK_WRITES, disk.getWrites());
+                values.put(SysteminfoCommandType.DISK_READ_BYTES, disk.getReadBytes());
+                values.put(SysteminfoCommandType.DISK_WRITE_BYTES, disk.getWriteBytes());
+                break;
+
+            case FILESYSTEM:
+                FileSystemUsage fs = sigar.getFileSystemUsage(target);
+                values.put(SysteminfoCommandType.FS_USED, fs.getUsed() * 1024);
+                values.put(SysteminfoCommandType.FS_FREE, fs.getFree() * 1024);
+                values.put(SysteminfoCommandType.FS_TOTAL, fs.getTotal() * 1024);
+                values.put(SysteminfoCommandType.FS_USE_PERCENT, fs.getUsePercent() * 100);
+                values.put(SysteminfoCommandType.FS_FILES, fs.getFiles());
+                values.put(SysteminfoCommandType.FS_FREE_FILES, fs.getFreeFiles());
+                break;
+
+            case DIRECTORY:
+                DirUsage dir = sigar.getDirUsage(target);
+                values.put(SysteminfoCommandType.DIR_USAGE, dir.getDiskUsage());
+                values.put(SysteminfoCommandType.DIR_FILES, dir.getFiles());
+                break;
+
+            case PROCESS:
+                long pid = getPid(target);
+                ProcMem procMem = sigar.getProcMem(pid);
+                ProcCpu procCpu = sigar.getProcCpu(pid);
+                values.put(SysteminfoCommandType.PROCESS_REAL_MEM, procMem.getResident());
+                values.put(SysteminfoCommandType.PROCESS_VIRTUAL_MEM, procMem.getSize());
+                values.put(SysteminfoCommandType.PROCESS_CPU_PERCENT, procCpu.getPercent() * 100);
+                values.put(SysteminfoCommandType.PROCESS_CPU_SYSTEM, procCpu.getSys());
+                values.put(SysteminfoCommandType.PROCESS_CPU_USER, procCpu.getUser());
+                values.put(SysteminfoCommandType.PROCESS_CPU_TOTAL, procCpu.getTotal());
+                values.put(SysteminfoCommandType.PROCESS_UPTIME,
+                        (System.currentTimeMillis() - procCpu.getStartTime()) / 1000);
+                break;
+
+            default:
+                break;
+        }
+
+        return values;
+    }
+
+    private long getPid(String processName) throws SigarException {
+        long pid;
+
+        ProcessFinder processFinder = new ProcessFinder(sigar);
+        String query;
+
+        if (processName.equals("$$")) {
+            pid = sigar.getPid();
+            logger.debug("Return own pid {}", pid);
+            return pid;
+        } else if (processName.startsWith("*")) {
+            query = "State.Name.sw=" + processName.replace("*", "");
+        } else if (processName.endsWith("*")) {
+            query = "State.Name.ew=" + processName.replace("*", "");
+        } else if (processName.startsWith("=")) {
+            query = "State.Name.eq=" + processName.replace("=", "");
+        } else if (processName.startsWith("#")) {
+            query = processName.replace("#", "");
+        } else {
+            query = "State.Name.ct=" + processName;
+        }
+
+        logger.debug("Query pid by '{}'", query);
+        pid = processFinder.findSingleProcess(query);
+
+        logger.debug("Return pid {}", pid);
+        return pid;
+    }
+
+    /**
+     * @{inheritDoc
+     */
+    @Override
+    public void dispose() {
+        if (sigar != null) {
+            sigar.close();
+            sigar = null;
+        }
+    }
+
+}
@@ -8,23 +8,16 @@
  */
 package org.openhab.binding.systeminfo.internal;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Dictionary;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
-import org.hyperic.sigar.FileSystem;
-import org.hyperic.sigar.Sigar;
-import org.hyperic.sigar.SigarException;
-import org.hyperic.sigar.SigarProxy;
-import org.hyperic.sigar.SigarProxyCache;
-import org.hyperic.sigar.ptql.ProcessFinder;
 import org.openhab.binding.systeminfo.SysteminfoBindingProvider;
 import org.openhab.core.binding.AbstractActiveBinding;
-import org.openhab.core.items.Item;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.StringType;
 import org.openhab.core.types.State;
@@ -37,6 +30,9 @@ import org.slf4j.LoggerFactory;
 /**
  * Binding for system and process information gathering.
  *
+ * The values are read by a {@link SysteminfoCollector}, either SIGAR or the Linux <code>/proc</code> file system,
+ * through a {@link SysteminfoSampler}, so all items refreshed in a cycle are fed from one snapshot.
+ *
  * @author Pauli Anttila
  * @since 1.3.0
  */
@@ -49,10 +45,20 @@ public class SysteminfoBinding extends AbstractActiveBinding<SysteminfoBindingPr
     /** the unit to measure keyfacts (defaults to 'M') */
     private char units = 'M';
 
+    /** the command types whose values are sizes in bytes, converted to {@link #units} */
+    private static final Set<SysteminfoCommandType> BYTE_VALUES = EnumSet.of(SysteminfoCommandType.MEM_FREE,
+            SysteminfoCommandType.MEM_USED, SysteminfoCommandType.MEM_ACTUAL_FREE,
+            SysteminfoCommandType.MEM_ACTUAL_USED, SysteminfoCommandType.MEM_TOTAL, SysteminfoCommandType.SWAP_FREE,
+            SysteminfoCommandType.SWAP_TOTAL, SysteminfoCommandType.SWAP_USED, SysteminfoCommandType.SWAP_PAGE_IN,
+            SysteminfoCommandType.SWAP_PAGE_OUT, SysteminfoCommandType.NET_RX_BYTES,
+            SysteminfoCommandType.NET_TX_BYTES, SysteminfoCommandType.DISK_READ_BYTES,
+            SysteminfoCommandType.DISK_WRITE_BYTES, SysteminfoCommandType.FS_USED, SysteminfoCommandType.FS_FREE,
+            SysteminfoCommandType.FS_TOTAL, SysteminfoCommandType.DIR_USAGE, SysteminfoCommandType.PROCESS_REAL_MEM,
+            SysteminfoCommandType.PROCESS_VIRTUAL_MEM);
+
     private Map<String, Long> lastUpdateMap = new HashMap<String, Long>();
 
-    private static Sigar sigarImpl;
-    private static SigarProxy sigar;
+    private volatile SysteminfoSampler sampler;
 
     @Override
     public void activate() {
@@ -60,8 +66,10 @@ public class SysteminfoBinding extends AbstractActiveBinding<SysteminfoBindingPr
 
     @Override
     public void deactivate() {
-        sigar = null;
-        sigarImpl = null;
+        if (sampler != null) {
+            sampler.dispose();
+            sampler = null;
+        }
     }
 
     /**
@@ -85,6 +93,14 @@ public class SysteminfoBinding extends AbstractActiveBinding<SysteminfoBindingPr
      */
     @Override
     protected void execute() {
+        SysteminfoSampler sampler = this.sampler;
+        if (sampler == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        sampler.beginCycle(now);
+
         for (SysteminfoBindingProvider provider : providers) {
             for (String itemName : provider.getItemNames()) {
                 int refreshInterval = provider.getRefreshInterval(itemName);
@@ -94,7 +110,7 @@ public class SysteminfoBinding extends AbstractActiveBinding<SysteminfoBindingPr
                     lastUpdateTimeStamp = 0L;
                 }
 
-                long age = System.currentTimeMillis() - lastUpdateTimeStamp;
+                long age = now - lastUpdateTimeStamp;
                 boolean needsUpdate = age >= refreshInterval;
 
                 if (needsUpdate) {
@@ -102,10 +118,9 @@ public class SysteminfoBinding extends AbstractActiveBinding<SysteminfoBindingPr
                     logger.debug("item '{}' is about to be refreshed now", itemName);
 
                     SysteminfoCommandType commmandType = provider.getCommandType(itemName);
-                    Class<? extends Item> itemType = provider.getItemType(itemName);
                     String target = provider.getTarget(itemName);
 
-                    State state = getData(commmandType, itemType, target);
+                    State state = getData(sampler, commmandType, target);
 
                     if (state != null) {
                         eventPublisher.postUpdate(itemName, state);
@@ -113,212 +128,37 @@ public class SysteminfoBinding extends AbstractActiveBinding<SysteminfoBindingPr
                         logger.error("No response received from command '{}'", commmandType);
                     }
 
-                    lastUpdateMap.put(itemName, System.currentTimeMillis());
+                    lastUpdateMap.put(itemName, now);
                 }
             }
         }
     }
 
-    private State getData(SysteminfoCommandType commandType, Class<? extends Item> itemType, String target) {
-        State state = UnDefType.UNDEF;
-        long pid;
-
-        try {
-            switch (commandType) {
-                case LOAD_AVERAGE_1MIN:
-                    state = new DecimalType(sigar.getLoadAverage()[0]);
-                    break;
-                case LOAD_AVERAGE_5MIN:
-                    state = new DecimalType(sigar.getLoadAverage()[1]);
-                    break;
-                case LOAD_AVERAGE_15MIN:
-                    state = new DecimalType(sigar.getLoadAverage()[2]);
-                    break;
-
-                case CPU_COMBINED:
-                    state = new DecimalType(sigar.getCpuPerc().getCombined() * 100);
-                    break;
-                case CPU_USER:
-                    state = new DecimalType(sigar.getCpuPerc().getUser() * 100);
-                    break;
-                case CPU_SYSTEM:
-                    state = new DecimalType(sigar.getCpuPerc().getSys() * 100);
-                    break;
-                case CPU_NICE:
-                    state = new DecimalType(sigar.getCpuPerc().getNice() * 100);
-                    break;
-                case CPU_WAIT:
-                    state = new DecimalType(sigar.getCpuPerc().getWait() * 100);
-                    break;
-
-                case UPTIME:
-                    state = new DecimalType(sigar.getUptime().getUptime());
-                    break;
-                case UPTIME_FORMATTED:
-                    state = new StringType(getElapsedTime((long) sigar.getUptime().getUptime()));
-                    break;
-
-                case MEM_FREE_PERCENT:
-                    state = new DecimalType(sigar.getMem().getFreePercent());
-                    break;
-                case MEM_USED_PERCENT:
-                    state = new DecimalType(sigar.getMem().getUsedPercent());
-                    break;
-                case MEM_FREE:
-                    state = new DecimalType(formatBytes(sigar.getMem().getFree(), units));
-                    break;
-                case MEM_USED:
-                    state = new DecimalType(formatBytes(sigar.getMem().getUsed(), units));
-                    break;
-                case MEM_ACTUAL_FREE:
-                    state = new DecimalType(formatBytes(sigar.getMem().getActualFree(), units));
-                    break;
-                case MEM_ACTUAL_USED:
-                    state = new DecimalType(formatBytes(sigar.getMem().getActualUsed(), units));
-                    break;
-                case MEM_TOTAL:
-                    state = new DecimalType(formatBytes(sigar.getMem().getTotal(), units));
-                    break;
-
-                case SWAP_FREE:
-                    state = new DecimalType(formatBytes(sigar.getSwap().getFree(), units));
-                    break;
-                case SWAP_TOTAL:
-                    state = new DecimalType(formatBytes(sigar.getSwap().getTotal(), units));
-                    break;
-                case SWAP_USED:
-                    state = new DecimalType(formatBytes(sigar.getSwap().getUsed(), units));
-                    break;
-                case SWAP_PAGE_IN:
-                    state = new DecimalType(formatBytes(sigar.getSwap().getPageIn(), units));
-                    break;
-                case SWAP_PAGE_OUT:
-                    state = new DecimalType(formatBytes(sigar.getSwap().getPageOut(), units));
-                    break;
-
-                case NET_RX_BYTES:
-                    state = new DecimalType(formatBytes(sigar.getNetInterfaceStat(target).getRxBytes(), units));
-                    break;
-                case NET_TX_BYTES:
-                    state = new DecimalType(formatBytes(sigar.getNetInterfaceStat(target).getTxBytes(), units));
-                    break;
-
-                case DISK_READS:
-                    state = new DecimalType(sigar.getDiskUsage(target).getReads());
-                    break;
-                case DISK_WRITES:
-                    state = new DecimalType(sigar.getDiskUsage(target).getWrites());
-                    break;
-                case DISK_READ_BYTES:
-                    state = new DecimalType(formatBytes(sigar.getDiskUsage(target).getReadBytes(), units));
-                    break;
-                case DISK_WRITE_BYTES:
-                    state = new DecimalType(formatBytes(sigar.getDiskUsage(target).getWriteBytes(), units));
-                    break;
-
-                case FS_USED:
-                    state = new DecimalType(formatBytes(sigar.getFileSystemUsage(target).getUsed() * 1024, units));
-                    break;
-                case FS_FREE:
-                    state = new DecimalType(formatBytes(sigar.getFileSystemUsage(target).getFree() * 1024, units));
-                    break;
-                case FS_TOTAL:
-                    state = new DecimalType(formatBytes(sigar.getFileSystemUsage(target).getTotal() * 1024, units));
-                    break;
-                case FS_USE_PERCENT:
-                    state = new DecimalType(sigar.getFileSystemUsage(target).getUsePercent() * 100);
-                    break;
-                case FS_FILES:
-                    state = new DecimalType(sigar.getFileSystemUsage(target).getFiles());
-                    break;
-                case FS_FREE_FILES:
-                    state = new DecimalType(sigar.getFileSystemUsage(target).getFreeFiles());
-                    break;
-
-                case DIR_USAGE:
-                    state = new DecimalType(formatBytes(sigar.getDirUsage(target).getDiskUsage(), units));
-                    break;
-                case DIR_FILES:
-                    state = new DecimalType(sigar.getDirUsage(target).getFiles());
-                    break;
-
-                case PROCESS_REAL_MEM:
-                    pid = getPid(target);
-                    state = new DecimalType(formatBytes(sigar.getProcMem(pid).getResident(), units));
-                    break;
-                case PROCESS_VIRTUAL_MEM:
-                    pid = getPid(target);
-                    state = new DecimalType(formatBytes(sigar.getProcMem(pid).getSize(), units));
-                    break;
-                case PROCESS_CPU_PERCENT:
-                    pid = getPid(target);
-                    state = new DecimalType(sigar.getProcCpu(pid).getPercent() * 100);
-                    break;
-                case PROCESS_CPU_SYSTEM:
-                    pid = getPid(target);
-                    state = new DecimalType(sigar.getProcCpu(pid).getSys());
-                    break;
-                case PROCESS_CPU_USER:
-                    pid = getPid(target);
-                    state = new DecimalType(sigar.getProcCpu(pid).getUser());
-                    break;
-                case PROCESS_CPU_TOTAL:
-                    pid = getPid(target);
-                    state = new DecimalType(sigar.getProcCpu(pid).getTotal());
-                    break;
-                case PROCESS_UPTIME:
-                    pid = getPid(target);
-                    state = new DecimalType(getProcessUptime(pid));
-                    break;
-                case PROCESS_UPTIME_FORMATTED:
-                    pid = getPid(target);
-                    state = new StringType(getElapsedTime(getProcessUptime(pid)));
-                    break;
-
-                default:
-                    break;
-            }
-
-        } catch (SigarException e) {
-            logger.error("Error occurred while reading KPI's", e);
-        }
-
-        return state;
-    }
-
-    private long getProcessUptime(long pid) throws SigarException {
-        long processStartTime = sigar.getProcTime(pid).getStartTime();
-        long currentTime = System.currentTimeMillis();
-        return (currentTime - processStartTime) / 1000;
-    }
-
-    private long getPid(String processName) throws SigarException {
-        long pid;
-
-        ProcessFinder processFinder = new ProcessFinder(sigarImpl);
-        String query;
-
-        if (processName.equals("$$")) {
-            pid = sigar.getPid();
-            logger.debug("Return own pid {}", pid);
-            return pid;
-        } else if (processName.startsWith("*")) {
-            query = "State.Name.sw=" + processName.replace("*", "");
-        } else if (processName.endsWith("*")) {
-            query = "State.Name.ew=" + processName.replace("*", "");
-        } else if (processName.startsWith("=")) {
-            query = "State.Name.eq=" + processName.replace("=", "");
-        } else if (processName.startsWith("#")) {
-            query = processName.replace("#", "");
-        } else {
-            query = "State.Name.ct=" + processName;
+    private State getData(SysteminfoSampler sampler, SysteminfoCommandType commandType, String target) {
+        SysteminfoMetricGroup group = commandType.getGroup();
+        Map<SysteminfoCommandType, Number> values = sampler.getValues(group, group.isTargeted() ? target : null);
+
+        switch (commandType) {
+            case UPTIME_FORMATTED:
+                Number uptime = values.get(SysteminfoCommandType.UPTIME);
+                return uptime != null ? new StringType(getElapsedTime(uptime.longValue())) : UnDefType.UNDEF;
+            case PROCESS_UPTIME_FORMATTED:
+                Number processUptime = values.get(SysteminfoCommandType.PROCESS_UPTIME);
+                return processUptime != null ? new StringType(getElapsedTime(processUptime.longValue()))
+                        : UnDefType.UNDEF;
+            default:
+                Number value = values.get(commandType);
+                if (value == null) {
+                    return UnDefType.UNDEF;
+                }
+                if (BYTE_VALUES.contains(commandType)) {
+                    return new DecimalType(formatBytes(value.doubleValue(), units));
+                }
+                if (value instanceof Double || value instanceof Float) {
+                    return new DecimalType(value.doubleValue());
+                }
+                return new DecimalType(value.longValue());
         }
-
-        logger.debug("Query pid by '{}'", query);
-        pid = processFinder.findSingleProcess(query);
-
-        logger.debug("Return pid {}", pid);
-        return pid;
     }
 
     private static String getElapsedTime(long sec) {
@@ -382,6 +222,9 @@ public class SysteminfoBinding extends AbstractActiveBinding<SysteminfoBindingPr
     @Override
     public void updated(Dictionary<String, ?> config) throws ConfigurationException {
         String variant = null;
+        String collectorName = null;
+        Map<SysteminfoMetricGroup, Long> intervals = new EnumMap<SysteminfoMetricGroup, Long>(
+                SysteminfoMetricGroup.class);
         if (config != null) {
             String granularityString = (String) config.get("granularity");
             if (StringUtils.isNotBlank(granularityString)) {
@@ -406,50 +249,67 @@ public class SysteminfoBinding extends AbstractActiveBinding<SysteminfoBindingPr
             }
 
             logger.debug("Using units: {}", units);
+
+            collectorName = (String) config.get("collector");
+            if (StringUtils.isNotBlank(collectorName)) {
+                collectorName = collectorName.trim().toLowerCase();
+                if (!collectorName.equals("sigar") && !collectorName.equals("proc")) {
+                    throw new ConfigurationException("collector", "Unknown collector, use 'sigar' or 'proc'");
+                }
+            }
+
+            for (SysteminfoMetricGroup group : SysteminfoMetricGroup.values()) {
+                String interval = (String) config.get("interval." + group);
+                if (StringUtils.isNotBlank(interval)) {
+                    try {
+                        intervals.put(group, Long.parseLong(interval.trim()));
+                    } catch (NumberFormatException e) {
+                        throw new ConfigurationException("interval." + group, "Illegal interval");
+                    }
+                }
+            }
         }
 
         logger.debug("About to initialize system monitor...");
+        SysteminfoCollector collector = null;
         try {
-            initializeSystemMonitor(variant);
+            collector = createCollector(collectorName, variant);
         } catch (Throwable t) {
             logger.error("Error initializing system monitor", t);
         }
-        logger.debug("Initialized system monitor.");
-        setProperlyConfigured(true);
-    }
+        if (collector != null) {
+            SysteminfoSampler newSampler = new SysteminfoSampler(collector);
+            for (Map.Entry<SysteminfoMetricGroup, Long> interval : intervals.entrySet()) {
+                newSampler.setInterval(interval.getKey(), interval.getValue());
+                logger.debug("Sampling interval of {}: {} ms", interval.getKey(), interval.getValue());
+            }
 
-    private void initializeSystemMonitor(String variant) {
-        if (sigarImpl == null) {
-            Sigar.variant = variant;
-            sigarImpl = new Sigar();
+            SysteminfoSampler oldSampler = sampler;
+            sampler = newSampler;
+            if (oldSampler != null) {
+                oldSampler.dispose();
+            }
+            logger.debug("Initialized system monitor with collector '{}'.", collector.getName());
         }
+        setProperlyConfigured(true);
+    }
 
-        if (sigar == null) {
-            sigar = SigarProxyCache.newInstance(sigarImpl, 1000);
+    private SysteminfoCollector createCollector(String collectorName, String variant) {
+        if ("proc".equals(collectorName)) {
+            if (ProcCollector.isSupported()) {
+                return new ProcCollector();
+            }
+            logger.warn("The /proc file system is not available, using the sigar collector");
         }
 
-        logger.info("Using Sigar version {}", Sigar.VERSION_STRING);
-        logger.info("Using native version {}", Sigar.NATIVE_VERSION_STRING);
-
         try {
-            String[] interfaces = sigar.getNetInterfaceList();
-            logger.debug("valid net interfaces: {}", Arrays.toString(interfaces));
-
-            FileSystem[] filesystems = sigar.getFileSystemList();
-            logger.debug("file systems: {}", Arrays.toString(filesystems));
-
-            List<String> disks = new ArrayList<String>();
-            for (int i = 0; i < filesystems.length; i++) {
-                FileSystem fs = filesystems[i];
-                if (fs.getType() == FileSystem.TYPE_LOCAL_DISK) {
-                    disks.add(fs.getDevName());
-                }
+            return new SigarCollector(variant);
+        } catch (UnsatisfiedLinkError e) {
+            if (ProcCollector.isSupported()) {
+                logger.warn("Sigar native library could not be loaded, using the proc collector: {}", e.getMessage());
+                return new ProcCollector();
             }
-
-            logger.debug("valid disk names: {}", Arrays.toString(disks.toArray()));
-
-        } catch (SigarException e) {
-            logger.error("System monitor error:", e);
+            throw e;
         }
     }
 
@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.systeminfo.internal;
+
+import java.util.Map;
+
+/**
+ * Reads the values of a {@link SysteminfoMetricGroup} from the system. All values of a group are read with one query,
+ * so they are consistent with each other.
+ *
+ * The values are returned in base units: sizes in bytes, durations in seconds, CPU times of processes in milliseconds
+ * and percentages from 0 to 100. Formatted values like {@link SysteminfoCommandType#UPTIME_FORMATTED} are derived by
+ * the binding and not returned by the collector.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public interface SysteminfoCollector {
+
+    /**
+     * @return the name of the collector used in log messages
+     */
+    public String getName();
+
+    /**
+     * Reads all values of a group.
+     *
+     * @param group
+     *            the group to read
+     * @param target
+     *            the target of the group, e.g. the network interface, or null for groups which are not targeted
+     * @return the values by command type. Values which are not supported by the collector are missing.
+     * @throws Exception
+     *             if the group could not be read
+     */
+    public Map<SysteminfoCommandType, Number> collect(SysteminfoMetricGroup group, String target) throws Exception;
+
+    /**
+     * Releases the resources of the collector.
+     */
+    public void dispose();
+
+}
@@ -22,68 +22,70 @@ import org.openhab.core.library.items.StringItem;
  */
 public enum SysteminfoCommandType {
 
-    LOAD_AVERAGE_1MIN("LoadAverage1Min", NumberItem.class),
-    LOAD_AVERAGE_5MIN("LoadAverage5Min", NumberItem.class),
-    LOAD_AVERAGE_15MIN("LoadAverage15Min", NumberItem.class),
-
-    CPU_COMBINED("CpuCombined", NumberItem.class),
-    CPU_USER("CpuUser", NumberItem.class),
-    CPU_SYSTEM("CpuSystem", NumberItem.class),
-    CPU_NICE("CpuNice", NumberItem.class),
-    CPU_WAIT("CpuWait", NumberItem.class),
-
-    UPTIME("Uptime", NumberItem.class),
-    UPTIME_FORMATTED("UptimeFormatted", StringItem.class),
-
-    MEM_FREE_PERCENT("MemFreePercent", NumberItem.class),
-    MEM_USED_PERCENT("MemUsedPercent", NumberItem.class),
-
-    MEM_FREE("MemFree", NumberItem.class),
-    MEM_USED("MemUsed", NumberItem.class),
-    MEM_ACTUAL_FREE("MemActualFree", NumberItem.class),
-    MEM_ACTUAL_USED("MemActualUsed", NumberItem.class),
-    MEM_TOTAL("MemTotal", NumberItem.class),
-
-    SWAP_FREE("SwapFree", NumberItem.class),
-    SWAP_TOTAL("SwapTotal", NumberItem.class),
-    SWAP_USED("SwapUsed", NumberItem.class),
-    SWAP_PAGE_IN("SwapPageIn", NumberItem.class),
-    SWAP_PAGE_OUT("SwapPageOut", NumberItem.class),
-
-    NET_TX_BYTES("NetTxBytes", NumberItem.class),
-    NET_RX_BYTES("NetRxBytes", NumberItem.class),
-
-    DISK_READS("DiskReads", NumberItem.class),
-    DISK_WRITES("DiskWrites", NumberItem.class),
-    DISK_READ_BYTES("DiskReadBytes", NumberItem.class),
-    DISK_WRITE_BYTES("DiskWriteBytes", NumberItem.class),
-
-    FS_USED("FileSystemUsed", NumberItem.class),
-    FS_FREE("FileSystemFree", NumberItem.class),
-    FS_TOTAL("FileSystemTotal", NumberItem.class),
-    FS_USE_PERCENT("FileSystemUsagePercent", NumberItem.class),
-    FS_FILES("FileSystemFiles", NumberItem.class),
-    FS_FREE_FILES("FileSystemFreeFiles", NumberItem.class),
-
-    DIR_USAGE("DirUsage", NumberItem.class),
-    DIR_FILES("DirFiles", NumberItem.class),
-
-    PROCESS_REAL_MEM("ProcessRealMem", NumberItem.class),
-    PROCESS_VIRTUAL_MEM("ProcessVirtualMem", NumberItem.class),
-
-    PROCESS_CPU_PERCENT("ProcessCpuPercent", NumberItem.class),
-    PROCESS_CPU_SYSTEM("ProcessCpuSystem", NumberItem.class),
-    PROCESS_CPU_USER("ProcessCpuUser", NumberItem.class),
-    PROCESS_CPU_TOTAL("ProcessCpuTotal", NumberItem.class),
-    PROCESS_UPTIME("ProcessUptime", NumberItem.class),
-    PROCESS_UPTIME_FORMATTED("ProcessUptimeFormatted", StringItem.class),;
+LOAD_AVERAGE_1MIN("LoadAverage1Min", NumberItem.class, SysteminfoMetricGroup.LOAD),
+LOAD_AVERAGE_5MIN("LoadAverage5Min", NumberItem.class, SysteminfoMetricGroup.LOAD),
+LOAD_AVERAGE_15MIN("LoadAverage15Min", NumberItem.class, SysteminfoMetricGroup.LOAD),
+
+CPU_COMBINED("CpuCombined", NumberItem.class, SysteminfoMetricGroup.CPU),
+CPU_USER("CpuUser", NumberItem.class, SysteminfoMetricGroup.CPU),
+CPU_SYSTEM("CpuSystem", NumberItem.class, SysteminfoMetricGroup.CPU),
+CPU_NICE("CpuNice", NumberItem.class, SysteminfoMetricGroup.CPU),
+CPU_WAIT("CpuWait", NumberItem.class, SysteminfoMetricGroup.CPU),
+
+UPTIME("Uptime", NumberItem.class, SysteminfoMetricGroup.UPTIME),
+UPTIME_FORMATTED("UptimeFormatted", StringItem.class, SysteminfoMetricGroup.UPTIME),
+
+MEM_FREE_PERCENT("MemFreePercent", NumberItem.class, SysteminfoMetricGroup.MEMORY),
+MEM_USED_PERCENT("MemUsedPercent", NumberItem.class, SysteminfoMetricGroup.MEMORY),
+
+MEM_FREE("MemFree", NumberItem.class, SysteminfoMetricGroup.MEMORY),
+MEM_USED("MemUsed", NumberItem.class, SysteminfoMetricGroup.MEMORY),
+MEM_ACTUAL_FREE("MemActualFree", NumberItem.class, SysteminfoMetricGroup.MEMORY),
+MEM_ACTUAL_USED("MemActualUsed", NumberItem.class, SysteminfoMetricGroup.MEMORY),
+MEM_TOTAL("MemTotal", NumberItem.class, SysteminfoMetricGroup.MEMORY),
+
+SWAP_FREE("SwapFree", NumberItem.class, SysteminfoMetricGroup.SWAP),
+SWAP_TOTAL("SwapTotal", NumberItem.class, SysteminfoMetricGroup.SWAP),
+SWAP_USED("SwapUsed", NumberItem.class, SysteminfoMetricGroup.SWAP),
+SWAP_PAGE_IN("SwapPageIn", NumberItem.class, SysteminfoMetricGroup.SWAP),
+SWAP_PAGE_OUT("SwapPageOut", NumberItem.class, SysteminfoMetricGroup.SWAP),
+
+NET_TX_BYTES("NetTxBytes", NumberItem.class, SysteminfoMetricGroup.NETWORK),
+NET_RX_BYTES("NetRxBytes", NumberItem.class, SysteminfoMetricGroup.NETWORK),
+
+DISK_READS("DiskReads", NumberItem.class, SysteminfoMetricGroup.DISK),
+DISK_WRITES("DiskWrites", NumberItem.class, SysteminfoMetricGroup.DISK),
+DISK_READ_BYTES("DiskReadBytes", NumberItem.class, SysteminfoMetricGroup.DISK),
+DISK_WRITE_BYTES("DiskWriteBytes", NumberItem.class, SysteminfoMetricGroup.DISK),
+
+FS_USED("FileSystemUsed", NumberItem.class, SysteminfoMetricGroup.FILESYSTEM),
+FS_FREE("FileSystemFree", NumberItem.class, SysteminfoMetricGroup.FILESYSTEM),
+FS_TOTAL("FileSystemTotal", NumberItem.class, SysteminfoMetricGroup.FILESYSTEM),
+FS_USE_PERCENT("FileSystemUsagePercent", NumberItem.class, SysteminfoMetricGroup.FILESYSTEM),
+FS_FILES("FileSystemFiles", NumberItem.class, SysteminfoMetricGroup.FILESYSTEM),
+FS_FREE_FILES("FileSystemFreeFiles", NumberItem.class, SysteminfoMetricGroup.FILESYSTEM),
+
+DIR_USAGE("DirUsage", NumberItem.class, SysteminfoMetricGroup.DIRECTORY),
+DIR_FILES("DirFiles", NumberItem.class, SysteminfoMetricGroup.DIRECTORY),
+
+PROCESS_REAL_MEM("ProcessRealMem", NumberItem.class, SysteminfoMetricGroup.PROCESS),
+PROCESS_VIRTUAL_MEM("ProcessVirtualMem", NumberItem.class, SysteminfoMetricGroup.PROCESS),
+
+PROCESS_CPU_PERCENT("ProcessCpuPercent", NumberItem.class, SysteminfoMetricGroup.PROCESS),
+PROCESS_CPU_SYSTEM("ProcessCpuSystem", NumberItem.class, SysteminfoMetricGroup.PROCESS),
+PROCESS_CPU_USER("ProcessCpuUser", NumberItem.class, SysteminfoMetricGroup.PROCESS),
+PROCESS_CPU_TOTAL("ProcessCpuTotal", NumberItem.class, SysteminfoMetricGroup.PROCESS),
+PROCESS_UPTIME("ProcessUptime", NumberItem.class, SysteminfoMetricGroup.PROCESS),
+PROCESS_UPTIME_FORMATTED("ProcessUptimeFormatted", StringItem.class, SysteminfoMetricGroup.PROCESS),;
 
     private final String text;
     private Class<? extends Item> itemClass;
+    private final SysteminfoMetricGroup group;
 
-    private SysteminfoCommandType(final String text, Class<? extends Item> itemClass) {
+    private SysteminfoCommandType(final String text, Class<? extends Item> itemClass, SysteminfoMetricGroup group) {
         this.text = text;
         this.itemClass = itemClass;
+        this.group = group;
     }
 
     @Override
@@ -95,6 +97,13 @@ public enum SysteminfoCommandType {
         return itemClass;
     }
 
+    /**
+     * @return the group of command types which are read together with this one
+     */
+    public SysteminfoMetricGroup getGroup() {
+        return group;
+    }
+
     /**
      * Procedure to validate command type string.
      * 
@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.systeminfo.internal;
+
+/**
+ * Groups of command types which are read from the system with a single query, e.g. all CPU percentages or all
+ * values of one file system.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public enum SysteminfoMetricGroup {
+
+    LOAD("load", false),
+    CPU("cpu", false),
+    UPTIME("uptime", false),
+    MEMORY("memory", false),
+    SWAP("swap", false),
+    NETWORK("network", true),
+    DISK("disk", true),
+    FILESYSTEM("filesystem", true),
+    DIRECTORY("directory", true),
+    PROCESS("process", true);
+
+    private final String text;
+    private final boolean targeted;
+
+    private SysteminfoMetricGroup(String text, boolean targeted) {
+        this.text = text;
+        this.targeted = targeted;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    /**
+     * @return true if the group is read per target, e.g. per network interface
+     */
+    public boolean isTargeted() {
+        return targeted;
+    }
+
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.systeminfo.internal;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a snapshot of the system values, so all items of a refresh cycle are fed from one consistent sample and each
+ * {@link SysteminfoMetricGroup} is read at most once per cycle, no matter how many items use it. A group can be given
+ * a sampling interval, then its sample is reused by the following cycles until the interval has passed.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class SysteminfoSampler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SysteminfoSampler.class);
+
+    /** samples which have not been used for this time (in ms) are dropped */
+    private static final long EXPIRY = 10 * 60 * 1000;
+
+    private final SysteminfoCollector collector;
+
+    private final Map<SysteminfoMetricGroup, Long> intervals = new EnumMap<SysteminfoMetricGroup, Long>(
+            SysteminfoMetricGroup.class);
+
+    private final Map<String, Sample> samples = new HashMap<String, Sample>();
+
+    private long cycleTime = 0;
+
+    /**
+     * @param collector
+     *            the collector to read the values with
+     */
+    public SysteminfoSampler(SysteminfoCollector collector) {
+        this.collector = collector;
+    }
+
+    /**
+     * @return the collector the values are read with
+     */
+    public SysteminfoCollector getCollector() {
+        return collector;
+    }
+
+    /**
+     * Sets the minimum time between two reads of a group.
+     *
+     * @param group
+     *            the group
+     * @param interval
+     *            the interval in ms, 0 to read the group in every cycle it is used
+     */
+    public void setInterval(SysteminfoMetricGroup group, long interval) {
+        intervals.put(group, interval);
+    }
+
+    /**
+     * Starts a new refresh cycle. Groups used within the cycle are read again if their interval has passed.
+     *
+     * @param now
+     *            the start time of the cycle in ms
+     */
+    public void beginCycle(long now) {
+        cycleTime = now;
+        for (Iterator<Sample> it = samples.values().iterator(); it.hasNext();) {
+            if (now - it.next().lastUsed > EXPIRY) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the values of a group from the snapshot, the group is read if it is not sampled yet.
+     *
+     * @param group
+     *            the group
+     * @param target
+     *            the target of the group or null for groups which are not targeted
+     * @return the values by command type, empty if the group could not be read
+     */
+    public Map<SysteminfoCommandType, Number> getValues(SysteminfoMetricGroup group, String target) {
+        String key = group.isTargeted() ? group + ":" + target : group.toString();
+        Sample sample = samples.get(key);
+
+        if (sample == null || (sample.time != cycleTime && cycleTime - sample.time >= getInterval(group))) {
+            sample = new Sample(cycleTime, read(group, target));
+            samples.put(key, sample);
+        }
+        sample.lastUsed = cycleTime;
+        return sample.values;
+    }
+
+    private long getInterval(SysteminfoMetricGroup group) {
+        Long interval = intervals.get(group);
+        return interval != null ? interval : 0;
+    }
+
+    private Map<SysteminfoCommandType, Number> read(SysteminfoMetricGroup group, String target) {
+        logger.debug("Reading {} values{} with collector '{}'", group, target != null ? " of '" + target + "'" : "",
+                collector.getName());
+        try {
+            return collector.collect(group, target);
+        } catch (Exception e) {
+            logger.error("Error occurred while reading KPI's", e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Releases the collector and drops all samples.
+     */
+    public void dispose() {
+        samples.clear();
+        collector.dispose();
+    }
+
+    private static class Sample {
+        private final long time;
+        private final Map<SysteminfoCommandType, Number> values;
+        private long lastUsed;
+
+        Sample(long time, Map<SysteminfoCommandType, Number> values) {
+            this.time = time;
+            this.values = values;
+        }
+    }
+
+}
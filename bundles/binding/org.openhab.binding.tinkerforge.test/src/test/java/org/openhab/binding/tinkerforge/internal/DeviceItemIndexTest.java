@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tinkerforge.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.tinkerforge.TinkerforgeBindingProvider;
+import org.openhab.binding.tinkerforge.internal.config.DeviceOptions;
+import org.openhab.binding.tinkerforge.internal.model.ModelFactory;
+import org.openhab.binding.tinkerforge.internal.model.OHConfig;
+import org.openhab.binding.tinkerforge.internal.model.OHTFDevice;
+import org.openhab.core.binding.BindingChangeListener;
+import org.openhab.core.items.Item;
+
+/**
+ * DeviceItemIndex tests.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class DeviceItemIndexTest {
+
+    private DeviceItemIndex index;
+
+    private TestProvider provider;
+
+    private OHConfig ohConfig;
+
+    @Before
+    public void setUp() {
+        index = new DeviceItemIndex();
+        provider = new TestProvider();
+        ohConfig = ModelFactory.eINSTANCE.createOHConfig();
+        OHTFDevice<?, ?> device = ModelFactory.eINSTANCE.createOHTFDevice();
+        device.setUid("lampUid");
+        device.setSubid("relay1");
+        device.setOhid("lamp");
+        ohConfig.getOhTfDevices().add(device);
+    }
+
+    @Test
+    public void indexesItemsByDevice() {
+
+        provider.bind("temperature", "abc", null, null);
+        provider.bind("humidity", "abc", null, null);
+        provider.bind("led", "abc", "led1", null);
+        index.rebuild(Arrays.<TinkerforgeBindingProvider> asList(provider), ohConfig);
+
+        assertEquals(2, index.getItems("abc", null).size());
+        assertSame(provider, index.getItems("abc", null).get("temperature"));
+        assertEquals(1, index.getItems("abc", "led1").size());
+        assertTrue(index.getItems("abc", "led2").isEmpty());
+        assertArrayEquals(new String[] { "abc", "led1" }, index.getDeviceIds("led"));
+        assertSame(provider, index.getProvider("humidity"));
+        assertNull(index.getDeviceIds("unknown"));
+    }
+
+    @Test
+    public void resolvesDeviceNames() {
+
+        provider.bind("lampSwitch", null, null, "lamp");
+        provider.bind("missing", null, null, "noSuchDevice");
+        index.update(provider, "lampSwitch", null);
+        assertNull(index.getDeviceIds("lampSwitch"));
+
+        index.update(provider, "lampSwitch", ohConfig);
+        index.update(provider, "missing", ohConfig);
+        assertArrayEquals(new String[] { "lampUid", "relay1" }, index.getDeviceIds("lampSwitch"));
+        assertTrue(index.getItems("lampUid", "relay1").containsKey("lampSwitch"));
+        assertNull(index.getDeviceIds("missing"));
+    }
+
+    @Test
+    public void movesAndRemovesChangedItems() {
+
+        provider.bind("temperature", "abc", null, null);
+        provider.bind("humidity", "abc", null, null);
+        index.update(provider, "temperature", ohConfig);
+        index.update(provider, "humidity", ohConfig);
+
+        provider.bind("temperature", "xyz", null, null);
+        index.update(provider, "temperature", ohConfig);
+        assertEquals(1, index.getItems("abc", null).size());
+        assertTrue(index.getItems("xyz", null).containsKey("temperature"));
+
+        Map<String, TinkerforgeBindingProvider> items = index.getItems("abc", null);
+        provider.unbind("humidity");
+        index.update(provider, "humidity", ohConfig);
+        assertTrue(index.getItems("abc", null).isEmpty());
+        assertNull(index.getProvider("humidity"));
+        // maps handed out before are not changed
+        assertTrue(items.containsKey("humidity"));
+    }
+
+    @Test
+    public void keepsItemsOfOtherProviders() {
+
+        TestProvider otherProvider = new TestProvider();
+        provider.bind("temperature", "abc", null, null);
+        index.update(provider, "temperature", ohConfig);
+
+        index.update(otherProvider, "temperature", ohConfig);
+        assertSame(provider, index.getProvider("temperature"));
+
+        otherProvider.bind("humidity", "abc", null, null);
+        index.update(otherProvider, "humidity", ohConfig);
+        index.removeProvider(provider);
+        assertNull(index.getProvider("temperature"));
+        assertEquals(1, index.getItems("abc", null).size());
+        assertSame(otherProvider, index.getProvider("humidity"));
+    }
+
+    @Test
+    public void keepsPreviousItemsDuringRebuild() {
+
+        provider.bind("temperature", "abc", null, null);
+        index.rebuild(Arrays.<TinkerforgeBindingProvider> asList(provider), ohConfig);
+
+        TestProvider rebuildingProvider = new TestProvider() {
+            @Override
+            public Collection<String> getItemNames() {
+                // lookups while the index is rebuilt still find the items
+                assertSame(provider, index.getProvider("temperature"));
+                assertEquals(1, index.getItems("abc", null).size());
+                return super.getItemNames();
+            }
+        };
+        rebuildingProvider.bind("humidity", "abc", null, null);
+        index.rebuild(Arrays.<TinkerforgeBindingProvider> asList(rebuildingProvider), ohConfig);
+
+        assertNull(index.getProvider("temperature"));
+        assertSame(rebuildingProvider, index.getProvider("humidity"));
+        assertEquals(1, index.getItems("abc", null).size());
+    }
+
+    private static class TestProvider implements TinkerforgeBindingProvider {
+
+        /** uid, subid and device name by item name */
+        private final Map<String, String[]> bindings = new LinkedHashMap<String, String[]>();
+
+        void bind(String itemName, String uid, String subId, String name) {
+            bindings.put(itemName, new String[] { uid, subId, name });
+        }
+
+        void unbind(String itemName) {
+            bindings.remove(itemName);
+        }
+
+        @Override
+        public void addBindingChangeListener(BindingChangeListener listener) {
+        }
+
+        @Override
+        public void removeBindingChangeListener(BindingChangeListener listener) {
+        }
+
+        @Override
+        public boolean providesBindingFor(String itemName) {
+            return bindings.containsKey(itemName);
+        }
+
+        @Override
+        public boolean providesBinding() {
+            return !bindings.isEmpty();
+        }
+
+        @Override
+        public Collection<String> getItemNames() {
+            return bindings.keySet();
+        }
+
+        @Override
+        public String getUid(String itemName) {
+            return bindings.get(itemName)[0];
+        }
+
+        @Override
+        public String getSubId(String itemName) {
+            return bindings.get(itemName)[1];
+        }
+
+        @Override
+        public String getName(String itemName) {
+            return bindings.get(itemName)[2];
+        }
+
+        @Override
+        public Item getItem(String itemName) {
+            return null;
+        }
+
+        @Override
+        public Class<? extends Item> getItemType(String itemName) {
+            return null;
+        }
+
+        @Override
+        public DeviceOptions getDeviceOptions(String itemName) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tinkerforge.internal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openhab.binding.tinkerforge.TinkerforgeBindingProvider;
+import org.openhab.binding.tinkerforge.internal.model.OHConfig;
+import org.openhab.binding.tinkerforge.internal.model.OHTFDevice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of the bound items by device and of the devices by item name, so sensor callbacks and commands don't have to
+ * search all items of all providers. Items which are bound by a symbolic device name are indexed with the uid and subid
+ * of the device configured for that name in openhab.cfg.
+ *
+ * The index is changed by the binding whenever a binding configuration or the openhab.cfg changes. Lookups don't
+ * block and may run concurrently with changes. A rebuild fills a new index which replaces the current one at once, so
+ * lookups meanwhile still find the previous items.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class DeviceItemIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeviceItemIndex.class);
+
+    private static class Index {
+
+        /** the bound items and their providers by device key, the maps are never modified once they are stored */
+        final Map<String, Map<String, TinkerforgeBindingProvider>> itemsByDevice = new ConcurrentHashMap<>();
+
+        /** uid and subid of the device by item name */
+        final Map<String, String[]> devicesByItem = new ConcurrentHashMap<>();
+
+        final Map<String, TinkerforgeBindingProvider> providersByItem = new ConcurrentHashMap<>();
+    }
+
+    private volatile Index index = new Index();
+
+    /**
+     * Adds, changes or removes the item with the given name, depending on the current binding configuration of the
+     * provider.
+     *
+     * @param provider The {@code TinkerforgeBindingProvider} whose binding of the item changed.
+     * @param itemName The name of the item as {@code String}.
+     * @param ohConfig The device configuration from openhab.cfg or {@code null} if there is none yet.
+     */
+    public synchronized void update(TinkerforgeBindingProvider provider, String itemName, OHConfig ohConfig) {
+        update(index, provider, itemName, ohConfig);
+    }
+
+    private static void update(Index index, TinkerforgeBindingProvider provider, String itemName,
+            OHConfig ohConfig) {
+        TinkerforgeBindingProvider indexedProvider = index.providersByItem.get(itemName);
+        if (indexedProvider != null && indexedProvider != provider && !provider.providesBindingFor(itemName)) {
+            // the item is still bound by another provider
+            return;
+        }
+        remove(index, itemName);
+        if (!provider.providesBindingFor(itemName)) {
+            return;
+        }
+
+        String uid = provider.getUid(itemName);
+        String subId = provider.getSubId(itemName);
+        String deviceName = provider.getName(itemName);
+        if (deviceName != null) {
+            if (ohConfig == null) {
+                logger.debug("{} no configuration yet to look up device name {} of item {}", LoggerConstants.CONFIG,
+                        deviceName, itemName);
+                return;
+            }
+            OHTFDevice<?, ?> ohtfDevice = ohConfig.getConfigByOHId(deviceName);
+            if (ohtfDevice == null) {
+                logger.error("{} found no device with the name {} for item {}. Fix your openhab.cfg!",
+                        LoggerConstants.CONFIG, deviceName, itemName);
+                return;
+            }
+            uid = ohtfDevice.getUid();
+            subId = ohtfDevice.getSubid();
+        }
+        if (uid == null) {
+            return;
+        }
+
+        String key = getDeviceKey(uid, subId);
+        Map<String, TinkerforgeBindingProvider> items = index.itemsByDevice.get(key);
+        Map<String, TinkerforgeBindingProvider> newItems = items == null
+                ? new HashMap<String, TinkerforgeBindingProvider>() : new HashMap<>(items);
+        newItems.put(itemName, provider);
+        index.itemsByDevice.put(key, Collections.unmodifiableMap(newItems));
+        index.devicesByItem.put(itemName, new String[] { uid, subId });
+        index.providersByItem.put(itemName, provider);
+        logger.trace("indexed item {} for uid {} subid {}", itemName, uid, subId);
+    }
+
+    /**
+     * Removes all items of the given provider.
+     *
+     * @param provider The removed {@code TinkerforgeBindingProvider}.
+     */
+    public synchronized void removeProvider(TinkerforgeBindingProvider provider) {
+        Index index = this.index;
+        for (Map.Entry<String, TinkerforgeBindingProvider> entry : index.providersByItem.entrySet()) {
+            if (entry.getValue() == provider) {
+                remove(index, entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Indexes all items of the given providers from scratch.
+     *
+     * @param providers All {@code TinkerforgeBindingProvider}s of the binding.
+     * @param ohConfig The device configuration from openhab.cfg or {@code null} if there is none yet.
+     */
+    public synchronized void rebuild(Collection<TinkerforgeBindingProvider> providers, OHConfig ohConfig) {
+        Index newIndex = new Index();
+        for (TinkerforgeBindingProvider provider : providers) {
+            for (String itemName : provider.getItemNames()) {
+                update(newIndex, provider, itemName, ohConfig);
+            }
+        }
+        index = newIndex;
+    }
+
+    /**
+     * Gets the items which are bound to the device with the given uid and subid.
+     *
+     * @param uid The device uid as {@code String}.
+     * @param subId The device subid as {@code String} or {@code null} if it is not a sub device.
+     * @return The names of the items with their {@code TinkerforgeBindingProvider}, an empty {@code Map} if no item
+     *         is bound to the device.
+     */
+    public Map<String, TinkerforgeBindingProvider> getItems(String uid, String subId) {
+        Map<String, TinkerforgeBindingProvider> items = index.itemsByDevice.get(getDeviceKey(uid, subId));
+        if (items == null) {
+            return Collections.emptyMap();
+        }
+        return items;
+    }
+
+    /**
+     * Gets the uid and the subid of the device the item is bound to.
+     *
+     * @param itemName The name of the item as {@code String}.
+     * @return A String array with the device uid as first element and the device subid or {@code null} as second
+     *         element, or {@code null} if the item is not bound to a device.
+     */
+    public String[] getDeviceIds(String itemName) {
+        return index.devicesByItem.get(itemName);
+    }
+
+    /**
+     * @param itemName The name of the item as {@code String}.
+     * @return The {@code TinkerforgeBindingProvider} which binds the item or {@code null} if the item is not bound.
+     */
+    public TinkerforgeBindingProvider getProvider(String itemName) {
+        return index.providersByItem.get(itemName);
+    }
+
+    private static void remove(Index index, String itemName) {
+        index.providersByItem.remove(itemName);
+        String[] ids = index.devicesByItem.remove(itemName);
+        if (ids == null) {
+            return;
+        }
+        String key = getDeviceKey(ids[0], ids[1]);
+        Map<String, TinkerforgeBindingProvider> items = index.itemsByDevice.get(key);
+        if (items != null && items.containsKey(itemName)) {
+            if (items.size() == 1) {
+                index.itemsByDevice.remove(key);
+            } else {
+                Map<String, TinkerforgeBindingProvider> newItems = new HashMap<>(items);
+                newItems.remove(itemName);
+                index.itemsByDevice.put(key, Collections.unmodifiableMap(newItems));
+            }
+        }
+    }
+
+    private static String getDeviceKey(String uid, String subId) {
+        return subId == null ? uid : uid + '/' + subId;
+    }
+
+}
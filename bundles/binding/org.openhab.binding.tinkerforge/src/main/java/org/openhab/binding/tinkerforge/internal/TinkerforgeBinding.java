@@ -10,7 +10,6 @@ package org.openhab.binding.tinkerforge.internal;
 
 import java.math.BigDecimal;
 import java.util.Dictionary;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -157,6 +156,7 @@ public class TinkerforgeBinding extends AbstractActiveBinding<TinkerforgeBinding
     private OHConfig ohConfig;
     private boolean isConnected;
     private TinkerforgeContextImpl context = (TinkerforgeContextImpl) TinkerforgeContextImpl.getInstance();
+    private final DeviceItemIndex deviceItemIndex = new DeviceItemIndex();
 
     public TinkerforgeBinding() {
         modelFactory = ModelFactory.eINSTANCE;
@@ -351,7 +351,7 @@ public class TinkerforgeBinding extends AbstractActiveBinding<TinkerforgeBinding
                         MBaseDevice mDevice = (MBaseDevice) notification.getOldValue();
                         String uid = mDevice.getUid();
                         String subId = null;
-                        if (searchConfiguredItemName(uid, subId) != null) {
+                        if (!deviceItemIndex.getItems(uid, subId).isEmpty()) {
                             logger.debug("{} Notifier: removing device: uid {} subid {}", LoggerConstants.TFINIT, uid,
                                     subId);
                             postUpdate(uid, subId, UnDefValue.UNDEF);
@@ -378,7 +378,7 @@ public class TinkerforgeBinding extends AbstractActiveBinding<TinkerforgeBinding
                     MSubDevice<?> mDevice = (MSubDevice<?>) notification.getOldValue();
                     String uid = mDevice.getUid();
                     String subId = mDevice.getSubId();
-                    if (searchConfiguredItemName(uid, subId) != null) {
+                    if (!deviceItemIndex.getItems(uid, subId).isEmpty()) {
                         logger.debug("{} Notifier: removing device: uid {} subid {}", LoggerConstants.TFINIT, uid,
                                 subId);
                         postUpdate(uid, subId, UnDefValue.UNDEF);
@@ -496,71 +496,6 @@ public class TinkerforgeBinding extends AbstractActiveBinding<TinkerforgeBinding
         postUpdate(uid, subId, newValue);
     }
 
-    /**
-     * Searches the name of an item which is bound to the device with the given uid and subid.
-     *
-     * @param uid The device uid as {@code String}.
-     * @param subId The device subid as {@code String} or {@code null} if it is not a sub device.
-     * @return The name of the item which is bound to the device as {@code String} or {@code null} if
-     *         no item was found.
-     */
-    private String searchConfiguredItemName(String uid, String subId) {
-        for (TinkerforgeBindingProvider provider : providers) {
-            for (String itemName : provider.getItemNames()) {
-                String deviceUid = provider.getUid(itemName);
-                String subDeviceId = provider.getSubId(itemName);
-                String deviceName = provider.getName(itemName);
-                if (deviceName != null) {
-                    logger.trace("found item for command: name {}", deviceName);
-                    OHTFDevice<?, ?> ohtfDevice = ohConfig.getConfigByOHId(deviceName);
-                    deviceUid = ohtfDevice.getUid();
-                    deviceName = ohtfDevice.getSubid();
-                }
-                if (uid.equals(deviceUid)) {
-                    if (subId == null && subDeviceId == null) {
-                        return itemName;
-                    } else if (subId != null && subId.equals(subDeviceId)) {
-                        return itemName;
-                    }
-                }
-            }
-        }
-        return null;
-    }
-
-    /**
-     * Searches the provider which is bound to the device with the given uid and subid.
-     *
-     * @param uid The device uid as {@code String}.
-     * @param subId The device subid as {@code String} or {@code null} if it is not a sub device.
-     * @return The {@code TinkerforgeBindingProvider} which is bound to the device as {@code Item} or
-     *         {@code null} if no item was found.
-     */
-    private Map<String, TinkerforgeBindingProvider> getBindingProviders(String uid, String subId) {
-        Map<String, TinkerforgeBindingProvider> providerMap = new HashMap<String, TinkerforgeBindingProvider>();
-        for (TinkerforgeBindingProvider provider : providers) {
-            for (String itemName : provider.getItemNames()) {
-                String deviceUid = provider.getUid(itemName);
-                String subDeviceId = provider.getSubId(itemName);
-                String deviceName = provider.getName(itemName);
-                if (deviceName != null) {
-                    OHTFDevice<?, ?> ohtfDevice = ohConfig.getConfigByOHId(deviceName);
-                    deviceUid = ohtfDevice.getUid();
-                    subDeviceId = ohtfDevice.getSubid();
-                    logger.trace("found deviceName {}, uid={}, subId {}", deviceName, deviceUid, subDeviceId);
-                }
-                if (uid.equals(deviceUid)) {
-                    if (subId == null && subDeviceId == null) {
-                        providerMap.put(itemName, provider);
-                    } else if (subId != null && subId.equals(subDeviceId)) {
-                        providerMap.put(itemName, provider);
-                    }
-                }
-            }
-        }
-        return providerMap;
-    }
-
     /**
      * {@inheritDoc}
      */
@@ -608,15 +543,14 @@ public class TinkerforgeBinding extends AbstractActiveBinding<TinkerforgeBinding
             logger.warn("tinkerforge ecosystem not yet ready");
             return;
         }
-        String deviceUid = provider.getUid(itemName);
-        Item item = provider.getItem(itemName);
-        String deviceSubId = provider.getSubId(itemName);
-        String deviceName = provider.getName(itemName);
-        if (deviceName != null) {
-            String[] ids = getDeviceIdsForDeviceName(deviceName);
-            deviceUid = ids[0];
-            deviceSubId = ids[1];
+        String[] ids = deviceItemIndex.getDeviceIds(itemName);
+        if (ids == null) {
+            logger.debug("{} no device found for item {}", LoggerConstants.ITEMUPDATE, itemName);
+            return;
         }
+        String deviceUid = ids[0];
+        String deviceSubId = ids[1];
+        Item item = provider.getItem(itemName);
         MBaseDevice mDevice = tinkerforgeEcosystem.getDevice(deviceUid, deviceSubId);
         if (mDevice != null && mDevice.getEnabledA().get()) {
             if (only_poll_enabled && !mDevice.isPoll()) {
@@ -638,13 +572,20 @@ public class TinkerforgeBinding extends AbstractActiveBinding<TinkerforgeBinding
     @Override
     public void bindingChanged(BindingProvider provider, String itemName) {
         logger.debug("{} bindingChanged item {}", LoggerConstants.ITEMUPDATE, itemName);
+        deviceItemIndex.update((TinkerforgeBindingProvider) provider, itemName, ohConfig);
         updateItemValues((TinkerforgeBindingProvider) provider, itemName, false);
     }
 
+    @Override
+    public void allBindingsChanged(BindingProvider provider) {
+        deviceItemIndex.rebuild(providers, ohConfig);
+        super.allBindingsChanged(provider);
+    }
+
     private void postUpdate(String uid, String subId, TinkerforgeValue sensorValue) {
         // TODO undef handling
         logger.trace("postUpdate called for uid {} subid {}", uid, subId);
-        Map<String, TinkerforgeBindingProvider> providerMap = getBindingProviders(uid, subId);
+        Map<String, TinkerforgeBindingProvider> providerMap = deviceItemIndex.getItems(uid, subId);
         if (providerMap.size() == 0) {
             logger.debug("{} found no item for uid {}, subid {}", LoggerConstants.TFMODELUPDATE, uid, subId);
         }
@@ -722,26 +663,12 @@ public class TinkerforgeBinding extends AbstractActiveBinding<TinkerforgeBinding
         }
     }
 
-    /**
-     * Gets the uid and the subid of a device from the openhab.cfg, using the device name as input.
-     *
-     * @param deviceName The symbolic device name as {@code String}.
-     * @return A String array with the device uid as first element as {@code String} and the device
-     *         subid as second element as {@code String} or {@code null}.
-     */
-    private String[] getDeviceIdsForDeviceName(String deviceName) {
-        logger.trace("searching ids for name {}", deviceName);
-        OHTFDevice<?, ?> ohtfDevice = ohConfig.getConfigByOHId(deviceName);
-        String[] ids = { ohtfDevice.getUid(), ohtfDevice.getSubid() };
-        return ids;
-    }
-
     /**
      * {@inheritDoc}
      *
-     * Searches the item with the given {@code itemName} in the {@link TinkerforgeBindingProvider}
-     * collection and gets the uid and subid of the device. The appropriate device is searched in the
-     * ecosystem and the command is executed on the device.
+     * Looks up the {@link TinkerforgeBindingProvider} and the uid and subid of the device of the item
+     * with the given {@code itemName} in the {@link DeviceItemIndex}. The appropriate device is
+     * searched in the ecosystem and the command is executed on the device.
      *
      * {@code OnOffType} commands are executed on {@link MInSwitchActor} objects. {@code StringType}
      * commands are executed on {@link MTextActor} objects.
@@ -750,111 +677,102 @@ public class TinkerforgeBinding extends AbstractActiveBinding<TinkerforgeBinding
     @Override
     protected void internalReceiveCommand(String itemName, Command command) {
         logger.debug("received command {} for item {}", command, itemName);
-        for (TinkerforgeBindingProvider provider : providers) {
-            for (String itemNameP : provider.getItemNames()) {
-                if (itemNameP.equals(itemName)) {
-                    String deviceUid = provider.getUid(itemName);
-                    String deviceSubId = provider.getSubId(itemName);
-                    String deviceName = provider.getName(itemName);
-                    if (deviceName != null) {
-                        String[] ids = getDeviceIdsForDeviceName(deviceName);
-                        deviceUid = ids[0];
-                        deviceSubId = ids[1];
+        TinkerforgeBindingProvider provider = deviceItemIndex.getProvider(itemName);
+        String[] ids = deviceItemIndex.getDeviceIds(itemName);
+        if (provider == null || ids == null) {
+            logger.debug("{} no tinkerforge device bound to item {}", LoggerConstants.COMMAND, itemName);
+            return;
+        }
+        String deviceUid = ids[0];
+        String deviceSubId = ids[1];
+        logger.trace("{} found item for command: uid: {}, subid: {}", LoggerConstants.COMMAND, deviceUid, deviceSubId);
+        MBaseDevice mDevice = tinkerforgeEcosystem.getDevice(deviceUid, deviceSubId);
+        if (mDevice != null && mDevice.getEnabledA().get()) {
+            if (command instanceof OnOffType) {
+                logger.trace("{} found onoff command", LoggerConstants.COMMAND);
+                OnOffType cmd = (OnOffType) command;
+                if (mDevice instanceof MSwitchActor) {
+                    OnOffValue state = cmd == OnOffType.OFF ? OnOffValue.OFF : OnOffValue.ON;
+                    ((MSwitchActor) mDevice).turnSwitch(state);
+                } else if (mDevice instanceof DigitalActor) {
+                    HighLowValue state = cmd == OnOffType.OFF ? HighLowValue.LOW : HighLowValue.HIGH;
+                    ((DigitalActor) mDevice).turnDigital(state);
+                } else if (mDevice instanceof ProgrammableSwitchActor) {
+                    OnOffValue state = cmd == OnOffType.OFF ? OnOffValue.OFF : OnOffValue.ON;
+                    ((ProgrammableSwitchActor) mDevice).turnSwitch(state, provider.getDeviceOptions(itemName));
+                } else {
+                    logger.error("{} received OnOff command for non-SwitchActor", LoggerConstants.COMMAND);
+                }
+            } else if (command instanceof StringType) {
+                logger.trace("{} found string command", LoggerConstants.COMMAND);
+                if (mDevice instanceof MTextActor) {
+                    ((MTextActor) mDevice).write(command.toString());
+                }
+            } else if (command instanceof DecimalType) {
+                logger.debug("{} found number command", LoggerConstants.COMMAND);
+                if (command instanceof HSBType) {
+                    logger.debug("{} found HSBType command", LoggerConstants.COMMAND);
+                    if (mDevice instanceof ProgrammableColorActor) {
+                        logger.debug("{} found ProgrammableColorActor {}", itemName);
+                        ((ProgrammableColorActor) mDevice).setSelectedColor((HSBType) command,
+                                provider.getDeviceOptions(itemName));
+                    } else if (mDevice instanceof SimpleColorActor) {
+                        logger.debug("{} found SimpleColorActor {}", itemName);
+                        ((SimpleColorActor) mDevice).setSelectedColor((HSBType) command);
                     }
-                    logger.trace("{} found item for command: uid: {}, subid: {}", LoggerConstants.COMMAND, deviceUid,
-                            deviceSubId);
-                    MBaseDevice mDevice = tinkerforgeEcosystem.getDevice(deviceUid, deviceSubId);
-                    if (mDevice != null && mDevice.getEnabledA().get()) {
-                        if (command instanceof OnOffType) {
-                            logger.trace("{} found onoff command", LoggerConstants.COMMAND);
-                            OnOffType cmd = (OnOffType) command;
-                            if (mDevice instanceof MSwitchActor) {
-                                OnOffValue state = cmd == OnOffType.OFF ? OnOffValue.OFF : OnOffValue.ON;
-                                ((MSwitchActor) mDevice).turnSwitch(state);
-                            } else if (mDevice instanceof DigitalActor) {
-                                HighLowValue state = cmd == OnOffType.OFF ? HighLowValue.LOW : HighLowValue.HIGH;
-                                ((DigitalActor) mDevice).turnDigital(state);
-                            } else if (mDevice instanceof ProgrammableSwitchActor) {
-                                OnOffValue state = cmd == OnOffType.OFF ? OnOffValue.OFF : OnOffValue.ON;
-                                ((ProgrammableSwitchActor) mDevice).turnSwitch(state,
-                                        provider.getDeviceOptions(itemName));
-                            } else {
-                                logger.error("{} received OnOff command for non-SwitchActor", LoggerConstants.COMMAND);
-                            }
-                        } else if (command instanceof StringType) {
-                            logger.trace("{} found string command", LoggerConstants.COMMAND);
-                            if (mDevice instanceof MTextActor) {
-                                ((MTextActor) mDevice).write(command.toString());
-                            }
-                        } else if (command instanceof DecimalType) {
-                            logger.debug("{} found number command", LoggerConstants.COMMAND);
-                            if (command instanceof HSBType) {
-                                logger.debug("{} found HSBType command", LoggerConstants.COMMAND);
-                                if (mDevice instanceof ProgrammableColorActor) {
-                                    logger.debug("{} found ProgrammableColorActor {}", itemName);
-                                    ((ProgrammableColorActor) mDevice).setSelectedColor((HSBType) command,
-                                            provider.getDeviceOptions(itemName));
-                                } else if (mDevice instanceof SimpleColorActor) {
-                                    logger.debug("{} found SimpleColorActor {}", itemName);
-                                    ((SimpleColorActor) mDevice).setSelectedColor((HSBType) command);
-                                }
-                            } else if (command instanceof PercentType) {
-                                if (mDevice instanceof SetPointActor) {
-                                    ((SetPointActor<?>) mDevice).setValue(((PercentType) command),
-                                            provider.getDeviceOptions(itemName));
-                                    logger.debug("found SetpointActor");
-                                } else if (mDevice instanceof PercentTypeActor) {
-                                    ((PercentTypeActor) mDevice).setValue(((PercentType) command),
-                                            provider.getDeviceOptions(itemName));
-                                    logger.debug("found PercentType actor");
-                                } else {
-                                    logger.error("found no percenttype actor");
-                                }
-                            } else {
-                                if (mDevice instanceof NumberActor) {
-                                    ((NumberActor) mDevice).setNumber(((DecimalType) command).toBigDecimal());
-                                } else if (mDevice instanceof SetPointActor) {
-                                    ((SetPointActor<?>) mDevice).setValue(((DecimalType) command).toBigDecimal(),
-                                            provider.getDeviceOptions(itemName));
-                                } else {
-                                    logger.error("found no number actor");
-                                }
-                            }
-                        } else if (command instanceof UpDownType) {
-                            UpDownType cmd = (UpDownType) command;
-                            logger.debug("{} UpDownType command {}", itemName, cmd);
-                            if (mDevice instanceof MoveActor) {
-                                ((MoveActor) mDevice).move((UpDownType) command, provider.getDeviceOptions(itemName));
-                            }
-                        } else if (command instanceof StopMoveType) {
-                            StopMoveType cmd = (StopMoveType) command;
-                            if (mDevice instanceof MoveActor) {
-                                if (cmd == StopMoveType.STOP) {
-                                    ((MoveActor) mDevice).stop();
-                                } else {
-                                    ((MoveActor) mDevice).moveon(provider.getDeviceOptions(itemName));
-                                }
-                            }
-                            logger.debug("{} StopMoveType command {}", itemName, cmd);
-                        } else if (command instanceof IncreaseDecreaseType) {
-                            IncreaseDecreaseType cmd = (IncreaseDecreaseType) command;
-                            if (mDevice instanceof DimmableActor) {
-                                ((DimmableActor<?>) mDevice).dimm((IncreaseDecreaseType) command,
-                                        provider.getDeviceOptions(itemName));
-                            }
-                            logger.debug("{} IncreaseDecreaseType command {}", itemName, cmd);
-                        }
-
-                        else {
-                            logger.error("{} got unknown command type: {}", LoggerConstants.COMMAND,
-                                    command.toString());
-                        }
+                } else if (command instanceof PercentType) {
+                    if (mDevice instanceof SetPointActor) {
+                        ((SetPointActor<?>) mDevice).setValue(((PercentType) command),
+                                provider.getDeviceOptions(itemName));
+                        logger.debug("found SetpointActor");
+                    } else if (mDevice instanceof PercentTypeActor) {
+                        ((PercentTypeActor) mDevice).setValue(((PercentType) command),
+                                provider.getDeviceOptions(itemName));
+                        logger.debug("found PercentType actor");
+                    } else {
+                        logger.error("found no percenttype actor");
+                    }
+                } else {
+                    if (mDevice instanceof NumberActor) {
+                        ((NumberActor) mDevice).setNumber(((DecimalType) command).toBigDecimal());
+                    } else if (mDevice instanceof SetPointActor) {
+                        ((SetPointActor<?>) mDevice).setValue(((DecimalType) command).toBigDecimal(),
+                                provider.getDeviceOptions(itemName));
+                    } else {
+                        logger.error("found no number actor");
+                    }
+                }
+            } else if (command instanceof UpDownType) {
+                UpDownType cmd = (UpDownType) command;
+                logger.debug("{} UpDownType command {}", itemName, cmd);
+                if (mDevice instanceof MoveActor) {
+                    ((MoveActor) mDevice).move((UpDownType) command, provider.getDeviceOptions(itemName));
+                }
+            } else if (command instanceof StopMoveType) {
+                StopMoveType cmd = (StopMoveType) command;
+                if (mDevice instanceof MoveActor) {
+                    if (cmd == StopMoveType.STOP) {
+                        ((MoveActor) mDevice).stop();
                     } else {
-                        logger.error("{} no tinkerforge device found for command for item uid: {} subId: {}",
-                                LoggerConstants.COMMAND, deviceUid, deviceSubId);
+                        ((MoveActor) mDevice).moveon(provider.getDeviceOptions(itemName));
                     }
                 }
+                logger.debug("{} StopMoveType command {}", itemName, cmd);
+            } else if (command instanceof IncreaseDecreaseType) {
+                IncreaseDecreaseType cmd = (IncreaseDecreaseType) command;
+                if (mDevice instanceof DimmableActor) {
+                    ((DimmableActor<?>) mDevice).dimm((IncreaseDecreaseType) command,
+                            provider.getDeviceOptions(itemName));
+                }
+                logger.debug("{} IncreaseDecreaseType command {}", itemName, cmd);
             }
+
+            else {
+                logger.error("{} got unknown command type: {}", LoggerConstants.COMMAND, command.toString());
+            }
+        } else {
+            logger.error("{} no tinkerforge device found for command for item uid: {} subId: {}",
+                    LoggerConstants.COMMAND, deviceUid, deviceSubId);
         }
     }
 
@@ -864,6 +782,7 @@ public class TinkerforgeBinding extends AbstractActiveBinding<TinkerforgeBinding
 
     protected void removeBindingProvider(TinkerforgeBindingProvider bindingProvider) {
         super.removeBindingProvider(bindingProvider);
+        deviceItemIndex.removeProvider(bindingProvider);
     }
 
     /**
@@ -889,6 +808,8 @@ public class TinkerforgeBinding extends AbstractActiveBinding<TinkerforgeBinding
 
             ConfigurationHandler configurationHandler = new ConfigurationHandler();
             ohConfig = configurationHandler.createConfig(config);
+            // the device names of the items may refer to other devices now
+            deviceItemIndex.rebuild(providers, ohConfig);
 
             // read further config parameters here ...
             logger.debug("{} updated called", LoggerConstants.CONFIG);
@@ -9,7 +9,6 @@
 package org.openhab.binding.weather.internal.parser;
 
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.lang.reflect.FieldUtils;
 import org.openhab.binding.weather.internal.converter.Converter;
 import org.openhab.binding.weather.internal.converter.property.PressureTrendConverter;
 import org.openhab.binding.weather.internal.metadata.MetadataHandler;
@@ -21,8 +20,7 @@ import org.openhab.binding.weather.internal.model.ProviderName;
 import org.openhab.binding.weather.internal.model.Temperature;
 import org.openhab.binding.weather.internal.model.Weather;
 import org.openhab.binding.weather.internal.model.Wind;
-import org.openhab.binding.weather.internal.utils.PropertyResolver;
-import org.openhab.binding.weather.internal.utils.PropertyUtils;
+import org.openhab.binding.weather.internal.utils.PropertyAccessor;
 import org.openhab.binding.weather.internal.utils.UnitUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,15 +58,14 @@ public abstract class AbstractWeatherParser implements WeatherParser {
             logger.trace("Setting property '{} ({})' with value '{}'", providerMappingInfo.getTarget(), propertyName,
                     value);
             try {
-                String targetProperty = providerMappingInfo.getTarget();
-                Object target = PropertyUtils.getNestedObject(weather, targetProperty);
-                String objectProperty = PropertyResolver.last(targetProperty);
+                PropertyAccessor accessor = PropertyAccessor.getAccessor(weather.getClass(),
+                        providerMappingInfo.getTarget());
                 String preparedValue = stripEmptyValues(value);
 
                 Converter<?> converter = providerMappingInfo.getConverter();
                 Object valueToSet = preparedValue == null ? null : converter.convert(preparedValue);
                 if (valueToSet != null) {
-                    FieldUtils.writeField(target, objectProperty, valueToSet, true);
+                    accessor.setValue(weather, valueToSet);
                 }
 
             } catch (Exception ex) {
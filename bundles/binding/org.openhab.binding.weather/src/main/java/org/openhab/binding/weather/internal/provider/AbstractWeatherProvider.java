@@ -19,8 +19,6 @@ import org.openhab.binding.weather.internal.model.ProviderName;
 import org.openhab.binding.weather.internal.model.Weather;
 import org.openhab.binding.weather.internal.parser.WeatherParser;
 
-import org.openhab.io.net.http.HttpUtil;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +36,7 @@ public abstract class AbstractWeatherProvider implements WeatherProvider {
     private static final Logger logger = LoggerFactory.getLogger(AbstractWeatherProvider.class);
     private WeatherConfig config = WeatherContext.getInstance().getConfig();
     private WeatherParser parser;
+    private WeatherResponseCache responseCache = WeatherResponseCache.getInstance();
 
     public AbstractWeatherProvider(WeatherParser parser) {
         this.parser = parser;
@@ -103,7 +102,7 @@ public abstract class AbstractWeatherProvider implements WeatherProvider {
         try {
             logger.trace("{}[{}]: request : {}", getProviderName(), locationConfig.getLocationId(), url);
 
-            String response = StringUtils.trimToEmpty(HttpUtil.executeUrl("GET", url, 15000));
+            String response = responseCache.getResponse(getProviderName(), url, getCacheTime(locationConfig));
 
             /**
              * special handling because of identical current and forecast json structure
@@ -147,6 +146,13 @@ public abstract class AbstractWeatherProvider implements WeatherProvider {
         }
     }
 
+    /**
+     * Returns the time in milliseconds a cached response may be reused for the location, half of its update interval.
+     */
+    private long getCacheTime(LocationConfig locationConfig) {
+        return locationConfig.getUpdateInterval() * 60000L / 2;
+    }
+
     /**
      * Sets the current timestamp in every weather object.
      */
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.weather.internal.provider;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+import org.openhab.binding.weather.internal.model.ProviderName;
+import org.openhab.io.net.http.HttpUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the responses of the weather providers, shared by all locations. The prepared request url contains the
+ * provider, the coordinates, the language, the units and the api key, so locations with the same settings share one
+ * response. Concurrent requests of the same url wait for the running request instead of starting their own, and the
+ * requests to one provider are spaced by at least {@link #MIN_REQUEST_INTERVAL} to respect the provider rate limits.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class WeatherResponseCache {
+    private static final Logger logger = LoggerFactory.getLogger(WeatherResponseCache.class);
+
+    /** the maximum time in milliseconds a response is reused */
+    private static final long MAX_CACHE_TIME = 5 * 60 * 1000;
+
+    /** the minimum time in milliseconds between two requests to the same provider */
+    private static final long MIN_REQUEST_INTERVAL = 1000;
+
+    private static final int REQUEST_TIMEOUT = 15000;
+
+    private static WeatherResponseCache instance;
+
+    private final Map<String, CacheEntry> entries = new HashMap<String, CacheEntry>();
+    private final Map<ProviderName, Long> nextRequestTimes = new HashMap<ProviderName, Long>();
+
+    private WeatherResponseCache() {
+    }
+
+    /**
+     * Returns the singleton instance of the WeatherResponseCache.
+     */
+    public static synchronized WeatherResponseCache getInstance() {
+        if (instance == null) {
+            instance = new WeatherResponseCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the response of the url, either from the cache if it is not older than <code>cacheTime</code> or
+     * by executing the request.
+     *
+     * @param providerName the provider of the url
+     * @param url the prepared request url
+     * @param cacheTime the time in milliseconds a cached response may be reused, capped at five minutes
+     */
+    public String getResponse(ProviderName providerName, String url, long cacheTime) throws Exception {
+        CacheEntry entry;
+        synchronized (entries) {
+            entry = entries.get(url);
+            if (entry == null) {
+                entry = new CacheEntry();
+                entries.put(url, entry);
+            }
+        }
+
+        synchronized (entry) {
+            long now = System.currentTimeMillis();
+            if (entry.response != null && now - entry.timestamp < Math.min(cacheTime, MAX_CACHE_TIME)) {
+                logger.trace("{}: using cached response for {}", providerName, url);
+                return entry.response;
+            }
+
+            awaitRequestSlot(providerName);
+            String response = StringUtils.trimToEmpty(HttpUtil.executeUrl("GET", url, REQUEST_TIMEOUT));
+            entry.response = response.isEmpty() ? null : response;
+            entry.timestamp = System.currentTimeMillis();
+            return response;
+        }
+    }
+
+    /**
+     * Removes all cached responses.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Blocks until the next request to the provider may be sent.
+     */
+    private void awaitRequestSlot(ProviderName providerName) throws InterruptedException {
+        long wait;
+        synchronized (nextRequestTimes) {
+            long now = System.currentTimeMillis();
+            Long next = nextRequestTimes.get(providerName);
+            long requestTime = next == null ? now : Math.max(next, now);
+            nextRequestTimes.put(providerName, requestTime + MIN_REQUEST_INTERVAL);
+            wait = requestTime - now;
+        }
+        if (wait > 0) {
+            logger.trace("{}: delaying request for {}ms", providerName, wait);
+            Thread.sleep(wait);
+        }
+    }
+
+    private static class CacheEntry {
+        private String response;
+        private long timestamp;
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.weather.internal.utils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang.reflect.FieldUtils;
+import org.apache.commons.lang.reflect.MethodUtils;
+
+/**
+ * A (nested) property of a model class, resolved once into the fields leading to the object holding the property,
+ * the field of the property itself and its getter method. Accessors are cached per model class and property, so the
+ * names are only looked up once instead of on every access.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class PropertyAccessor {
+    private static final Map<String, PropertyAccessor> cache = new ConcurrentHashMap<String, PropertyAccessor>();
+
+    private final Field[] path;
+    private final Field field;
+    private final Method getter;
+
+    private PropertyAccessor(Class<?> clazz, String property) throws IllegalAccessException {
+        Class<?> owner = clazz;
+        List<Field> fields = new ArrayList<Field>();
+        String nested = PropertyUtils.isWeatherProperty(property) ? PropertyResolver.last(property) : property;
+        while (PropertyResolver.hasNested(nested)) {
+            Field pathField = getField(owner, PropertyResolver.first(nested));
+            fields.add(pathField);
+            owner = pathField.getType();
+            nested = PropertyResolver.removeFirst(nested);
+        }
+        this.path = fields.toArray(new Field[fields.size()]);
+        this.field = FieldUtils.getField(owner, nested, true);
+        this.getter = MethodUtils.getAccessibleMethod(owner, toGetterString(nested), new Class[0]);
+    }
+
+    /**
+     * Returns the cached accessor for the property of the class, resolving it on first use.
+     */
+    public static PropertyAccessor getAccessor(Class<?> clazz, String property) throws IllegalAccessException {
+        String key = clazz.getName() + "#" + property;
+        PropertyAccessor accessor = cache.get(key);
+        if (accessor == null) {
+            accessor = new PropertyAccessor(clazz, property);
+            cache.put(key, accessor);
+        }
+        return accessor;
+    }
+
+    /**
+     * Returns the object which holds the property.
+     */
+    public Object getNestedObject(Object instance) throws IllegalAccessException {
+        Object object = instance;
+        for (Field pathField : path) {
+            object = pathField.get(object);
+        }
+        return object;
+    }
+
+    /**
+     * Returns the value of the property by calling its getter.
+     */
+    public Object getValue(Object instance) throws IllegalAccessException, InvocationTargetException {
+        if (getter == null) {
+            throw new IllegalArgumentException("No getter available for property");
+        }
+        return getter.invoke(getNestedObject(instance));
+    }
+
+    /**
+     * Sets the field of the property.
+     */
+    public void setValue(Object instance, Object value) throws IllegalAccessException {
+        if (field == null) {
+            throw new IllegalArgumentException("No field available for property");
+        }
+        field.set(getNestedObject(instance), value);
+    }
+
+    /**
+     * Returns the field of the property, may be null for virtual properties which only have a getter.
+     */
+    public Field getField() {
+        return field;
+    }
+
+    private static Field getField(Class<?> clazz, String name) throws IllegalAccessException {
+        Field field = FieldUtils.getField(clazz, name, true);
+        if (field == null) {
+            throw new IllegalAccessException("Unknown property '" + name + "' in " + clazz.getName());
+        }
+        return field;
+    }
+
+    /**
+     * Converts the string to a getter property.
+     */
+    private static String toGetterString(String str) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("get");
+        sb.append(Character.toTitleCase(str.charAt(0)));
+        sb.append(str.substring(1));
+        return sb.toString();
+    }
+
+}
@@ -8,11 +8,7 @@
  */
 package org.openhab.binding.weather.internal.utils;
 
-import java.lang.reflect.Field;
-
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.lang.reflect.FieldUtils;
-import org.apache.commons.lang.reflect.MethodUtils;
 import org.openhab.binding.weather.internal.model.Weather;
 
 /**
@@ -28,15 +24,7 @@ public class PropertyUtils {
      * Returns the object of the (nested) property.
      */
     public static Object getNestedObject(Object instance, String propertyName) throws IllegalAccessException {
-        if (PropertyUtils.isWeatherProperty(propertyName)) {
-            return instance;
-        }
-
-        while (PropertyResolver.hasNested(propertyName)) {
-            instance = FieldUtils.readField(instance, PropertyResolver.first(propertyName), true);
-            propertyName = PropertyResolver.removeFirst(propertyName);
-        }
-        return instance;
+        return PropertyAccessor.getAccessor(instance.getClass(), propertyName).getNestedObject(instance);
     }
 
     /**
@@ -62,9 +50,7 @@ public class PropertyUtils {
      * Returns the type name of the property of the instance.
      */
     public static String getPropertyTypeName(Object instance, String property) throws IllegalAccessException {
-        Object object = getNestedObject(instance, property);
-        Field field = FieldUtils.getField(object.getClass(), PropertyResolver.last(property), true);
-        return field.getType().getCanonicalName();
+        return PropertyAccessor.getAccessor(instance.getClass(), property).getField().getType().getCanonicalName();
     }
 
     /**
@@ -73,20 +59,7 @@ public class PropertyUtils {
      * methods getTemperature().getCurrent() are called.
      */
     public static Object getPropertyValue(Object instance, String property) throws Exception {
-        Object object = getNestedObject(instance, property);
-        String getMethod = toGetterString(PropertyResolver.last(property));
-        return MethodUtils.invokeMethod(object, getMethod, null);
-    }
-
-    /**
-     * Converts the string to a getter property.
-     */
-    private static String toGetterString(String str) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("get");
-        sb.append(Character.toTitleCase(str.charAt(0)));
-        sb.append(str.substring(1));
-        return sb.toString();
+        return PropertyAccessor.getAccessor(instance.getClass(), property).getValue(instance);
     }
 
 }
@@ -0,0 +1,414 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.caldav.internal;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+
+import org.apache.commons.io.FileUtils;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openhab.io.caldav.internal.EventStorage.CalendarRuntime;
+import org.openhab.io.caldav.internal.EventStorage.EventContainer;
+import org.openhab.io.caldav.internal.job.EventReloaderJob;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.Scheduler;
+
+import com.github.sardine.DavResource;
+import com.github.sardine.Sardine;
+
+import net.fortuna.ical4j.util.CompatibilityHints;
+
+/**
+ * Tests of the incremental reload of a calendar by the {@link EventReloaderJob} against a CalDAV stand-in which counts
+ * the listings and downloads.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class CalDavReloadTest {
+
+    private static final String URL = "http://localhost/calendars/test/";
+
+    private static final QName CTAG = new QName("http://calendarserver.org/ns/", "getctag");
+
+    private static final List<String> jobRequests = Collections.synchronizedList(new ArrayList<String>());
+
+    private static int calendars = 0;
+
+    private String key;
+
+    private CalendarRuntime calendarRuntime;
+
+    private CalDavStandIn server;
+
+    @BeforeClass
+    public static void setUpClass() {
+        CompatibilityHints.setHintEnabled(CompatibilityHints.KEY_RELAXED_PARSING, true);
+        if (CalDavLoaderImpl.instance == null) {
+            new CalDavLoaderImpl();
+        }
+        CalDavLoaderImpl.instance.setScheduler((Scheduler) Proxy.newProxyInstance(Scheduler.class.getClassLoader(),
+                new Class<?>[] { Scheduler.class }, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        jobRequests.add(method.getName());
+                        return method.getReturnType() == boolean.class ? Boolean.TRUE : null;
+                    }
+                }));
+    }
+
+    @Before
+    public void setUp() {
+        // every test uses its own calendar, the reloader remembers which calendars were loaded from the cache
+        key = "caldavtest" + ++calendars;
+        calendarRuntime = createCalendarRuntime();
+        assertTrue(Util.getCachePath(key).mkdirs());
+        server = new CalDavStandIn();
+        jobRequests.clear();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        EventStorage.getInstance().getEventCache().remove(key);
+        FileUtils.deleteDirectory(Util.getCachePath(key));
+    }
+
+    @Test
+    public void testUnchangedCtagSkipsListing() throws Exception {
+        server.ctag = "1";
+        server.put("meeting", "m1", event("meeting", "Meeting", hours(2), hours(3), null));
+        server.put("daily", "d1", event("daily", "Daily", hours(-23), hours(-22), "FREQ=DAILY"));
+
+        assertTrue(reload().isEmpty());
+        assertEquals(1, server.listings);
+        assertEquals(Arrays.asList("meeting", "daily"), server.downloads);
+        assertEquals("1", calendarRuntime.getCtag());
+        assertEquals(2, calendarRuntime.getEventMap().size());
+
+        assertTrue(reload().isEmpty());
+        assertEquals(1, server.listings);
+        assertEquals(2, server.downloads.size());
+        assertEquals(2, calendarRuntime.getEventMap().size());
+    }
+
+    @Test
+    public void testUnchangedResourcesAreNotFetched() throws Exception {
+        server.ctag = "1";
+        server.put("meeting", "m1", event("meeting", "Meeting", hours(2), hours(3), null));
+        server.put("daily", "d1", event("daily", "Daily", hours(-23), hours(-22), "FREQ=DAILY"));
+        server.put("party", "p1", event("party", "Party", hours(6), hours(8), null));
+        reload();
+        server.downloads.clear();
+
+        server.ctag = "2";
+        server.put("meeting", "m2", event("meeting", "Meeting moved", hours(4), hours(5), null));
+        server.remove("party");
+
+        List<String> removed = reload();
+        assertEquals(Arrays.asList("meeting"), server.downloads);
+        assertEquals(Arrays.asList("party"), removed);
+        EventContainer meeting = calendarRuntime.getEventContainerByFilename("meeting");
+        assertEquals("m2", meeting.getEtag());
+        assertEquals("Meeting moved", meeting.getEventList().get(0).getName());
+    }
+
+    @Test
+    public void testSchedulesJobsOfUpcomingEvents() throws Exception {
+        server.ctag = "1";
+        server.put("meeting", "m1", event("meeting", "Meeting", hours(2), hours(3), null));
+        server.put("past", "p1", event("past", "Past", hours(-30), hours(-29), null));
+        reload();
+
+        EventContainer meeting = calendarRuntime.getEventContainerByFilename("meeting");
+        assertEquals(2, meeting.getTimerMap().size());
+        assertEquals(new HashSet<String>(meeting.getTimerMap()), calendarRuntime.getJobMap().keySet());
+        assertEquals(2, Collections.frequency(jobRequests, "scheduleJob"));
+        assertTrue(calendarRuntime.getEventContainerByFilename("past").getTimerMap().isEmpty());
+
+        // the jobs of a deleted event are deleted in one batch
+        jobRequests.clear();
+        CalDavLoaderImpl.instance.deleteJobs(meeting);
+        assertEquals(Arrays.asList("deleteJobs"), jobRequests);
+        assertTrue(calendarRuntime.getJobMap().isEmpty());
+    }
+
+    @Test
+    public void testEtagsAreStoredAndLoadedAfterRestart() throws Exception {
+        server.ctag = "1";
+        server.put("meeting", "m1", event("meeting", "Meeting", hours(2), hours(3), null));
+        server.put("daily", "d1", event("daily", "Daily", hours(-23), hours(-22), "FREQ=DAILY"));
+        reload();
+
+        Properties etags = Util.loadEtags(key);
+        assertEquals(2, etags.size());
+        assertEquals("m1", etags.getProperty("meeting"));
+        assertEquals("d1", etags.getProperty("daily"));
+        assertTrue(Util.getCacheFile(key, "meeting").exists());
+
+        // after a restart the events are loaded from the cache, the ctag is unknown but no resource is downloaded
+        server.downloads.clear();
+        int listings = server.listings;
+        calendarRuntime = createCalendarRuntime();
+        createJob().execute(createJobExecutionContext());
+
+        assertEquals(listings + 1, server.listings);
+        assertTrue(server.downloads.isEmpty());
+        assertEquals("m1", calendarRuntime.getEventContainerByFilename("meeting").getEtag());
+        assertEquals("d1", calendarRuntime.getEventContainerByFilename("daily").getEtag());
+        assertEquals("1", calendarRuntime.getCtag());
+    }
+
+    @Test
+    public void testOccurrencesAreCalculatedFromCalendarInMemory() throws Exception {
+        server.ctag = "1";
+        server.put("daily", "d1", event("daily", "Daily", hours(-23), hours(-22), "FREQ=DAILY"));
+        reload();
+        EventContainer daily = calendarRuntime.getEventContainerByFilename("daily");
+        assertNotNull(daily.getCalendar());
+        int occurrences = daily.getEventList().size();
+
+        // the calculated window runs out, without the cached file the calendar in memory has to be used
+        daily.setCalculatedUntil(DateTime.now());
+        assertTrue(Util.getCacheFile(key, "daily").delete());
+        server.downloads.clear();
+        reload();
+
+        assertTrue(server.downloads.isEmpty());
+        assertFalse(Util.getCacheFile(key, "daily").exists());
+        assertTrue(daily.getCalculatedUntil().isAfter(DateTime.now().plusMinutes(60)));
+        assertTrue(daily.getEventList().size() >= occurrences);
+    }
+
+    @Test
+    public void testOccurrencesAreCalculatedFromCachedFile() throws Exception {
+        server.ctag = "1";
+        server.put("daily", "d1", event("daily", "Daily", hours(-23), hours(-22), "FREQ=DAILY"));
+        reload();
+        EventContainer daily = calendarRuntime.getEventContainerByFilename("daily");
+
+        daily.setCalendar(null);
+        daily.setCalculatedUntil(DateTime.now());
+        server.downloads.clear();
+        reload();
+
+        assertTrue(server.downloads.isEmpty());
+        assertTrue(daily.getCalculatedUntil().isAfter(DateTime.now().plusMinutes(60)));
+
+        // neither kept in memory nor cached, so the unchanged resource is downloaded again with the next change
+        calendarRuntime.getEventContainerByFilename("daily").setCalendar(null);
+        calendarRuntime.getEventContainerByFilename("daily").setCalculatedUntil(DateTime.now());
+        assertTrue(Util.getCacheFile(key, "daily").delete());
+        server.ctag = "2";
+        reload();
+
+        assertEquals(Arrays.asList("daily"), server.downloads);
+    }
+
+    @Test
+    public void testHistoricEvents() throws Exception {
+        server.ctag = "1";
+        server.put("past", "1", event("past", "Past", hours(-72), hours(-71), null));
+        server.put("nodtend", "1", event("nodtend", "No end", hours(-24), null, null));
+        server.put("running", "1", event("running", "Running", hours(-1), hours(1), null));
+        server.put("future", "1", event("future", "Future", hours(24), hours(25), null));
+        server.put("until", "1",
+                event("until", "Until", hours(-120), hours(-119), "FREQ=DAILY;UNTIL=" + hours(-48)));
+        server.put("count", "1", event("count", "Count", hours(-120), hours(-119), "FREQ=DAILY;COUNT=2"));
+        server.put("countfuture", "1",
+                event("countfuture", "Count future", hours(-120), hours(-119), "FREQ=DAILY;COUNT=10"));
+        server.put("untilfuture", "1",
+                event("untilfuture", "Until future", hours(-120), hours(-119), "FREQ=DAILY;UNTIL=" + hours(48)));
+        server.put("unbounded", "1", event("unbounded", "Unbounded", hours(-720), hours(-719), "FREQ=WEEKLY"));
+        reload();
+
+        for (String historic : Arrays.asList("past", "nodtend", "until", "count")) {
+            EventContainer eventContainer = calendarRuntime.getEventContainerByFilename(historic);
+            assertTrue(historic, eventContainer.isHistoricEvent());
+            assertNull(historic, eventContainer.getCalendar());
+        }
+        for (String upcoming : Arrays.asList("running", "future", "countfuture", "untilfuture", "unbounded")) {
+            EventContainer eventContainer = calendarRuntime.getEventContainerByFilename(upcoming);
+            assertFalse(upcoming, eventContainer.isHistoricEvent());
+            assertNotNull(upcoming, eventContainer.getCalendar());
+        }
+    }
+
+    private CalendarRuntime createCalendarRuntime() {
+        CalDavConfig config = new CalDavConfig();
+        config.setKey(key);
+        config.setUrl(URL);
+        config.setCharset("UTF-8");
+
+        CalendarRuntime runtime = new CalendarRuntime();
+        runtime.setConfig(config);
+        EventStorage.getInstance().getEventCache().put(key, runtime);
+        return runtime;
+    }
+
+    private EventReloaderJob createJob() {
+        return new EventReloaderJob() {
+            @Override
+            protected Sardine getConnection(CalDavConfig config) {
+                return server.sardine;
+            }
+        };
+    }
+
+    private JobExecutionContext createJobExecutionContext() {
+        final JobDetail jobDetail = JobBuilder.newJob().ofType(EventReloaderJob.class)
+                .usingJobData(EventReloaderJob.KEY_CONFIG, key).withIdentity(key, "test").build();
+        return (JobExecutionContext) Proxy.newProxyInstance(JobExecutionContext.class.getClassLoader(),
+                new Class<?>[] { JobExecutionContext.class }, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (method.getName().equals("getJobDetail")) {
+                            return jobDetail;
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * Reloads the calendar like the reloader job does.
+     *
+     * @return the filenames of the events which were deleted on the server
+     */
+    private List<String> reload() throws Exception {
+        List<String> oldEventIds = new ArrayList<String>();
+        for (EventContainer eventContainer : calendarRuntime.getEventMap().values()) {
+            oldEventIds.add(eventContainer.getFilename());
+        }
+        createJob().loadEvents(calendarRuntime, oldEventIds);
+        for (String filename : oldEventIds) {
+            EventContainer eventContainer = calendarRuntime.getEventContainerByFilename(filename);
+            CalDavLoaderImpl.instance.deleteJobs(eventContainer);
+            calendarRuntime.removeEventContainer(eventContainer.getEventId());
+        }
+        return oldEventIds;
+    }
+
+    private static String hours(int hours) {
+        return DateTime.now(DateTimeZone.UTC).plusHours(hours).toString("yyyyMMdd'T'HHmmss'Z'");
+    }
+
+    private static String event(String uid, String summary, String start, String end, String rrule) {
+        StringBuilder ics = new StringBuilder();
+        ics.append("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//openHAB//Test//EN\r\nBEGIN:VEVENT\r\n");
+        ics.append("UID:").append(uid).append("\r\n");
+        ics.append("DTSTAMP:").append(hours(-1000)).append("\r\n");
+        ics.append("DTSTART:").append(start).append("\r\n");
+        if (end != null) {
+            ics.append("DTEND:").append(end).append("\r\n");
+        }
+        if (rrule != null) {
+            ics.append("RRULE:").append(rrule).append("\r\n");
+        }
+        ics.append("SUMMARY:").append(summary).append("\r\n");
+        ics.append("END:VEVENT\r\nEND:VCALENDAR\r\n");
+        return ics.toString();
+    }
+
+    /**
+     * Serves calendar resources like a CalDAV server and records the listings and downloads.
+     */
+    private static class CalDavStandIn implements InvocationHandler {
+
+        private final Map<String, String[]> resources = new LinkedHashMap<String, String[]>();
+
+        private long modified = System.currentTimeMillis() - 3600000;
+
+        final Sardine sardine = (Sardine) Proxy.newProxyInstance(Sardine.class.getClassLoader(),
+                new Class<?>[] { Sardine.class }, this);
+
+        String ctag;
+
+        int listings = 0;
+
+        final List<String> downloads = new ArrayList<String>();
+
+        /**
+         * Adds or replaces a resource, a replaced resource gets a later modification time.
+         */
+        void put(String name, String etag, String ics) {
+            modified += 60000;
+            resources.put(name, new String[] { etag, ics, String.valueOf(modified) });
+        }
+
+        void remove(String name) {
+            resources.remove(name);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Exception {
+            if (method.getName().equals("list") && args.length == 3 && args[2] instanceof Set) {
+                // PROPFIND depth 0 for the ctag of the collection
+                Map<QName, String> properties = new HashMap<QName, String>();
+                if (ctag != null) {
+                    properties.put(CTAG, ctag);
+                }
+                return Collections.singletonList(resource("/calendars/test/", null, null, properties));
+            }
+            if (method.getName().equals("list") && args.length == 3) {
+                // PROPFIND depth 1 for the resources
+                listings++;
+                List<DavResource> list = new ArrayList<DavResource>();
+                list.add(resource("/calendars/test/", null, null, null));
+                for (Map.Entry<String, String[]> resource : resources.entrySet()) {
+                    list.add(resource("/calendars/test/" + resource.getKey() + ".ics", resource.getValue()[0],
+                            new Date(Long.parseLong(resource.getValue()[2])), null));
+                }
+                return list;
+            }
+            if (method.getName().equals("get") && args.length == 1) {
+                String url = (String) args[0];
+                String name = url.substring(url.lastIndexOf('/') + 1, url.length() - ".ics".length());
+                downloads.add(name);
+                return new ByteArrayInputStream(resources.get(name)[1].getBytes("UTF-8"));
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }
+
+        private static DavResource resource(String href, String etag, Date modified, Map<QName, String> properties)
+                throws URISyntaxException {
+            boolean directory = href.endsWith("/");
+            return new DavResource(href, null, modified,
+                    directory ? DavResource.HTTPD_UNIX_DIRECTORY_CONTENT_TYPE : "text/calendar", 0L, etag, null,
+                    null, properties != null ? properties : new HashMap<QName, String>()) {
+            };
+        }
+    }
+
+}
@@ -252,6 +252,16 @@ public class CalDavLoaderImpl extends AbstractActiveService implements ManagedSe
         return scheduler;
     }
 
+    /**
+     * Replaces the job scheduler, used by tests.
+     *
+     * @param scheduler
+     *            the scheduler of the event jobs
+     */
+    void setScheduler(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
     @Override
     public void addListener(EventNotifier notifier) {
         this.eventListenerList.add(notifier);
@@ -284,17 +294,10 @@ public class CalDavLoaderImpl extends AbstractActiveService implements ManagedSe
             if (eventContainer.getLastChanged().isAfter(eventContainerOld.getLastChanged())) {
                 log.debug("event is already in event map and newer -> delete the old one, reschedule timer");
                 // cancel old jobs
-                for (String timerKey : eventContainerOld.getTimerMap()) {
-                    try {
-                        this.scheduler.deleteJob(JobKey.jobKey(timerKey));
-                    } catch (SchedulerException e) {
-                        log.warn("Cannot cancel event with job id: {}", timerKey, e);
-                    }
-                }
-                eventContainerOld.getTimerMap().clear();
+                deleteJobs(eventContainerOld);
 
                 // override event
-                eventContainerMap.put(eventContainer.getEventId(), eventContainer);
+                calendarRuntime.putEventContainer(eventContainer);
 
                 for (EventNotifier notifier : eventListenerList) {
                     for (CalDavEvent event : eventContainerOld.getEventList()) {
@@ -377,12 +380,17 @@ public class CalDavLoaderImpl extends AbstractActiveService implements ManagedSe
                         }
                     }
                 }
-                // update eventcontainer's calculateduntil
+                // update eventcontainer's calculateduntil and the state of its resource
                 eventContainerOld.setCalculatedUntil(eventContainer.getCalculatedUntil());
+                eventContainerOld.setHistoricEvent(eventContainer.isHistoricEvent());
+                eventContainerOld.setCalendar(eventContainer.getCalendar());
+                if (eventContainer.getEtag() != null) {
+                    eventContainerOld.setEtag(eventContainer.getEtag());
+                }
             }
         } else {
             // event is new
-            eventContainerMap.put(eventContainer.getEventId(), eventContainer);
+            calendarRuntime.putEventContainer(eventContainer);
             log.trace("listeners for events: {}", eventListenerList.size());
             for (EventNotifier notifier : eventListenerList) {
                 for (CalDavEvent event : eventContainer.getEventList()) {
@@ -410,8 +418,40 @@ public class CalDavLoaderImpl extends AbstractActiveService implements ManagedSe
         }
     }
 
+    /**
+     * Deletes all scheduled jobs of an event container at once.
+     *
+     * @param eventContainer
+     *            the event container
+     */
+    public synchronized void deleteJobs(EventContainer eventContainer) {
+        CalendarRuntime calendarRuntime = EventStorage.getInstance().getEventCache()
+                .get(eventContainer.getCalendarId());
+        List<JobKey> jobKeys = new ArrayList<JobKey>(eventContainer.getTimerMap().size());
+        for (String jobId : eventContainer.getTimerMap()) {
+            JobKey jobKey = calendarRuntime != null ? calendarRuntime.getJobMap().remove(jobId) : null;
+            if (jobKey == null) {
+                String group = jobId.startsWith(JOB_NAME_EVENT_END) ? JOB_NAME_EVENT_END : JOB_NAME_EVENT_START;
+                jobKey = JobKey.jobKey(jobId, group);
+            }
+            jobKeys.add(jobKey);
+        }
+        eventContainer.getTimerMap().clear();
+
+        if (!jobKeys.isEmpty() && scheduler != null) {
+            try {
+                boolean deleted = scheduler.deleteJobs(jobKeys);
+                log.debug("old jobs {} deleted? {}", jobKeys, deleted);
+            } catch (SchedulerException e) {
+                log.warn("Cannot delete jobs {}", jobKeys, e);
+            }
+        }
+    }
+
     private synchronized void createJob(final EventContainer eventContainer, final CalDavEvent event, final int index)
             throws SchedulerException {
+        final CalendarRuntime calendarRuntime = EventStorage.getInstance().getEventCache()
+                .get(eventContainer.getCalendarId());
         final String triggerStart = JOB_NAME_EVENT_START + "-" + event.getShortName() + "-" + index;
 
         final boolean startJobTriggerDeleted = this.scheduler
@@ -431,6 +471,9 @@ public class CalDavLoaderImpl extends AbstractActiveService implements ManagedSe
         this.scheduler.scheduleJob(jobStart, jobTriggerStart);
 
         eventContainer.getTimerMap().add(triggerStart);
+        if (calendarRuntime != null) {
+            calendarRuntime.getJobMap().put(triggerStart, jobStart.getKey());
+        }
         log.debug("begin timer scheduled for event '{}' @ {}", event.getShortName(), startDate);
 
         final String triggerEnd = JOB_NAME_EVENT_END + "-" + event.getShortName() + "-" + index;
@@ -451,6 +494,9 @@ public class CalDavLoaderImpl extends AbstractActiveService implements ManagedSe
                 .startAt(endDate).build();
         this.scheduler.scheduleJob(jobEnd, jobTriggerEnd);
         eventContainer.getTimerMap().add(triggerEnd);
+        if (calendarRuntime != null) {
+            calendarRuntime.getJobMap().put(triggerEnd, jobEnd.getKey());
+        }
         log.debug("end timer scheduled for event '{}' @ {}", event.getShortName(), endDate);
     }
 
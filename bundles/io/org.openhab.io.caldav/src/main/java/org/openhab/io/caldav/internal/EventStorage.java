@@ -13,6 +13,9 @@ import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.openhab.io.caldav.CalDavEvent;
+import org.quartz.JobKey;
+
+import net.fortuna.ical4j.model.Calendar;
 
 public final class EventStorage {
     private static EventStorage instance;
@@ -42,21 +45,60 @@ public final class EventStorage {
     public static class CalendarRuntime {
         private final ConcurrentHashMap<String, EventContainer> eventMap = new ConcurrentHashMap<String, EventContainer>();
 
+        private final ConcurrentHashMap<String, EventContainer> filenameMap = new ConcurrentHashMap<String, EventContainer>();
+
+        /** the scheduled event jobs of this calendar by job id */
+        private final ConcurrentHashMap<String, JobKey> jobMap = new ConcurrentHashMap<String, JobKey>();
+
         private CalDavConfig config;
 
+        private String ctag;
+
         public EventContainer getEventContainerByFilename(String filename) {
-            for (EventContainer eventContainer : eventMap.values()) {
-                if (eventContainer.getFilename().equals(filename)) {
-                    return eventContainer;
-                }
-            }
-            return null;
+            return filenameMap.get(filename);
         }
 
+        /**
+         * The event containers by event id. Use {@link #putEventContainer(EventContainer)} and
+         * {@link #removeEventContainer(String)} to change it, so the filename index is kept up to date.
+         */
         public ConcurrentHashMap<String, EventContainer> getEventMap() {
             return eventMap;
         }
 
+        public void putEventContainer(EventContainer eventContainer) {
+            EventContainer old = eventMap.put(eventContainer.getEventId(), eventContainer);
+            if (old != null && old.getFilename() != null && !old.getFilename().equals(eventContainer.getFilename())) {
+                filenameMap.remove(old.getFilename(), old);
+            }
+            if (eventContainer.getFilename() != null) {
+                filenameMap.put(eventContainer.getFilename(), eventContainer);
+            }
+        }
+
+        public EventContainer removeEventContainer(String eventId) {
+            EventContainer old = eventMap.remove(eventId);
+            if (old != null && old.getFilename() != null) {
+                filenameMap.remove(old.getFilename(), old);
+            }
+            return old;
+        }
+
+        public ConcurrentHashMap<String, JobKey> getJobMap() {
+            return jobMap;
+        }
+
+        /**
+         * @return the collection tag of the calendar at the last complete reload, null if unknown
+         */
+        public String getCtag() {
+            return ctag;
+        }
+
+        public void setCtag(String ctag) {
+            this.ctag = ctag;
+        }
+
         public CalDavConfig getConfig() {
             return config;
         }
@@ -80,6 +122,8 @@ public final class EventStorage {
         private String filename;
         private boolean historicEvent;
         private org.joda.time.DateTime calculatedUntil;
+        private String etag;
+        private Calendar calendar;
 
         private List<CalDavEvent> eventList = new ArrayList<CalDavEvent>();
         private final List<String> timerMap = new ArrayList<String>();
@@ -152,5 +196,28 @@ public final class EventStorage {
         public void setCalculatedUntil(org.joda.time.DateTime calculatedUntil) {
             this.calculatedUntil = calculatedUntil;
         }
+
+        /**
+         * @return the entity tag of the calendar resource the event was loaded from, null if unknown
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        public void setEtag(String etag) {
+            this.etag = etag;
+        }
+
+        /**
+         * @return the parsed calendar resource, kept to calculate further occurrences without parsing it again; null
+         *         for historic events
+         */
+        public Calendar getCalendar() {
+            return calendar;
+        }
+
+        public void setCalendar(Calendar calendar) {
+            this.calendar = calendar;
+        }
     }
 }
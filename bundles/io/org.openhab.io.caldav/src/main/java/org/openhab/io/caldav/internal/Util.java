@@ -9,15 +9,20 @@
 package org.openhab.io.caldav.internal;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.Properties;
 
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.conn.ssl.AllowAllHostnameVerifier;
 import org.apache.http.conn.ssl.SSLContextBuilder;
@@ -25,6 +30,8 @@ import org.apache.http.conn.ssl.TrustStrategy;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.joda.time.DateTimeZone;
 import org.openhab.io.caldav.CalDavEvent;
+import org.openhab.io.caldav.internal.EventStorage.CalendarRuntime;
+import org.openhab.io.caldav.internal.EventStorage.EventContainer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,6 +57,7 @@ import net.fortuna.ical4j.model.property.Version;
 
 public final class Util {
     private static final String HTTP_URL_PREFIX = "http://";
+    private static final String ETAG_FILE = "etags.properties";
     private static final Logger log = LoggerFactory.getLogger(Util.class);
 
     private Util() {
@@ -112,6 +120,52 @@ public final class Util {
         }
     }
 
+    /**
+     * Loads the entity tags of the cached resources of a calendar.
+     *
+     * @return the entity tags by filename, empty if none are stored
+     */
+    public static Properties loadEtags(String calendarId) {
+        Properties etags = new Properties();
+        File etagFile = new File(getCachePath(calendarId), ETAG_FILE);
+        if (etagFile.exists()) {
+            InputStream in = null;
+            try {
+                in = new FileInputStream(etagFile);
+                etags.load(in);
+            } catch (IOException e) {
+                log.warn("cannot load entity tags of calendar '{}': {}", calendarId, e.getMessage());
+            } finally {
+                IOUtils.closeQuietly(in);
+            }
+        }
+        return etags;
+    }
+
+    /**
+     * Stores the entity tags of the loaded resources of a calendar, so unchanged resources need not be loaded again
+     * after a restart.
+     */
+    public static void storeEtags(String calendarId, CalendarRuntime calendarRuntime) {
+        Properties etags = new Properties();
+        for (EventContainer eventContainer : calendarRuntime.getEventMap().values()) {
+            if (eventContainer.getFilename() != null && eventContainer.getEtag() != null) {
+                etags.setProperty(eventContainer.getFilename(), eventContainer.getEtag());
+            }
+        }
+
+        File etagFile = new File(getCachePath(calendarId), ETAG_FILE);
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(etagFile);
+            etags.store(out, null);
+        } catch (IOException e) {
+            log.warn("cannot store entity tags of calendar '{}': {}", calendarId, e.getMessage());
+        } finally {
+            IOUtils.closeQuietly(out);
+        }
+    }
+
     public static Sardine getConnection(CalDavConfig config) {
         String key = config.getKey();
         String url = config.getUrl();
@@ -51,6 +51,7 @@ public class EventJob implements Job {
                         + eventId + " and occurrence: " + recIndex, false);
             }
             CalDavEvent event = eventContainer.getEventList().get(recIndex);
+            calendarRuntime.getJobMap().remove(context.getJobDetail().getKey().getName());
 
             log.info("event {} for: {}", eventTrigger, event.getShortName());
             for (EventNotifier notifier : CalDavLoaderImpl.instance.getEventListenerList()) {
@@ -69,7 +70,7 @@ public class EventJob implements Job {
 
             if (eventTrigger == EventTrigger.END) {
                 // if event is ended, remove it from the map
-                calendarRuntime.getEventMap().remove(eventContainer.getEventId());
+                calendarRuntime.removeEventContainer(eventContainer.getEventId());
             }
         } catch (Exception e) {
             log.error("error executing event job", e);
@@ -20,12 +20,17 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 
+import javax.xml.namespace.QName;
+
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.joda.time.DateTimeZone;
 import org.joda.time.LocalDateTime;
@@ -42,9 +47,8 @@ import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.quartz.JobKey;
 import org.quartz.Scheduler;
-import org.quartz.SchedulerException;
 import org.quartz.Trigger;
-import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.TriggerKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,14 +67,20 @@ import net.fortuna.ical4j.model.Period;
 import net.fortuna.ical4j.model.PeriodList;
 import net.fortuna.ical4j.model.Property;
 import net.fortuna.ical4j.model.PropertyList;
+import net.fortuna.ical4j.model.Recur;
 import net.fortuna.ical4j.model.component.CalendarComponent;
 import net.fortuna.ical4j.model.component.VEvent;
+import net.fortuna.ical4j.model.property.DtEnd;
+import net.fortuna.ical4j.model.property.RRule;
 import net.fortuna.ical4j.model.property.Summary;
 
 public class EventReloaderJob implements Job {
     public static final String KEY_CONFIG = "config";
     private static final Logger log = LoggerFactory.getLogger(EventReloaderJob.class);
 
+    /** the collection tag of a calendar (CalendarServer extension), changes whenever one of its resources changes */
+    private static final QName CTAG = new QName("http://calendarserver.org/ns/", "getctag", "cs");
+
     private static Map<String, Boolean> cachedEventsLoaded = new ConcurrentHashMap<String, Boolean>();
 
     @Override
@@ -91,19 +101,23 @@ public class EventReloaderJob implements Job {
                         continue;
                     }
                     log.trace("found our config : {}", Util.getFilename(fileCalendarKeys.getName()));
+                    Properties etags = Util.loadEtags(eventRuntime.getConfig().getKey());
                     final Collection<File> icsFiles = FileUtils.listFiles(fileCalendarKeys, new String[] { "ics" },
                             false);
                     for (File icsFile : icsFiles) {
+                        FileInputStream fis = null;
                         try {
-                            FileInputStream fis = new FileInputStream(icsFile);
+                            fis = new FileInputStream(icsFile);
                             log.debug("loading events from file : {}", icsFile);
-                            loadEvents(Util.getFilename(icsFile.getAbsolutePath()),
-                                    new org.joda.time.DateTime(icsFile.lastModified()), fis, eventRuntime.getConfig(),
-                                    new ArrayList<String>(), true);
+                            String filename = Util.getFilename(icsFile.getAbsolutePath());
+                            loadEvents(filename, new org.joda.time.DateTime(icsFile.lastModified()), fis,
+                                    etags.getProperty(filename), eventRuntime.getConfig(), true);
                         } catch (IOException e) {
                             log.warn("Cannot load events for file: {}", icsFile, e);
                         } catch (ParserException e) {
                             log.warn("Cannot load events for file: {}", icsFile, e);
+                        } finally {
+                            IOUtils.closeQuietly(fis);
                         }
                     }
                     break;
@@ -146,25 +160,15 @@ public class EventReloaderJob implements Job {
                 }
             }
 
-            // print All scheduled jobs :
+            // print the scheduled jobs of this calendar
             if (log.isDebugEnabled()) {
                 log.debug("jobs scheduled : ");
                 Scheduler scheduler = CalDavLoaderImpl.instance.getScheduler();
-                for (String groupName : CalDavLoaderImpl.instance.getScheduler().getJobGroupNames()) {
-
-                    for (JobKey jobKey : scheduler.getJobKeys(GroupMatcher.jobGroupEquals(groupName))) {
-
-                        String jobName = jobKey.getName();
-                        String jobGroup = jobKey.getGroup();
-
-                        // get job's trigger
-                        List<Trigger> triggers = (List<Trigger>) scheduler.getTriggersOfJob(jobKey);
-                        Date nextFireTime = triggers.get(0).getNextFireTime();
-
-                        log.debug("[job] : {} - [groupName] : {} - {}", jobName, jobGroup, nextFireTime);
-
-                    }
+                for (JobKey jobKey : eventRuntime.getJobMap().values()) {
+                    Trigger trigger = scheduler.getTrigger(TriggerKey.triggerKey(jobKey.getName(), jobKey.getGroup()));
+                    Date nextFireTime = trigger != null ? trigger.getNextFireTime() : null;
 
+                    log.debug("[job] : {} - [groupName] : {} - {}", jobKey.getName(), jobKey.getGroup(), nextFireTime);
                 }
             }
 
@@ -189,23 +193,7 @@ public class EventReloaderJob implements Job {
             }
 
             // cancel old jobs
-            for (String jobId : eventContainer.getTimerMap()) {
-                try {
-                    String group;
-                    if (jobId.startsWith(CalDavLoaderImpl.JOB_NAME_EVENT_START)) {
-                        group = CalDavLoaderImpl.JOB_NAME_EVENT_START;
-                    } else if (jobId.startsWith(CalDavLoaderImpl.JOB_NAME_EVENT_END)) {
-                        group = CalDavLoaderImpl.JOB_NAME_EVENT_END;
-                    } else {
-                        throw new SchedulerException("unknown job id: " + jobId);
-                    }
-                    boolean deleteJob = CalDavLoaderImpl.instance.getScheduler().deleteJob(JobKey.jobKey(jobId, group));
-                    log.debug("old job ({}) deleted? {}", jobId, deleteJob);
-                } catch (SchedulerException e) {
-                    log.warn("Cannot delete job '{}'", jobId, e);
-                }
-            }
-            eventContainer.getTimerMap().clear();
+            CalDavLoaderImpl.instance.deleteJobs(eventContainer);
 
             for (EventNotifier notifier : CalDavLoaderImpl.instance.getEventListenerList()) {
                 for (CalDavEvent event : eventContainer.getEventList()) {
@@ -217,11 +205,14 @@ public class EventReloaderJob implements Job {
                 }
             }
 
-            ConcurrentHashMap<String, EventContainer> eventContainerMap = eventRuntime.getEventMap();
             this.removeFromDisk(eventContainer);
 
             log.debug("remove deleted event: {}", eventContainer.getEventId());
-            eventContainerMap.remove(eventContainer.getEventId());
+            eventRuntime.removeEventContainer(eventContainer.getEventId());
+        }
+
+        if (!oldMap.isEmpty()) {
+            Util.storeEtags(calendarKey, eventRuntime);
         }
     }
 
@@ -232,6 +223,10 @@ public class EventReloaderJob implements Job {
     /**
      * all events which are available must be removed from the oldEventIds list
      *
+     * Only resources which changed since the last reload are downloaded and parsed: if the collection tag (CTag) of
+     * the calendar did not change, the resources are not even listed; otherwise resources with an unchanged entity
+     * tag (ETag) are skipped. Unchanged events only get their occurrences calculated for the next period.
+     *
      * @param calendarRuntime
      * @param oldEventIds
      * @throws IOException
@@ -241,12 +236,26 @@ public class EventReloaderJob implements Job {
             throws IOException, ParserException {
         CalDavConfig config = calendarRuntime.getConfig();
 
-        Sardine sardine = Util.getConnection(config);
+        Sardine sardine = getConnection(config);
+
+        String ctag = getCtag(sardine, config);
+        if (ctag != null && ctag.equals(calendarRuntime.getCtag())) {
+            log.debug("calendar '{}' not changed (ctag: {})", config.getKey(), ctag);
+            oldEventIds.clear();
+            for (EventContainer eventContainer : new ArrayList<EventContainer>(calendarRuntime.getEventMap().values())) {
+                if (!updateOccurrences(eventContainer, config)) {
+                    log.debug("cannot calculate occurrences of event {}, no cached resource", eventContainer.getEventId());
+                }
+            }
+            return;
+        }
 
         List<DavResource> list = sardine.list(config.getUrl(), 1, false);
 
         log.trace("before load events : oldeventids contains : {}", oldEventIds);
 
+        boolean complete = true;
+        boolean changed = false;
         for (DavResource resource : list) {
             final String filename = Util.getFilename(resource.getName());
 
@@ -266,35 +275,26 @@ public class EventReloaderJob implements Job {
                 // must not be loaded
                 EventContainer eventContainer = calendarRuntime.getEventContainerByFilename(filename);
                 final org.joda.time.DateTime lastResourceChangeFS = new org.joda.time.DateTime(resource.getModified());
+                final String etag = resource.getEtag();
 
                 log.trace("eventContainer found: {}", eventContainer != null);
                 log.trace("last resource modification: {}", lastResourceChangeFS);
                 log.trace("last change of already loaded event: {}",
                         eventContainer != null ? eventContainer.getLastChanged() : null);
-                if (config.isLastModifiedFileTimeStampValid()) {
+                if (eventContainer != null && etag != null && etag.equals(eventContainer.getEtag())) {
+                    log.trace("resource {} not changed (etag: {})", resource.getName(), etag);
+                    if (updateOccurrences(eventContainer, config)) {
+                        continue;
+                    }
+                } else if (config.isLastModifiedFileTimeStampValid()
+                        && (etag == null || eventContainer == null || eventContainer.getEtag() == null)) {
+                    // no entity tags to compare (e.g. loaded from the cache folder), use the modification time
                     if (eventContainer != null && !lastResourceChangeFS.isAfter(eventContainer.getLastChanged())) {
-                        // check if some timers or single (from repeating events) have
-                        // to be created
-                        if (eventContainer.getCalculatedUntil() != null && eventContainer.getCalculatedUntil()
-                                .isAfter(org.joda.time.DateTime.now().plusMinutes(config.getReloadMinutes()))) {
-                            // the event is calculated as long as the next reload
-                            // interval can handle this
-                            log.trace("skipping resource {}; not changed. calculated until: {}", resource.getName(),
-                                    eventContainer.getCalculatedUntil());
-                            continue;
-                        }
-
-                        if (eventContainer.isHistoricEvent()) {
-                            // no more upcoming events, do nothing
-                            log.trace("skipping resource {}; not changed (historic)", resource.getName());
-                            continue;
+                        if (etag != null) {
+                            eventContainer.setEtag(etag);
+                            changed = true;
                         }
-
-                        File icsFile = Util.getCacheFile(config.getKey(), filename);
-                        if (icsFile != null && icsFile.exists()) {
-                            FileInputStream fis = new FileInputStream(icsFile);
-                            this.loadEvents(filename, lastResourceChangeFS, fis, config, oldEventIds, false);
-                            fis.close();
+                        if (updateOccurrences(eventContainer, config)) {
                             continue;
                         }
                     }
@@ -316,21 +316,109 @@ public class EventReloaderJob implements Job {
                 url = uri.toURL();
                 log.trace("URL after encoding: {}", url);
                 InputStream inputStream = sardine.get(url.toString());
-
-                this.loadEvents(filename, lastResourceChangeFS, inputStream, config, oldEventIds, false);
+                try {
+                    this.loadEvents(filename, lastResourceChangeFS, inputStream, etag, config, false);
+                    changed = true;
+                } finally {
+                    IOUtils.closeQuietly(inputStream);
+                }
             } catch (ParserException e) {
                 log.warn("Parser exception parsing ics file: {}", filename, e);
+                complete = false;
             } catch (SardineException e) {
                 log.warn("Sardine exception reading ics file: {}", filename, e);
+                complete = false;
             }
         }
 
+        // a resource which could not be loaded must be retried with the next reload
+        calendarRuntime.setCtag(complete ? ctag : null);
+        if (changed) {
+            Util.storeEtags(config.getKey(), calendarRuntime);
+        }
+
         log.trace("after load events : oldeventids contains : {}", oldEventIds.toString());
     }
 
+    /**
+     * Opens the connection to the CalDAV server of the calendar, overridden by tests.
+     */
+    protected Sardine getConnection(CalDavConfig config) {
+        return Util.getConnection(config);
+    }
+
+    /**
+     * Returns the collection tag of the calendar, which changes whenever one of its resources changes.
+     *
+     * @return the collection tag or null if the server does not support it
+     */
+    private String getCtag(Sardine sardine, CalDavConfig config) {
+        try {
+            List<DavResource> resources = sardine.list(config.getUrl(), 0, Collections.singleton(CTAG));
+            if (!resources.isEmpty()) {
+                return StringUtils.trimToNull(resources.get(0).getCustomPropsNS().get(CTAG));
+            }
+        } catch (IOException e) {
+            log.debug("Cannot read ctag of calendar '{}': {}", config.getKey(), e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Calculates the occurrences of an unchanged event for the next period, if they are not calculated yet. The
+     * calendar is taken from memory or, if it is not kept, parsed from the cached resource.
+     *
+     * @return false if the event has to be loaded from the server
+     */
+    private boolean updateOccurrences(EventContainer eventContainer, CalDavConfig config)
+            throws IOException, ParserException {
+        if (eventContainer.isHistoricEvent()) {
+            // no more upcoming events, do nothing
+            log.trace("skipping resource {}; not changed (historic)", eventContainer.getFilename());
+            return true;
+        }
+        if (eventContainer.getCalculatedUntil() != null && eventContainer.getCalculatedUntil()
+                .isAfter(org.joda.time.DateTime.now().plusMinutes(config.getReloadMinutes()))) {
+            // the event is calculated as long as the next reload
+            // interval can handle this
+            log.trace("skipping resource {}; not changed. calculated until: {}", eventContainer.getFilename(),
+                    eventContainer.getCalculatedUntil());
+            return true;
+        }
+
+        Calendar calendar = eventContainer.getCalendar();
+        if (calendar == null) {
+            File icsFile = Util.getCacheFile(config.getKey(), eventContainer.getFilename());
+            if (!icsFile.exists()) {
+                return false;
+            }
+            FileInputStream fis = new FileInputStream(icsFile);
+            try {
+                calendar = parse(fis, config);
+            } finally {
+                fis.close();
+            }
+        }
+
+        log.trace("calculating occurrences of resource {}", eventContainer.getFilename());
+        this.loadEvents(eventContainer.getFilename(), eventContainer.getLastChanged(), calendar,
+                eventContainer.getEtag(), config, true);
+        return true;
+    }
+
     public void loadEvents(String filename, org.joda.time.DateTime lastResourceChangeFS, final InputStream inputStream,
             final CalDavConfig config, final List<String> oldEventIds, boolean readFromFile)
             throws IOException, ParserException {
+        loadEvents(filename, lastResourceChangeFS, inputStream, null, config, readFromFile);
+    }
+
+    private void loadEvents(String filename, org.joda.time.DateTime lastResourceChangeFS, final InputStream inputStream,
+            String etag, final CalDavConfig config, boolean readFromFile) throws IOException, ParserException {
+        loadEvents(filename, lastResourceChangeFS, parse(inputStream, config), etag, config, readFromFile);
+    }
+
+    private Calendar parse(final InputStream inputStream, final CalDavConfig config)
+            throws IOException, ParserException {
         CalendarBuilder builder = new CalendarBuilder();
         InputStreamReader is = new InputStreamReader(inputStream, config.getCharset());
         BufferedReader in = new BufferedReader(is, 50);
@@ -338,10 +426,15 @@ public class EventReloaderJob implements Job {
         final UnfoldingReader uin = new UnfoldingReader(in, 50, true);
         Calendar calendar = builder.build(uin);
         uin.close();
+        return calendar;
+    }
 
+    private void loadEvents(String filename, org.joda.time.DateTime lastResourceChangeFS, final Calendar calendar,
+            String etag, final CalDavConfig config, boolean readFromFile) throws IOException {
         EventContainer eventContainer = new EventContainer(config.getKey());
         eventContainer.setFilename(filename);
         eventContainer.setLastChanged(lastResourceChangeFS);
+        eventContainer.setEtag(etag);
 
         org.joda.time.DateTime loadFrom = org.joda.time.DateTime.now().minusMinutes(config.getHistoricLoadMinutes());
         log.trace("loadFrom = {}", loadFrom);
@@ -358,6 +451,7 @@ public class EventReloaderJob implements Job {
             return;
         }
         org.joda.time.DateTime lastModifedVEventOverAll = null;
+        boolean historic = true;
         for (CalendarComponent comp : vEventComponents) {
             VEvent vEvent = (VEvent) comp;
             Summary vEventSummary = vEvent.getSummary();
@@ -403,15 +497,12 @@ public class EventReloaderJob implements Job {
             log.debug("Processing event '{}'", eventName);
 
             // no more upcoming events
-            if (periods.size() > 0) {
-                if (vEvent.getConsumedTime(new net.fortuna.ical4j.model.Date(),
-                        new net.fortuna.ical4j.model.Date(org.joda.time.DateTime.now().plusYears(10).getMillis()))
-                        .size() == 0) {
-                    log.trace("event will never occur (historic): {}", eventName);
-                    eventContainer.setHistoricEvent(true);
-                }
+            if (isHistoric(vEvent)) {
+                log.trace("event will never occur (historic): {}", eventName);
+            } else {
+                historic = false;
             }
-            else {
+            if (periods.size() == 0) {
                 log.debug("No periods exist for event '{}'", eventName);
             }
 
@@ -440,6 +531,9 @@ public class EventReloaderJob implements Job {
                 eventContainer.getEventList().add(event);
             }
         }
+        eventContainer.setHistoricEvent(historic);
+        // keep the parsed calendar to calculate further occurrences without parsing it again
+        eventContainer.setCalendar(historic ? null : calendar);
         if (lastModifedVEventOverAll != null && !config.isLastModifiedFileTimeStampValid()) {
             eventContainer.setLastChanged(lastModifedVEventOverAll);
             log.debug("changing eventcontainer last modified to {}", lastModifedVEventOverAll);
@@ -450,6 +544,34 @@ public class EventReloaderJob implements Job {
         }
     }
 
+    /**
+     * Checks whether an event has no occurrence in the future. Only recurrences with an end are expanded for this, an
+     * unbounded recurrence rule always has future occurrences.
+     */
+    private boolean isHistoric(VEvent vEvent) {
+        Date now = new Date();
+        PropertyList rrules = vEvent.getProperties(Property.RRULE);
+        if (rrules.isEmpty() && vEvent.getProperties(Property.RDATE).isEmpty()) {
+            DtEnd end = vEvent.getEndDate();
+            if (end != null && end.getDate() != null) {
+                return end.getDate().before(now);
+            }
+            return vEvent.getStartDate() != null && vEvent.getStartDate().getDate().before(now);
+        }
+
+        for (Object rrule : rrules) {
+            Recur recur = ((RRule) rrule).getRecur();
+            if (recur.getUntil() == null && recur.getCount() < 1) {
+                return false;
+            }
+            if (recur.getUntil() != null && recur.getUntil().after(now)) {
+                return false;
+            }
+        }
+        return vEvent.getConsumedTime(new net.fortuna.ical4j.model.Date(),
+                new net.fortuna.ical4j.model.Date(org.joda.time.DateTime.now().plusYears(10).getMillis())).size() == 0;
+    }
+
     /**
      * Returns a list of categories or an empty list if none found.
      *
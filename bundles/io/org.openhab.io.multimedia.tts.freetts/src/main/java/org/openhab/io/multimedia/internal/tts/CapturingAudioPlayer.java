@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.multimedia.internal.tts;
+
+import java.io.ByteArrayOutputStream;
+
+import javax.sound.sampled.AudioFormat;
+
+import com.sun.speech.freetts.audio.AudioPlayer;
+
+/**
+ * A FreeTTS {@link AudioPlayer} which does not play the synthesized audio, but collects it in memory, so it can be
+ * cached and played later.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+class CapturingAudioPlayer implements AudioPlayer {
+
+    private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+    private AudioFormat format;
+
+    private float volume = 1.0f;
+
+    /**
+     * @return all audio data written to this player
+     */
+    byte[] getData() {
+        return data.toByteArray();
+    }
+
+    @Override
+    public void setAudioFormat(AudioFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public AudioFormat getAudioFormat() {
+        return format;
+    }
+
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void reset() {
+        // a new player is used for each text, so all utterances of the text are kept
+    }
+
+    @Override
+    public boolean drain() {
+        return true;
+    }
+
+    @Override
+    public void begin(int size) {
+    }
+
+    @Override
+    public boolean end() {
+        return true;
+    }
+
+    @Override
+    public void cancel() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public float getVolume() {
+        return volume;
+    }
+
+    @Override
+    public void setVolume(float volume) {
+        this.volume = volume;
+    }
+
+    @Override
+    public long getTime() {
+        return 0;
+    }
+
+    @Override
+    public void resetTime() {
+    }
+
+    @Override
+    public void startFirstSampleTimer() {
+    }
+
+    @Override
+    public boolean write(byte[] audioData) {
+        return write(audioData, 0, audioData.length);
+    }
+
+    @Override
+    public boolean write(byte[] audioData, int offset, int size) {
+        data.write(audioData, offset, size);
+        return true;
+    }
+
+    @Override
+    public void showMetrics() {
+    }
+
+}
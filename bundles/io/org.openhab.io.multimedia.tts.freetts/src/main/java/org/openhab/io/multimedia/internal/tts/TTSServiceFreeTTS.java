@@ -8,10 +8,25 @@
  */
 package org.openhab.io.multimedia.internal.tts;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Dictionary;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+import org.apache.commons.lang.StringUtils;
+import org.openhab.io.multimedia.tts.TTSAudioCache;
 import org.openhab.io.multimedia.tts.TTSService;
+import org.osgi.service.cm.ConfigurationException;
+import org.osgi.service.cm.ManagedService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,12 +41,24 @@ import com.sun.speech.freetts.en.us.cmu_us_kal.KevinVoiceDirectory;
  * @since 0.8.0
  *
  */
-public class TTSServiceFreeTTS implements TTSService {
+public class TTSServiceFreeTTS implements TTSService, ManagedService {
 
     private static final Logger logger = LoggerFactory.getLogger(TTSServiceFreeTTS.class);
 
+    private static final String DEFAULT_VOICE = "kevin16";
+
+    private static final String PREWARM_PROPERTY = "prewarm";
+
     private static final Map<String, Voice> voices = new HashMap<String, Voice>();
 
+    private final TTSAudioCache cache = new TTSAudioCache("freetts");
+
+    /** the phrases of the last pre-warming, a configuration update with the same phrases doesn't pre-warm again */
+    private String[] prewarmedPhrases;
+
+    /** fair, so concurrent requests are spoken one after the other in the order they came in */
+    private final Lock speechLock = new ReentrantLock(true);
+
     public void activate() {
         for (Voice voice : new KevinVoiceDirectory().getVoices()) {
             voices.put(voice.getName(), voice);
@@ -48,10 +75,72 @@ public class TTSServiceFreeTTS implements TTSService {
     }
 
     public void deactivate() {
-        for (Voice voice : voices.values()) {
-            voice.deallocate();
+        speechLock.lock();
+        try {
+            for (Voice voice : voices.values()) {
+                if (voice.isLoaded()) {
+                    voice.deallocate();
+                }
+            }
+            voices.clear();
+        } finally {
+            speechLock.unlock();
         }
-        voices.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void updated(Dictionary<String, ?> properties) throws ConfigurationException {
+        cache.configure(properties);
+
+        String[] phrases = new String[0];
+        if (properties != null) {
+            String prewarm = (String) properties.get(PREWARM_PROPERTY);
+            if (StringUtils.isNotBlank(prewarm)) {
+                phrases = StringUtils.split(prewarm, '|');
+            }
+        }
+        if (Arrays.equals(phrases, prewarmedPhrases)) {
+            logger.debug("Pre-warm phrases unchanged, FreeTTS is not pre-warmed again");
+        } else {
+            prewarmedPhrases = phrases;
+            prewarm(phrases);
+        }
+    }
+
+    /**
+     * Allocates the default voice and synthesizes the given phrases into the cache in the background, so the first
+     * announcements do not have to wait for it.
+     */
+    private void prewarm(final String[] phrases) {
+        Thread thread = new Thread("FreeTTS pre-warming") {
+            @Override
+            public void run() {
+                for (int i = -1; i < phrases.length; i++) {
+                    speechLock.lock();
+                    try {
+                        Voice voice = voices.get(DEFAULT_VOICE);
+                        if (voice == null) {
+                            return;
+                        }
+                        if (i < 0) {
+                            allocate(voice);
+                        } else if (StringUtils.isNotBlank(phrases[i])) {
+                            getAudio(voice, phrases[i].trim()).close();
+                        }
+                    } catch (IOException e) {
+                        logger.warn("Error while pre-warming FreeTTS: {}", e.getMessage());
+                    } finally {
+                        speechLock.unlock();
+                    }
+                }
+                logger.debug("FreeTTS pre-warmed with {} phrases", phrases.length);
+            }
+        };
+        thread.setDaemon(true);
+        thread.start();
     }
 
     /**
@@ -65,25 +154,74 @@ public class TTSServiceFreeTTS implements TTSService {
         }
 
         if (voiceName == null) {
-            voiceName = "kevin16";
+            voiceName = DEFAULT_VOICE;
         }
 
-        Voice voice = voices.get(voiceName);
-
-        if (voice != null) {
-            if (!voice.isLoaded()) {
-                voice.allocate();
-            }
-            voice.speak(text);
-        } else {
-            logger.error("Could not find voice: " + voiceName);
-            StringBuilder sb = new StringBuilder();
-            if (logger.isInfoEnabled()) {
-                for (String name : voices.keySet()) {
-                    sb.append(name + " ");
+        speechLock.lock();
+        try {
+            Voice voice = voices.get(voiceName);
+
+            if (voice != null) {
+                play(getAudio(voice, text));
+            } else {
+                logger.error("Could not find voice: " + voiceName);
+                StringBuilder sb = new StringBuilder();
+                if (logger.isInfoEnabled()) {
+                    for (String name : voices.keySet()) {
+                        sb.append(name + " ");
+                    }
+                    logger.info("Available voices are: [ {}]", sb.toString());
                 }
-                logger.info("Available voices are: [ {}]", sb.toString());
             }
+        } catch (IOException e) {
+            logger.error("Error during tts playback: {}", e.getMessage(), e);
+        } catch (LineUnavailableException e) {
+            logger.error("Error during tts playback: {}", e.getMessage(), e);
+        } finally {
+            speechLock.unlock();
+        }
+    }
+
+    private void allocate(Voice voice) {
+        if (!voice.isLoaded()) {
+            logger.debug("Allocating FreeTTS voice {}", voice.getName());
+            voice.allocate();
+        }
+    }
+
+    /**
+     * Returns the audio of a text from the cache, the text is synthesized if it is not cached yet.
+     */
+    private AudioInputStream getAudio(Voice voice, String text) throws IOException {
+        AudioInputStream audio = cache.get(voice.getName(), text);
+        if (audio != null) {
+            return audio;
+        }
+
+        allocate(voice);
+        CapturingAudioPlayer player = new CapturingAudioPlayer();
+        voice.setAudioPlayer(player);
+        if (!voice.speak(text) || player.getAudioFormat() == null) {
+            throw new IOException("FreeTTS could not synthesize '" + text + "'");
+        }
+        return cache.put(voice.getName(), text, player.getAudioFormat(), player.getData());
+    }
+
+    private void play(AudioInputStream audio) throws IOException, LineUnavailableException {
+        AudioFormat format = audio.getFormat();
+        SourceDataLine line = AudioSystem.getSourceDataLine(format);
+        try {
+            line.open(format);
+            line.start();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = audio.read(buffer)) > 0) {
+                line.write(buffer, 0, read);
+            }
+            line.drain();
+        } finally {
+            line.close();
+            audio.close();
         }
     }
 
@@ -8,12 +8,20 @@
  */
 package org.openhab.io.multimedia.internal.tts;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Dictionary;
 import java.util.Locale;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.sound.sampled.AudioInputStream;
 
 import org.apache.commons.lang.StringUtils;
+import org.openhab.io.multimedia.tts.TTSAudioCache;
 import org.openhab.io.multimedia.tts.TTSService;
+import org.osgi.service.cm.ConfigurationException;
+import org.osgi.service.cm.ManagedService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,13 +39,34 @@ import marytts.util.data.audio.AudioPlayer;
  * @since 1.1.0
  *
  */
-public class TTSServiceMaryTTS implements TTSService {
+public class TTSServiceMaryTTS implements TTSService, ManagedService {
 
     private static final Logger logger = LoggerFactory.getLogger(TTSServiceMaryTTS.class);
 
+    private static final String VOICE_PROPERTY = "voice";
+
+    private static final String PREWARM_PROPERTY = "prewarm";
+
+    /** text synthesized once at startup, so the voice data is loaded before the first announcement */
+    private static final String PREWARM_TEXT = "openHAB";
+
     private static MaryInterface marytts;
     private Voice defaultVoice;
 
+    private final TTSAudioCache cache = new TTSAudioCache("marytts");
+
+    /** the phrases of the last pre-warming, a configuration update with the same phrases doesn't pre-warm again */
+    private String[] prewarmedPhrases;
+
+    /** the voice of the last pre-warming */
+    private Voice prewarmedVoice;
+
+    /**
+     * fair, so concurrent requests are spoken one after the other in the order they came in; this also protects the
+     * voice selection of the shared {@link MaryInterface}
+     */
+    private final Lock speechLock = new ReentrantLock(true);
+
     public void activate() {
         try {
             marytts = new LocalMaryInterface();
@@ -61,6 +90,74 @@ public class TTSServiceMaryTTS implements TTSService {
     /**
      * {@inheritDoc}
      */
+    @Override
+    public void updated(Dictionary<String, ?> properties) throws ConfigurationException {
+        cache.configure(properties);
+
+        String[] phrases = new String[0];
+        if (properties != null) {
+            String voiceName = (String) properties.get(VOICE_PROPERTY);
+            if (StringUtils.isNotBlank(voiceName)) {
+                Voice voice = Voice.getVoice(voiceName.trim());
+                if (voice != null) {
+                    defaultVoice = voice;
+                } else {
+                    logger.warn("Could not find configured voice: {}", voiceName);
+                }
+            }
+
+            String prewarm = (String) properties.get(PREWARM_PROPERTY);
+            if (StringUtils.isNotBlank(prewarm)) {
+                phrases = StringUtils.split(prewarm, '|');
+            }
+        }
+        if (Arrays.equals(phrases, prewarmedPhrases) && defaultVoice == prewarmedVoice) {
+            logger.debug("Pre-warm phrases and voice unchanged, Mary TTS is not pre-warmed again");
+        } else {
+            prewarmedPhrases = phrases;
+            prewarmedVoice = defaultVoice;
+            prewarm(phrases);
+        }
+    }
+
+    /**
+     * Loads the default voice and synthesizes the given phrases into the cache in the background, so the first
+     * announcements do not have to wait for it.
+     */
+    private void prewarm(final String[] phrases) {
+        Thread thread = new Thread("MaryTTS pre-warming") {
+            @Override
+            public void run() {
+                for (int i = -1; i < phrases.length; i++) {
+                    speechLock.lock();
+                    try {
+                        if (marytts == null || defaultVoice == null) {
+                            return;
+                        }
+                        if (i < 0) {
+                            synthesize(defaultVoice, PREWARM_TEXT).close();
+                        } else if (StringUtils.isNotBlank(phrases[i])) {
+                            getAudio(defaultVoice, phrases[i].trim()).close();
+                        }
+                    } catch (SynthesisException e) {
+                        logger.warn("Error while pre-warming Mary TTS: {}", e.getLocalizedMessage());
+                    } catch (IOException e) {
+                        logger.warn("Error while pre-warming Mary TTS: {}", e.getLocalizedMessage());
+                    } finally {
+                        speechLock.unlock();
+                    }
+                }
+                logger.debug("Mary TTS pre-warmed with {} phrases", phrases.length);
+            }
+        };
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
     public void say(String text, String voiceName, String outputDevice) {
         if (marytts == null) {
             logger.error("Mary TTS is not available");
@@ -80,26 +177,45 @@ public class TTSServiceMaryTTS implements TTSService {
         }
 
         if (voice != null) {
-            // Workaround: we have to set the Locale first, because only in the LocalMaryInterface.setLocale() method
-            // the required private method
-            // LocalMaryInterface.setAudioFileFormatForVoice() method is called. After that we can set the voice,
-            // otherwise an NPE occurs
-            marytts.setLocale(voice.getLocale());
-            marytts.setVoice(voice.getName());
+            speechLock.lock();
             try {
-                AudioInputStream audio = marytts.generateAudio(text);
-                AudioPlayer player = new AudioPlayer(audio);
+                AudioPlayer player = new AudioPlayer(getAudio(voice, text));
                 player.start();
                 player.join();
 
             } catch (SynthesisException e) {
                 logger.error("Error during tts generation: {}", e.getLocalizedMessage(), e);
+            } catch (IOException e) {
+                logger.error("Error during tts generation: {}", e.getLocalizedMessage(), e);
             } catch (InterruptedException e) {
                 logger.error("Error during tts playback: {}", e.getLocalizedMessage(), e);
+            } finally {
+                speechLock.unlock();
             }
         } else {
             logger.error("Could not find voice: {}", voiceName);
             logger.info("Available Voices are {} ", StringUtils.join(marytts.getAvailableVoices(), ", "));
         }
     }
+
+    /**
+     * Returns the audio of a text from the cache, the text is synthesized if it is not cached yet.
+     */
+    private AudioInputStream getAudio(Voice voice, String text) throws SynthesisException, IOException {
+        AudioInputStream audio = cache.get(voice.getName(), text);
+        if (audio != null) {
+            return audio;
+        }
+        return cache.put(voice.getName(), text, synthesize(voice, text));
+    }
+
+    private AudioInputStream synthesize(Voice voice, String text) throws SynthesisException {
+        // Workaround: we have to set the Locale first, because only in the LocalMaryInterface.setLocale() method
+        // the required private method
+        // LocalMaryInterface.setAudioFileFormatForVoice() method is called. After that we can set the voice,
+        // otherwise an NPE occurs
+        marytts.setLocale(voice.getLocale());
+        marytts.setVoice(voice.getName());
+        return marytts.generateAudio(text);
+    }
 }
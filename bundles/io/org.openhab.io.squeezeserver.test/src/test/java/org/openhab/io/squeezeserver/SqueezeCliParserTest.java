@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.squeezeserver;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link SqueezeCliParser} with lines as sent by the Squeeze Server CLI and malformed ones.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+public class SqueezeCliParserTest {
+
+    @Test
+    public void testPlayerStatusLine() {
+        List<String> tokens = SqueezeCliParser.tokenize("00%3A04%3A20%3A12%3A34%3A56 status - 1 tags%3AyagJlN "
+                + "player_name%3ALiving%20Room power%3A1 mixer%20volume%3A50 mode%3Aplay time%3A12.5 "
+                + "playlist%20repeat%3A0 title%3AIntro%3A%20Part%201");
+
+        assertEquals(Arrays.asList("00:04:20:12:34:56", "status", "-", "1", "tags:yagJlN", "player_name:Living Room",
+                "power:1", "mixer volume:50", "mode:play", "time:12.5", "playlist repeat:0", "title:Intro: Part 1"),
+                tokens);
+
+        // the player id and the command are no tagged parameters
+        assertEquals("00:04:20:12:34:56", tokens.get(0));
+        assertEquals("status", SqueezeCliParser.getKey(tokens.get(1)));
+        assertNull(SqueezeCliParser.getValue(tokens.get(1)));
+
+        // keys with spaces and values with colons are kept together
+        assertEquals("mixer volume", SqueezeCliParser.getKey(tokens.get(7)));
+        assertEquals("50", SqueezeCliParser.getValue(tokens.get(7)));
+        assertEquals("title", SqueezeCliParser.getKey(tokens.get(11)));
+        assertEquals("Intro: Part 1", SqueezeCliParser.getValue(tokens.get(11)));
+    }
+
+    @Test
+    public void testPlayersLine() {
+        List<String> tokens = SqueezeCliParser
+                .tokenize("players 0 count%3A1 playerindex%3A0 playerid%3A00%3A04%3A20%3A12%3A34%3A56 "
+                        + "ip%3A192.168.1.20%3A41234 name%3AK%C3%BCche model%3Areceiver");
+
+        assertEquals("playerid", SqueezeCliParser.getKey(tokens.get(4)));
+        assertEquals("00:04:20:12:34:56", SqueezeCliParser.getValue(tokens.get(4)));
+        assertEquals("192.168.1.20:41234", SqueezeCliParser.getValue(tokens.get(5)));
+        assertEquals("Küche", SqueezeCliParser.getValue(tokens.get(6)));
+    }
+
+    @Test
+    public void testUrlEncodedValues() {
+        assertEquals(Arrays.asList("a b", "c+d", "100%", "€", "x:"),
+                SqueezeCliParser.tokenize("a+b c%2Bd 100%25 %E2%82%AC x%3a"));
+        assertEquals(Arrays.asList("plain"), SqueezeCliParser.tokenize("plain"));
+        assertEquals("", SqueezeCliParser.getValue(SqueezeCliParser.tokenize("title%3A").get(0)));
+    }
+
+    @Test
+    public void testMalformedLines() {
+        assertEquals(Collections.emptyList(), SqueezeCliParser.tokenize(""));
+        assertEquals(Collections.emptyList(), SqueezeCliParser.tokenize("   "));
+        assertEquals(Arrays.asList("a", "b"), SqueezeCliParser.tokenize("  a   b "));
+
+        // invalid and truncated escapes are kept as they are
+        assertEquals(Arrays.asList("%", "%4", "%zz1", "50%", "a%2"),
+                SqueezeCliParser.tokenize("% %4 %zz1 50% a%2"));
+
+        // unescaped non-ASCII characters are not broken by the decoding of the rest of the token
+        assertEquals(Arrays.asList("Küche 1", "🎵 x"),
+                SqueezeCliParser.tokenize("Küche%201 🎵+x"));
+
+        // an incomplete UTF-8 sequence doesn't stop the parsing
+        List<String> tokens = SqueezeCliParser.tokenize("title%3A%E2%82 power%3A1");
+        assertEquals(2, tokens.size());
+        assertEquals("title", SqueezeCliParser.getKey(tokens.get(0)));
+        assertEquals("1", SqueezeCliParser.getValue(tokens.get(1)));
+    }
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.squeezeserver;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a line received from the Squeeze Server CLI into its tokens. The CLI separates the tokens by spaces and
+ * URL-encodes each of them, so a line is split first and every token is decoded once, which keeps spaces and colons
+ * within values (e.g. a player name) intact.
+ *
+ * Tagged parameters like <code>mixer volume:50</code> are split into key and value by {@link #getKey(String)} and
+ * {@link #getValue(String)}.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+class SqueezeCliParser {
+
+    private SqueezeCliParser() {
+    }
+
+    /**
+     * @param line
+     *            a line received from the CLI
+     * @return the decoded tokens of the line
+     */
+    static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<String>();
+        int start = 0;
+        for (int i = 0; i <= line.length(); i++) {
+            if (i == line.length() || line.charAt(i) == ' ') {
+                if (i > start) {
+                    tokens.add(decode(line, start, i));
+                }
+                start = i + 1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * @return the key of a tagged parameter or the token itself if it is no tagged parameter
+     */
+    static String getKey(String token) {
+        int separator = token.indexOf(':');
+        return separator < 0 ? token : token.substring(0, separator);
+    }
+
+    /**
+     * @return the value of a tagged parameter or null if it is no tagged parameter
+     */
+    static String getValue(String token) {
+        int separator = token.indexOf(':');
+        return separator < 0 ? null : token.substring(separator + 1);
+    }
+
+    /**
+     * Decodes a URL-encoded UTF-8 token. Invalid escapes are kept as they are.
+     */
+    private static String decode(String line, int start, int end) {
+        int first = start;
+        while (first < end && line.charAt(first) != '%' && line.charAt(first) != '+') {
+            first++;
+        }
+        if (first == end) {
+            return line.substring(start, end);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(end - start);
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (c == '%' && i + 2 < end) {
+                int high = Character.digit(line.charAt(i + 1), 16);
+                int low = Character.digit(line.charAt(i + 2), 16);
+                if (high >= 0 && low >= 0) {
+                    bytes.write((high << 4) | low);
+                    i += 2;
+                    continue;
+                }
+            }
+            if (c == '+') {
+                bytes.write(' ');
+            } else if (c < 0x80) {
+                bytes.write(c);
+            } else {
+                // unescaped characters are not expected from the CLI, but must not be broken
+                int length = Character.isHighSurrogate(c) && i + 1 < end ? 2 : 1;
+                byte[] encoded = line.substring(i, i + length).getBytes(StandardCharsets.UTF_8);
+                bytes.write(encoded, 0, encoded.length);
+                i += length - 1;
+            }
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2010-2019 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.squeezeserver;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the commands for the Squeeze Server CLI from a single thread, so callers only queue a command and never wait
+ * for the socket. All commands queued while the previous ones were written are sent in one go.
+ *
+ * A volume or seek command replaces a queued volume or seek command of the same player which has not been sent yet,
+ * so e.g. a dragged volume slider results in the latest volume only.
+ *
+ * @author agent - Initial contribution
+ * @since 1.14.0
+ */
+class SqueezeCommandQueue implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqueezeCommandQueue.class);
+
+    private static final String NEW_LINE = System.getProperty("line.separator");
+
+    /** commands which only need to be sent with their latest value: '&lt;mac&gt; mixer volume 50', '&lt;mac&gt; time 30' */
+    private static final Pattern MERGEABLE_PATTERN = Pattern.compile("^(\\S+ (?:mixer volume|time)) \\S+$");
+
+    private final Socket socket;
+
+    private final Writer writer;
+
+    private final LinkedList<Command> pending = new LinkedList<Command>();
+
+    private Thread thread;
+
+    /**
+     * @param socket
+     *            the CLI connection, it is closed and the queued commands are dropped if a command cannot be written
+     * @throws IOException
+     *             if the output stream of the connection is not available
+     */
+    SqueezeCommandQueue(Socket socket) throws IOException {
+        this.socket = socket;
+        this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream()));
+    }
+
+    /**
+     * Starts the writer thread.
+     */
+    synchronized void start() {
+        thread = new Thread(this, "Squeeze Server Writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the writer thread, queued commands are dropped.
+     */
+    synchronized void stop() {
+        pending.clear();
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    /**
+     * Queues a command.
+     *
+     * @param command
+     *            the command without line separator
+     * @return false if the writer was stopped or failed, the command is dropped then
+     */
+    synchronized boolean add(String command) {
+        if (thread == null) {
+            logger.warn("Dropped command '{}', the connection to Squeeze Server is closed", command);
+            return false;
+        }
+        Matcher matcher = MERGEABLE_PATTERN.matcher(command);
+        if (matcher.matches()) {
+            String key = matcher.group(1);
+            for (Command queued : pending) {
+                if (key.equals(queued.key)) {
+                    // the merged command keeps the position of the queued one, so it is sent before the commands
+                    // queued in between, which is fine as the volume or position doesn't depend on them
+                    logger.trace("Replacing queued command '{}' by '{}'", queued.text, command);
+                    queued.text = command;
+                    return true;
+                }
+            }
+            pending.add(new Command(key, command));
+        } else {
+            pending.add(new Command(null, command));
+        }
+        notifyAll();
+        return true;
+    }
+
+    @Override
+    public void run() {
+        List<String> commands = new ArrayList<String>();
+        try {
+            while (true) {
+                synchronized (this) {
+                    while (pending.isEmpty() && thread == Thread.currentThread()) {
+                        wait();
+                    }
+                    if (thread != Thread.currentThread()) {
+                        return;
+                    }
+                    for (Command command : pending) {
+                        commands.add(command.text);
+                    }
+                    pending.clear();
+                }
+
+                for (String command : commands) {
+                    logger.debug("Sending command: {}", command);
+                    writer.write(command);
+                    writer.write(NEW_LINE);
+                }
+                writer.flush();
+                commands.clear();
+            }
+        } catch (InterruptedException e) {
+            logger.debug("Squeeze Server writer stopped");
+        } catch (IOException e) {
+            synchronized (this) {
+                // further commands are refused instead of queued for a writer which is gone
+                thread = null;
+                for (Command command : pending) {
+                    commands.add(command.text);
+                }
+                pending.clear();
+            }
+            logger.error("Error while sending commands to Squeeze Server, dropped commands " + commands, e);
+            // closing the connection makes the next command reconnect
+            try {
+                socket.close();
+            } catch (IOException ce) {
+                // ignore
+            }
+        }
+    }
+
+    private static class Command {
+        private final String key;
+        private String text;
+
+        Command(String key, String text) {
+            this.key = key;
+            this.text = text;
+        }
+    }
+
+}
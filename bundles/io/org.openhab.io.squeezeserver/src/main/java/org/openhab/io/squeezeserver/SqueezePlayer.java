@@ -213,28 +213,38 @@ public class SqueezePlayer {
     }
 
     public void setNumberPlaylistTracks(int numberPlaylistTracks) {
-        this.numPlaylistTracks = numberPlaylistTracks;
-        fireNumberPlaylistTracksEvent();
+        if (this.numPlaylistTracks != numberPlaylistTracks) {
+            this.numPlaylistTracks = numberPlaylistTracks;
+            fireNumberPlaylistTracksEvent();
+        }
     }
 
     public void setCurrentPlaylistIndex(int currentPlaylistIndex) {
-        this.currPlaylistIndex = currentPlaylistIndex;
-        fireCurrentPlaylistIndexEvent();
+        if (this.currPlaylistIndex != currentPlaylistIndex) {
+            this.currPlaylistIndex = currentPlaylistIndex;
+            fireCurrentPlaylistIndexEvent();
+        }
     }
 
     public void setCurrentPlayingTime(int currentPlayingTime) {
-        this.currPlayingTime = currentPlayingTime;
-        fireCurrentPlayingTimeEvent();
+        if (this.currPlayingTime != currentPlayingTime) {
+            this.currPlayingTime = currentPlayingTime;
+            fireCurrentPlayingTimeEvent();
+        }
     }
 
     public void setCurrentPlaylistShuffle(int currentPlaylistShuffle) {
-        this.currPlaylistShuffle = currentPlaylistShuffle;
-        fireCurrentPlaylistShuffleEvent();
+        if (this.currPlaylistShuffle != currentPlaylistShuffle) {
+            this.currPlaylistShuffle = currentPlaylistShuffle;
+            fireCurrentPlaylistShuffleEvent();
+        }
     }
 
     public void setCurrentPlaylistRepeat(int currentPlaylistRepeat) {
-        this.currPlaylistRepeat = currentPlaylistRepeat;
-        fireCurrentPlaylistRepeatEvent();
+        if (this.currPlaylistRepeat != currentPlaylistRepeat) {
+            this.currPlaylistRepeat = currentPlaylistRepeat;
+            fireCurrentPlaylistRepeatEvent();
+        }
     }
 
     public int getNumberPlaylistTracks() {
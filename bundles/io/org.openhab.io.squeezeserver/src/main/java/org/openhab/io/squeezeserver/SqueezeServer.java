@@ -9,20 +9,17 @@
 package org.openhab.io.squeezeserver;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.io.UnsupportedEncodingException;
 import java.net.Socket;
-import java.net.URLDecoder;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Dictionary;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -72,8 +69,6 @@ public class SqueezeServer implements ManagedService {
     // <code>'^(ttsmaxsentencelength)$'</code>
     private static final Pattern TTS_MAX_SENTENCE_LENGTH_CONFIG_PATTERN = Pattern.compile("^(ttsmaxsentencelength)$");
 
-    private static final String NEW_LINE = System.getProperty("line.separator");
-
     // the value by which the volume is changed by each INCREASE or
     // DECREASE-Event
     private static final int VOLUME_CHANGE_SIZE = 5;
@@ -85,13 +80,13 @@ public class SqueezeServer implements ManagedService {
     private int retries;
     private int retryTimeout;
 
-    // client socket and listener thread
+    // client socket, listener thread and writer thread
     private Socket clientSocket;
     private SqueezeServerListener listener;
+    private SqueezeCommandQueue commandQueue;
 
     // player listeners
-    private final List<SqueezePlayerEventListener> playerEventListeners = Collections
-            .synchronizedList(new ArrayList<SqueezePlayerEventListener>());
+    private final CopyOnWriteArrayList<SqueezePlayerEventListener> playerEventListeners = new CopyOnWriteArrayList<SqueezePlayerEventListener>();
 
     // configured players - keyed by playerId and MAC address
     private final Map<String, SqueezePlayer> playersById = new ConcurrentHashMap<String, SqueezePlayer>();
@@ -114,25 +109,27 @@ public class SqueezeServer implements ManagedService {
         return clientSocket.isConnected() && !clientSocket.isClosed();
     }
 
-    public synchronized void addPlayerEventListener(SqueezePlayerEventListener playerEventListener) {
-        if (!playerEventListeners.contains(playerEventListener)) {
-            playerEventListeners.add(playerEventListener);
-        }
+    public void addPlayerEventListener(SqueezePlayerEventListener playerEventListener) {
+        playerEventListeners.addIfAbsent(playerEventListener);
     }
 
-    public synchronized void removePlayerEventListener(SqueezePlayerEventListener playerEventListener) {
+    public void removePlayerEventListener(SqueezePlayerEventListener playerEventListener) {
         playerEventListeners.remove(playerEventListener);
     }
 
-    public synchronized List<SqueezePlayerEventListener> getPlayerEventListeners() {
+    /**
+     * @return the registered listeners, the list is a snapshot which does not
+     *         change when listeners are added or removed
+     */
+    public List<SqueezePlayerEventListener> getPlayerEventListeners() {
         return new ArrayList<SqueezePlayerEventListener>(playerEventListeners);
     }
 
-    public synchronized List<SqueezePlayer> getPlayers() {
+    public List<SqueezePlayer> getPlayers() {
         return new ArrayList<SqueezePlayer>(playersById.values());
     }
 
-    public synchronized SqueezePlayer getPlayer(String playerId) {
+    public SqueezePlayer getPlayer(String playerId) {
         if (StringUtils.isEmpty(playerId)) {
             throw new NullArgumentException("playerId");
         }
@@ -144,7 +141,7 @@ public class SqueezeServer implements ManagedService {
         return playersById.get(key);
     }
 
-    public synchronized SqueezePlayer getPlayerByMacAddress(String macAddress) {
+    public SqueezePlayer getPlayerByMacAddress(String macAddress) {
         String key = macAddress.toLowerCase();
         if (!playersByMacAddress.containsKey(key)) {
             logger.warn("No player exists for MAC {}", macAddress);
@@ -410,27 +407,27 @@ public class SqueezeServer implements ManagedService {
     }
 
     /**
-     * Send a command to the Squeeze Server.
+     * Send a command to the Squeeze Server. The command is queued and written
+     * by the writer thread, so the caller does not wait for the connection.
+     *
+     * @return false if there is no connection or the writer has failed, a
+     *         failed writer is replaced by the next command
      */
-    private synchronized boolean sendCommand(String command) {
-        if (!isConnected()) {
-            logger.debug("No connection to SqueezeServer, will attempt to reconnect now...");
-            connect();
+    private boolean sendCommand(String command) {
+        SqueezeCommandQueue queue;
+        synchronized (this) {
             if (!isConnected()) {
-                logger.error("Failed to reconnect to SqueezeServer, unable to send command {}", command);
-                return false;
+                logger.debug("No connection to SqueezeServer, will attempt to reconnect now...");
+                connect();
+                if (!isConnected()) {
+                    logger.error("Failed to reconnect to SqueezeServer, unable to send command {}", command);
+                    return false;
+                }
             }
+            queue = commandQueue;
         }
-        logger.debug("Sending command: {}", command);
-        try {
-            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(clientSocket.getOutputStream()));
-            writer.write(command + NEW_LINE);
-            writer.flush();
-            return true;
-        } catch (IOException e) {
-            logger.error("Error while sending command to Squeeze Server (" + command + ")", e);
-            return false;
-        }
+        logger.trace("Queueing command: {}", command);
+        return queue.add(command);
     }
 
     @Override
@@ -516,9 +513,15 @@ public class SqueezeServer implements ManagedService {
         }
     }
 
-    private boolean connect() {
+    private synchronized boolean connect() {
+        if (commandQueue != null) {
+            commandQueue.stop();
+            commandQueue = null;
+        }
         try {
             clientSocket = new Socket(host, cliPort);
+            commandQueue = new SqueezeCommandQueue(clientSocket);
+            commandQueue.start();
         } catch (IOException e) {
             logger.error("Failed to connect to the Squeeze Server at " + host + ":" + cliPort, e);
             return false;
@@ -560,13 +563,14 @@ public class SqueezeServer implements ManagedService {
         return false;
     }
 
-    private void disconnect() {
+    private synchronized void disconnect() {
         if (!isConnected()) {
             return;
         }
 
         try {
             listener.terminate();
+            commandQueue.stop();
             clientSocket.close();
         } catch (IOException e) {
             logger.error("Error attempting to disconnect from Squeeze Server at " + host + ":" + cliPort, e);
@@ -574,6 +578,7 @@ public class SqueezeServer implements ManagedService {
         } finally {
             clientSocket = null;
             listener = null;
+            commandQueue = null;
         }
 
         logger.info("Squeeze Server connection stopped.");
@@ -621,14 +626,15 @@ public class SqueezeServer implements ManagedService {
                 while (!terminate && (message = reader.readLine()) != null) {
                     logger.debug("Message received: {}", message);
 
-                    if (message.startsWith("listen 1")) {
+                    List<String> tokens = SqueezeCliParser.tokenize(message);
+                    if (tokens.size() < 2 || (tokens.get(0).equals("listen") && tokens.get(1).equals("1"))) {
                         continue;
                     }
 
-                    if (message.startsWith("players 0")) {
-                        handlePlayersList(message);
+                    if (tokens.get(0).equals("players") && tokens.get(1).equals("0")) {
+                        handlePlayersList(tokens);
                     } else {
-                        handlePlayerUpdate(message);
+                        handlePlayerUpdate(tokens);
                     }
                 }
             } catch (IOException e) {
@@ -647,30 +653,23 @@ public class SqueezeServer implements ManagedService {
             logger.warn("Squeeze Server listener exiting.");
         }
 
-        private String decode(String raw) {
-            try {
-                return URLDecoder.decode(raw, "UTF-8");
-            } catch (UnsupportedEncodingException e) {
-                logger.error("Failed to decode '" + raw + "'", e);
-                return null;
-            }
-        }
-
-        private void handlePlayersList(String message) {
-            String[] playersList = decode(message).split("playerindex:\\d+\\s");
-            for (String playerParams : playersList) {
-                String[] parameterList = playerParams.split("\\s");
-
-                // parse out the MAC address first
-                String macAddress = null;
-                for (String parameter : parameterList) {
-                    if (parameter.contains("playerid")) {
-                        macAddress = parameter.substring(parameter.indexOf(":") + 1);
-                        break;
-                    }
+        private void handlePlayersList(List<String> tokens) {
+            // the parameters of each player start with its 'playerindex'
+            List<Map<String, String>> playersList = new ArrayList<Map<String, String>>();
+            Map<String, String> playerParams = null;
+            for (String token : tokens) {
+                String key = SqueezeCliParser.getKey(token);
+                if (key.equals("playerindex")) {
+                    playerParams = new HashMap<String, String>();
+                    playersList.add(playerParams);
+                } else if (playerParams != null) {
+                    playerParams.put(key, SqueezeCliParser.getValue(token));
                 }
+            }
 
-                // if none found then ignore this set of params
+            for (Map<String, String> params : playersList) {
+                // parse out the MAC address first, if none found then ignore this set of params
+                String macAddress = params.get("playerid");
                 if (macAddress == null) {
                     continue;
                 }
@@ -682,16 +681,17 @@ public class SqueezeServer implements ManagedService {
                 }
 
                 // populate the player state
-                for (String parameter : parameterList) {
-                    if (parameter.contains("ip")) {
-                        player.setIpAddr(parameter.substring(parameter.indexOf(":") + 1));
-                    } else if (parameter.contains("uuid")) {
-                        player.setUuid(parameter.substring(parameter.indexOf(":") + 1));
-                    } else if (parameter.contains("name")) {
-                        player.setName(parameter.substring(parameter.indexOf(":") + 1));
-                    } else if (parameter.contains("model")) {
-                        player.setModel(parameter.substring(parameter.indexOf(":") + 1));
-                    }
+                if (params.containsKey("ip")) {
+                    player.setIpAddr(params.get("ip"));
+                }
+                if (params.containsKey("uuid")) {
+                    player.setUuid(params.get("uuid"));
+                }
+                if (params.containsKey("name")) {
+                    player.setName(params.get("name"));
+                }
+                if (params.containsKey("model")) {
+                    player.setModel(params.get("model"));
                 }
 
                 // tell the server we want to subscribe to player updates
@@ -699,32 +699,28 @@ public class SqueezeServer implements ManagedService {
             }
         }
 
-        private void handlePlayerUpdate(String message) {
-            String[] messageParts = message.split("\\s");
-            if (messageParts.length < 2) {
-                logger.warn("Invalid message - expecting at least 2 parts. Ignoring.");
-                return;
-            }
-
+        private void handlePlayerUpdate(List<String> tokens) {
             // get the MAC address
-            SqueezePlayer player = getPlayerByMacAddress(decode(messageParts[0]));
+            SqueezePlayer player = getPlayerByMacAddress(tokens.get(0));
             if (player == null) {
                 logger.warn("Status message received for MAC address {} which is not configured in openHAB. Ignoring.",
-                        messageParts[0]);
+                        tokens.get(0));
                 return;
             }
 
             // get the message type
-            String messageType = messageParts[1];
+            String messageType = tokens.get(1);
 
             if (messageType.equals("status")) {
-                handleStatusMessage(player, messageParts);
+                handleStatusMessage(player, tokens);
             } else if (messageType.equals("playlist")) {
-                handlePlaylistMessage(player, messageParts);
+                handlePlaylistMessage(player, tokens);
             } else if (messageType.equals("prefset")) {
-                handlePrefsetMessage(player, messageParts);
+                handlePrefsetMessage(player, tokens);
             } else if (messageType.equals("ir")) {
-                player.setIrCode(messageParts[2]);
+                if (tokens.size() > 2) {
+                    player.setIrCode(tokens.get(2));
+                }
             } else if (messageType.equals("power")) {
                 // ignore these for now
                 // player.setPowered(messageParts[1].equals("1"));
@@ -739,117 +735,99 @@ public class SqueezeServer implements ManagedService {
             }
         }
 
-        private void handleStatusMessage(SqueezePlayer player, String[] messageParts) {
-            for (String messagePart : messageParts) {
-                // Parameter Power
-                if (messagePart.startsWith("power%3A")) {
-                    String value = messagePart.substring("power%3A".length());
-                    player.setPowered(value.matches("1"));
-                }
-                // Parameter Volume
-                else if (messagePart.startsWith("mixer%20volume%3A")) {
-                    String value = messagePart.substring("mixer%20volume%3A".length());
-                    player.setVolume((int) Double.parseDouble(value));
-                }
-                // Parameter Mode
-                else if (messagePart.startsWith("mode%3A")) {
-                    String value = messagePart.substring("mode%3A".length());
-                    player.setMode(Mode.valueOf(value));
-                }
-                // Parameter Playing Time
-                else if (messagePart.startsWith("time%3A")) {
-                    String value = messagePart.substring("time%3A".length());
-                    player.setCurrentPlayingTime((int) Double.parseDouble(value));
-                }
-                // Parameter Playing Playlist Index
-                else if (messagePart.startsWith("playlist_cur_index%3A")) {
-                    String value = messagePart.substring("playlist_cur_index%3A".length());
-                    player.setCurrentPlaylistIndex(Integer.parseInt(value));
-                }
-                // Parameter Playlist Number Tracks
-                else if (messagePart.startsWith("playlist_tracks%3A")) {
-                    String value = messagePart.substring("playlist_tracks%3A".length());
-                    player.setNumberPlaylistTracks(Integer.parseInt(value));
-                }
-                // Parameter Playlist Repeat Mode
-                else if (messagePart.startsWith("playlist%20repeat%3A")) {
-                    String value = messagePart.substring("playlist%20repeat%3A".length());
-                    player.setCurrentPlaylistRepeat(Integer.parseInt(value));
-                }
-                // Parameter Playlist Shuffle Mode
-                else if (messagePart.startsWith("playlist%20shuffle%3A")) {
-                    String value = messagePart.substring("playlist%20shuffle%3A".length());
-                    player.setCurrentPlaylistShuffle(Integer.parseInt(value));
-                }
-                // Parameter Playlist Number Tracks
-                else if (messagePart.startsWith("playlist_tracks%3A")) {
-                    String value = messagePart.substring("playlist_tracks%3A".length());
-                    player.setNumberPlaylistTracks(Integer.parseInt(value));
-                }
-                // Parameter Title
-                else if (messagePart.startsWith("title%3A")) {
-                    String value = messagePart.substring("title%3A".length());
-                    player.setTitle(decode(value));
-                }
-                // Parameter Remote Title (radio)
-                else if (messagePart.startsWith("remote_title%3A")) {
-                    String value = messagePart.substring("remote_title%3A".length());
-                    player.setRemoteTitle(decode(value));
-                }
-                // Parameter Artist
-                else if (messagePart.startsWith("artist%3A")) {
-                    String value = messagePart.substring("artist%3A".length());
-                    player.setArtist(decode(value));
-                }
-                // Parameter Album
-                else if (messagePart.startsWith("album%3A")) {
-                    String value = messagePart.substring("album%3A".length());
-                    player.setAlbum(decode(value));
-                }
-                // Parameter Genre
-                else if (messagePart.startsWith("genre%3A")) {
-                    String value = messagePart.substring("genre%3A".length());
-                    player.setGenre(decode(value));
-                }
-                // Parameter Year
-                else if (messagePart.startsWith("year%3A")) {
-                    String value = messagePart.substring("year%3A".length());
-                    player.setYear(Integer.parseInt(value));
+        private void handleStatusMessage(SqueezePlayer player, List<String> tokens) {
+            for (int i = 2; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                String value = SqueezeCliParser.getValue(token);
+                if (value == null) {
+                    continue;
                 }
-                // Parameter Artwork
-                else if (messagePart.startsWith("artwork_track_id%3A")) {
-                    String value = messagePart.substring("artwork_track_id%3A".length());
-                    // NOTE: what is returned if not an artwork id? i.e. if a
-                    // space?
-                    if (!value.startsWith(" ")) {
-                        value = "http://" + host + ":" + webPort + "/music/" + value + "/cover.jpg";
+
+                try {
+                    switch (SqueezeCliParser.getKey(token)) {
+                        case "power":
+                            player.setPowered(value.equals("1"));
+                            break;
+                        case "mixer volume":
+                            player.setVolume((int) Double.parseDouble(value));
+                            break;
+                        case "mode":
+                            player.setMode(Mode.valueOf(value));
+                            break;
+                        case "time":
+                            player.setCurrentPlayingTime((int) Double.parseDouble(value));
+                            break;
+                        case "playlist_cur_index":
+                            player.setCurrentPlaylistIndex(Integer.parseInt(value));
+                            break;
+                        case "playlist_tracks":
+                            player.setNumberPlaylistTracks(Integer.parseInt(value));
+                            break;
+                        case "playlist repeat":
+                            player.setCurrentPlaylistRepeat(Integer.parseInt(value));
+                            break;
+                        case "playlist shuffle":
+                            player.setCurrentPlaylistShuffle(Integer.parseInt(value));
+                            break;
+                        case "title":
+                            player.setTitle(value);
+                            break;
+                        case "remote_title":
+                            player.setRemoteTitle(value);
+                            break;
+                        case "artist":
+                            player.setArtist(value);
+                            break;
+                        case "album":
+                            player.setAlbum(value);
+                            break;
+                        case "genre":
+                            player.setGenre(value);
+                            break;
+                        case "year":
+                            player.setYear(Integer.parseInt(value));
+                            break;
+                        case "artwork_track_id":
+                            // NOTE: what is returned if not an artwork id? i.e. if a
+                            // space?
+                            if (!value.startsWith(" ")) {
+                                value = "http://" + host + ":" + webPort + "/music/" + value + "/cover.jpg";
+                            }
+                            player.setCoverArt(value);
+                            break;
+                        default:
+                            break;
                     }
-                    player.setCoverArt(decode(value));
+                } catch (IllegalArgumentException e) {
+                    logger.debug("Invalid value in status parameter '{}'. Ignoring.", token);
                 }
             }
         }
 
-        private void handlePlaylistMessage(SqueezePlayer player, String[] messageParts) {
-            String action = messageParts[2];
+        private void handlePlaylistMessage(SqueezePlayer player, List<String> tokens) {
+            if (tokens.size() < 3) {
+                return;
+            }
+            String action = tokens.get(2);
 
             if (action.equals("newsong")) {
                 player.setMode(Mode.play);
-            } else if (action.equals("pause")) {
-                player.setMode(messageParts[3].equals("0") ? Mode.play : Mode.pause);
+            } else if (action.equals("pause") && tokens.size() > 3) {
+                player.setMode(tokens.get(3).equals("0") ? Mode.play : Mode.pause);
             } else if (action.equals("stop")) {
                 player.setMode(Mode.stop);
             }
         }
 
-        private void handlePrefsetMessage(SqueezePlayer player, String[] messageParts) {
-            if (messageParts.length < 5) {
+        private void handlePrefsetMessage(SqueezePlayer player, List<String> tokens) {
+            if (tokens.size() < 5) {
                 return;
             }
 
             // server prefsets
-            if (messageParts[2].equals("server")) {
-                String function = messageParts[3];
-                String value = messageParts[4];
+            if (tokens.get(2).equals("server")) {
+                String function = tokens.get(3);
+                String value = tokens.get(4);
 
                 if (function.equals("power")) {
                     player.setPowered(value.equals("1"));
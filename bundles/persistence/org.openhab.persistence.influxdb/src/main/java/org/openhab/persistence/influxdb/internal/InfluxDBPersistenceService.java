@@ -46,6 +46,8 @@ import org.openhab.core.library.types.OpenClosedType;
 import org.openhab.core.library.types.PercentType;
 import org.openhab.core.library.types.PointType;
 import org.openhab.core.library.types.StringType;
+import org.openhab.core.metrics.LatencyHistogram;
+import org.openhab.core.metrics.MetricsRegistry;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.persistence.HistoricItem;
@@ -85,6 +87,8 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
     private ItemRegistry itemRegistry;
     private InfluxDB influxDB;
     private static final Logger logger = LoggerFactory.getLogger(InfluxDBPersistenceService.class);
+    private final LatencyHistogram storeLatency = MetricsRegistry.persistenceStoreLatency("influxdb");
+    private final LatencyHistogram queryLatency = MetricsRegistry.persistenceQueryLatency("influxdb");
     private static final String TIME_COLUMN_NAME = "time";
     private static final TimeUnit timeUnit = TimeUnit.MILLISECONDS;
     private String dbName;
@@ -213,6 +217,15 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
      */
     @Override
     public void store(Item item, String alias) {
+        long start = System.nanoTime();
+        try {
+            internalStore(item, alias);
+        } finally {
+            storeLatency.recordSince(start);
+        }
+    }
+
+    private void internalStore(Item item, String alias) {
         if (item.getState() instanceof UnDefType) {
             return;
         }
@@ -266,6 +279,15 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
+        long start = System.nanoTime();
+        try {
+            return internalQuery(filter);
+        } finally {
+            queryLatency.recordSince(start);
+        }
+    }
+
+    private Iterable<HistoricItem> internalQuery(FilterCriteria filter) {
         logger.debug("got a query");
 
         if (!isProperlyConfigured) {
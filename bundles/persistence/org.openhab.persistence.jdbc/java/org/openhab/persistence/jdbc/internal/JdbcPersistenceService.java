@@ -17,6 +17,8 @@ import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.metrics.LatencyHistogram;
+import org.openhab.core.metrics.MetricsRegistry;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.PersistenceService;
@@ -35,6 +37,10 @@ import org.slf4j.LoggerFactory;
 public class JdbcPersistenceService extends JdbcMapper implements QueryablePersistenceService {
     static final Logger logger = LoggerFactory.getLogger(JdbcPersistenceService.class);
 
+    private final LatencyHistogram storeLatency = MetricsRegistry.persistenceStoreLatency("jdbc");
+
+    private final LatencyHistogram queryLatency = MetricsRegistry.persistenceQueryLatency("jdbc");
+
     protected ItemRegistry itemRegistry;
 
     /**
@@ -118,6 +124,15 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
      */
     @Override
     public void store(Item item, String alias) {
+        long start = System.nanoTime();
+        try {
+            internalStore(item, alias);
+        } finally {
+            storeLatency.recordSince(start);
+        }
+    }
+
+    private void internalStore(Item item, String alias) {
         // Don not store undefined/uninitialised data
         if (item.getState() instanceof UnDefType) {
             logger.debug("JDBC::store: ignore Item '{}' because it is UnDefType", item.getName());
@@ -145,6 +160,15 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
      */
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
+        long start = System.nanoTime();
+        try {
+            return internalQuery(filter);
+        } finally {
+            queryLatency.recordSince(start);
+        }
+    }
+
+    private Iterable<HistoricItem> internalQuery(FilterCriteria filter) {
 
         if (!checkDBAccessability()) {
             logger.warn("JDBC::query: database not connected, query aborted for item '{}'", filter.getItemName());
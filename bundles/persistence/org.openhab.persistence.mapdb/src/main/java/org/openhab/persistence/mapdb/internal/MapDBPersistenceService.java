@@ -30,6 +30,8 @@ import org.openhab.core.library.items.DimmerItem;
 import org.openhab.core.library.items.RollershutterItem;
 import org.openhab.core.library.types.HSBType;
 import org.openhab.core.library.types.PercentType;
+import org.openhab.core.metrics.LatencyHistogram;
+import org.openhab.core.metrics.MetricsRegistry;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.PersistenceService;
@@ -76,6 +78,10 @@ public class MapDBPersistenceService implements QueryablePersistenceService {
 
     private static final Logger logger = LoggerFactory.getLogger(MapDBPersistenceService.class);
 
+    private final LatencyHistogram storeLatency = MetricsRegistry.persistenceStoreLatency(SERVICE_NAME);
+
+    private final LatencyHistogram queryLatency = MetricsRegistry.persistenceQueryLatency(SERVICE_NAME);
+
     /** holds the local instance of the MapDB database */
     private static DB db;
     private static Map<String, MapDBItem> map;
@@ -137,6 +143,15 @@ public class MapDBPersistenceService implements QueryablePersistenceService {
 
     @Override
     public void store(Item item, String alias) {
+        long start = System.nanoTime();
+        try {
+            internalStore(item, alias);
+        } finally {
+            storeLatency.recordSince(start);
+        }
+    }
+
+    private void internalStore(Item item, String alias) {
 
         if (item.getState() instanceof UnDefType) {
             return;
@@ -175,6 +190,15 @@ public class MapDBPersistenceService implements QueryablePersistenceService {
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
+        long start = System.nanoTime();
+        try {
+            return internalQuery(filter);
+        } finally {
+            queryLatency.recordSince(start);
+        }
+    }
+
+    private Iterable<HistoricItem> internalQuery(FilterCriteria filter) {
         HistoricItem item = map.get(filter.getItemName());
         if (item != null) {
             return Collections.singletonList(item);
@@ -39,6 +39,8 @@ import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.OpenClosedType;
 import org.openhab.core.library.types.PercentType;
+import org.openhab.core.metrics.LatencyHistogram;
+import org.openhab.core.metrics.MetricsRegistry;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.core.persistence.HistoricItem;
@@ -77,6 +79,10 @@ public class RRD4jService implements QueryablePersistenceService {
 
     private static final Logger logger = LoggerFactory.getLogger(RRD4jService.class);
 
+    private final LatencyHistogram storeLatency = MetricsRegistry.persistenceStoreLatency("rrd4j");
+
+    private final LatencyHistogram queryLatency = MetricsRegistry.persistenceQueryLatency("rrd4j");
+
     private Map<String, ScheduledFuture<?>> scheduledJobs = new HashMap<String, ScheduledFuture<?>>();
 
     protected ItemRegistry itemRegistry;
@@ -102,6 +108,15 @@ public class RRD4jService implements QueryablePersistenceService {
      */
     @Override
     public synchronized void store(final Item item, final String alias) {
+        long start = System.nanoTime();
+        try {
+            internalStore(item, alias);
+        } finally {
+            storeLatency.recordSince(start);
+        }
+    }
+
+    private void internalStore(final Item item, final String alias) {
         final String name = alias == null ? item.getName() : alias;
         RrdDb db = getDB(name);
         if (db != null) {
@@ -189,6 +204,15 @@ public class RRD4jService implements QueryablePersistenceService {
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
+        long start = System.nanoTime();
+        try {
+            return internalQuery(filter);
+        } finally {
+            queryLatency.recordSince(start);
+        }
+    }
+
+    private Iterable<HistoricItem> internalQuery(FilterCriteria filter) {
         String itemName = filter.getItemName();
         RrdDb db = getDB(itemName);
         if (db != null) {